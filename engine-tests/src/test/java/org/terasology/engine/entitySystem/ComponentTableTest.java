@@ -0,0 +1,178 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.terasology.engine.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.ComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.MapComponentTable;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.unittest.stubs.EntityRefComponent;
+import org.terasology.unittest.stubs.IntegerComponent;
+import org.terasology.unittest.stubs.StringComponent;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ComponentTableTest {
+
+    private static final Class<? extends Component>[] STRING_AND_INTEGER = classes(StringComponent.class,
+            IntegerComponent.class);
+
+    static Stream<Arguments> tables() {
+        return Stream.of(
+                Arguments.of(new MapComponentTable()),
+                Arguments.of(new ArchetypeComponentTable()));
+    }
+
+    @SafeVarargs
+    private static Class<? extends Component>[] classes(Class<? extends Component>... componentClasses) {
+        return componentClasses;
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testPutGetAndReplace(ComponentTable table) {
+        StringComponent first = new StringComponent("first");
+        StringComponent second = new StringComponent("second");
+        IntegerComponent integer = new IntegerComponent(3);
+
+        assertNull(table.put(1, first));
+        assertNull(table.put(1, integer));
+        assertSame(first, table.put(1, second));
+
+        assertSame(second, table.get(1, StringComponent.class));
+        assertSame(integer, table.get(1, IntegerComponent.class));
+        assertNull(table.get(1, EntityRefComponent.class));
+        assertNull(table.get(2, StringComponent.class));
+        assertEquals(2, table.getComponentsInNewList(1).size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testRemoveComponentKeepsOthers(ComponentTable table) {
+        StringComponent string = new StringComponent("value");
+        IntegerComponent integer = new IntegerComponent(3);
+        table.put(1, string);
+        table.put(1, integer);
+        table.put(2, new StringComponent("other"));
+
+        assertSame(string, table.remove(1, StringComponent.class));
+        assertNull(table.remove(1, StringComponent.class));
+        assertNull(table.get(1, StringComponent.class));
+        assertSame(integer, table.get(1, IntegerComponent.class));
+        assertEquals("other", table.get(2, StringComponent.class).value);
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testRemoveEntity(ComponentTable table) {
+        table.put(1, new StringComponent("a"));
+        table.put(1, new IntegerComponent(1));
+        table.put(2, new StringComponent("b"));
+
+        assertEquals(2, table.removeAndReturnComponentsOf(1).size());
+        assertNull(table.get(1, StringComponent.class));
+        assertEquals("b", table.get(2, StringComponent.class).value);
+        assertEquals(1, table.numEntities());
+
+        table.remove(2);
+        assertEquals(0, table.numEntities());
+        assertFalse(table.entityIdIterator().hasNext());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testQueries(ComponentTable table) {
+        for (long id = 1; id <= 100; id++) {
+            table.put(id, new StringComponent(Long.toString(id)));
+            if (id % 2 == 0) {
+                table.put(id, new IntegerComponent((int) id));
+            }
+            if (id % 3 == 0) {
+                table.put(id, new EntityRefComponent());
+            }
+        }
+
+        assertEquals(100, table.numEntities());
+        assertEquals(50, table.numEntitiesWith(STRING_AND_INTEGER));
+        assertEquals(16, table.numEntitiesWith(classes(IntegerComponent.class, EntityRefComponent.class)));
+
+        TLongSet ids = collect(table.entityIdIterator(STRING_AND_INTEGER));
+        assertEquals(50, ids.size());
+        for (long id = 2; id <= 100; id += 2) {
+            assertTrue(ids.contains(id));
+        }
+
+        int count = 0;
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.key(), iterator.value().value);
+            count++;
+        }
+        assertEquals(50, count);
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testQuerySkipsEntitiesChangedWhileIterating(ComponentTable table) {
+        for (long id = 1; id <= 10; id++) {
+            table.put(id, new StringComponent());
+            table.put(id, new IntegerComponent());
+        }
+
+        TLongSet visited = new TLongHashSet();
+        long first = 0;
+        TLongIterator iterator = table.entityIdIterator(STRING_AND_INTEGER);
+        while (iterator.hasNext()) {
+            long id = iterator.next();
+            if (visited.isEmpty()) {
+                first = id;
+                for (long other = 2; other <= 10; other += 2) {
+                    if (other != first) {
+                        table.remove(other, IntegerComponent.class);
+                    }
+                }
+            }
+            visited.add(id);
+            table.put(id + 100, new StringComponent());
+            table.put(id + 100, new IntegerComponent());
+        }
+
+        for (long id = 1; id <= 10; id++) {
+            assertEquals(id % 2 == 1 || id == first, visited.contains(id), "Entity " + id);
+        }
+        assertEquals(first % 2 == 0 ? 6 : 5, visited.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tables")
+    public void testQueryForUnknownComponent(ComponentTable table) {
+        table.put(1, new StringComponent());
+
+        assertFalse(table.entityIdIterator(classes(IntegerComponent.class)).hasNext());
+        assertEquals(0, table.numEntitiesWith(STRING_AND_INTEGER));
+        assertNull(table.componentIterator(IntegerComponent.class));
+    }
+
+    private static TLongSet collect(TLongIterator iterator) {
+        TLongSet ids = new TLongHashSet();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+}
@@ -2,10 +2,12 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.entitySystem;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.context.internal.ContextImpl;
 import org.terasology.engine.core.bootstrap.EntitySystemSetupUtil;
@@ -33,6 +35,7 @@
 import org.terasology.gestalt.assets.management.AssetManager;
 import org.terasology.gestalt.assets.module.ModuleAwareAssetTypeManager;
 import org.terasology.gestalt.assets.module.ModuleAwareAssetTypeManagerImpl;
+import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.unittest.stubs.EntityRefComponent;
 import org.terasology.unittest.stubs.IntegerComponent;
 import org.terasology.unittest.stubs.StringComponent;
@@ -47,6 +50,8 @@
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -270,6 +275,58 @@ public void testIterateEntitiesFindsEntityWithTwoComponents() {
         assertEquals(Lists.newArrayList(entity1), results);
     }
 
+    @Test
+    public void testQueryForTwoComponentsFollowsChanges() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityRef entity2 = entityManager.create(new StringComponent());
+        assertEquals(1, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+
+        entity2.addComponent(new IntegerComponent());
+        assertEquals(2, entityManager.getCountOfEntitiesWith(IntegerComponent.class, StringComponent.class));
+
+        entity1.removeComponent(StringComponent.class);
+        assertEquals(Lists.newArrayList(entity2),
+                Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+
+        entity2.destroy();
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
+
+    @Test
+    public void testQueryForTwoComponentsFindsEntityInActivationHandler() {
+        EntityRef entity1 = entityManager.create(new StringComponent());
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+        List<Integer> counts = Lists.newArrayList();
+        EventSystem eventSystem = mock(EventSystem.class);
+        Answer<Void> query = invocation -> {
+            counts.add(Iterables.size(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+            return null;
+        };
+        doAnswer(query).when(eventSystem).send(any(EntityRef.class), any(OnActivatedComponent.class));
+        doAnswer(query).when(eventSystem).send(any(EntityRef.class), any(OnActivatedComponent.class),
+                any(Component.class));
+        entityManager.setEventSystem(eventSystem);
+
+        entityManager.create(new StringComponent(), new IntegerComponent());
+        entity1.saveComponent(new IntegerComponent());
+
+        assertEquals(Lists.newArrayList(1, 2), counts);
+    }
+
+    @Test
+    public void testQueryForTwoComponentsSkipsEntitiesChangedDuringIteration() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityRef entity2 = entityManager.create(new StringComponent(), new IntegerComponent());
+
+        List<EntityRef> results = Lists.newArrayList();
+        for (EntityRef entity : entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)) {
+            results.add(entity);
+            (entity == entity1 ? entity2 : entity1).removeComponent(IntegerComponent.class);
+        }
+        assertEquals(1, results.size());
+        assertEquals(1, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
+
     @Test
     public void testIterateWithNoComponents() {
         List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class));
@@ -399,4 +456,15 @@ public void testMoveToPool() {
         assertTrue(pool2.contains(id));
         assertFalse(pool1.contains(id));
     }
+
+    @Test
+    public void testQueryForTwoComponentsFollowsMoveToPool() {
+        EntityRef entity = entityManager.create(new StringComponent(), new IntegerComponent());
+        PojoEntityPool pool = new PojoEntityPool(entityManager);
+        assertEquals(0, pool.getCountOfEntitiesWith(new Class[]{StringComponent.class, IntegerComponent.class}));
+
+        assertTrue(entityManager.moveToPool(entity.getId(), pool));
+        assertEquals(1, pool.getCountOfEntitiesWith(new Class[]{StringComponent.class, IntegerComponent.class}));
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
 }
@@ -190,6 +190,47 @@ public void testEventReceiverRegistration() {
         assertEquals(1, receiver.eventList.size());
     }
 
+    @Test
+    public void testComponentParametersArePassed() {
+        StringComponent stringComponent = entity.addComponent(new StringComponent("value"));
+        IntegerComponent integerComponent = entity.addComponent(new IntegerComponent(3));
+
+        TestComponentParameterEventHandler handler = new TestComponentParameterEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedStrings.size());
+        assertEquals(stringComponent, handler.receivedStrings.get(0));
+        assertEquals(integerComponent, handler.receivedIntegers.get(0));
+    }
+
+    @Test
+    public void testHandlersChangedAfterSend() {
+        entity.addComponent(new StringComponent());
+        entity.send(new TestEvent());
+
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testHandlerSelectionHappensBeforeDispatch() {
+        TestComponentAddingEventHandler handler = new TestComponentAddingEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(0, handler.receivedWithComponent);
+
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedWithComponent);
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
@@ -311,6 +352,35 @@ public Received(TestEvent event, EntityRef entity) {
         }
     }
 
+    public static class TestComponentParameterEventHandler extends BaseComponentSystem {
+
+        List<StringComponent> receivedStrings = Lists.newArrayList();
+        List<IntegerComponent> receivedIntegers = Lists.newArrayList();
+
+        @ReceiveEvent
+        public void handleEvent(TestEvent event, EntityRef entity, StringComponent string, IntegerComponent integer) {
+            receivedStrings.add(string);
+            receivedIntegers.add(integer);
+        }
+    }
+
+    public static class TestComponentAddingEventHandler extends BaseComponentSystem {
+
+        int receivedWithComponent;
+
+        @ReceiveEvent(priority = EventPriority.PRIORITY_HIGH)
+        public void addComponent(TestEvent event, EntityRef entity) {
+            if (!entity.hasComponent(StringComponent.class)) {
+                entity.addComponent(new StringComponent());
+            }
+        }
+
+        @ReceiveEvent(components = StringComponent.class)
+        public void handleWithComponent(TestEvent event, EntityRef entity) {
+            receivedWithComponent++;
+        }
+    }
+
     public static class TestEventReceiver implements EventReceiver<TestEvent> {
         List<Event> eventList = Lists.newArrayList();
 
@@ -0,0 +1,116 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.EntityCommandBuffer;
+import org.terasology.engine.entitySystem.systems.ParallelUpdate;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.entitySystem.systems.internal.SystemUpdateScheduler;
+import org.terasology.unittest.stubs.IntegerComponent;
+import org.terasology.unittest.stubs.StringComponent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class SystemUpdateSchedulerTest {
+
+    private final List<String> log = Collections.synchronizedList(Lists.newArrayList());
+    private final Thread mainThread = Thread.currentThread();
+
+    private SystemUpdateScheduler createScheduler(boolean parallel) {
+        return new SystemUpdateScheduler(mock(EntityManager.class), new ForkJoinPool(4), parallel);
+    }
+
+    @Test
+    public void testChangesAreAppliedAtSyncPoint() {
+        SystemUpdateScheduler scheduler = createScheduler(true);
+        EntityCommandBuffer commandBuffer = scheduler.getCommandBuffer();
+        StringWriter writer = new StringWriter(commandBuffer);
+        MainThreadSystem mainThreadSystem = new MainThreadSystem();
+
+        scheduler.update(Lists.newArrayList(writer, mainThreadSystem), 0.1f);
+
+        assertEquals(Lists.newArrayList("StringWriter", "change", "MainThreadSystem"), log);
+        assertNotSame(mainThread, writer.updatedBy);
+        assertSame(mainThread, mainThreadSystem.updatedBy);
+    }
+
+    @Test
+    public void testConflictingSystemsKeepTheirOrder() {
+        SystemUpdateScheduler scheduler = createScheduler(true);
+        List<UpdateSubscriberSystem> systems = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            systems.add(new StringWriter(scheduler.getCommandBuffer()));
+            systems.add(new StringReader());
+        }
+
+        scheduler.update(systems, 0.1f);
+
+        List<String> expected = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            expected.add("StringWriter");
+            expected.add("StringReader");
+        }
+        expected.addAll(Collections.nCopies(10, "change"));
+        assertEquals(expected, log);
+    }
+
+    @Test
+    public void testSystemsRunOnMainThreadWhenDisabled() {
+        SystemUpdateScheduler scheduler = createScheduler(false);
+        StringWriter writer = new StringWriter(scheduler.getCommandBuffer());
+        IntegerWriter integerWriter = new IntegerWriter();
+
+        scheduler.update(Lists.newArrayList(writer, integerWriter), 0.1f);
+
+        assertEquals(Lists.newArrayList("StringWriter", "change", "IntegerWriter"), log);
+        assertSame(mainThread, writer.updatedBy);
+        assertSame(mainThread, integerWriter.updatedBy);
+    }
+
+    private abstract class LoggingSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+        private Thread updatedBy;
+
+        @Override
+        public void update(float delta) {
+            updatedBy = Thread.currentThread();
+            log.add(getClass().getSimpleName());
+        }
+    }
+
+    @ParallelUpdate(writes = StringComponent.class)
+    private class StringWriter extends LoggingSystem {
+        private final EntityCommandBuffer commandBuffer;
+
+        StringWriter(EntityCommandBuffer commandBuffer) {
+            this.commandBuffer = commandBuffer;
+        }
+
+        @Override
+        public void update(float delta) {
+            super.update(delta);
+            commandBuffer.run(() -> log.add("change"));
+        }
+    }
+
+    @ParallelUpdate(reads = StringComponent.class)
+    private class StringReader extends LoggingSystem {
+    }
+
+    @ParallelUpdate(writes = IntegerComponent.class)
+    private class IntegerWriter extends LoggingSystem {
+    }
+
+    private class MainThreadSystem extends LoggingSystem {
+    }
+}
@@ -0,0 +1,157 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.protobuf.EntityData;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkStreamerTest {
+
+    private static final int PAYLOAD_VALUES = 100;
+    private static final int UNLIMITED = Integer.MAX_VALUE / 2;
+
+    private final ChunkStreamer streamer = new ChunkStreamer(Runnable::run);
+    private final List<Vector3i> sent = Lists.newArrayList();
+    private int chunkSize;
+
+    private void add(int x, int y, int z) {
+        Vector3i pos = new Vector3i(x, y, z);
+        EntityData.RunLengthEncoding16.Builder blockData = EntityData.RunLengthEncoding16.newBuilder();
+        for (int i = 0; i < PAYLOAD_VALUES; i++) {
+            blockData.addValues(i);
+        }
+        EntityData.ChunkStore.Builder store = EntityData.ChunkStore.newBuilder()
+                .setX(x).setY(y).setZ(z).setBlockData(blockData);
+        chunkSize = store.build().getSerializedSize();
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.encodeLater()).thenReturn(() -> store);
+        streamer.add(pos, chunk);
+    }
+
+    private void update(int byteBudget) {
+        streamer.update(byteBudget, (pos, store) -> {
+            assertEquals(pos, new Vector3i(store.getX(), store.getY(), store.getZ()));
+            sent.add(pos);
+        });
+    }
+
+    @Test
+    public void testNearestChunksSentFirst() {
+        streamer.setViewpoint(new Vector3i(), new Vector3f());
+        add(5, 0, 0);
+        add(0, 1, 0);
+        add(0, 0, -3);
+
+        update(UNLIMITED);
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 1, 0), new Vector3i(0, 0, -3), new Vector3i(5, 0, 0)), sent);
+        assertTrue(streamer.isEmpty());
+    }
+
+    @Test
+    public void testChunksInViewSentFirst() {
+        streamer.setViewpoint(new Vector3i(), new Vector3f(1, 0, 0));
+        add(-2, 0, 0);
+        add(3, 0, 0);
+        add(0, 0, 1);
+
+        update(UNLIMITED);
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 1), new Vector3i(3, 0, 0), new Vector3i(-2, 0, 0)), sent);
+    }
+
+    @Test
+    public void testChunksReorderedWhenViewpointMoves() {
+        streamer.setViewpoint(new Vector3i(4, 0, 0), new Vector3f());
+        add(5, 0, 0);
+        add(-5, 0, 0);
+        streamer.setViewpoint(new Vector3i(-4, 0, 0), new Vector3f());
+
+        update(UNLIMITED);
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i(-5, 0, 0), new Vector3i(5, 0, 0)), sent);
+    }
+
+    @Test
+    public void testChunksReorderedWhenViewpointTurns() {
+        streamer.setViewpoint(new Vector3i(), new Vector3f(1, 0, 0));
+        add(4, 0, 0);
+        add(-3, 0, 0);
+        streamer.setViewpoint(new Vector3i(), new Vector3f(-1, 0, 0));
+
+        update(UNLIMITED);
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i(-3, 0, 0), new Vector3i(4, 0, 0)), sent);
+    }
+
+    @Test
+    public void testChunksLimitedByByteBudget() {
+        for (int x = 0; x < 6; x++) {
+            add(x, 0, 0);
+        }
+        update(2 * chunkSize);
+        assertEquals(0, sent.size());
+
+        update(2 * chunkSize);
+        assertEquals(2, sent.size());
+        update(2 * chunkSize);
+        assertEquals(4, sent.size());
+        update(2 * chunkSize);
+        assertEquals(6, sent.size());
+    }
+
+    @Test
+    public void testChunkLargerThanBudgetUsesLaterTicks() {
+        add(0, 0, 0);
+        add(1, 0, 0);
+        int budget = chunkSize / 2;
+        update(budget);
+
+        update(budget);
+        assertEquals(1, sent.size());
+        update(budget);
+        assertEquals(1, sent.size());
+        update(budget);
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void testRemovedChunksNotSent() {
+        add(0, 0, 0);
+        add(1, 0, 0);
+        add(2, 0, 0);
+        streamer.remove(new Vector3i(1, 0, 0));
+        update(UNLIMITED);
+        streamer.remove(new Vector3i(2, 0, 0));
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i()), sent);
+        assertTrue(streamer.isEmpty());
+    }
+
+    @Test
+    public void testReaddedChunkSentOnce() {
+        add(0, 0, 0);
+        add(0, 0, 0);
+        update(UNLIMITED);
+        update(UNLIMITED);
+
+        assertEquals(Lists.newArrayList(new Vector3i()), sent);
+    }
+}
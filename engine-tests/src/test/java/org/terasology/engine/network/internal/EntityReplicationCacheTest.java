@@ -0,0 +1,110 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.protobuf.EntityData;
+import org.terasology.unittest.stubs.IntegerComponent;
+import org.terasology.unittest.stubs.StringComponent;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class EntityReplicationCacheTest {
+
+    private static final Set<Class<? extends Component>> NONE = ImmutableSet.of();
+    private static final Set<Class<? extends Component>> STRING = ImmutableSet.of(StringComponent.class);
+
+    private final EntityReplicationCache cache = new EntityReplicationCache();
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    private Supplier<EntityData.PackedEntity> serializer(EntityData.PackedEntity result) {
+        return () -> {
+            serializations.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static EntityData.PackedEntity packed(long id) {
+        return EntityData.PackedEntity.newBuilder().setId(id).build();
+    }
+
+    @Test
+    public void testDeltaSerializedOnceForAllClients() {
+        EntityData.PackedEntity data = packed(1);
+        for (int client = 0; client < 10; client++) {
+            assertSame(data, cache.getDelta(1, false, NONE, STRING, NONE, serializer(data)));
+        }
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    public void testOwnerAndInitialCachedSeparately() {
+        EntityData.PackedEntity other = packed(1);
+        EntityData.PackedEntity owner = packed(2);
+        EntityData.PackedEntity initial = packed(3);
+
+        assertSame(other, cache.getDelta(1, false, NONE, STRING, NONE, serializer(other)));
+        assertSame(owner, cache.getDelta(1, true, NONE, STRING, NONE, serializer(owner)));
+        assertSame(initial, cache.getInitial(1, false, serializer(initial)));
+        assertSame(other, cache.getDelta(1, false, NONE, STRING, NONE, serializer(packed(4))));
+        assertSame(owner, cache.getDelta(1, true, NONE, STRING, NONE, serializer(packed(4))));
+        assertSame(initial, cache.getInitial(1, false, serializer(packed(4))));
+        assertEquals(3, serializations.get());
+    }
+
+    @Test
+    public void testDeltasWithDifferentComponentsCachedSeparately() {
+        Set<Class<? extends Component>> stringAndInteger = Sets.newLinkedHashSet();
+        stringAndInteger.add(IntegerComponent.class);
+        stringAndInteger.add(StringComponent.class);
+
+        cache.getDelta(1, false, NONE, STRING, NONE, serializer(packed(1)));
+        cache.getDelta(1, false, NONE, stringAndInteger, NONE, serializer(packed(2)));
+        cache.getDelta(1, false, STRING, NONE, NONE, serializer(packed(3)));
+        cache.getDelta(1, false, NONE, NONE, STRING, serializer(packed(4)));
+        assertEquals(4, serializations.get());
+
+        stringAndInteger.remove(IntegerComponent.class);
+        cache.getDelta(1, false, NONE, stringAndInteger, NONE, serializer(packed(5)));
+        assertEquals(4, serializations.get());
+    }
+
+    @Test
+    public void testEmptyDeltaCached() {
+        assertNull(cache.getDelta(1, false, NONE, STRING, NONE, serializer(null)));
+        assertNull(cache.getDelta(1, false, NONE, STRING, NONE, serializer(packed(1))));
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    public void testInvalidateOnlyAffectsEntity() {
+        EntityData.PackedEntity second = packed(2);
+        cache.getInitial(1, false, serializer(packed(1)));
+        cache.getInitial(2, false, serializer(second));
+
+        cache.invalidate(1);
+        EntityData.PackedEntity changed = packed(3);
+        assertSame(changed, cache.getInitial(1, false, serializer(changed)));
+        assertSame(second, cache.getInitial(2, false, serializer(packed(4))));
+        assertEquals(3, serializations.get());
+    }
+
+    @Test
+    public void testClear() {
+        cache.getInitial(1, false, serializer(packed(1)));
+        cache.clear();
+        EntityData.PackedEntity next = packed(2);
+        assertSame(next, cache.getInitial(1, false, serializer(next)));
+        assertEquals(2, serializations.get());
+    }
+}
@@ -0,0 +1,248 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.TerasologyTestingEnvironment;
+import org.terasology.engine.core.ComponentSystemManager;
+import org.terasology.engine.core.EngineTime;
+import org.terasology.engine.core.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.core.module.ModuleManager;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.entitySystem.metadata.EventLibrary;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.testUtil.ModuleManagerFactory;
+import org.terasology.engine.world.BlockEntityRegistry;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("TteTest")
+public class NetworkInterestTest extends TerasologyTestingEnvironment {
+
+    private static final int CLIENT_COUNT = 40;
+    private static final int ENTITIES_PER_CLIENT = 10;
+    private static final int REGION_SPACING = 10;
+
+    private static EngineEntityManager entityManager;
+    private NetworkSystemImpl networkSystem;
+    private EngineTime time;
+    private long currentTime;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+        context.put(ModuleManager.class, moduleManager);
+        time = mock(EngineTime.class);
+        networkSystem = new NetworkSystemImpl(time, context);
+        networkSystem.setContext(context);
+        context.put(NetworkSystem.class, networkSystem);
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = (PojoEntityManager) context.get(EntityManager.class);
+        context.put(ComponentSystemManager.class, new ComponentSystemManager(context));
+        entityManager.clear();
+        networkSystem.mockHost();
+        networkSystem.connectToEntitySystem(entityManager, context.get(EventLibrary.class), mock(BlockEntityRegistry.class));
+        context.put(ServerConnectListManager.class, new ServerConnectListManager(context));
+    }
+
+    /**
+     * Creates a client which has received the given chunks.
+     */
+    private NetClient createClient(String id, Set<Vector3i> relevantChunks) {
+        NetClient client = mock(NetClient.class);
+        NetworkComponent clientNetComp = new NetworkComponent();
+        clientNetComp.replicateMode = NetworkComponent.ReplicateMode.OWNER;
+        EntityRef clientEntity = entityManager.create(clientNetComp);
+        when(client.getEntity()).thenReturn(clientEntity);
+        when(client.getId()).thenReturn(id);
+        when(client.isRelevantChunk(any()))
+                .thenAnswer(invocation -> relevantChunks.contains(invocation.getArgument(0)));
+        networkSystem.registerNetworkEntity(clientEntity);
+        return client;
+    }
+
+    private void connectClients(NetClient... clients) {
+        for (NetClient client : clients) {
+            networkSystem.addClient(client);
+        }
+        networkSystem.update();
+    }
+
+    /**
+     * Advances time far enough for the next update to be a net tick which re-evaluates client interest.
+     */
+    private void tick() {
+        currentTime += 1000;
+        when(time.getRealTimeInMs()).thenReturn(currentTime);
+        networkSystem.update();
+    }
+
+    private EntityRef createEntityAt(Vector3i chunkPos) {
+        Vector3f worldPos = new Vector3f(
+                chunkPos.x * Chunks.SIZE_X + 1,
+                chunkPos.y * Chunks.SIZE_Y + 1,
+                chunkPos.z * Chunks.SIZE_Z + 1);
+        EntityRef entity = entityManager.create(new NetworkComponent(), new LocationComponent(worldPos));
+        networkSystem.registerNetworkEntity(entity);
+        return entity;
+    }
+
+    private static int netId(EntityRef entity) {
+        return entity.getComponent(NetworkComponent.class).getNetworkId();
+    }
+
+    @Test
+    public void testNewEntitySentOnlyToObservingClients() {
+        NetClient near = createClient("near", Sets.newHashSet(new Vector3i()));
+        NetClient far = createClient("far", Sets.newHashSet(new Vector3i(REGION_SPACING, 0, 0)));
+        connectClients(near, far);
+
+        EntityRef entity = createEntityAt(new Vector3i());
+
+        verify(near).setNetInitial(netId(entity));
+        verify(far, never()).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testExistingEntitySentOnlyToObservingClientOnConnect() {
+        EntityRef entity = createEntityAt(new Vector3i());
+        NetClient near = createClient("near", Sets.newHashSet(new Vector3i()));
+        NetClient far = createClient("far", Sets.newHashSet(new Vector3i(REGION_SPACING, 0, 0)));
+        connectClients(near, far);
+
+        verify(near).setNetInitial(netId(entity));
+        verify(far, never()).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testOwnedEntityFollowsOwnerPosition() {
+        NetClient near = createClient("near", Sets.newHashSet(new Vector3i()));
+        NetClient far = createClient("far", Sets.newHashSet(new Vector3i(REGION_SPACING, 0, 0)));
+        connectClients(near, far);
+        EntityRef owner = createEntityAt(new Vector3i());
+
+        EntityBuilder builder = entityManager.newBuilder();
+        builder.addComponent(new NetworkComponent());
+        builder.setOwner(owner);
+        EntityRef entity = builder.build();
+        networkSystem.registerNetworkEntity(entity);
+
+        verify(near).setNetInitial(netId(entity));
+        verify(far, never()).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testEntityWithoutLocationSentToAllClients() {
+        NetClient first = createClient("first", Sets.newHashSet());
+        NetClient second = createClient("second", Sets.newHashSet());
+        connectClients(first, second);
+
+        EntityRef entity = entityManager.create(new NetworkComponent());
+        networkSystem.registerNetworkEntity(entity);
+
+        verify(first).setNetInitial(netId(entity));
+        verify(second).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testInterestFollowsClientRegion() {
+        Set<Vector3i> relevantChunks = Sets.newHashSet();
+        NetClient client = createClient("client", relevantChunks);
+        connectClients(client);
+        EntityRef entity = createEntityAt(new Vector3i(1, 0, 0));
+        verify(client, never()).setNetInitial(netId(entity));
+
+        tick();
+        verify(client).updateInterest(netId(entity), false);
+
+        relevantChunks.add(new Vector3i(1, 0, 0));
+        tick();
+        verify(client).updateInterest(netId(entity), true);
+    }
+
+    @Test
+    public void testInterestFollowsEntityMovement() {
+        NetClient client = createClient("client", Sets.newHashSet(new Vector3i()));
+        connectClients(client);
+        EntityRef entity = createEntityAt(new Vector3i());
+
+        tick();
+        verify(client).updateInterest(netId(entity), true);
+
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(REGION_SPACING * Chunks.SIZE_X, 1, 1));
+        entity.saveComponent(location);
+        tick();
+        verify(client).updateInterest(netId(entity), false);
+    }
+
+    /**
+     * Simulates many clients spread over a large map, each with entities in its own region, and checks that every
+     * entity is only replicated to the one client observing it rather than to every client.
+     */
+    @Test
+    public void testManyClientsOnlyReceiveEntitiesInTheirRegion() {
+        List<NetClient> clients = Lists.newArrayList();
+        List<Vector3i> centers = Lists.newArrayList();
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            Vector3i center = new Vector3i(i * REGION_SPACING, 0, 0);
+            Set<Vector3i> region = Sets.newHashSet();
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 1; z++) {
+                    region.add(new Vector3i(center).add(x, 0, z));
+                }
+            }
+            centers.add(center);
+            clients.add(createClient("client" + i, region));
+        }
+        connectClients(clients.toArray(new NetClient[0]));
+
+        List<List<EntityRef>> entitiesByClient = Lists.newArrayList();
+        for (Vector3i center : centers) {
+            List<EntityRef> entities = Lists.newArrayList();
+            for (int i = 0; i < ENTITIES_PER_CLIENT; i++) {
+                entities.add(createEntityAt(new Vector3i(center).add(i % 3 - 1, 0, i / 3 % 3 - 1)));
+            }
+            entitiesByClient.add(entities);
+        }
+        tick();
+
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            NetClient client = clients.get(i);
+            // Each client also receives its own client entity
+            verify(client, times(ENTITIES_PER_CLIENT + 1)).setNetInitial(anyInt());
+            for (EntityRef entity : entitiesByClient.get(i)) {
+                verify(client).setNetInitial(netId(entity));
+                verify(client).updateInterest(netId(entity), true);
+            }
+            verify(client, times(ENTITIES_PER_CLIENT)).updateInterest(anyInt(), eq(true));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RegionChunkStorageTest {
+    private static final Vector3ic CHUNK_POS = new Vector3i(1, 2, 3);
+
+    private StoragePathProvider storagePathProvider;
+    private RegionChunkStorage storage;
+
+    @BeforeEach
+    public void setup(@TempDir Path savePath) throws IOException {
+        storagePathProvider = new StoragePathProvider(savePath);
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        storage = new RegionChunkStorage(storagePathProvider);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        storage.close();
+    }
+
+    private static byte[] data(int length, int seed) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) seed);
+        return data;
+    }
+
+    /**
+     * Saves the chunk the way a save transaction does, with the journals being moved into the world directory by the
+     * merge of the transaction.
+     */
+    private void save(Vector3ic chunkPos, byte[] data) throws IOException {
+        Files.createDirectories(storagePathProvider.getWorldTempPath());
+        storage.stage(chunkPos, data);
+        storage.writeJournals();
+        mergeJournals();
+        storage.applyJournals();
+    }
+
+    private List<Path> mergeJournals() throws IOException {
+        List<Path> journals;
+        try (Stream<Path> files = Files.list(storagePathProvider.getWorldTempPath())) {
+            journals = files.collect(Collectors.toList());
+        }
+        for (Path journal : journals) {
+            Files.move(journal, storagePathProvider.getWorldPath().resolve(journal.getFileName()));
+        }
+        return journals;
+    }
+
+    private Path getRegionPath(Vector3ic chunkPos) {
+        return storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+    }
+
+    @Test
+    public void testUnsavedChunkReturnsNothing() {
+        assertNull(storage.load(CHUNK_POS));
+    }
+
+    @Test
+    public void testSaveAndLoadChunks() throws IOException {
+        Vector3i negativePos = new Vector3i(-1, -17, 0);
+        save(CHUNK_POS, data(100, 1));
+        save(negativePos, data(10000, 2));
+
+        assertArrayEquals(data(100, 1), storage.load(CHUNK_POS));
+        assertArrayEquals(data(10000, 2), storage.load(negativePos));
+        storage.close();
+        assertArrayEquals(data(10000, 2), new RegionChunkStorage(storagePathProvider).load(negativePos));
+    }
+
+    @Test
+    public void testStagedChunkNotVisibleUntilJournalApplied() throws IOException {
+        save(CHUNK_POS, data(100, 1));
+        Files.createDirectories(storagePathProvider.getWorldTempPath());
+        storage.stage(CHUNK_POS, data(100, 2));
+        storage.writeJournals();
+        assertArrayEquals(data(100, 1), storage.load(CHUNK_POS));
+
+        mergeJournals();
+        storage.applyJournals();
+        assertArrayEquals(data(100, 2), storage.load(CHUNK_POS));
+    }
+
+    @Test
+    public void testSavingChunkRepeatedlyReusesSectors() throws IOException {
+        save(CHUNK_POS, data(3 * RegionFile.SECTOR_SIZE, 1));
+        save(CHUNK_POS, data(3 * RegionFile.SECTOR_SIZE, 2));
+        long size = Files.size(getRegionPath(CHUNK_POS));
+
+        for (int i = 3; i < 10; i++) {
+            save(CHUNK_POS, data(3 * RegionFile.SECTOR_SIZE, i));
+        }
+        assertEquals(size, Files.size(getRegionPath(CHUNK_POS)));
+        assertArrayEquals(data(3 * RegionFile.SECTOR_SIZE, 9), storage.load(CHUNK_POS));
+    }
+
+    @Test
+    public void testTornHeaderFallsBackToPreviousHeader() throws IOException {
+        Path path = getRegionPath(CHUNK_POS);
+        Files.createDirectories(path.getParent());
+        try (RegionFile region = RegionFile.open(path)) {
+            TIntLongMap entries = new TIntLongHashMap();
+            entries.put(0, region.write(data(100, 1)));
+            region.commit(entries);
+            entries.put(0, region.write(data(100, 2)));
+            region.commit(entries);
+            assertEquals(2, region.getGeneration());
+        }
+        // The second header went into the second slot, as if it had only partially been written
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(data(1000, 7)), RegionFile.getHeaderPosition(1) + 100);
+        }
+
+        try (RegionFile region = RegionFile.open(path)) {
+            assertEquals(1, region.getGeneration());
+            assertArrayEquals(data(100, 1), region.read(0));
+        }
+    }
+
+    @Test
+    public void testJournalCanBeAppliedAgain() throws IOException {
+        Files.createDirectories(storagePathProvider.getWorldTempPath());
+        storage.stage(CHUNK_POS, data(100, 1));
+        storage.writeJournals();
+        List<Path> journals = mergeJournals();
+        Path journal = storagePathProvider.getWorldPath().resolve(journals.get(0).getFileName());
+        byte[] journalContent = Files.readAllBytes(journal);
+        storage.applyJournals();
+        assertFalse(Files.exists(journal));
+
+        // As if the game stopped after committing the journal but before deleting it
+        Files.write(journal, journalContent);
+        storage.close();
+        RegionChunkStorage restarted = new RegionChunkStorage(storagePathProvider);
+        restarted.applyJournals();
+        assertArrayEquals(data(100, 1), restarted.load(CHUNK_POS));
+        restarted.close();
+    }
+
+    @Test
+    public void testChunkFilesImported() throws IOException {
+        Path chunkPath = storagePathProvider.getChunkPath(CHUNK_POS);
+        Files.write(chunkPath, data(100, 1));
+
+        assertEquals(1, storage.importChunks());
+        assertFalse(Files.exists(chunkPath));
+        assertArrayEquals(data(100, 1), storage.load(CHUNK_POS));
+    }
+}
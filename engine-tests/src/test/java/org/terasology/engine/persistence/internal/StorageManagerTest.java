@@ -67,6 +67,10 @@
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -312,6 +316,122 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void testOnlyChangedChunksAreSavedAgain() throws Exception {
+        ChunkImpl chunk = spy(new ChunkImpl(CHUNK_POS, blockManager, extraDataManager));
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        chunk.setBlock(0, 4, 2, testBlock2);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+        verify(chunk, times(2)).encode();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
+    @Test
+    public void testChunksReadFromDiskAreNotSavedAgainUnlessChanged() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        ChunkImpl restoredChunk = spy((ChunkImpl) restored.getChunk());
+        restoredChunk.markReady();
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(restoredChunk));
+
+        newSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        newSM.finishSavingAndShutdown();
+        verify(restoredChunk, never()).encode();
+    }
+
+    @Test
+    public void testChunkSurvivesStorageSaveAndRestoreInRegions() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageFormat(ChunkStorageFormat.REGIONS);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, ChunkStorageFormat.REGIONS, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
+    @Test
+    public void testZippedChunksMovedIntoRegions() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setStoreChunksInZips(true);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, ChunkStorageFormat.REGIONS, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.checkAndRepairSaveIfNecessary();
+        newSM.loadGlobalStore();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(CHUNK_POS);
+        assertFalse(Files.exists(storagePathProvider.getChunkZipPath(chunkZipPos)));
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+    }
+
     @Test
     public void testEntitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
@@ -0,0 +1,155 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.physics;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.physics.shapes.CollisionShape;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.joml.geom.AABBf;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockRaycasterTest {
+    private static final float EPSILON = 1e-4f;
+    private static final short WORLD = StandardCollisionGroup.WORLD.getFlag();
+    private static final short LIQUID = StandardCollisionGroup.LIQUID.getFlag();
+
+    private final Map<Vector3ic, Block> blocks = Maps.newHashMap();
+    private final Block air = new Block();
+    private final Block stone = new Block();
+    private final Block slab = new Block();
+    private final Block water = new Block();
+
+    private BlockRaycaster raycaster;
+    private BlockRaycaster.Hit hit;
+
+    @BeforeEach
+    public void setup() {
+        air.setId((short) 0);
+        air.setTargetable(false);
+        stone.setId((short) 1);
+        stone.setCollision(new Vector3f(), shape(new AABBf(-0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f)));
+        slab.setId((short) 2);
+        slab.setCollision(new Vector3f(), shape(new AABBf(-0.5f, -0.5f, -0.5f, 0.5f, 0f, 0.5f)));
+        water.setId((short) 3);
+        water.setTargetable(false);
+        water.setLiquid(true);
+        water.setCollision(new Vector3f(), shape(new AABBf(-0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f)));
+
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getChunk(any(Vector3ic.class))).then(invocation -> {
+            Vector3i chunkPos = new Vector3i((Vector3ic) invocation.getArgument(0));
+            Chunk chunk = mock(Chunk.class);
+            when(chunk.getBlock(anyInt(), anyInt(), anyInt())).then(blockInvocation -> {
+                Vector3i pos = new Vector3i(blockInvocation.getArgument(0, Integer.class),
+                        blockInvocation.getArgument(1, Integer.class), blockInvocation.getArgument(2, Integer.class));
+                pos.add(chunkPos.x * Chunks.SIZE_X, chunkPos.y * Chunks.SIZE_Y, chunkPos.z * Chunks.SIZE_Z);
+                return blocks.getOrDefault(pos, air);
+            });
+            return chunk;
+        });
+        raycaster = new BlockRaycaster(chunkProvider);
+        hit = new BlockRaycaster.Hit();
+    }
+
+    private static CollisionShape shape(AABBf bounds) {
+        CollisionShape shape = mock(CollisionShape.class);
+        when(shape.getAABB(any(), any(), anyFloat())).thenReturn(bounds);
+        return shape;
+    }
+
+    @Test
+    public void testHitsFaceOfBlock() {
+        blocks.put(new Vector3i(5, 0, 0), stone);
+
+        assertTrue(raycaster.raycast(new Vector3f(), new Vector3f(2, 0, 0), 10, WORLD, hit));
+
+        assertSame(stone, hit.getBlock());
+        assertEquals(new Vector3i(5, 0, 0), hit.getBlockPosition());
+        assertEquals(4.5f, hit.getDistance(), EPSILON);
+        assertTrue(hit.getHitPoint().equals(new Vector3f(4.5f, 0, 0), EPSILON));
+        assertEquals(new Vector3f(-1, 0, 0), hit.getHitNormal());
+    }
+
+    @Test
+    public void testCrossesChunksInNegativeDirection() {
+        Vector3i target = new Vector3i(-40, 3, -70);
+        blocks.put(target, stone);
+        Vector3f from = new Vector3f(0.2f, 0.1f, -0.3f);
+        Vector3f direction = new Vector3f(target).sub(from);
+
+        assertTrue(raycaster.raycast(from, direction, 100, WORLD, hit));
+
+        assertEquals(target, hit.getBlockPosition());
+        Vector3f normal = new Vector3f(hit.getHitNormal());
+        Vector3f face = new Vector3f(target).add(normal.mul(0.5f));
+        // the hit point lies on the face the normal points out of
+        int axis = hit.getHitNormal().x() != 0 ? 0 : (hit.getHitNormal().y() != 0 ? 1 : 2);
+        assertEquals(face.get(axis), hit.getHitPoint().get(axis), EPSILON);
+    }
+
+    @Test
+    public void testUsesCollisionBounds() {
+        blocks.put(new Vector3i(0, 0, 0), slab);
+
+        assertFalse(raycaster.raycast(new Vector3f(-3, 0.25f, 0), new Vector3f(1, 0, 0), 10, WORLD, hit));
+        assertTrue(raycaster.raycast(new Vector3f(0, 5, 0), new Vector3f(0, -1, 0), 10, WORLD, hit));
+        assertEquals(5, hit.getDistance(), EPSILON);
+        assertEquals(new Vector3f(0, 1, 0), hit.getHitNormal());
+    }
+
+    @Test
+    public void testRespectsFilterAndDistance() {
+        blocks.put(new Vector3i(3, 0, 0), water);
+        blocks.put(new Vector3i(6, 0, 0), stone);
+        Vector3f direction = new Vector3f(1, 0, 0);
+
+        assertTrue(raycaster.raycast(new Vector3f(), direction, 10, WORLD, hit));
+        assertSame(stone, hit.getBlock());
+        assertTrue(raycaster.raycast(new Vector3f(), direction, 10, LIQUID, hit));
+        assertSame(water, hit.getBlock());
+        assertFalse(raycaster.raycast(new Vector3f(), direction, 2, (short) (WORLD | LIQUID), hit));
+        assertFalse(hit.isHit());
+    }
+
+    @Test
+    public void testIgnoresBlockContainingOrigin() {
+        blocks.put(new Vector3i(0, 0, 0), stone);
+        blocks.put(new Vector3i(0, 0, 4), stone);
+
+        assertTrue(raycaster.raycast(new Vector3f(), new Vector3f(0, 0, 1), 10, WORLD, hit));
+        assertEquals(new Vector3i(0, 0, 4), hit.getBlockPosition());
+    }
+
+    @Test
+    public void testBatch() {
+        blocks.put(new Vector3i(0, 3, 0), stone);
+        float[] origins = {0, 0, 0, 0, 0, 0};
+        float[] directions = {0, 1, 0, 0, -1, 0};
+        float[] distances = {10, 10};
+        BlockRaycaster.Hit[] results = {new BlockRaycaster.Hit(), new BlockRaycaster.Hit()};
+
+        assertEquals(1, raycaster.raycast(origins, directions, distances, 2, WORLD, results));
+        assertTrue(results[0].isHit());
+        assertEquals(2.5f, results[0].getDistance(), EPSILON);
+        assertFalse(results[1].isHit());
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.physics;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.fixtures.TestBlockManager;
+
+import java.nio.ShortBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ChunkCollisionDataTest {
+    private final Block air = new Block();
+    private final Block stone = new Block();
+    private final Block dirt = new Block();
+
+    private Chunk chunk;
+
+    @BeforeEach
+    public void setup() {
+        air.setId((short) 0);
+        stone.setId((short) 1);
+        dirt.setId((short) 2);
+        chunk = new ChunkImpl(new Vector3i(), new TestBlockManager(air, stone, dirt), new ExtraBlockDataManager());
+    }
+
+    private static int index(int x, int y, int z) {
+        return (z * Chunks.SIZE_X + x) * Chunks.SIZE_Y + y;
+    }
+
+    @Test
+    public void testBuildOrdersVoxelsLikeTheVoxelWorld() {
+        chunk.setBlock(1, 2, 3, stone);
+        chunk.setBlock(Chunks.SIZE_X - 1, Chunks.SIZE_Y - 1, Chunks.SIZE_Z - 1, stone);
+
+        ChunkCollisionData collision = ChunkCollisionData.build(chunk);
+        ShortBuffer voxels = collision.getVoxels();
+
+        assertEquals(0, voxels.position());
+        assertEquals(Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z, voxels.remaining());
+        assertEquals(1, voxels.get(index(1, 2, 3)));
+        assertEquals(0, voxels.get(index(3, 2, 1)));
+        assertEquals(1, voxels.get(voxels.limit() - 1));
+        assertEquals(2, collision.getBlockTypes().size());
+    }
+
+    @Test
+    public void testPendingCollisionFollowsBlockChanges() {
+        ChunkCollisionData.prepare(chunk);
+        ChunkCollisionData collision = chunk.getPendingCollision();
+
+        chunk.setBlock(4, 5, 6, dirt);
+
+        assertEquals(2, collision.getVoxels().get(index(4, 5, 6)));
+        assertSame(dirt, collision.getBlockTypes().get(1));
+
+        chunk.setPendingCollision(null);
+        chunk.setBlock(4, 5, 6, stone);
+        assertEquals(2, collision.getVoxels().get(index(4, 5, 6)));
+        assertNull(chunk.getPendingCollision());
+    }
+}
@@ -0,0 +1,119 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.physics.bullet;
+
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.TerasologyTestingEnvironment;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.physics.ChunkCollisionData;
+import org.terasology.engine.physics.bullet.world.VoxelBlockWorld;
+import org.terasology.engine.physics.components.RigidBodyComponent;
+import org.terasology.engine.physics.components.shapes.BoxShapeComponent;
+import org.terasology.engine.physics.engine.PhysicsEngineManager;
+import org.terasology.engine.physics.shapes.CollisionShape;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.fixtures.TestBlockManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("TteTest")
+public class BulletPhysicsTest extends TerasologyTestingEnvironment {
+    private static final float TICK = 1f / 60;
+    private static final int FLOOR_HEIGHT = 8;
+
+    private final ExecutorService regionExecutor = Executors.newFixedThreadPool(2);
+    private final List<EntityRef> boxes = new ArrayList<>();
+    private BulletPhysics physics;
+
+    @BeforeEach
+    public void setupPhysics() {
+        CollisionShape cube = PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube();
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setCollision(new Vector3f(), cube);
+        air.setPenetrable(true);
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setCollision(new Vector3f(), cube);
+
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.isChunkReady(any(Vector3ic.class))).thenReturn(true);
+        context.put(ChunkProvider.class, chunkProvider);
+
+        physics = new BulletPhysics(regionExecutor);
+        VoxelBlockWorld voxelWorld = new VoxelBlockWorld(physics);
+        voxelWorld.registerBlock(air);
+        voxelWorld.registerBlock(stone);
+        TestBlockManager blockManager = new TestBlockManager(air, stone);
+        ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+        for (int chunkX = 0; chunkX < 2; chunkX++) {
+            for (int chunkZ = 0; chunkZ < 2; chunkZ++) {
+                Chunk chunk = new ChunkImpl(chunkX, 0, chunkZ, blockManager, extraDataManager);
+                for (int x = 0; x < Chunks.SIZE_X; x++) {
+                    for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                        for (int y = 0; y < FLOOR_HEIGHT; y++) {
+                            chunk.setBlock(x, y, z, stone);
+                        }
+                    }
+                }
+                voxelWorld.loadChunk(chunk, ChunkCollisionData.build(chunk).getVoxels());
+            }
+        }
+    }
+
+    @AfterEach
+    public void disposePhysics() {
+        physics.dispose();
+        regionExecutor.shutdown();
+    }
+
+    @Test
+    public void testBodiesFarFromCharactersSettleInRegionWorlds() {
+        // a grid of boxes within the first region, apart from each other and away from its borders
+        EngineEntityManager entityManager = context.get(EngineEntityManager.class);
+        for (int x = 10; x < 60; x += 8) {
+            for (int z = 10; z < 60; z += 8) {
+                BoxShapeComponent box = new BoxShapeComponent();
+                box.extents.set(0.5f);
+                EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(x, 20, z)),
+                        new RigidBodyComponent(), box);
+                physics.getRigidBody(entity);
+                boxes.add(entity);
+            }
+        }
+
+        for (int i = 0; i < 240; i++) {
+            physics.update(TICK);
+            physics.getCollisionPairs();
+        }
+
+        assertEquals(1, physics.getRegionWorldCount());
+        Vector3f position = new Vector3f();
+        for (EntityRef box : boxes) {
+            box.getComponent(LocationComponent.class).getWorldPosition(position);
+            assertTrue(position.y > FLOOR_HEIGHT && position.y < FLOOR_HEIGHT + 1,
+                    "box came to rest at " + position);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.TerasologyTestingEnvironment;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.rendering.assets.mesh.resource.BufferedResource;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.family.SymmetricFamily;
+import org.terasology.engine.world.block.internal.BlockManagerImpl;
+import org.terasology.engine.world.block.loader.BlockFamilyDefinition;
+import org.terasology.engine.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.engine.world.block.shapes.BlockShape;
+import org.terasology.engine.world.block.tiles.NullWorldAtlas;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.engine.world.internal.ChunkViewCoreImpl;
+import org.terasology.gestalt.assets.ResourceUrn;
+import org.terasology.gestalt.assets.management.AssetManager;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("TteTest")
+public class ChunkTessellatorTest extends TerasologyTestingEnvironment {
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+    private AssetManager assetManager;
+    private Block airBlock;
+    private Block stoneBlock;
+    private Block glassBlock;
+    private Block stairBlock;
+
+    @BeforeEach
+    public void setup() {
+        assetManager = CoreRegistry.get(AssetManager.class);
+        blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        extraDataManager = new ExtraBlockDataManager();
+
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+        stoneBlock = createBlock("stone", "engine:cube", false);
+        glassBlock = createBlock("glass", "engine:cube", true);
+        stairBlock = createBlock("stair", "engine:stair", false);
+    }
+
+    @Test
+    public void testBulkMeshMatchesPerBlockMesh() {
+        FastRandom random = new FastRandom(7);
+        Block[] blocks = {airBlock, airBlock, stoneBlock, glassBlock, stairBlock};
+        Chunk[] chunks = new Chunk[27];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk chunk = new ChunkImpl(new Vector3i(i % 3, i / 9, (i / 3) % 3), blockManager, extraDataManager);
+            for (int x = 0; x < Chunks.SIZE_X; x++) {
+                for (int y = 0; y < Chunks.SIZE_Y; y++) {
+                    for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                        chunk.setBlock(x, y, z, blocks[random.nextInt(blocks.length)]);
+                        chunk.setSunlight(x, y, z, (byte) random.nextInt(16));
+                        chunk.setLight(x, y, z, (byte) random.nextInt(4));
+                    }
+                }
+            }
+            chunks[i] = chunk;
+        }
+        ChunkView view = new ChunkViewCoreImpl(chunks, new BlockRegion(0, 0, 0, 2, 2, 2), new Vector3i(1, 1, 1),
+                airBlock);
+
+        ChunkMesh perBlockMesh = new ChunkTessellator(ChunkTessellator.Mode.PER_BLOCK).generateMesh(view);
+        ChunkMesh bulkMesh = new ChunkTessellator(ChunkTessellator.Mode.BULK).generateMesh(view);
+
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements expected = perBlockMesh.getVertexElements(type);
+            ChunkMesh.VertexElements actual = bulkMesh.getVertexElements(type);
+            assertEquals(expected.vertexCount, actual.vertexCount);
+            assertEquals(contents(expected.buffer), contents(actual.buffer));
+            assertEquals(contents(expected.indices), contents(actual.indices));
+        }
+    }
+
+    @Test
+    public void testGreedyMeshMergesFlatGround() {
+        Chunk chunk = new ChunkImpl(new Vector3i(), blockManager, extraDataManager);
+        for (int x = 0; x < Chunks.SIZE_X; x++) {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                chunk.setBlock(x, 0, z, stoneBlock);
+                for (int y = 1; y < Chunks.SIZE_Y; y++) {
+                    chunk.setSunlight(x, y, z, (byte) 15);
+                }
+            }
+        }
+        ChunkView view = new ChunkViewCoreImpl(new Chunk[]{chunk}, new BlockRegion(0, 0, 0), new Vector3i(), airBlock);
+
+        int bulkVertices = new ChunkTessellator(ChunkTessellator.Mode.BULK).generateMesh(view)
+                .getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        int greedyVertices = new ChunkTessellator(ChunkTessellator.Mode.GREEDY).generateMesh(view)
+                .getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+
+        assertEquals(4 * (2 * Chunks.SIZE_X * Chunks.SIZE_Z + 4 * Chunks.SIZE_X), bulkVertices);
+        assertTrue(greedyVertices * 10 < bulkVertices, "greedy mesh has " + greedyVertices + " vertices");
+    }
+
+    private Block createBlock(String name, String shape, boolean translucent) {
+        BlockFamilyDefinitionData data = new BlockFamilyDefinitionData();
+        data.getBaseSection().setDisplayName(name);
+        data.getBaseSection().setShape(assetManager.getAsset(shape, BlockShape.class).get());
+        data.getBaseSection().setTranslucent(translucent);
+        data.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:" + name), data, BlockFamilyDefinition.class);
+        return blockManager.getBlock(new BlockUri(new ResourceUrn("engine:" + name)));
+    }
+
+    private static ByteBuffer contents(BufferedResource resource) {
+        ByteBuffer[] contents = new ByteBuffer[1];
+        resource.writeBuffer(buffer -> contents[0] = buffer.slice());
+        return contents[0];
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.joml.geom.AABBf;
+import org.terasology.joml.geom.AABBfc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkMeshSchedulerTest {
+
+    private final List<String> log = Collections.synchronizedList(Lists.newArrayList());
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private ChunkMeshScheduler scheduler;
+
+    @BeforeEach
+    public void setup() throws InterruptedException {
+        scheduler = new ChunkMeshScheduler(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("blocker", bounds(0), false, () -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testOnlyNewestJobIsRun() throws InterruptedException {
+        scheduler.submit("chunk", bounds(0), false, () -> log.add("old"));
+        scheduler.submit("chunk", bounds(0), false, () -> log.add("new"));
+        assertEquals(1, scheduler.getQueueDepth());
+
+        runAll();
+
+        assertEquals(Lists.newArrayList("new"), log);
+    }
+
+    @Test
+    public void testCancelledJobIsNotRun() throws InterruptedException {
+        scheduler.submit("chunk", bounds(0), false, () -> log.add("chunk"));
+        scheduler.submit("lod", bounds(0), true, () -> log.add("lod"));
+        assertEquals(1, scheduler.getLodQueueDepth());
+
+        assertTrue(scheduler.cancel("chunk"));
+        assertFalse(scheduler.cancel("chunk"));
+        assertFalse(scheduler.isPending("chunk"));
+
+        runAll();
+
+        assertEquals(Lists.newArrayList("lod"), log);
+    }
+
+    @Test
+    public void testVisibleAndNearJobsRunFirst() throws InterruptedException {
+        AABBfc hidden = bounds(0);
+        Camera camera = mock(Camera.class);
+        when(camera.getPosition()).thenReturn(new Vector3f());
+        when(camera.hasInSight(any())).thenAnswer(invocation -> invocation.getArgument(0) != hidden);
+
+        scheduler.submit("hidden", hidden, false, () -> log.add("hidden"));
+        scheduler.submit("far", bounds(100), false, () -> log.add("far"));
+        scheduler.submit("near", bounds(10), false, () -> log.add("near"));
+        scheduler.updatePriorities(camera);
+
+        runAll();
+
+        assertEquals(Lists.newArrayList("near", "far", "hidden"), log);
+    }
+
+    private void runAll() throws InterruptedException {
+        blocker.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.getQueueDepth() > 0 || scheduler.getRunningJobs() > 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static AABBfc bounds(float x) {
+        return new AABBf(x, 0, 0, x + 1, 1, 1);
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.ChunkFaceConnectivity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkOcclusionGraphTest {
+
+    private final BlockRegion region = new BlockRegion(0, 0, 0).setSize(5, 5, 5);
+    private final Vector3i center = new Vector3i(2, 2, 2);
+    private final ChunkOcclusionGraph graph = new ChunkOcclusionGraph();
+
+    @Test
+    public void testOpenChunksAreReachable() {
+        graph.update(region, center, pos -> ChunkFaceConnectivity.ALL);
+
+        assertEquals(125, graph.getReachableCount());
+        for (Vector3ic pos : region) {
+            assertTrue(graph.isReachable(pos));
+        }
+    }
+
+    @Test
+    public void testEnclosedChunksAreNotReachable() {
+        graph.update(region, center,
+                pos -> isAroundCenter(pos) ? ChunkFaceConnectivity.NONE : ChunkFaceConnectivity.ALL);
+
+        assertEquals(7, graph.getReachableCount());
+        assertTrue(graph.isReachable(new Vector3i(3, 2, 2)));
+        assertFalse(graph.isReachable(new Vector3i(3, 3, 2)));
+        assertFalse(graph.isReachable(new Vector3i(0, 0, 0)));
+    }
+
+    @Test
+    public void testChunksAreReachedThroughConnectedFaces() {
+        long tunnel = ChunkFaceConnectivity.connect(ChunkFaceConnectivity.NONE, Side.LEFT, Side.RIGHT);
+        graph.update(region, center, pos -> {
+            if (pos.equals(new Vector3i(3, 2, 2))) {
+                return tunnel;
+            }
+            return isAroundCenter(pos) ? ChunkFaceConnectivity.NONE : ChunkFaceConnectivity.ALL;
+        });
+
+        // the camera chunk, its neighbours and the whole side behind the tunnel
+        assertEquals(1 + 6 + 25, graph.getReachableCount());
+        assertTrue(graph.isReachable(new Vector3i(4, 0, 4)));
+        assertFalse(graph.isReachable(new Vector3i(0, 2, 2)));
+    }
+
+    @Test
+    public void testAllChunksAreReachableFromOutside() {
+        graph.update(region, new Vector3i(10, 2, 2), pos -> ChunkFaceConnectivity.NONE);
+
+        assertTrue(graph.isReachable(new Vector3i(0, 0, 0)));
+        assertTrue(graph.isReachable(center));
+    }
+
+    private boolean isAroundCenter(Vector3ic pos) {
+        return !pos.equals(center) && Math.abs(pos.x() - center.x) <= 1 && Math.abs(pos.y() - center.y) <= 1
+                && Math.abs(pos.z() - center.z) <= 1;
+    }
+}
@@ -24,6 +24,7 @@
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.blockdata.OffHeapMemoryPool;
 import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -61,6 +62,41 @@ public void testChangeBlock() {
         assertEquals(solid, chunk.getBlock(new Vector3i(1, 2, 3)));
     }
 
+    @Test
+    public void testSnapshotKeepsOffHeapDataUntilEncoded() {
+        OffHeapMemoryPool pool = new OffHeapMemoryPool(1024 * 1024);
+        ChunkImpl offHeapChunk = (ChunkImpl) chunk;
+        offHeapChunk.setBlock(new Vector3i(1, 2, 3), solid);
+        offHeapChunk.moveOffHeap(pool);
+        long used = pool.getUsedBytes();
+
+        offHeapChunk.createSnapshot();
+        offHeapChunk.setBlock(new Vector3i(1, 2, 4), solid);
+        offHeapChunk.dispose();
+        assertEquals(used, pool.getUsedBytes());
+
+        offHeapChunk.encodeAndReleaseSnapshot();
+        assertEquals(0, pool.getUsedBytes());
+        assertEquals(solid, offHeapChunk.getBlock(new Vector3i(1, 2, 4)));
+    }
+
+    @Test
+    public void testAcquiredOffHeapDataOutlivesDispose() {
+        OffHeapMemoryPool pool = new OffHeapMemoryPool(1024 * 1024);
+        ChunkImpl offHeapChunk = (ChunkImpl) chunk;
+        offHeapChunk.setBlock(new Vector3i(1, 2, 3), solid);
+        offHeapChunk.moveOffHeap(pool);
+        long used = pool.getUsedBytes();
+
+        offHeapChunk.acquireData();
+        offHeapChunk.dispose();
+        assertEquals(used, pool.getUsedBytes());
+
+        offHeapChunk.releaseData();
+        assertEquals(0, pool.getUsedBytes());
+        assertEquals(solid, offHeapChunk.getBlock(new Vector3i(1, 2, 3)));
+    }
+
     @Test
     public void testGetAabb() {
         AABBfc aabb = chunk.getAABB();
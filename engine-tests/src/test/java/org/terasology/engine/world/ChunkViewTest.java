@@ -136,6 +136,40 @@ public void testLocalToWorld() {
         assertEquals(new Vector3i(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z), chunkView.toWorldPos(new Vector3i()));
     }
 
+    @Test
+    public void testReadBlockData() {
+        Chunk chunk = createChunk(0, 0, 0);
+        chunk.setBlock(new Vector3i(0, 0, 0), solidBlock);
+        chunk.setSunlight(new Vector3i(1, 0, 0), (byte) 15);
+        Chunk neighbour = createChunk(-1, 0, 0);
+        neighbour.setBlock(new Vector3i(Chunks.SIZE_X - 1, 0, 0), solidBlock);
+        neighbour.setLight(new Vector3i(Chunks.SIZE_X - 1, 1, 0), (byte) 7);
+
+        ChunkViewCore chunkView = new ChunkViewCoreImpl(new Chunk[]{neighbour, chunk},
+                new BlockRegion(-1, 0, 0, 0, 0, 0), new Vector3i(1, 0, 0), airBlock);
+        int size = 4;
+        short[] blockIds = new short[size * size * size];
+        byte[] sunlight = new byte[blockIds.length];
+        byte[] light = new byte[blockIds.length];
+        chunkView.readBlockData(-2, -1, -1, size, size, size, blockIds, sunlight, light);
+
+        int index = 0;
+        for (int y = -1; y < size - 1; y++) {
+            for (int z = -1; z < size - 1; z++) {
+                for (int x = -2; x < size - 2; x++) {
+                    assertEquals(chunkView.getBlock(x, y, z).getId(), blockIds[index]);
+                    assertEquals(chunkView.getSunlight(x, y, z), sunlight[index]);
+                    assertEquals(chunkView.getLight(x, y, z), light[index]);
+                    index++;
+                }
+            }
+        }
+        assertEquals(solidBlock.getId(), blockIds[1 + size * (1 + size)]);
+        assertEquals(solidBlock.getId(), blockIds[2 + size * (1 + size)]);
+        assertEquals(15, sunlight[3 + size * (1 + size)]);
+        assertEquals(7, light[1 + size * (1 + size * 2)]);
+    }
+
     private Chunk createChunk(int x, int y, int z) {
         return new ChunkImpl(new Vector3i(x, y, z), blockManager, extraDataManager);
     }
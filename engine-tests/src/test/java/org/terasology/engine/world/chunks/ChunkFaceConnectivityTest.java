@@ -0,0 +1,92 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkFaceConnectivityTest {
+
+    private Block air;
+    private Block solid;
+    private Block glass;
+
+    @BeforeEach
+    public void setup() {
+        air = createBlock(1, true, false);
+        solid = createBlock(2, false, true);
+        glass = createBlock(3, true, true);
+    }
+
+    @Test
+    public void testSolidChunkConnectsNothing() {
+        assertEquals(ChunkFaceConnectivity.NONE, ChunkFaceConnectivity.compute(mockChunk((x, y, z) -> solid)));
+    }
+
+    @Test
+    public void testEmptyChunkConnectsAllFaces() {
+        Chunk chunk = mockChunk((x, y, z) -> air);
+
+        long connectivity = ChunkFaceConnectivity.compute(chunk);
+
+        for (Side from : Side.values()) {
+            for (Side to : Side.values()) {
+                assertTrue(ChunkFaceConnectivity.isConnected(connectivity, from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testTunnelConnectsItsEnds() {
+        // a tunnel along x, partly filled with glass, and an enclosed cave
+        Chunk chunk = mockChunk((x, y, z) -> {
+            if (y == 10 && z == 10) {
+                return x == 5 ? glass : air;
+            }
+            if (y == 40 && z == 20 && x > 0 && x < Chunks.SIZE_X - 1) {
+                return air;
+            }
+            return solid;
+        });
+
+        long connectivity = ChunkFaceConnectivity.compute(chunk);
+
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.RIGHT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.RIGHT, Side.LEFT));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.TOP));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.BOTTOM));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.FRONT, Side.BACK));
+    }
+
+    private Chunk mockChunk(BlockAt blocks) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getBlockId(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> blocks.get(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)).getId());
+        when(chunk.getBlock(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> blocks.get(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        return chunk;
+    }
+
+    private static Block createBlock(int id, boolean translucent, boolean fullSides) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setTranslucent(translucent);
+        for (Side side : Side.values()) {
+            block.setFullSide(side, fullSides);
+        }
+        return block;
+    }
+
+    private interface BlockAt {
+        Block get(int x, int y, int z);
+    }
+}
@@ -0,0 +1,120 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraOffHeapArrayTest {
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 16;
+    private static final int SIZE_XYZ = SIZE_X * SIZE_Y * SIZE_Z;
+
+    private final OffHeapMemoryPool pool = new OffHeapMemoryPool(1024 * 1024);
+
+    @Test
+    public void testUniformArrayTakesNoMemory() {
+        TeraOffHeapArray array = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 16, pool, 7);
+
+        assertEquals(7, array.get(15, 31, 15));
+        assertEquals(7, array.set(1, 2, 3, 7));
+        assertEquals(0, pool.getUsedBytes());
+
+        assertEquals(7, array.set(1, 2, 3, 9));
+        assertEquals(SIZE_XYZ * 2, pool.getUsedBytes());
+        assertEquals(9, array.get(1, 2, 3));
+        assertEquals(7, array.get(2, 2, 3));
+    }
+
+    @Test
+    public void testValuesKeepElementRange() {
+        TeraOffHeapArray nibbles = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 4, pool);
+        nibbles.set(0, 0, 0, 0x1F);
+        nibbles.set(1, 0, 0, 3);
+        assertEquals(0x0F, nibbles.get(0, 0, 0));
+        assertEquals(3, nibbles.get(1, 0, 0));
+        assertEquals(0, nibbles.get(2, 0, 0));
+
+        TeraOffHeapArray bytes = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 8, pool);
+        bytes.set(0, 0, 0, 0xFF);
+        assertEquals(-1, bytes.get(0, 0, 0));
+
+        TeraOffHeapArray shorts = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 16, pool);
+        shorts.set(5, 6, 7, 0xFFFF);
+        assertEquals(-1, shorts.get(5, 6, 7));
+    }
+
+    @Test
+    public void testCopiesInBothDirections() {
+        TeraPaletteArray source = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 16);
+        for (int i = 0; i < 300; i++) {
+            source.set(i % SIZE_X, i / SIZE_X, 3, i);
+        }
+        TeraOffHeapArray offHeap = TeraOffHeapArray.copyOf(source, pool);
+        TeraArray heap = offHeap.copyToHeap();
+        TeraArray copy = offHeap.copy();
+        offHeap.set(0, 0, 3, 1000);
+
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i, heap.get(i % SIZE_X, i / SIZE_X, 3));
+            assertEquals(i, copy.get(i % SIZE_X, i / SIZE_X, 3));
+        }
+        assertEquals(0, heap.get(0, 0, 4));
+        assertEquals(1000, offHeap.get(0, 0, 3));
+    }
+
+    @Test
+    public void testReleasedMemoryIsPooled() {
+        TeraOffHeapArray array = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 8, pool);
+        array.set(1, 1, 1, 1);
+        array.release();
+
+        assertEquals(0, pool.getUsedBytes());
+        assertEquals(SIZE_XYZ, pool.getPooledBytes());
+        assertThrows(IllegalStateException.class, array::release);
+        pool.clear();
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testMemoryIsKeptUntilLastOwnerReleases() {
+        TeraOffHeapArray array = new TeraOffHeapArray(SIZE_X, SIZE_Y, SIZE_Z, 8, pool);
+        array.set(1, 1, 1, 1);
+        assertTrue(array.retain());
+        array.release();
+
+        assertEquals(SIZE_XYZ, pool.getUsedBytes());
+        assertEquals(1, array.get(1, 1, 1));
+
+        array.release();
+        assertEquals(0, pool.getUsedBytes());
+        assertFalse(array.retain());
+    }
+
+    @Test
+    public void testPoolReusesReleasedBuffers() {
+        ByteBuffer buffer = pool.acquire(64);
+        pool.release(buffer);
+
+        assertSame(buffer, pool.acquire(64));
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testPoolDropsBuffersBeyondCapacity() {
+        OffHeapMemoryPool small = new OffHeapMemoryPool(100);
+        small.release(small.acquire(64));
+        small.release(small.acquire(64));
+
+        assertEquals(64, small.getPooledBytes());
+        assertEquals(0, small.getUsedBytes());
+    }
+}
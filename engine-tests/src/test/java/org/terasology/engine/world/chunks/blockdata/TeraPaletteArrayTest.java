@@ -0,0 +1,150 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraPaletteArrayTest {
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 16;
+
+    private final TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 16);
+
+    @Test
+    public void testSingleValueNeedsNoIndices() {
+        assertEquals(0, array.get(3, 4, 5));
+        assertEquals(0, array.getBitsPerElement());
+        assertEquals(1, array.getPaletteSize());
+
+        TeraPaletteArray filled = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 16, 7);
+        assertEquals(7, filled.get(15, 31, 15));
+    }
+
+    @Test
+    public void testWidthGrowsWithPalette() {
+        array.set(0, 0, 0, 1);
+        assertEquals(1, array.getBitsPerElement());
+        array.set(1, 0, 0, 2);
+        assertEquals(2, array.getBitsPerElement());
+        for (int i = 0; i < 20; i++) {
+            array.set(i % SIZE_X, 1, i / SIZE_X, 100 + i);
+        }
+        assertEquals(8, array.getBitsPerElement());
+        assertEquals(23, array.getPaletteSize());
+
+        assertEquals(1, array.get(0, 0, 0));
+        assertEquals(2, array.get(1, 0, 0));
+        assertEquals(0, array.get(2, 0, 0));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(100 + i, array.get(i % SIZE_X, 1, i / SIZE_X));
+        }
+    }
+
+    @Test
+    public void testWidthShrinksWhenValuesAreRemoved() {
+        for (int i = 0; i < 20; i++) {
+            array.set(i % SIZE_X, 2, i / SIZE_X, i + 1);
+        }
+        assertEquals(8, array.getBitsPerElement());
+
+        for (int i = 0; i < 20; i++) {
+            array.set(i % SIZE_X, 2, i / SIZE_X, 0);
+        }
+        assertEquals(1, array.getPaletteSize());
+        assertEquals(0, array.getBitsPerElement());
+        assertEquals(0, array.get(4, 2, 0));
+    }
+
+    @Test
+    public void testValuesKeepElementRange() {
+        assertEquals(-1, (short) new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 16, 0xFFFF).get(0, 0, 0));
+        TeraPaletteArray bytes = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 8);
+        bytes.set(0, 0, 0, 0xFF);
+        assertEquals(-1, bytes.get(0, 0, 0));
+        TeraPaletteArray nibbles = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, 4);
+        nibbles.set(0, 0, 0, 0x1F);
+        assertEquals(0x0F, nibbles.get(0, 0, 0));
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        assertFalse(array.set(1, 1, 1, 5, 3));
+        assertTrue(array.set(1, 1, 1, 5, 0));
+        assertEquals(5, array.get(1, 1, 1));
+    }
+
+    @Test
+    public void testRuns() {
+        int sizeXYZ = SIZE_X * SIZE_Y * SIZE_Z;
+        array.setRun(10, 5, 3);
+        array.setRun(12, 1, 4);
+
+        List<int[]> runs = new ArrayList<>();
+        array.forEachRun((value, length) -> runs.add(new int[]{value, length}));
+
+        assertEquals(5, runs.size());
+        assertEquals(0, runs.get(0)[0]);
+        assertEquals(10, runs.get(0)[1]);
+        assertEquals(3, runs.get(1)[0]);
+        assertEquals(2, runs.get(1)[1]);
+        assertEquals(4, runs.get(2)[0]);
+        assertEquals(3, runs.get(3)[0]);
+        assertEquals(sizeXYZ - 15, runs.get(4)[1]);
+        assertEquals(4, array.get(12, 0, 0));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        array.set(1, 2, 3, 9);
+        TeraArray copy = array.copy();
+        array.set(1, 2, 3, 10);
+
+        assertEquals(9, copy.get(1, 2, 3));
+        assertEquals(10, array.get(1, 2, 3));
+    }
+
+    @Test
+    public void testDeflateCompactsPalette() {
+        for (int i = 0; i < 20; i++) {
+            array.set(i % SIZE_X, 0, i / SIZE_X, i + 1);
+        }
+        for (int i = 3; i < 20; i++) {
+            array.set(i % SIZE_X, 0, i / SIZE_X, 1);
+        }
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+
+        assertNotSame(array, deflated);
+        assertEquals(2, ((TeraPaletteArray) deflated).getBitsPerElement());
+        assertEquals(3, deflated.get(2, 0, 0));
+        assertEquals(1, deflated.get(3, 0, 1));
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        for (int i = 0; i < 300; i++) {
+            array.set(i % SIZE_X, i / SIZE_X, 0, i);
+        }
+        TeraPaletteArray.SerializationHandler handler = new TeraPaletteArray.SerializationHandler();
+        ByteBuffer buffer = handler.serialize(array);
+        buffer.rewind();
+        TeraPaletteArray result = handler.deserialize(buffer);
+
+        assertEquals(16, result.getBitsPerElement());
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i, result.get(i % SIZE_X, i / SIZE_X, 0));
+        }
+        result.set(0, 0, 1, 299);
+        assertEquals(300, result.getPaletteSize());
+    }
+}
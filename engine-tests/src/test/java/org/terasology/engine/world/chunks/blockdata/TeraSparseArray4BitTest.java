@@ -0,0 +1,69 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.deflate.TeraStandardDeflator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraSparseArray4BitTest {
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 8;
+    private static final int SIZE_Z = 16;
+    private static final int ROW_SIZE = SIZE_X * SIZE_Z / 2;
+
+    @Test
+    public void testUniformArrayAllocatesNothing() {
+        TeraArray array = new TeraSparseArray4Bit(SIZE_X, SIZE_Y, SIZE_Z, TeraArrayUtils.makeByte(15, 15));
+
+        assertEquals(15, array.get(0, 0, 0));
+        assertEquals(15, array.get(SIZE_X - 1, SIZE_Y - 1, SIZE_Z - 1));
+        assertEquals(15, array.set(3, 3, 3, 15));
+        assertEquals(9, array.getEstimatedMemoryConsumptionInBytes());
+    }
+
+    @Test
+    public void testOnlyWrittenRowIsAllocated() {
+        TeraArray array = new TeraSparseArray4Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        int uniformSize = array.getEstimatedMemoryConsumptionInBytes();
+
+        assertEquals(0, array.set(1, 2, 3, 12));
+        assertEquals(12, array.set(1, 2, 3, 7));
+        array.set(15, 2, 15, 1);
+
+        assertEquals(7, array.get(1, 2, 3));
+        assertEquals(1, array.get(15, 2, 15));
+        assertEquals(0, array.get(1, 3, 3));
+        int rows = (array.getEstimatedMemoryConsumptionInBytes() - uniformSize - SIZE_Y * 5) / (12 + ROW_SIZE);
+        assertEquals(1, rows);
+    }
+
+    @Test
+    public void testDeflateCollapsesUniformRows() {
+        TeraArray array = new TeraSparseArray4Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                array.set(x, 0, z, 15);
+            }
+        }
+        array.set(4, 1, 4, 3);
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() < array.getEstimatedMemoryConsumptionInBytes());
+        assertEquals(15, deflated.get(7, 0, 9));
+        assertEquals(3, deflated.get(4, 1, 4));
+        assertEquals(0, deflated.get(5, 1, 4));
+
+        deflated.set(4, 1, 4, 0);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                deflated.set(x, 0, z, 0);
+            }
+        }
+        TeraArray uniform = new TeraStandardDeflator().deflate(deflated);
+        assertEquals(9, uniform.getEstimatedMemoryConsumptionInBytes());
+        assertEquals(0, uniform.get(7, 0, 9));
+    }
+}
@@ -164,6 +164,43 @@ void multiRequirementsChunksWillGeneratedSuccess() throws ExecutionException, In
                 "Chunk after processing must have equals position, probably pipeline lost you chunk");
     }
 
+    /**
+     * Imagine that we have task, which requires neighbors with same Z level. neighbors appear in chunk cache later.
+     */
+    @Test
+    void multiRequirementsChunksBecomeAvailableSuccess() throws ExecutionException, InterruptedException,
+            TimeoutException {
+        Vector3i positionToGenerate = new Vector3i(0, 0, 0);
+        Map<Vector3ic, Chunk> chunkCache = Maps.newConcurrentMap();
+
+        pipeline = new ChunkProcessingPipeline(chunkCache::get, (o1, o2) -> 0, 2);
+        pipeline.addStage(ChunkTaskProvider.createMulti(
+                "flat merging task",
+                (chunks) -> chunks.stream()
+                        .filter((c) -> c.getPosition().equals(positionToGenerate)).findFirst() // return central chunk.
+                        .get(),
+                this::getNearChunkPositions));
+
+        Chunk chunk = createChunkAt(positionToGenerate);
+        Future<Chunk> chunkFuture = pipeline.invokeGeneratorTask(new Vector3i(0, 0, 0), () -> chunk);
+
+        Thread.sleep(500);
+        Assertions.assertFalse(chunkFuture.isDone(), "Chunk must be not generated, because ChunkTask have not exists " +
+                "neighbors in requirements");
+
+        for (Vector3ic position : getNearChunkPositions(positionToGenerate)) {
+            if (!position.equals(positionToGenerate)) {
+                chunkCache.put(position, createChunkAt(position));
+                pipeline.notifyChunkAvailable(position);
+            }
+        }
+
+        Chunk chunkAfterProcessing = chunkFuture.get(1, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(chunkAfterProcessing.getPosition(new Vector3i()), chunk.getPosition(new Vector3i()),
+                "Chunk after processing must have equals position, probably pipeline lost you chunk");
+    }
+
     @Test
     void emulateEntityMoving() throws InterruptedException {
         final AtomicReference<Vector3ic> position = new AtomicReference<>();
@@ -0,0 +1,175 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.generation.facets.base.BaseFacet3D;
+import org.terasology.engine.world.generation.facets.base.BaseFieldFacet2D;
+import org.terasology.engine.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ColumnFacetCacheTest {
+    private static final BlockRegion LOWER_CHUNK = new BlockRegion(0, 0, 0).setSize(32, 64, 32);
+    private static final BlockRegion UPPER_CHUNK = new BlockRegion(0, 64, 0).setSize(32, 64, 32);
+    private static final BlockRegion OTHER_COLUMN = new BlockRegion(32, 0, 0).setSize(32, 64, 32);
+
+    private Context context = new ContextImpl();
+
+    private WorldImpl buildWorld(FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        worldBuilder.addRasterizer(new RecordingRasterizer());
+        return (WorldImpl) worldBuilder.build();
+    }
+
+    private static Region rasterize(World world, BlockRegionc chunkRegion) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getRegion()).thenReturn(chunkRegion);
+        world.rasterizeChunk(chunk, null);
+        return RecordingRasterizer.lastRegion;
+    }
+
+    @Test
+    public void testStackedChunksShareColumnFacets() {
+        HeightProvider heightProvider = new HeightProvider();
+        HeightUpdater heightUpdater = new HeightUpdater();
+        DensityProvider densityProvider = new DensityProvider();
+        WorldImpl world = buildWorld(heightProvider, heightUpdater, densityProvider);
+
+        Region lower = rasterize(world, LOWER_CHUNK);
+        Region upper = rasterize(world, UPPER_CHUNK);
+
+        assertSame(lower.getFacet(HeightFacet.class), upper.getFacet(HeightFacet.class));
+        assertEquals(1f, upper.getFacet(HeightFacet.class).getWorld(0, 0));
+        assertEquals(1, heightProvider.calls);
+        assertEquals(1, heightUpdater.calls);
+        assertEquals(2, densityProvider.calls);
+        assertEquals(1, world.getColumnFacetCacheStats().hitCount());
+        assertEquals(1, world.getColumnFacetCacheStats().missCount());
+    }
+
+    @Test
+    public void testOtherColumnsGenerateTheirOwnFacets() {
+        HeightProvider heightProvider = new HeightProvider();
+        WorldImpl world = buildWorld(heightProvider, new DensityProvider());
+
+        Region first = rasterize(world, LOWER_CHUNK);
+        Region second = rasterize(world, OTHER_COLUMN);
+
+        assertNotSame(first.getFacet(HeightFacet.class), second.getFacet(HeightFacet.class));
+        assertEquals(OTHER_COLUMN.minX(), second.getFacet(HeightFacet.class).getWorldArea().minX());
+        assertEquals(2, heightProvider.calls);
+    }
+
+    @Test
+    public void testFacetsDependingOnHeightAreNotShared() {
+        HeightProvider heightProvider = new HeightProvider();
+        DensityProvider densityProvider = new DensityProvider();
+        DensitySummaryProvider summaryProvider = new DensitySummaryProvider();
+        WorldImpl world = buildWorld(heightProvider, densityProvider, summaryProvider);
+
+        Region lower = rasterize(world, LOWER_CHUNK);
+        Region upper = rasterize(world, UPPER_CHUNK);
+
+        assertNotSame(lower.getFacet(DensitySummaryFacet.class), upper.getFacet(DensitySummaryFacet.class));
+        assertEquals(2, summaryProvider.calls);
+        assertEquals(1, heightProvider.calls);
+    }
+
+    public static class HeightFacet extends BaseFieldFacet2D {
+        public HeightFacet(BlockRegionc targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensitySummaryFacet extends BaseFieldFacet2D {
+        public DensitySummaryFacet(BlockRegionc targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public DensityFacet(BlockRegionc targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(HeightFacet.class,
+                    new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(HeightFacet.class))
+    public static class HeightUpdater implements FacetProvider {
+        int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            HeightFacet facet = region.getRegionFacet(HeightFacet.class);
+            facet.setWorld(0, 0, facet.getWorld(0, 0) + 1);
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(HeightFacet.class))
+    public static class DensityProvider implements FacetProvider {
+        int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(DensityFacet.class,
+                    new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class)));
+        }
+    }
+
+    @Produces(DensitySummaryFacet.class)
+    @Requires(@Facet(DensityFacet.class))
+    public static class DensitySummaryProvider implements FacetProvider {
+        int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(DensitySummaryFacet.class,
+                    new DensitySummaryFacet(region.getRegion(), region.getBorderForFacet(DensitySummaryFacet.class)));
+        }
+    }
+
+    @Requires({@Facet(HeightFacet.class), @Facet(DensityFacet.class)})
+    public static class RecordingRasterizer implements WorldRasterizer {
+        static Region lastRegion;
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(Chunk chunk, Region chunkRegion) {
+            chunkRegion.getFacet(HeightFacet.class);
+            chunkRegion.getFacet(DensityFacet.class);
+            lastRegion = chunkRegion;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.internal;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BlockEntityIndexTest {
+    private final BlockEntityIndex index = new BlockEntityIndex();
+
+    @Test
+    public void testPutAndGet() {
+        EntityRef first = mock(EntityRef.class);
+        EntityRef second = mock(EntityRef.class);
+        Vector3i negative = new Vector3i(-1, -65, -33);
+
+        assertNull(index.put(new Vector3i(1, 2, 3), first));
+        assertNull(index.put(negative, second));
+
+        assertSame(first, index.get(new Vector3i(1, 2, 3)));
+        assertSame(second, index.get(negative));
+        assertNull(index.get(new Vector3i(1, 2, 4)));
+        assertSame(first, index.put(new Vector3i(1, 2, 3), second));
+    }
+
+    @Test
+    public void testRemoveOnlyRemovesGivenEntity() {
+        EntityRef first = mock(EntityRef.class);
+        EntityRef second = mock(EntityRef.class);
+        index.put(new Vector3i(1, 2, 3), first);
+
+        index.remove(new Vector3i(1, 2, 3), second);
+        assertSame(first, index.get(new Vector3i(1, 2, 3)));
+
+        index.remove(new Vector3i(1, 2, 3), first);
+        assertNull(index.get(new Vector3i(1, 2, 3)));
+        assertTrue(index.getEntitiesInChunk(new Vector3i()).isEmpty());
+    }
+
+    @Test
+    public void testEntitiesInChunk() {
+        EntityRef first = mock(EntityRef.class);
+        EntityRef second = mock(EntityRef.class);
+        EntityRef other = mock(EntityRef.class);
+        index.put(new Vector3i(0, 0, 0), first);
+        index.put(new Vector3i(31, 63, 31), second);
+        index.put(new Vector3i(32, 0, 0), other);
+
+        assertEquals(2, index.getEntitiesInChunk(new Vector3i(0, 0, 0)).size());
+        assertTrue(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).contains(second));
+        assertTrue(index.getEntitiesInChunk(new Vector3i(1, 0, 0)).contains(other));
+    }
+
+    @Test
+    public void testChunkKeysOfNeighboursDiffer() {
+        assertNotEquals(BlockEntityIndex.chunkKey(-1, 0, 0), BlockEntityIndex.chunkKey(0, 0, 0));
+        assertNotEquals(BlockEntityIndex.chunkKey(0, -1, 0), BlockEntityIndex.chunkKey(0, 0, -1));
+        assertNotEquals(BlockEntityIndex.chunkKey(0, 0, -1), BlockEntityIndex.chunkKey(0, 0, 0x1FFFFE));
+    }
+
+    @Test
+    public void testDistantBlocksAreKeptApart() {
+        EntityRef first = mock(EntityRef.class);
+        EntityRef second = mock(EntityRef.class);
+        EntityRef third = mock(EntityRef.class);
+        Vector3i far = new Vector3i(Integer.MAX_VALUE, 0, Integer.MIN_VALUE);
+        // chunks this far apart vertically share a key
+        Vector3i above = new Vector3i(0, 1 << 26, 0);
+
+        index.put(new Vector3i(), first);
+        index.put(far, second);
+        index.put(above, third);
+
+        assertNotEquals(BlockEntityIndex.chunkKeyOfBlock(0, 0, 0), BlockEntityIndex.chunkKeyOfBlock(far.x, 0, far.z));
+        assertSame(first, index.get(new Vector3i()));
+        assertSame(second, index.get(far));
+        assertSame(third, index.get(above));
+        assertEquals(1, index.getEntitiesInChunk(new Vector3i()).size());
+
+        index.remove(new Vector3i(), first);
+        assertNull(index.get(new Vector3i()));
+        assertSame(third, index.get(above));
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.internal;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BlockRegionIndexTest {
+    private final BlockRegionIndex index = new BlockRegionIndex();
+
+    @Test
+    public void testRegionAcrossChunks() {
+        EntityRef entity = mock(EntityRef.class);
+        index.put(entity, new BlockRegion(-10, 0, 0, 40, 70, 5));
+
+        assertSame(entity, index.get(new Vector3i(-10, 0, 0)));
+        assertSame(entity, index.get(new Vector3i(40, 70, 5)));
+        assertSame(entity, index.get(new Vector3i(0, 64, 3)));
+        assertNull(index.get(new Vector3i(41, 70, 5)));
+        assertNull(index.get(new Vector3i(0, 0, 6)));
+        assertEquals(1, index.getEntitiesInChunk(new Vector3i(1, 1, 0)).size());
+        assertTrue(index.getEntitiesInChunk(new Vector3i(2, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void testChangedRegionReplacesOldRegion() {
+        EntityRef entity = mock(EntityRef.class);
+        BlockRegion region = new BlockRegion(0, 0, 0, 3, 3, 3);
+        index.put(entity, region);
+        // Changing the component's region in place must not confuse the index
+        region.set(100, 0, 0, 103, 3, 3);
+        index.put(entity, region);
+
+        assertNull(index.get(new Vector3i(1, 1, 1)));
+        assertSame(entity, index.get(new Vector3i(101, 1, 1)));
+        assertTrue(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void testOverlappingRegions() {
+        EntityRef large = mock(EntityRef.class);
+        EntityRef small = mock(EntityRef.class);
+        index.put(large, new BlockRegion(0, 0, 0, 10, 10, 10));
+        index.put(small, new BlockRegion(2, 2, 2, 3, 3, 3));
+
+        assertSame(small, index.get(new Vector3i(2, 2, 2)));
+        assertSame(large, index.get(new Vector3i(5, 5, 5)));
+
+        index.remove(small);
+        assertSame(large, index.get(new Vector3i(2, 2, 2)));
+        index.remove(large);
+        assertNull(index.get(new Vector3i(2, 2, 2)));
+    }
+}
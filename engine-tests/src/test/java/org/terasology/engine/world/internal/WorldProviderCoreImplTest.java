@@ -0,0 +1,138 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.internal;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.core.SimpleUri;
+import org.terasology.engine.world.WorldChangeListener;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.BlockChange;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorldProviderCoreImplTest {
+    private final Block air = new Block();
+    private final Block stone = new Block();
+    private final Map<Vector3ic, Chunk> chunks = Maps.newHashMap();
+
+    private WorldProviderCoreImpl world;
+    private WorldChangeListener listener;
+
+    @BeforeEach
+    public void setup() {
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    Chunk chunk = mock(Chunk.class);
+                    when(chunk.setBlock(any(Vector3ic.class), any(Block.class))).thenReturn(air);
+                    chunks.put(new Vector3i(x, y, z), chunk);
+                }
+            }
+        }
+        when(chunkProvider.getChunk(any(Vector3ic.class))).then(invocation -> chunks.get(invocation.getArgument(0)));
+        world = new WorldProviderCoreImpl("test", null, "seed", 0, new SimpleUri("engine:test"), chunkProvider, air,
+                new ContextImpl());
+        listener = mock(WorldChangeListener.class);
+        world.registerListener(listener);
+    }
+
+    private Chunk chunk(int x, int y, int z) {
+        return chunks.get(new Vector3i(x, y, z));
+    }
+
+    @Test
+    public void testSetBlocksNotifiesOncePerChunk() {
+        Map<Vector3ic, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(1, 1, 1), stone);
+        blocks.put(new Vector3i(2, 1, 1), stone);
+        blocks.put(new Vector3i(3, 1, 1), air);
+        blocks.put(new Vector3i(-5, 1, 1), stone);
+
+        Map<Vector3ic, Block> oldBlocks = world.setBlocks(blocks);
+
+        assertEquals(4, oldBlocks.size());
+        assertSame(air, oldBlocks.get(new Vector3i(1, 1, 1)));
+        verify(listener).onBlocksChanged(eq(new Vector3i(0, 0, 0)), argThat((Collection<BlockChange> changes) ->
+                changes.size() == 2));
+        verify(listener).onBlocksChanged(eq(new Vector3i(-1, 0, 0)), argThat((Collection<BlockChange> changes) ->
+                changes.size() == 1 && changes.iterator().next().getTo() == stone));
+        verify(listener, never()).onBlockChanged(any(), any(), any());
+    }
+
+    @Test
+    public void testSetBlocksMarksBorderingChunksDirty() {
+        Map<Vector3ic, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(5, 5, 5), stone);
+        blocks.put(new Vector3i(6, 5, 5), stone);
+        blocks.put(new Vector3i(Chunks.SIZE_X - 1, 5, 0), stone);
+
+        world.setBlocks(blocks);
+
+        verify(chunk(0, 0, 0), times(1)).setDirty(true);
+        verify(chunk(1, 0, 0)).setDirty(true);
+        verify(chunk(0, 0, -1)).setDirty(true);
+        verify(chunk(1, 0, -1)).setDirty(true);
+        verify(chunk(-1, 0, 0), never()).setDirty(anyBoolean());
+        verify(chunk(0, 1, 0), never()).setDirty(anyBoolean());
+    }
+
+    @Test
+    public void testSetBlocksInUnloadedChunk() {
+        Map<Vector3ic, Block> blocks = Maps.newHashMap();
+        Vector3i unloaded = new Vector3i(5 * Chunks.SIZE_X, 0, 0);
+        blocks.put(unloaded, stone);
+
+        Map<Vector3ic, Block> oldBlocks = world.setBlocks(blocks);
+
+        assertNull(oldBlocks.get(unloaded));
+        assertEquals(1, oldBlocks.size());
+        verify(listener, never()).onBlocksChanged(any(), any());
+    }
+
+    @Test
+    public void testUnchangedBlocksAreNotReported() {
+        Map<Vector3ic, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(1, 1, 1), air);
+
+        world.setBlocks(blocks);
+
+        verify(listener, never()).onBlocksChanged(any(), any());
+        verify(chunk(0, 0, 0), never()).setDirty(anyBoolean());
+    }
+
+    @Test
+    public void testDefaultListenerReceivesSingleChanges() {
+        List<BlockChange> changes = List.of(new BlockChange(new Vector3i(1, 2, 3), air, stone));
+        WorldChangeListener singleListener = mock(WorldChangeListener.class);
+        doCallRealMethod().when(singleListener).onBlocksChanged(any(), any());
+
+        singleListener.onBlocksChanged(new Vector3i(), changes);
+
+        verify(singleListener).onBlockChanged(new Vector3i(1, 2, 3), stone, air);
+    }
+}
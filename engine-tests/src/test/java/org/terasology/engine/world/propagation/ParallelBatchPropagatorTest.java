@@ -0,0 +1,159 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link ParallelBatchPropagator} produces exactly the values of {@link StandardBatchPropagator}.
+ */
+public class ParallelBatchPropagatorTest {
+
+    private static final int SITES = 3;
+    private static final int SITE_SPACING = 3 * Chunks.SIZE_X;
+
+    private final BlockRegion region = new BlockRegion(0, 0, 0)
+            .setSize(SITES * SITE_SPACING, Chunks.SIZE_Y, SITES * SITE_SPACING);
+
+    private ForkJoinPool pool;
+    private Block air;
+    private Block solid;
+    private Block torch;
+
+    @BeforeEach
+    public void setup() {
+        pool = new ForkJoinPool(4);
+
+        air = new Block();
+        air.setTranslucent(true);
+
+        solid = new Block();
+        for (Side side : Side.values()) {
+            solid.setFullSide(side, true);
+        }
+
+        torch = new Block();
+        torch.setTranslucent(true);
+        torch.setLuminance(Chunks.MAX_LIGHT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSeparateSitesMatchStandard() {
+        runEdits(new Random(42), 4);
+    }
+
+    @Test
+    public void testOverlappingSitesMatchStandard() {
+        runEdits(new Random(7), SITE_SPACING);
+    }
+
+    /**
+     * Applies the same random edits around every site to both worlds and checks the values after every batch.
+     *
+     * @param siteRadius how far from the site center the edits are spread
+     */
+    private void runEdits(Random random, int siteRadius) {
+        LightPropagationRules rules = new LightPropagationRules();
+        ConcurrentWorldView standardWorld = new ConcurrentWorldView(region, air);
+        ConcurrentWorldView parallelWorld = new ConcurrentWorldView(region, air);
+        BatchPropagator standard = new StandardBatchPropagator(rules, standardWorld);
+        BatchPropagator parallel = new ParallelBatchPropagator(rules, parallelWorld, pool);
+
+        Block[] palette = {air, solid, torch};
+        for (int batch = 0; batch < 10; batch++) {
+            List<BlockChange> changes = Lists.newArrayList();
+            for (int siteX = 0; siteX < SITES; siteX++) {
+                for (int siteZ = 0; siteZ < SITES; siteZ++) {
+                    for (int i = 0; i < 16; i++) {
+                        Vector3i pos = new Vector3i(
+                                siteX * SITE_SPACING + SITE_SPACING / 2 + random.nextInt(2 * siteRadius) - siteRadius,
+                                Chunks.SIZE_Y / 2 + random.nextInt(8) - 4,
+                                siteZ * SITE_SPACING + SITE_SPACING / 2 + random.nextInt(2 * siteRadius) - siteRadius);
+                        if (!region.contains(pos)) {
+                            continue;
+                        }
+                        Block from = standardWorld.getBlockAt(pos);
+                        Block to = palette[random.nextInt(palette.length)];
+                        if (from == to) {
+                            continue;
+                        }
+                        standardWorld.setBlockAt(pos, to);
+                        parallelWorld.setBlockAt(pos, to);
+                        changes.add(new BlockChange(pos, from, to));
+                    }
+                }
+            }
+
+            standard.process(changes);
+            parallel.process(changes);
+
+            for (Vector3ic pos : region) {
+                assertEquals(standardWorld.getValueAt(pos), parallelWorld.getValueAt(pos), () -> "Values differ at " + pos);
+            }
+        }
+    }
+
+    /**
+     * World view which can be read and written from several threads at once.
+     */
+    private static class ConcurrentWorldView implements PropagatorWorldView {
+        private final Map<Vector3ic, Byte> values = Maps.newConcurrentMap();
+        private final Map<Vector3ic, Block> blocks = Maps.newConcurrentMap();
+        private final BlockRegionc relevantRegion;
+        private final Block defaultBlock;
+
+        ConcurrentWorldView(BlockRegionc relevantRegion, Block defaultBlock) {
+            this.relevantRegion = relevantRegion;
+            this.defaultBlock = defaultBlock;
+        }
+
+        @Override
+        public byte getValueAt(Vector3ic pos) {
+            if (!relevantRegion.contains(pos)) {
+                return UNAVAILABLE;
+            }
+            return values.getOrDefault(pos, (byte) 0);
+        }
+
+        @Override
+        public void setValueAt(Vector3ic pos, byte value) {
+            values.put(new Vector3i(pos), value);
+        }
+
+        @Override
+        public Block getBlockAt(Vector3ic pos) {
+            if (!relevantRegion.contains(pos)) {
+                return null;
+            }
+            return blocks.getOrDefault(pos, defaultBlock);
+        }
+
+        void setBlockAt(Vector3ic pos, Block block) {
+            blocks.put(new Vector3i(pos), block);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+import org.terasology.engine.world.propagation.light.SunlightPropagationRules;
+import org.terasology.engine.world.propagation.light.SunlightRegenPropagationRules;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link PrimitiveBatchPropagator} produces exactly the values of {@link StandardBatchPropagator}.
+ */
+public class PrimitiveBatchPropagatorTest {
+
+    private static final int BATCHES = 20;
+    private static final int CHANGES_PER_BATCH = 40;
+
+    private final BlockRegion region = new BlockRegion(0, 0, 0).setSize(24, 24, 24);
+
+    private Block air;
+    private Block solid;
+    private Block torch;
+    private Block dimLight;
+
+    @BeforeEach
+    public void setup() {
+        air = new Block();
+        air.setTranslucent(true);
+
+        solid = new Block();
+        for (Side side : Side.values()) {
+            solid.setFullSide(side, true);
+        }
+
+        torch = new Block();
+        torch.setTranslucent(true);
+        torch.setLuminance(Chunks.MAX_LIGHT);
+
+        dimLight = new Block();
+        dimLight.setLuminance((byte) 6);
+        for (Side side : Side.values()) {
+            dimLight.setFullSide(side, true);
+        }
+    }
+
+    @Test
+    public void testLightMatchesStandard() {
+        LightPropagationRules rules = new LightPropagationRules();
+        StubPropagatorWorldView standardWorld = new StubPropagatorWorldView(region, air);
+        StubPropagatorWorldView primitiveWorld = new StubPropagatorWorldView(region, air);
+
+        runRandomEdits(new Random(1234),
+                new StandardBatchPropagator(rules, standardWorld), standardWorld, null,
+                new PrimitiveBatchPropagator(rules, primitiveWorld), primitiveWorld, null);
+    }
+
+    @Test
+    public void testSunlightMatchesStandard() {
+        Map<Vector3ic, Block> standardBlocks = Maps.newHashMap();
+        StubPropagatorWorldView standardRegen = createRegenWorld(standardBlocks);
+        StubPropagatorWorldView standardSunlight = new StubPropagatorWorldView(region, air, standardBlocks);
+        BatchPropagator standard = new StandardBatchPropagator(new SunlightPropagationRules(standardRegen),
+                standardSunlight);
+        SunlightRegenBatchPropagator standardRegenPropagator = new SunlightRegenBatchPropagator(
+                new SunlightRegenPropagationRules(), standardRegen, standard, standardSunlight);
+
+        Map<Vector3ic, Block> primitiveBlocks = Maps.newHashMap();
+        StubPropagatorWorldView primitiveRegen = createRegenWorld(primitiveBlocks);
+        StubPropagatorWorldView primitiveSunlight = new StubPropagatorWorldView(region, air, primitiveBlocks);
+        BatchPropagator primitive = new PrimitiveBatchPropagator(new SunlightPropagationRules(primitiveRegen),
+                primitiveSunlight);
+        SunlightRegenBatchPropagator primitiveRegenPropagator = new SunlightRegenBatchPropagator(
+                new SunlightRegenPropagationRules(), primitiveRegen, primitive, primitiveSunlight);
+
+        runRandomEdits(new Random(4321),
+                standard, standardSunlight, standardRegenPropagator,
+                primitive, primitiveSunlight, primitiveRegenPropagator);
+        assertSameValues(standardRegen, primitiveRegen);
+    }
+
+    private StubPropagatorWorldView createRegenWorld(Map<Vector3ic, Block> blocks) {
+        StubPropagatorWorldView regenWorld = new StubPropagatorWorldView(region, air, blocks);
+        for (Vector3ic pos : region) {
+            int depth = region.maxY() - pos.y();
+            regenWorld.setValueAt(pos, (byte) Math.min(depth, Chunks.MAX_SUNLIGHT_REGEN));
+        }
+        return regenWorld;
+    }
+
+    /**
+     * Applies the same random block changes to both worlds and checks the values after every batch.
+     */
+    private void runRandomEdits(Random random,
+                                BatchPropagator standard, StubPropagatorWorldView standardWorld,
+                                BatchPropagator standardPrepass,
+                                BatchPropagator primitive, StubPropagatorWorldView primitiveWorld,
+                                BatchPropagator primitivePrepass) {
+        Block[] palette = {air, solid, torch, dimLight};
+        for (int batch = 0; batch < BATCHES; batch++) {
+            List<BlockChange> changes = Lists.newArrayList();
+            for (int i = 0; i < CHANGES_PER_BATCH; i++) {
+                Vector3i pos = new Vector3i(
+                        region.minX() + random.nextInt(region.getSizeX()),
+                        region.minY() + random.nextInt(region.getSizeY()),
+                        region.minZ() + random.nextInt(region.getSizeZ()));
+                Block from = standardWorld.getBlockAt(pos);
+                Block to = palette[random.nextInt(palette.length)];
+                if (from == to) {
+                    continue;
+                }
+                standardWorld.setBlockAt(pos, to);
+                primitiveWorld.setBlockAt(pos, to);
+                changes.add(new BlockChange(pos, from, to));
+            }
+
+            if (standardPrepass != null) {
+                standardPrepass.process(changes);
+                primitivePrepass.process(changes);
+            }
+            standard.process(changes);
+            primitive.process(changes);
+
+            assertSameValues(standardWorld, primitiveWorld);
+        }
+    }
+
+    private void assertSameValues(PropagatorWorldView expected, PropagatorWorldView actual) {
+        for (Vector3ic pos : region) {
+            assertEquals(expected.getValueAt(pos), actual.getValueAt(pos), () -> "Values differ at " + pos);
+        }
+    }
+}
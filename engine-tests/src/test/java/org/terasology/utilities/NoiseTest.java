@@ -4,6 +4,8 @@
 package org.terasology.utilities;
 
 import com.google.common.collect.Lists;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.terasology.engine.utilities.procedural.BrownianNoise;
@@ -14,10 +16,13 @@
 import org.terasology.engine.utilities.procedural.WhiteNoise;
 import org.terasology.engine.utilities.random.FastRandom;
 import org.terasology.engine.utilities.random.Random;
+import org.terasology.engine.world.block.BlockArea;
+import org.terasology.engine.world.block.BlockRegion;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -88,4 +93,66 @@ public void testResolution(Noise noiseGen) {
 
         fail();
     }
+
+    public static List<Noise> bulkData() {
+        List<Noise> noises = data();
+        noises.add(new SimplexNoise(0xCAFE, 100));
+        noises.add(new PerlinNoise(0xCAFE, 100));
+        noises.add(new BrownianNoise(new SimplexNoise(0xCAFE), 4));
+        noises.add(new BrownianNoise(new PerlinNoise(0xCAFE), 4));
+        return noises;
+    }
+
+    @ParameterizedTest
+    @MethodSource("bulkData")
+    public void testBulkMatchesScalar(Noise noiseGen) {
+        int count = 10000;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
+        float[] expected2D = new float[count];
+        float[] expected3D = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = rng.nextFloat() * 200f - 100f;
+            ys[i] = rng.nextFloat() * 200f - 100f;
+            zs[i] = rng.nextFloat() * 200f - 100f;
+            expected2D[i] = noiseGen.noise(xs[i], ys[i]);
+            expected3D[i] = noiseGen.noise(xs[i], ys[i], zs[i]);
+        }
+
+        float[] result = new float[count];
+        noiseGen.noise(xs, ys, result, count);
+        assertArrayEquals(expected2D, result);
+        noiseGen.noise(xs, ys, zs, result, count);
+        assertArrayEquals(expected3D, result);
+    }
+
+    @ParameterizedTest
+    @MethodSource("bulkData")
+    public void testBulkAreaAndRegion(Noise noiseGen) {
+        BlockArea area = new BlockArea(-5, 3).setSize(7, 4);
+        Vector2f areaScale = new Vector2f(0.1f, 0.03f);
+        float[] areaResult = new float[area.area()];
+        noiseGen.noise(area, areaScale, areaResult);
+        for (int y = 0; y < area.getSizeY(); y++) {
+            for (int x = 0; x < area.getSizeX(); x++) {
+                float expected = noiseGen.noise((x + area.minX()) * areaScale.x, (y + area.minY()) * areaScale.y);
+                assertEquals(expected, areaResult[x + area.getSizeX() * y]);
+            }
+        }
+
+        BlockRegion region = new BlockRegion(-3, 10, -20).setSize(5, 6, 7);
+        Vector3f regionScale = new Vector3f(0.1f, 0.05f, 0.2f);
+        float[] regionResult = new float[region.volume()];
+        noiseGen.noise(region, regionScale, regionResult);
+        for (int z = 0; z < region.getSizeZ(); z++) {
+            for (int y = 0; y < region.getSizeY(); y++) {
+                for (int x = 0; x < region.getSizeX(); x++) {
+                    float expected = noiseGen.noise((x + region.minX()) * regionScale.x,
+                            (y + region.minY()) * regionScale.y, (z + region.minZ()) * regionScale.z);
+                    assertEquals(expected, regionResult[x + region.getSizeX() * (y + region.getSizeY() * z)]);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,129 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.chunks;
+
+import com.google.common.collect.ImmutableList;
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.benchmark.world.ArrayBlockManager;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.OffHeapMemoryPool;
+import org.terasology.engine.world.chunks.blockdata.TeraArray;
+import org.terasology.engine.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares keeping the data of a large number of loaded chunks on the heap with keeping it off-heap. A full garbage
+ * collection has to trace all chunk data that lives on the heap, so its duration shows how much the chunks add to GC
+ * pauses; the random reads show what the off-heap storage costs in access time. Run with {@code -prof gc} to see the
+ * allocation and collection counts as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-XX:MaxDirectMemorySize=4g"})
+@Measurement(iterations = 5)
+public class ChunkStorageBenchmark {
+
+    private static final int TEMPLATES = 16;
+    private static final int READS = 1 << 20;
+
+    @Benchmark
+    public void fullCollection(ChunkState state) {
+        System.gc();
+    }
+
+    @Benchmark
+    public int randomReads(ChunkState state) {
+        int sum = 0;
+        for (int i = 0; i < READS; i++) {
+            int packed = state.reads[i];
+            ChunkImpl chunk = state.loaded[packed >>> 16];
+            sum += chunk.getBlock(packed & 0x1F, (packed >>> 5) & 0x3F, (packed >>> 11) & 0x1F).getId();
+        }
+        return sum;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ChunkState {
+        @Param({"20000"})
+        private int chunks;
+
+        @Param({"false", "true"})
+        private boolean offHeap;
+
+        private ChunkImpl[] loaded;
+        private OffHeapMemoryPool pool;
+        private int[] reads;
+
+        @Setup
+        public void setup() {
+            Block air = new Block();
+            Block stone = new Block();
+            Block dirt = new Block();
+            Block grass = new Block();
+            air.setId((short) 0);
+            stone.setId((short) 1);
+            dirt.setId((short) 2);
+            grass.setId((short) 3);
+            ArrayBlockManager blockManager = new ArrayBlockManager(ImmutableList.of(air, stone, dirt, grass));
+
+            // a few different pieces of hilly terrain, shared by all chunks to keep the setup fast
+            TeraArray[] templates = new TeraArray[TEMPLATES];
+            for (int t = 0; t < TEMPLATES; t++) {
+                TeraPaletteArray blocks = new TeraPaletteArray(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z, 16);
+                for (int x = 0; x < Chunks.SIZE_X; x++) {
+                    for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                        int height = 8 + (t * 3 + x / 4 + z / 3) % 48;
+                        for (int y = 0; y <= height; y++) {
+                            Block block = y == height ? grass : y > height - 4 ? dirt : stone;
+                            blocks.set(x, y, z, block.getId());
+                        }
+                    }
+                }
+                templates[t] = blocks;
+            }
+
+            pool = offHeap ? new OffHeapMemoryPool(0) : null;
+            loaded = new ChunkImpl[chunks];
+            for (int i = 0; i < chunks; i++) {
+                ChunkImpl chunk = new ChunkImpl(new Vector3i(i % 128, 0, i / 128), templates[i % TEMPLATES].copy(),
+                        new TeraArray[0], blockManager);
+                if (pool != null) {
+                    chunk.moveOffHeap(pool);
+                }
+                loaded[i] = chunk;
+            }
+
+            FastRandom random = new FastRandom(42);
+            reads = new int[READS];
+            for (int i = 0; i < READS; i++) {
+                reads[i] = random.nextInt(chunks) << 16 | random.nextInt(1 << 16);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (ChunkImpl chunk : loaded) {
+                chunk.dispose();
+            }
+            loaded = null;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.terasology.engine.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraDenseArray4Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.engine.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.engine.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraSparseArray8Bit;
 
@@ -77,6 +78,17 @@ public void fullyWrite(ArrayState state) {
         }
     }
 
+    @Benchmark
+    public void mixedWrite(ArrayState state) {
+        for (int y = 0; y < state.array.getSizeY(); y++) {
+            for (int z = 0; z < state.array.getSizeZ(); z++) {
+                for (int x = 0; x < state.array.getSizeX(); x++) {
+                    state.array.set(x, y, z, (x ^ y ^ z) & 7);
+                }
+            }
+        }
+    }
+
     @Benchmark
     public ByteBuffer toByteBuffer(ArrayState state, ByteBufferState bbState) {
         return state.handler.serialize(state.array, bbState.out);
@@ -94,7 +106,9 @@ public enum TeraArrayType {
         SPARCE_4BIT(() -> new TeraSparseArray4Bit(16, 256, 16, INFLATED_4_BIT, DEFLATED_4_BIT),
                 TeraSparseArray4Bit.SerializationHandler::new),
         SPARCE_8BIT(() -> new TeraSparseArray8Bit(16, 256, 16, INFLATED_8_BIT, DEFLATED_8_BIT),
-                TeraSparseArray8Bit.SerializationHandler::new);
+                TeraSparseArray8Bit.SerializationHandler::new),
+        PALETTE_8BIT(() -> new TeraPaletteArray(16, 256, 16, 8), TeraPaletteArray.SerializationHandler::new),
+        PALETTE_16BIT(() -> new TeraPaletteArray(16, 256, 16, 16), TeraPaletteArray.SerializationHandler::new);
 
         private final Supplier<TeraArray> creator;
         private final Supplier<SerializationHandler> handler;
@@ -140,7 +154,8 @@ public void setup(ArrayState arrayState) {
 
     @State(Scope.Thread)
     public static class ArrayState {
-        @Param({"DENCE_4BIT", "DENCE_8BIT", "DENCE_16BIT", "SPARCE_4BIT", "SPARCE_8BIT"})
+        @Param({"DENCE_4BIT", "DENCE_8BIT", "DENCE_16BIT", "SPARCE_4BIT", "SPARCE_8BIT", "PALETTE_8BIT",
+                "PALETTE_16BIT"})
         private static TeraArrayType arrayType;
 
         private SerializationHandler handler;
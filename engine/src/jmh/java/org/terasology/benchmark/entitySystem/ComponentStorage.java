@@ -0,0 +1,29 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.engine.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.ComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.MapComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+
+import java.util.function.Supplier;
+
+/**
+ * The component table implementations compared by the entity system benchmarks.
+ */
+public enum ComponentStorage {
+    MAP(MapComponentTable::new),
+    ARCHETYPE(ArchetypeComponentTable::new);
+
+    private final Supplier<ComponentTable> factory;
+
+    ComponentStorage(Supplier<ComponentTable> factory) {
+        this.factory = factory;
+    }
+
+    PojoEntityManager createEntityManager() {
+        return new PojoEntityManager(factory);
+    }
+}
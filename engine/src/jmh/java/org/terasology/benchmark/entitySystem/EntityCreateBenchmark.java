@@ -10,6 +10,7 @@
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -39,13 +40,16 @@ public EntityRef createEntity(StateObject state) {
     @State(Scope.Thread)
     public static class StateObject {
 
+        @Param({"MAP", "ARCHETYPE"})
+        private ComponentStorage storage;
+
         private List<Component> entityData;
         private PojoEntityManager entityManager;
 
         @Setup(Level.Invocation)
         public void setup() {
             entityData = Lists.newArrayList();
-            entityManager = new PojoEntityManager();
+            entityManager = storage.createEntityManager();
             FastRandom rand = new FastRandom(0L);
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
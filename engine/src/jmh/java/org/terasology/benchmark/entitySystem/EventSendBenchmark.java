@@ -0,0 +1,110 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.entitySystem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.rendering.logic.MeshComponent;
+import org.terasology.engine.world.block.BlockComponent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link EventSystemImpl#send}, both for events only received by unfiltered handlers and
+ * for events whose handlers filter on components, some of which the entity lacks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class EventSendBenchmark {
+
+    @Benchmark
+    public void sendUnfiltered(StateObject state) {
+        state.entity.send(new UnfilteredEvent());
+    }
+
+    @Benchmark
+    public void sendFiltered(StateObject state) {
+        state.entity.send(new FilteredEvent());
+    }
+
+    @Benchmark
+    public void sendToComponent(StateObject state) {
+        state.eventSystem.send(state.entity, new FilteredEvent(), state.location);
+    }
+
+    @State(Scope.Thread)
+    public static class StateObject {
+        private EventSystemImpl eventSystem;
+        private EntityRef entity;
+        private LocationComponent location;
+
+        @Setup
+        public void setup(Blackhole blackhole) {
+            PojoEntityManager entityManager = new PojoEntityManager();
+            eventSystem = new EventSystemImpl(true);
+            entityManager.setEventSystem(eventSystem);
+            location = new LocationComponent();
+            entity = entityManager.create(location, new MeshComponent());
+            eventSystem.registerEventHandler(new Handlers(blackhole));
+        }
+    }
+
+    public static class UnfilteredEvent implements Event {
+    }
+
+    public static class FilteredEvent implements Event {
+    }
+
+    public static class Handlers extends BaseComponentSystem {
+        private final Blackhole blackhole;
+
+        public Handlers(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @ReceiveEvent
+        public void onUnfiltered(UnfilteredEvent event, EntityRef entity) {
+            blackhole.consume(event);
+        }
+
+        @ReceiveEvent
+        public void onUnfilteredSecond(UnfilteredEvent event, EntityRef entity) {
+            blackhole.consume(entity);
+        }
+
+        @ReceiveEvent(components = LocationComponent.class)
+        public void onLocation(FilteredEvent event, EntityRef entity, LocationComponent location) {
+            blackhole.consume(location);
+        }
+
+        @ReceiveEvent(components = {LocationComponent.class, MeshComponent.class})
+        public void onLocationAndMesh(FilteredEvent event, EntityRef entity, MeshComponent mesh) {
+            blackhole.consume(mesh);
+        }
+
+        @ReceiveEvent(components = BlockComponent.class)
+        public void onBlock(FilteredEvent event, EntityRef entity, BlockComponent block) {
+            blackhole.consume(block);
+        }
+    }
+}
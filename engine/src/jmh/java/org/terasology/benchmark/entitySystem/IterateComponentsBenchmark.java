@@ -9,11 +9,14 @@
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.logic.common.DisplayNameComponent;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.rendering.logic.MeshComponent;
 import org.terasology.engine.utilities.random.FastRandom;
@@ -31,11 +34,19 @@ public class IterateComponentsBenchmark {
 
     @State(Scope.Benchmark)
     public static class StateObject {
-        private final PojoEntityManager entityManager = new PojoEntityManager();
+        @Param({"MAP", "ARCHETYPE"})
+        private ComponentStorage storage;
 
+        @Param({"1000", "100000"})
+        private int entityCount;
+
+        private PojoEntityManager entityManager;
+
+        @Setup
         public void setup() {
+            entityManager = storage.createEntityManager();
             FastRandom rand = new FastRandom(0L);
-            for (int i = 0; i < 1000; ++i) {
+            for (int i = 0; i < entityCount; ++i) {
                 List<Component> entityData = Lists.newArrayList();
                 if (rand.nextFloat() < 0.75f) {
                     entityData.add(new LocationComponent());
@@ -46,6 +57,9 @@ public void setup() {
                 if (rand.nextFloat() < 0.25f) {
                     entityData.add(new BlockComponent());
                 }
+                if (rand.nextFloat() < 0.01f) {
+                    entityData.add(new DisplayNameComponent());
+                }
                 entityManager.create(entityData);
             }
         }
@@ -60,6 +74,26 @@ public void iterateMultipleComponent(StateObject state) {
         }
     }
 
+    @Benchmark
+    public void iterateRareComponents(StateObject state) {
+        Iterable<EntityRef> entities = state.entityManager.getEntitiesWith(DisplayNameComponent.class,
+                LocationComponent.class);
+        for (EntityRef entity : entities) {
+            LocationComponent loc = entity.getComponent(LocationComponent.class);
+            loc.getLocalPosition();
+        }
+    }
+
+    @Benchmark
+    public int countCommonComponents(StateObject state) {
+        return state.entityManager.getCountOfEntitiesWith(MeshComponent.class, LocationComponent.class);
+    }
+
+    @Benchmark
+    public int countRareComponents(StateObject state) {
+        return state.entityManager.getCountOfEntitiesWith(DisplayNameComponent.class, LocationComponent.class);
+    }
+
     @Benchmark
     public void iterateSingleComponent(StateObject state) {
         for (EntityRef entity : state.entityManager.getEntitiesWith(LocationComponent.class)) {
@@ -0,0 +1,113 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.noise;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.utilities.procedural.BrownianNoise;
+import org.terasology.engine.utilities.procedural.Noise;
+import org.terasology.engine.utilities.procedural.PerlinNoise;
+import org.terasology.engine.utilities.procedural.SimplexNoise;
+import org.terasology.engine.world.block.BlockArea;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing the noise of a chunk one position at a time with the bulk methods of {@link Noise}.
+ * <p>
+ * The 2D benchmarks cover the area of a chunk, like a height facet, the 3D benchmarks the whole chunk, like a density
+ * facet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class BulkNoiseBenchmark {
+
+    private static final Vector2f SCALE_2D = new Vector2f(0.01f, 0.01f);
+    private static final Vector3f SCALE_3D = new Vector3f(0.01f, 0.02f, 0.01f);
+
+    @Benchmark
+    public float[] scalar2D(NoiseState state) {
+        BlockArea area = state.area;
+        float[] result = state.result;
+        int i = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                result[i++] = state.noise.noise(x * SCALE_2D.x, y * SCALE_2D.y);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] bulk2D(NoiseState state) {
+        state.noise.noise(state.area, SCALE_2D, state.result);
+        return state.result;
+    }
+
+    @Benchmark
+    public float[] scalar3D(NoiseState state) {
+        BlockRegion region = state.region;
+        float[] result = state.result;
+        int i = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    result[i++] = state.noise.noise(x * SCALE_3D.x, y * SCALE_3D.y, z * SCALE_3D.z);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] bulk3D(NoiseState state) {
+        state.noise.noise(state.region, SCALE_3D, state.result);
+        return state.result;
+    }
+
+    @State(Scope.Thread)
+    public static class NoiseState {
+        @Param({"simplex", "perlin", "brownian"})
+        private String type;
+
+        private Noise noise;
+        private BlockArea area;
+        private BlockRegion region;
+        private float[] result;
+
+        @Setup
+        public void setup() {
+            switch (type) {
+                case "simplex":
+                    noise = new SimplexNoise(0xCAFE);
+                    break;
+                case "perlin":
+                    noise = new PerlinNoise(0xCAFE);
+                    break;
+                default:
+                    noise = new BrownianNoise(new SimplexNoise(0xCAFE), 6);
+                    break;
+            }
+            region = new BlockRegion(-40, 60, 100).setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+            area = new BlockArea(region.minX(), region.minZ()).setSize(Chunks.SIZE_X, Chunks.SIZE_Z);
+            result = new float[region.volume()];
+        }
+    }
+}
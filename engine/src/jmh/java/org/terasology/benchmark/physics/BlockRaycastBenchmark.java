@@ -0,0 +1,195 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.physics;
+
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.btVector3i;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.google.common.collect.ImmutableList;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.benchmark.world.ArrayBlockManager;
+import org.terasology.benchmark.world.MapChunkProvider;
+import org.terasology.engine.physics.BlockRaycaster;
+import org.terasology.engine.physics.StandardCollisionGroup;
+import org.terasology.engine.physics.bullet.BulletPhysics;
+import org.terasology.engine.physics.bullet.world.VoxelBlockWorld;
+import org.terasology.engine.physics.engine.PhysicsEngineManager;
+import org.terasology.engine.physics.shapes.CollisionShape;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares picking blocks through Bullet's voxel world, the way {@link BulletPhysics#rayTrace} used to for every
+ * ray, with the {@link BlockRaycaster} walking the chunks directly. The rays start above a hilly terrain and point
+ * downwards at random angles, so most of them hit the ground. Runs headless, only the Bullet natives are loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class BlockRaycastBenchmark {
+
+    private static final int WORLD_CHUNKS_X = 4;
+    private static final int WORLD_CHUNKS_Z = 4;
+    private static final float RAY_LENGTH = 64;
+
+    @Benchmark
+    public int bullet(RayState state) {
+        short mask = StandardCollisionGroup.WORLD.getFlag();
+        int hits = 0;
+        for (int i = 0; i < state.rays; i++) {
+            Vector3f from = new Vector3f(state.origins[i * 3], state.origins[i * 3 + 1], state.origins[i * 3 + 2]);
+            Vector3f to = new Vector3f(state.directions[i * 3], state.directions[i * 3 + 1],
+                    state.directions[i * 3 + 2]);
+            to.normalize().mul(RAY_LENGTH).add(from);
+
+            ClosestRayResultCallback callback = new ClosestRayResultCallback(from, to);
+            callback.setCollisionFilterGroup(StandardCollisionGroup.ALL.getFlag());
+            callback.setCollisionFilterMask(mask);
+            state.bulletWorld.rayTest(from, to, callback);
+            if (callback.hasHit()) {
+                Vector3f hitPoint = new Vector3f();
+                callback.getHitPointWorld(hitPoint);
+                Vector3f hitNormal = new Vector3f();
+                callback.getHitNormalWorld(hitNormal);
+                btVector3i pos = new btVector3i();
+                callback.getCollisionObject().getVoxelPosition(pos);
+                hits++;
+            }
+            callback.dispose();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int raycast(RayState state) {
+        short filter = StandardCollisionGroup.WORLD.getFlag();
+        Vector3f from = new Vector3f();
+        Vector3f direction = new Vector3f();
+        int hits = 0;
+        for (int i = 0; i < state.rays; i++) {
+            from.set(state.origins[i * 3], state.origins[i * 3 + 1], state.origins[i * 3 + 2]);
+            direction.set(state.directions[i * 3], state.directions[i * 3 + 1], state.directions[i * 3 + 2]);
+            if (state.raycaster.raycast(from, direction, RAY_LENGTH, filter, state.results[0])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int raycastBatch(RayState state) {
+        return state.raycaster.raycast(state.origins, state.directions, state.distances, state.rays,
+                StandardCollisionGroup.WORLD.getFlag(), state.results);
+    }
+
+    @State(Scope.Thread)
+    public static class RayState {
+        @Param({"1000"})
+        private int rays;
+
+        private btDiscreteDynamicsWorld bulletWorld;
+        private BlockRaycaster raycaster;
+        private float[] origins;
+        private float[] directions;
+        private float[] distances;
+        private BlockRaycaster.Hit[] results;
+
+        @Setup
+        public void setup() {
+            Bullet.init(true, false);
+
+            CollisionShape cube = PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube();
+            Block air = new Block();
+            air.setId((short) 0);
+            air.setCollision(new Vector3f(), cube);
+            air.setPenetrable(true);
+            air.setTargetable(false);
+            Block stone = new Block();
+            stone.setId((short) 1);
+            stone.setCollision(new Vector3f(), cube);
+            ArrayBlockManager blockManager = new ArrayBlockManager(ImmutableList.of(air, stone));
+
+            BulletPhysics physics = new BulletPhysics();
+            bulletWorld = physics.getWorld();
+            VoxelBlockWorld voxelWorld = new VoxelBlockWorld(physics);
+            voxelWorld.registerBlock(air);
+            voxelWorld.registerBlock(stone);
+
+            FastRandom random = new FastRandom(42);
+            MapChunkProvider chunkProvider = new MapChunkProvider();
+            ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+            for (int chunkX = 0; chunkX < WORLD_CHUNKS_X; chunkX++) {
+                for (int chunkZ = 0; chunkZ < WORLD_CHUNKS_Z; chunkZ++) {
+                    Chunk chunk = new ChunkImpl(chunkX, 0, chunkZ, blockManager, extraDataManager);
+                    for (int x = 0; x < Chunks.SIZE_X; x++) {
+                        for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                            int height = 16 + random.nextInt(8);
+                            for (int y = 0; y < height; y++) {
+                                chunk.setBlock(x, y, z, stone);
+                            }
+                        }
+                    }
+                    chunkProvider.put(chunk);
+                    voxelWorld.loadChunk(chunk, toBuffer(chunk));
+                }
+            }
+            raycaster = new BlockRaycaster(chunkProvider);
+
+            origins = new float[rays * 3];
+            directions = new float[rays * 3];
+            distances = new float[rays];
+            results = new BlockRaycaster.Hit[rays];
+            for (int i = 0; i < rays; i++) {
+                origins[i * 3] = random.nextFloat(0, WORLD_CHUNKS_X * Chunks.SIZE_X);
+                origins[i * 3 + 1] = random.nextFloat(30, 50);
+                origins[i * 3 + 2] = random.nextFloat(0, WORLD_CHUNKS_Z * Chunks.SIZE_Z);
+                directions[i * 3] = random.nextFloat(-1, 1);
+                directions[i * 3 + 1] = random.nextFloat(-1, -0.2f);
+                directions[i * 3 + 2] = random.nextFloat(-1, 1);
+                distances[i] = RAY_LENGTH;
+                results[i] = new BlockRaycaster.Hit();
+            }
+        }
+
+        /**
+         * Encodes the block ids the same way the voxel world system hands new chunks to Bullet.
+         */
+        private static ShortBuffer toBuffer(Chunk chunk) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(2 * (Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z));
+            buffer.order(ByteOrder.nativeOrder());
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                for (int x = 0; x < Chunks.SIZE_X; x++) {
+                    for (int y = 0; y < Chunks.SIZE_Y; y++) {
+                        buffer.putShort(chunk.getBlock(x, y, z).getId());
+                    }
+                }
+            }
+            buffer.rewind();
+            return buffer.asShortBuffer();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.physics;
+
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.google.common.collect.ImmutableList;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.benchmark.world.ArrayBlockManager;
+import org.terasology.benchmark.world.MapChunkProvider;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.physics.ChunkCollisionData;
+import org.terasology.engine.physics.bullet.BulletPhysics;
+import org.terasology.engine.physics.bullet.world.VoxelBlockWorld;
+import org.terasology.engine.physics.components.RigidBodyComponent;
+import org.terasology.engine.physics.components.shapes.BoxShapeComponent;
+import org.terasology.engine.physics.engine.PhysicsEngineManager;
+import org.terasology.engine.physics.shapes.CollisionShape;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps a world with thousands of loose boxes, like the debris of an explosion, and measures the time per physics
+ * tick. The boxes are dropped onto a flat floor, except for the given share of them which is dropped over chunks that
+ * are not loaded. Those have no ground to rest on and only stay cheap because the physics engine takes them out of the
+ * simulation until their chunk is loaded. Optionally the boxes are simulated in the parallel region worlds, as there
+ * are no characters around. Runs headless, only the Bullet natives are loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class RigidBodyStressBenchmark {
+
+    private static final int WORLD_CHUNKS_X = 4;
+    private static final int WORLD_CHUNKS_Z = 4;
+    private static final int FLOOR_HEIGHT = 8;
+    private static final float TICK = 1f / 60;
+
+    @Benchmark
+    public void step(PhysicsState state) {
+        state.physics.update(TICK);
+        state.physics.getCollisionPairs();
+    }
+
+    @State(Scope.Thread)
+    public static class PhysicsState {
+        @Param({"1000", "5000"})
+        private int bodies;
+
+        /* Percentage of the bodies dropped over chunks that are not loaded */
+        @Param({"0", "50"})
+        private int unloadedPercent;
+
+        @Param({"false", "true"})
+        private boolean parallel;
+
+        private BulletPhysics physics;
+
+        @Setup
+        public void setup() {
+            Bullet.init(true, false);
+
+            CollisionShape cube = PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube();
+            Block air = new Block();
+            air.setId((short) 0);
+            air.setCollision(new Vector3f(), cube);
+            air.setPenetrable(true);
+            Block stone = new Block();
+            stone.setId((short) 1);
+            stone.setCollision(new Vector3f(), cube);
+            ArrayBlockManager blockManager = new ArrayBlockManager(ImmutableList.of(air, stone));
+
+            MapChunkProvider chunkProvider = new MapChunkProvider();
+            ContextImpl context = new ContextImpl();
+            context.put(ChunkProvider.class, chunkProvider);
+            CoreRegistry.setContext(context);
+
+            physics = parallel ? new BulletPhysics(ForkJoinPool.commonPool()) : new BulletPhysics();
+            VoxelBlockWorld voxelWorld = new VoxelBlockWorld(physics);
+            voxelWorld.registerBlock(air);
+            voxelWorld.registerBlock(stone);
+
+            // only the chunks with non-negative x are loaded, the boxes over negative x have no ground
+            ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+            for (int chunkX = 0; chunkX < WORLD_CHUNKS_X; chunkX++) {
+                for (int chunkZ = 0; chunkZ < WORLD_CHUNKS_Z; chunkZ++) {
+                    Chunk chunk = new ChunkImpl(chunkX, 0, chunkZ, blockManager, extraDataManager);
+                    for (int x = 0; x < Chunks.SIZE_X; x++) {
+                        for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                            for (int y = 0; y < FLOOR_HEIGHT; y++) {
+                                chunk.setBlock(x, y, z, stone);
+                            }
+                        }
+                    }
+                    chunkProvider.put(chunk);
+                    voxelWorld.loadChunk(chunk, ChunkCollisionData.build(chunk).getVoxels());
+                }
+            }
+
+            PojoEntityManager entityManager = new PojoEntityManager();
+            FastRandom random = new FastRandom(42);
+            float width = WORLD_CHUNKS_X * Chunks.SIZE_X;
+            float depth = WORLD_CHUNKS_Z * Chunks.SIZE_Z;
+            for (int i = 0; i < bodies; i++) {
+                boolean unloaded = i * 100 < bodies * unloadedPercent;
+                Vector3f position = new Vector3f(
+                        unloaded ? -random.nextFloat(1, width) : random.nextFloat(1, width - 1),
+                        random.nextFloat(FLOOR_HEIGHT + 2, Chunks.SIZE_Y - 2),
+                        random.nextFloat(1, depth - 1));
+                BoxShapeComponent box = new BoxShapeComponent();
+                box.extents.set(0.5f);
+                EntityRef entity = entityManager.create(new LocationComponent(position), new RigidBodyComponent(),
+                        box);
+                physics.getRigidBody(entity);
+            }
+            // let the boxes come to rest, so the measured ticks are those of a settled pile
+            for (int i = 0; i < 120; i++) {
+                physics.update(TICK);
+                physics.getCollisionPairs();
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            physics.dispose();
+        }
+    }
+}
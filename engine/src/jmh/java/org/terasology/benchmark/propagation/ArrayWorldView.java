@@ -0,0 +1,72 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.propagation;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.PropagatorWorldView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Box of blocks and values backed by flat arrays, starting at the origin. Positions outside are unavailable.
+ * <p>
+ * Distinct positions can be written concurrently.
+ */
+class ArrayWorldView implements PropagatorWorldView {
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final byte[] values;
+    private final Block[] blocks;
+
+    ArrayWorldView(int size, Block fill) {
+        this(size, size, size, fill);
+    }
+
+    ArrayWorldView(int sizeX, int sizeY, int sizeZ, Block fill) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.values = new byte[sizeX * sizeY * sizeZ];
+        this.blocks = new Block[values.length];
+        Arrays.fill(blocks, fill);
+    }
+
+    private int index(Vector3ic pos) {
+        if (pos.x() < 0 || pos.y() < 0 || pos.z() < 0 || pos.x() >= sizeX || pos.y() >= sizeY || pos.z() >= sizeZ) {
+            return -1;
+        }
+        return pos.x() + sizeX * (pos.z() + sizeZ * pos.y());
+    }
+
+    void setBlockAt(int x, int y, int z, Block block) {
+        blocks[x + sizeX * (z + sizeZ * y)] = block;
+    }
+
+    void apply(List<BlockChange> changes) {
+        for (BlockChange change : changes) {
+            blocks[index(change.getPosition())] = change.getTo();
+        }
+    }
+
+    @Override
+    public byte getValueAt(Vector3ic pos) {
+        int index = index(pos);
+        return index < 0 ? UNAVAILABLE : values[index];
+    }
+
+    @Override
+    public void setValueAt(Vector3ic pos, byte value) {
+        values[index(pos)] = value;
+    }
+
+    @Override
+    public Block getBlockAt(Vector3ic pos) {
+        int index = index(pos);
+        return index < 0 ? null : blocks[index];
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.BatchPropagator;
+import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.PrimitiveBatchPropagator;
+import org.terasology.engine.world.propagation.PropagationRules;
+import org.terasology.engine.world.propagation.PropagatorWorldView;
+import org.terasology.engine.world.propagation.StandardBatchPropagator;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Compares light propagation implementations on large edits: a batch of torches is placed into a cave-like world and
+ * then removed again, so every invocation starts from the same state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class BatchPropagatorBenchmark {
+
+    private static final int WORLD_SIZE = 64;
+
+    @Benchmark
+    public void placeAndRemoveLights(WorldState state) {
+        state.propagator.process(state.placeLights);
+        state.world.apply(state.removeLights);
+        state.propagator.process(state.removeLights);
+        state.world.apply(state.placeLights);
+    }
+
+    public enum Implementation {
+        STANDARD(StandardBatchPropagator::new),
+        PRIMITIVE(PrimitiveBatchPropagator::new);
+
+        private final BiFunction<PropagationRules, PropagatorWorldView, BatchPropagator> creator;
+
+        Implementation(BiFunction<PropagationRules, PropagatorWorldView, BatchPropagator> creator) {
+            this.creator = creator;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WorldState {
+        @Param({"STANDARD", "PRIMITIVE"})
+        private Implementation implementation;
+
+        @Param({"16", "256"})
+        private int lightCount;
+
+        private ArrayWorldView world;
+        private BatchPropagator propagator;
+        private List<BlockChange> placeLights;
+        private List<BlockChange> removeLights;
+
+        @Setup
+        public void setup() {
+            Block air = new Block();
+            air.setTranslucent(true);
+            Block stone = new Block();
+            for (Side side : Side.values()) {
+                stone.setFullSide(side, true);
+            }
+            Block torch = new Block();
+            torch.setTranslucent(true);
+            torch.setLuminance(Chunks.MAX_LIGHT);
+
+            FastRandom random = new FastRandom(0L);
+            world = new ArrayWorldView(WORLD_SIZE, air);
+            for (int i = 0; i < WORLD_SIZE * WORLD_SIZE * WORLD_SIZE / 8; i++) {
+                world.setBlockAt(random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE),
+                        stone);
+            }
+
+            placeLights = Lists.newArrayList();
+            removeLights = Lists.newArrayList();
+            for (int i = 0; i < lightCount; i++) {
+                Vector3i pos = new Vector3i(random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE),
+                        random.nextInt(WORLD_SIZE));
+                Block previous = world.getBlockAt(pos);
+                if (previous == torch) {
+                    continue;
+                }
+                world.setBlockAt(pos.x, pos.y, pos.z, torch);
+                placeLights.add(new BlockChange(pos, previous, torch));
+                removeLights.add(new BlockChange(pos, torch, previous));
+            }
+
+            propagator = implementation.creator.apply(new LightPropagationRules(), world);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.BatchPropagator;
+import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.ParallelBatchPropagator;
+import org.terasology.engine.world.propagation.PrimitiveBatchPropagator;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ParallelBatchPropagator} scales with the number of threads.
+ * <p>
+ * The batch consists of torches placed at several sites three chunks apart, so every site forms its own independent
+ * group. {@code threads = 0} runs the sequential {@link PrimitiveBatchPropagator} as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class ParallelBatchPropagatorBenchmark {
+
+    private static final int SITES_PER_AXIS = 4;
+    private static final int SITE_SPACING = 3 * Chunks.SIZE_X;
+    private static final int SITE_RADIUS = 6;
+    private static final int LIGHTS_PER_SITE = 24;
+
+    @Benchmark
+    public void placeAndRemoveLights(WorldState state) {
+        state.propagator.process(state.placeLights);
+        state.world.apply(state.removeLights);
+        state.propagator.process(state.removeLights);
+        state.world.apply(state.placeLights);
+    }
+
+    @State(Scope.Thread)
+    public static class WorldState {
+        @Param({"0", "1", "2", "4", "8"})
+        private int threads;
+
+        private ForkJoinPool pool;
+        private ArrayWorldView world;
+        private BatchPropagator propagator;
+        private List<BlockChange> placeLights;
+        private List<BlockChange> removeLights;
+
+        @Setup
+        public void setup() {
+            Block air = new Block();
+            air.setTranslucent(true);
+            Block stone = new Block();
+            for (Side side : Side.values()) {
+                stone.setFullSide(side, true);
+            }
+            Block torch = new Block();
+            torch.setTranslucent(true);
+            torch.setLuminance(Chunks.MAX_LIGHT);
+
+            int size = SITES_PER_AXIS * SITE_SPACING;
+            world = new ArrayWorldView(size, Chunks.SIZE_Y, size, air);
+            FastRandom random = new FastRandom(0L);
+            for (int i = 0; i < size * size * Chunks.SIZE_Y / 8; i++) {
+                world.setBlockAt(random.nextInt(size), random.nextInt(Chunks.SIZE_Y), random.nextInt(size), stone);
+            }
+
+            placeLights = Lists.newArrayList();
+            removeLights = Lists.newArrayList();
+            for (int siteX = 0; siteX < SITES_PER_AXIS; siteX++) {
+                for (int siteZ = 0; siteZ < SITES_PER_AXIS; siteZ++) {
+                    Vector3i center = new Vector3i(siteX * SITE_SPACING + SITE_SPACING / 2, Chunks.SIZE_Y / 2,
+                            siteZ * SITE_SPACING + SITE_SPACING / 2);
+                    for (int i = 0; i < LIGHTS_PER_SITE; i++) {
+                        Vector3i pos = new Vector3i(
+                                center.x + random.nextInt(-SITE_RADIUS, SITE_RADIUS),
+                                center.y + random.nextInt(-SITE_RADIUS, SITE_RADIUS),
+                                center.z + random.nextInt(-SITE_RADIUS, SITE_RADIUS));
+                        Block previous = world.getBlockAt(pos);
+                        if (previous == torch) {
+                            continue;
+                        }
+                        world.setBlockAt(pos.x, pos.y, pos.z, torch);
+                        placeLights.add(new BlockChange(pos, previous, torch));
+                        removeLights.add(new BlockChange(pos, torch, previous));
+                    }
+                }
+            }
+
+            LightPropagationRules rules = new LightPropagationRules();
+            if (threads == 0) {
+                propagator = new PrimitiveBatchPropagator(rules, world);
+            } else {
+                pool = new ForkJoinPool(threads);
+                propagator = new ParallelBatchPropagator(rules, world, pool);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.benchmark.world.ArrayBlockManager;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.rendering.primitives.BlockMeshGeneratorSingleShape;
+import org.terasology.engine.rendering.primitives.ChunkMesh;
+import org.terasology.engine.rendering.primitives.ChunkTessellator;
+import org.terasology.engine.rendering.primitives.ChunkTessellators;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.DefaultColorSource;
+import org.terasology.engine.world.block.shapes.BlockMeshPart;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.engine.world.internal.ChunkViewCoreImpl;
+import org.terasology.engine.world.propagation.light.InternalLightProcessor;
+import org.terasology.gestalt.assets.ResourceUrn;
+import org.terasology.nui.Color;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the {@link ChunkTessellator} takes to mesh a chunk of hilly terrain in each of its modes, and how
+ * many vertices the mesh ends up with. The terrain consists of full cubes of stone, dirt and grass, lit by sunlight,
+ * with the neighbouring chunks loaded. The vertex count is reported as the secondary result "vertices". Runs
+ * headless, the blocks are put together by hand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class ChunkTessellatorBenchmark {
+
+    @Benchmark
+    public ChunkMesh generateMesh(TerrainState state, MeshSize size) {
+        return state.tessellator.generateMesh(state.view);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MeshSize {
+        /* The vertex count of a single mesh, which JMH reports at the end of every iteration */
+        public int vertices;
+
+        @Setup(Level.Iteration)
+        public void setup(TerrainState state) {
+            vertices = state.vertices;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TerrainState {
+        @Param({"PER_BLOCK", "BULK", "GREEDY"})
+        private String mode;
+
+        private ChunkTessellator tessellator;
+        private ChunkView view;
+        private int vertices;
+
+        @Setup
+        public void setup() {
+            Block air = new Block();
+            air.setId((short) 0);
+            air.setUri(new BlockUri(new ResourceUrn("engine:air")));
+            air.setTranslucent(true);
+            air.setShadowCasting(false);
+            Block stone = createCube(1, "stone");
+            Block dirt = createCube(2, "dirt");
+            Block grass = createCube(3, "grass");
+            ArrayBlockManager blockManager = new ArrayBlockManager(ImmutableList.of(air, stone, dirt, grass));
+
+            ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+            Chunk[] chunks = new Chunk[9];
+            for (int chunkX = 0; chunkX < 3; chunkX++) {
+                for (int chunkZ = 0; chunkZ < 3; chunkZ++) {
+                    Chunk chunk = new ChunkImpl(chunkX, 0, chunkZ, blockManager, extraDataManager);
+                    for (int x = 0; x < Chunks.SIZE_X; x++) {
+                        for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                            int worldX = chunkX * Chunks.SIZE_X + x;
+                            int worldZ = chunkZ * Chunks.SIZE_Z + z;
+                            int height = (int) (28 + 8 * Math.sin(worldX / 11.0) + 6 * Math.cos(worldZ / 7.0));
+                            for (int y = 0; y < height; y++) {
+                                chunk.setBlock(x, y, z, y < height - 4 ? stone : y < height - 1 ? dirt : grass);
+                            }
+                        }
+                    }
+                    InternalLightProcessor.generateInternalLighting(chunk);
+                    chunks[chunkX + 3 * chunkZ] = chunk;
+                }
+            }
+            view = new ChunkViewCoreImpl(chunks, new BlockRegion(0, 0, 0, 2, 0, 2), new Vector3i(1, 0, 1), air);
+            tessellator = ChunkTessellators.create(mode);
+
+            ChunkMesh mesh = tessellator.generateMesh(view);
+            vertices = 0;
+            for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+                vertices += mesh.getVertexElements(type).vertexCount;
+            }
+        }
+
+        private static Block createCube(int id, String name) {
+            Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+            Map<BlockPart, Vector2fc> atlasPositions = Maps.newEnumMap(BlockPart.class);
+            for (BlockPart part : BlockPart.allParts()) {
+                atlasPositions.put(part, new Vector2f(id / 16f, 0));
+                if (part.isSide()) {
+                    parts.put(part, createFace(part.getSide()));
+                }
+            }
+
+            Block block = new Block();
+            block.setId((short) id);
+            block.setUri(new BlockUri(new ResourceUrn("engine", name)));
+            block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+            block.setColorSource(DefaultColorSource.DEFAULT);
+            block.setColorOffsets(Color.white);
+            for (Side side : Side.allSides()) {
+                block.setFullSide(side, true);
+            }
+            block.setMeshGenerator(new BlockMeshGeneratorSingleShape(block));
+            return block;
+        }
+
+        private static BlockMeshPart createFace(Side side) {
+            Vector3ic direction = side.direction();
+            int normalAxis = direction.x() != 0 ? 0 : direction.y() != 0 ? 1 : 2;
+            int uAxis = (normalAxis + 1) % 3;
+            int vAxis = (normalAxis + 2) % 3;
+            float[][] corners = {{-0.5f, -0.5f}, {0.5f, -0.5f}, {0.5f, 0.5f}, {-0.5f, 0.5f}};
+            Vector3f[] vertices = new Vector3f[4];
+            Vector3f[] normals = new Vector3f[4];
+            Vector2f[] texCoords = new Vector2f[4];
+            for (int i = 0; i < 4; i++) {
+                vertices[i] = new Vector3f()
+                        .setComponent(normalAxis, 0.5f * direction.get(normalAxis))
+                        .setComponent(uAxis, corners[i][0])
+                        .setComponent(vAxis, corners[i][1]);
+                normals[i] = new Vector3f(direction.x(), direction.y(), direction.z());
+                texCoords[i] = new Vector2f(corners[i][0] + 0.5f, corners[i][1] + 0.5f);
+            }
+            return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+        }
+    }
+}
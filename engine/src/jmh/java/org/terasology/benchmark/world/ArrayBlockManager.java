@@ -0,0 +1,75 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.world;
+
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.family.BlockFamily;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Block manager serving a fixed list of blocks by their position in the list, which has to match their id.
+ */
+public class ArrayBlockManager extends BlockManager {
+    private final List<Block> blocks;
+
+    public ArrayBlockManager(List<Block> blocks) {
+        this.blocks = blocks;
+    }
+
+    @Override
+    public Map<String, Short> getBlockIdMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(String uri) {
+        return null;
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(BlockUri uri) {
+        return null;
+    }
+
+    @Override
+    public Block getBlock(String uri) {
+        return null;
+    }
+
+    @Override
+    public Block getBlock(BlockUri uri) {
+        return null;
+    }
+
+    @Override
+    public Block getBlock(short id) {
+        return blocks.get(id);
+    }
+
+    @Override
+    public Collection<BlockUri> listRegisteredBlockUris() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<BlockFamily> listRegisteredBlockFamilies() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getBlockFamilyCount() {
+        return 0;
+    }
+
+    @Override
+    public Collection<Block> listRegisteredBlocks() {
+        return blocks;
+    }
+}
@@ -0,0 +1,81 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.internal.ChunkViewCore;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Chunk provider over a fixed set of chunks, without any loading or generation.
+ */
+public class MapChunkProvider implements ChunkProvider {
+    private final Map<Vector3ic, Chunk> chunks = Maps.newHashMap();
+
+    public void put(Chunk chunk) {
+        chunks.put(new Vector3i(chunk.getPosition()), chunk);
+    }
+
+    @Override
+    public ChunkViewCore getSubview(BlockRegionc region, Vector3ic offset) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setWorldEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public boolean reloadChunk(Vector3ic pos) {
+        return false;
+    }
+
+    @Override
+    public void purgeWorld() {
+    }
+
+    @Override
+    public boolean isChunkReady(Vector3ic pos) {
+        return chunks.containsKey(pos);
+    }
+
+    @Override
+    public Chunk getChunk(int x, int y, int z) {
+        return getChunk(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public Chunk getChunk(Vector3ic chunkPos) {
+        return chunks.get(chunkPos);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public Collection<Chunk> getAllChunks() {
+        return chunks.values();
+    }
+
+    @Override
+    public void restart() {
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.core.SimpleUri;
+import org.terasology.engine.world.WorldChangeListener;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.engine.world.internal.WorldProviderCoreImpl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pasting a cube of blocks through {@link WorldProviderCoreImpl#setBlocks(Map)} with setting the blocks one
+ * by one. Each invocation places the cube and then removes it again, with a listener receiving the changes like a
+ * connected client would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(1)
+@Measurement(iterations = 3)
+public class SetBlocksBenchmark {
+
+    private static final int WORLD_CHUNKS_X = 4;
+    private static final int WORLD_CHUNKS_Y = 2;
+    private static final int WORLD_CHUNKS_Z = 4;
+
+    @Benchmark
+    public int setBlocks(WorldState state) {
+        state.world.setBlocks(state.placeBlocks);
+        state.world.setBlocks(state.removeBlocks);
+        return state.listener.changes;
+    }
+
+    @Benchmark
+    public int setBlockEach(WorldState state) {
+        for (Map.Entry<Vector3ic, Block> entry : state.placeBlocks.entrySet()) {
+            state.world.setBlock(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Vector3ic, Block> entry : state.removeBlocks.entrySet()) {
+            state.world.setBlock(entry.getKey(), entry.getValue());
+        }
+        return state.listener.changes;
+    }
+
+    @State(Scope.Thread)
+    public static class WorldState {
+        /* The edge length of the cube, 47 makes for roughly 100k blocks */
+        @Param({"10", "47"})
+        private int size;
+
+        private WorldProviderCoreImpl world;
+        private CountingListener listener;
+        private Map<Vector3ic, Block> placeBlocks;
+        private Map<Vector3ic, Block> removeBlocks;
+
+        @Setup
+        public void setup() {
+            Block air = new Block();
+            air.setId((short) 0);
+            Block stone = new Block();
+            stone.setId((short) 1);
+            ArrayBlockManager blockManager = new ArrayBlockManager(ImmutableList.of(air, stone));
+
+            MapChunkProvider chunkProvider = new MapChunkProvider();
+            ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+            for (int x = 0; x < WORLD_CHUNKS_X; x++) {
+                for (int y = 0; y < WORLD_CHUNKS_Y; y++) {
+                    for (int z = 0; z < WORLD_CHUNKS_Z; z++) {
+                        chunkProvider.put(new ChunkImpl(x, y, z, blockManager, extraDataManager));
+                    }
+                }
+            }
+            world = new WorldProviderCoreImpl("benchmark", null, "seed", 0, new SimpleUri("engine:benchmark"),
+                    chunkProvider, air, new ContextImpl());
+            listener = new CountingListener();
+            world.registerListener(listener);
+
+            // The cube crosses chunk borders on every axis
+            placeBlocks = Maps.newLinkedHashMap();
+            removeBlocks = Maps.newLinkedHashMap();
+            Vector3i corner = new Vector3i(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z)
+                    .sub(size / 2, size / 2, size / 2);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    for (int z = 0; z < size; z++) {
+                        Vector3i pos = new Vector3i(corner).add(x, y, z);
+                        placeBlocks.put(pos, stone);
+                        removeBlocks.put(pos, air);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class CountingListener implements WorldChangeListener {
+        private int changes;
+
+        @Override
+        public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
+            changes++;
+        }
+
+        @Override
+        public void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData) {
+        }
+    }
+}
@@ -0,0 +1,21 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.rendering.primitives;
+
+/**
+ * Creates tessellators in any of the {@link ChunkTessellator.Mode}s for the benchmarks. The modes are package-private
+ * in the engine, as the game must not use {@link ChunkTessellator.Mode#GREEDY} yet.
+ */
+public final class ChunkTessellators {
+
+    private ChunkTessellators() {
+    }
+
+    /**
+     * @param mode the name of the mode to tessellate in
+     */
+    public static ChunkTessellator create(String mode) {
+        return new ChunkTessellator(ChunkTessellator.Mode.valueOf(mode));
+    }
+}
@@ -72,6 +72,30 @@ public class SystemConfig extends AutoConfig {
                     .map(Boolean::parseBoolean))
     );
 
+    public final Setting<Boolean> regionChunkStorageEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("${engine:menu#settings-region-chunk-storage}")
+    );
+
+    public final Setting<Boolean> offHeapChunkStorageEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("${engine:menu#settings-off-heap-chunk-storage}")
+    );
+
+    public final Setting<Boolean> parallelSystemUpdatesEnabled = setting(
+            type(Boolean.class),
+            defaultValue(true),
+            name("${engine:menu#settings-parallel-system-updates}")
+    );
+
+    public final Setting<Boolean> parallelPhysicsEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("${engine:menu#settings-parallel-physics}")
+    );
+
     public final Setting<Long> chunkGenerationFailTimeoutInMs = setting(
             type(Long.class),
             defaultValue(1800000L),
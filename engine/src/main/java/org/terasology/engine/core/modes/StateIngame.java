@@ -15,7 +15,7 @@
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.engine.entitySystem.event.internal.EventSystem;
 import org.terasology.engine.entitySystem.prefab.Prefab;
-import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.entitySystem.systems.internal.SystemUpdateScheduler;
 import org.terasology.engine.game.GameManifest;
 import org.terasology.engine.identity.storageServiceClient.StorageServiceWorker;
 import org.terasology.engine.input.InputSystem;
@@ -51,6 +51,7 @@
 public class StateIngame implements GameState {
 
     private ComponentSystemManager componentSystemManager;
+    private SystemUpdateScheduler updateScheduler;
     private EventSystem eventSystem;
     private NUIManager nuiManager;
     private WorldRenderer worldRenderer;
@@ -81,6 +82,7 @@ public void init(GameEngine engine) {
         worldRenderer = context.get(WorldRenderer.class);
         eventSystem = context.get(EventSystem.class);
         componentSystemManager = context.get(ComponentSystemManager.class);
+        updateScheduler = context.get(SystemUpdateScheduler.class);
         entityManager = context.get(EngineEntityManager.class);
         cameraTargetSystem = context.get(CameraTargetSystem.class);
         if (nuiManager != null) {
@@ -182,11 +184,7 @@ public void update(float delta) {
 
         eventSystem.process();
 
-        for (UpdateSubscriberSystem system : componentSystemManager.iterateUpdateSubscribers()) {
-            PerformanceMonitor.startActivity(system.getClass().getSimpleName());
-            system.update(delta);
-            PerformanceMonitor.endActivity();
-        }
+        updateScheduler.update(componentSystemManager.iterateUpdateSubscribers(), delta);
 
         if (worldRenderer != null && shouldUpdateWorld()) {
             worldRenderer.update(delta);
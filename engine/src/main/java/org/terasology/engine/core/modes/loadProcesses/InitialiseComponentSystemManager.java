@@ -3,9 +3,15 @@
 
 package org.terasology.engine.core.modes.loadProcesses;
 
+import org.terasology.engine.config.SystemConfig;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.core.ComponentSystemManager;
 import org.terasology.engine.core.modes.SingleStepLoadProcess;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.systems.EntityCommandBuffer;
+import org.terasology.engine.entitySystem.systems.internal.SystemUpdateScheduler;
+
+import java.util.concurrent.ForkJoinPool;
 
 public class InitialiseComponentSystemManager extends SingleStepLoadProcess {
 
@@ -23,6 +29,10 @@ public String getMessage() {
     @Override
     public boolean step() {
         context.put(ComponentSystemManager.class, new ComponentSystemManager(context));
+        SystemUpdateScheduler updateScheduler = new SystemUpdateScheduler(context.get(EntityManager.class),
+                ForkJoinPool.commonPool(), context.get(SystemConfig.class).parallelSystemUpdatesEnabled.get());
+        context.put(SystemUpdateScheduler.class, updateScheduler);
+        context.put(EntityCommandBuffer.class, updateScheduler.getCommandBuffer());
         return true;
     }
 
@@ -21,6 +21,7 @@
 import org.terasology.engine.game.GameManifest;
 import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.persistence.StorageManager;
+import org.terasology.engine.persistence.internal.ChunkStorageFormat;
 import org.terasology.engine.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.engine.persistence.internal.ReadWriteStorageManager;
 import org.terasology.engine.recording.DirectionAndOriginPosRecorderList;
@@ -38,6 +39,7 @@
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.blockdata.OffHeapMemoryPool;
 import org.terasology.engine.world.chunks.localChunkProvider.LocalChunkProvider;
 import org.terasology.engine.world.chunks.localChunkProvider.RelevanceSystem;
 import org.terasology.engine.world.generator.UnresolvedWorldGeneratorException;
@@ -62,6 +64,8 @@
 public class InitialiseWorld extends SingleStepLoadProcess {
 
     private static final Logger logger = LoggerFactory.getLogger(InitialiseWorld.class);
+    /* Enough to recycle the memory of all chunks unloaded within a few seconds of fast travel */
+    private static final long OFF_HEAP_POOL_CAPACITY = 512L * 1024 * 1024;
 
     private final GameManifest gameManifest;
     private final Context context;
@@ -111,6 +115,8 @@ public boolean step() {
         // Init. a new world
         EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
         boolean writeSaveGamesEnabled = context.get(SystemConfig.class).writeSaveGamesEnabled.get();
+        ChunkStorageFormat chunkStorageFormat = context.get(SystemConfig.class).regionChunkStorageEnabled.get()
+                ? ChunkStorageFormat.REGIONS : ChunkStorageFormat.ZIPS;
         //Gets save data from a normal save or from a recording if it is a replay
         Path saveOrRecordingPath = getSaveOrRecordingPath();
         StorageManager storageManager;
@@ -120,9 +126,10 @@ public boolean step() {
         try {
             storageManager = writeSaveGamesEnabled
                     ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, blockManager,
-                    extraDataManager, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus)
+                    extraDataManager, chunkStorageFormat, recordAndReplaySerializer, recordAndReplayUtils,
+                    recordAndReplayCurrentStatus)
                     : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, blockManager,
-                    extraDataManager);
+                    extraDataManager, chunkStorageFormat);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -139,6 +146,11 @@ public boolean step() {
         context.put(RelevanceSystem.class, relevanceSystem);
         context.get(ComponentSystemManager.class).register(relevanceSystem, "engine:relevanceSystem");
         chunkProvider.setRelevanceSystem(relevanceSystem);
+        if (context.get(SystemConfig.class).offHeapChunkStorageEnabled.get()) {
+            OffHeapMemoryPool offHeapPool = new OffHeapMemoryPool(OFF_HEAP_POOL_CAPACITY);
+            context.put(OffHeapMemoryPool.class, offHeapPool);
+            chunkProvider.setOffHeapMemoryPool(offHeapPool);
+        }
         Block unloadedBlock = blockManager.getBlock(BlockManager.UNLOADED_ID);
         WorldProviderCoreImpl worldProviderCore = new WorldProviderCoreImpl(worldInfo, chunkProvider, unloadedBlock,
                 context);
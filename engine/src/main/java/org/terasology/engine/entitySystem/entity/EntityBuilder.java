@@ -103,6 +103,9 @@ public EntityRef build() {
         entityManager.assignToPool(finalId, pool);
 
         EntityRef entity = entityManager.getEntity(finalId);
+        for (Component component : components.values()) {
+            entityManager.indexComponentAdded(entity, component.getClass());
+        }
 
         if (sendLifecycleEvents && entityManager.getEventSystem() != null) {
             //TODO: don't send OnAddedComponent when the entity is being re-loaded from storage
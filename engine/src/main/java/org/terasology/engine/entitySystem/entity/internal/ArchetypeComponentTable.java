@@ -0,0 +1,445 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A component table which groups entities by the exact set of component classes they have (their archetype).
+ * <br><br>
+ * Each archetype stores its entities in parallel arrays, one array of ids and one column per component class, so a
+ * query for a set of components only visits the archetypes containing all of them and reads their rows contiguously,
+ * without a hash lookup per entity and component. Adding or removing a component moves the entity's row to another
+ * archetype, which makes it more expensive than with {@link MapComponentTable}; replacing a component is not.
+ * <br><br>
+ * Like {@link MapComponentTable}, this is not safe for concurrent modification.
+ */
+public class ArchetypeComponentTable implements ComponentTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Set<Class<?>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<?>, List<Archetype>> archetypesByComponent = Maps.newHashMap();
+    private final TLongObjectMap<Archetype> entityArchetypes = new TLongObjectHashMap<>();
+    private final TLongIntMap entityRows = new TLongIntHashMap();
+    /* archetype without components, only used as the starting point for entities getting their first component */
+    private Archetype root = new Archetype(new Class<?>[0]);
+    /* incremented whenever an entity is added to, moved between or removed from archetypes */
+    private int modCount;
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return null;
+        }
+        int column = archetype.column(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        return componentClass.cast(archetype.columns[column][entityRows.get(entityId)]);
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<?> componentClass = component.getClass();
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            Archetype target = root.with(componentClass);
+            int row = target.addRow(entityId);
+            target.columns[target.column(componentClass)][row] = component;
+            entityArchetypes.put(entityId, target);
+            entityRows.put(entityId, row);
+            modCount++;
+            return null;
+        }
+
+        int row = entityRows.get(entityId);
+        int column = current.column(componentClass);
+        if (column >= 0) {
+            Component previous = current.columns[column][row];
+            current.columns[column][row] = component;
+            return previous;
+        }
+
+        Archetype target = current.with(componentClass);
+        int newRow = move(entityId, current, row, target);
+        target.columns[target.column(componentClass)][newRow] = component;
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            return null;
+        }
+        int column = current.column(componentClass);
+        if (column < 0) {
+            return null;
+        }
+
+        int row = entityRows.get(entityId);
+        Component removed = current.columns[column][row];
+        Archetype target = current.without(componentClass);
+        if (target == null) {
+            removeEntity(entityId, current, row);
+        } else {
+            move(entityId, current, row, target);
+        }
+        return removed;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        List<Component> components = getComponentsInNewList(entityId);
+        remove(entityId);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        Archetype current = entityArchetypes.get(entityId);
+        if (current != null) {
+            removeEntity(entityId, current, entityRows.get(entityId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        archetypes.clear();
+        archetypesByComponent.clear();
+        entityArchetypes.clear();
+        entityRows.clear();
+        root = new Archetype(new Class<?>[0]);
+        modCount++;
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        List<Archetype> candidates = archetypesByComponent.get(componentClass);
+        if (candidates == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Archetype archetype : candidates) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        int row = entityRows.get(entityId);
+        List<Component> components = Lists.newArrayListWithCapacity(archetype.types.length);
+        for (Component[] column : archetype.columns) {
+            components.add(column[row]);
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> candidates = archetypesByComponent.get(componentClass);
+        if (candidates == null) {
+            return null;
+        }
+        return new ComponentIterator<>(candidates, componentClass);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        long[] ids = entityArchetypes.keys();
+        return new EntityIdSnapshotIterator(ids, ids.length, entityArchetypes::containsKey);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator(Class<? extends Component>[] componentClasses) {
+        List<Archetype> matching = matchingArchetypes(componentClasses);
+        int count = 0;
+        for (Archetype archetype : matching) {
+            count += archetype.size;
+        }
+        long[] ids = new long[count];
+        int offset = 0;
+        for (Archetype archetype : matching) {
+            System.arraycopy(archetype.ids, 0, ids, offset, archetype.size);
+            offset += archetype.size;
+        }
+
+        int expectedModCount = modCount;
+        return new EntityIdSnapshotIterator(ids, count,
+                id -> modCount == expectedModCount || hasAll(id, componentClasses));
+    }
+
+    @Override
+    public int numEntities() {
+        return entityArchetypes.size();
+    }
+
+    @Override
+    public int numEntitiesWith(Class<? extends Component>[] componentClasses) {
+        int count = 0;
+        for (Archetype archetype : matchingArchetypes(componentClasses)) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    private boolean hasAll(long entityId, Class<? extends Component>[] componentClasses) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        return archetype != null && archetype.hasAll(componentClasses);
+    }
+
+    private List<Archetype> matchingArchetypes(Class<? extends Component>[] componentClasses) {
+        List<Archetype> smallest = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            List<Archetype> candidates = archetypesByComponent.get(componentClass);
+            if (candidates == null) {
+                return Collections.emptyList();
+            }
+            if (smallest == null || candidates.size() < smallest.size()) {
+                smallest = candidates;
+            }
+        }
+        if (smallest == null) {
+            return Collections.emptyList();
+        }
+
+        List<Archetype> matching = Lists.newArrayListWithCapacity(smallest.size());
+        for (Archetype archetype : smallest) {
+            if (archetype.size > 0 && archetype.hasAll(componentClasses)) {
+                matching.add(archetype);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Moves the entity's row to the target archetype, keeping the components both archetypes have.
+     *
+     * @return the row of the entity in the target archetype
+     */
+    private int move(long entityId, Archetype from, int row, Archetype to) {
+        int newRow = to.addRow(entityId);
+        for (int column = 0; column < to.types.length; column++) {
+            int fromColumn = from.column(to.types[column]);
+            if (fromColumn >= 0) {
+                to.columns[column][newRow] = from.columns[fromColumn][row];
+            }
+        }
+        from.removeRow(row);
+        entityArchetypes.put(entityId, to);
+        entityRows.put(entityId, newRow);
+        modCount++;
+        return newRow;
+    }
+
+    private void removeEntity(long entityId, Archetype archetype, int row) {
+        archetype.removeRow(row);
+        entityArchetypes.remove(entityId);
+        entityRows.remove(entityId);
+        modCount++;
+    }
+
+    private Archetype archetypeFor(Set<Class<?>> types) {
+        Archetype archetype = archetypes.get(types);
+        if (archetype == null) {
+            archetype = new Archetype(types.toArray(new Class<?>[0]));
+            archetypes.put(types, archetype);
+            for (Class<?> type : types) {
+                archetypesByComponent.computeIfAbsent(type, k -> Lists.newArrayList()).add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * The entities having exactly one set of component classes, stored row by row.
+     */
+    private final class Archetype {
+        private final Class<?>[] types;
+        private final Map<Class<?>, Integer> columnIndices = Maps.newIdentityHashMap();
+        private final Map<Class<?>, Archetype> addTransitions = Maps.newIdentityHashMap();
+        private final Map<Class<?>, Archetype> removeTransitions = Maps.newIdentityHashMap();
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private Component[][] columns;
+        private int size;
+
+        private Archetype(Class<?>[] types) {
+            this.types = types;
+            this.columns = new Component[types.length][INITIAL_CAPACITY];
+            for (int i = 0; i < types.length; i++) {
+                columnIndices.put(types[i], i);
+            }
+        }
+
+        int column(Class<?> type) {
+            Integer column = columnIndices.get(type);
+            return column == null ? -1 : column;
+        }
+
+        boolean hasAll(Class<? extends Component>[] componentClasses) {
+            for (Class<? extends Component> componentClass : componentClasses) {
+                if (!columnIndices.containsKey(componentClass)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Archetype with(Class<?> type) {
+            Archetype target = addTransitions.get(type);
+            if (target == null) {
+                target = archetypeFor(ImmutableSet.<Class<?>>builder().add(types).add(type).build());
+                addTransitions.put(type, target);
+            }
+            return target;
+        }
+
+        /**
+         * @return the archetype without the given type, or null if no component would be left.
+         */
+        Archetype without(Class<?> type) {
+            if (types.length == 1) {
+                return null;
+            }
+            Archetype target = removeTransitions.get(type);
+            if (target == null) {
+                ImmutableSet.Builder<Class<?>> remaining = ImmutableSet.builder();
+                for (Class<?> existing : types) {
+                    if (existing != type) {
+                        remaining.add(existing);
+                    }
+                }
+                target = archetypeFor(remaining.build());
+                removeTransitions.put(type, target);
+            }
+            return target;
+        }
+
+        int addRow(long entityId) {
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+            ids[size] = entityId;
+            return size++;
+        }
+
+        /**
+         * Removes the row by moving the last row into its place.
+         */
+        void removeRow(int row) {
+            int last = size - 1;
+            if (row != last) {
+                ids[row] = ids[last];
+                for (Component[] column : columns) {
+                    column[row] = column[last];
+                }
+                entityRows.put(ids[row], row);
+            }
+            for (Component[] column : columns) {
+                column[last] = null;
+            }
+            size = last;
+        }
+    }
+
+    /**
+     * Iterates over the rows of all archetypes having a component class.
+     */
+    private static final class ComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final List<Archetype> archetypes;
+        private final Class<T> componentClass;
+        private int archetypeIndex;
+        private int row = -1;
+        private Archetype current;
+
+        private ComponentIterator(List<Archetype> archetypes, Class<T> componentClass) {
+            this.archetypes = archetypes;
+            this.componentClass = componentClass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current != null && row + 1 < current.size) {
+                return true;
+            }
+            for (int i = current == null ? archetypeIndex : archetypeIndex + 1; i < archetypes.size(); i++) {
+                if (archetypes.get(i).size > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void advance() {
+            if (current != null && row + 1 < current.size) {
+                row++;
+                return;
+            }
+            int next = current == null ? archetypeIndex : archetypeIndex + 1;
+            while (next < archetypes.size() && archetypes.get(next).size == 0) {
+                next++;
+            }
+            if (next >= archetypes.size()) {
+                throw new NoSuchElementException();
+            }
+            archetypeIndex = next;
+            current = archetypes.get(next);
+            row = 0;
+        }
+
+        @Override
+        public long key() {
+            return current.ids[row];
+        }
+
+        @Override
+        public T value() {
+            return componentClass.cast(current.columns[current.column(componentClass)][row]);
+        }
+
+        @Override
+        public T setValue(T val) {
+            T previous = value();
+            current.columns[current.column(componentClass)][row] = val;
+            return previous;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -142,6 +142,17 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     void notifyComponentAdded(EntityRef changedEntity, Class<? extends Component> component);
 
+    /**
+     * Makes a component which has just been stored visible to queries for more than one component, before the
+     * lifecycle events for it are sent and the subscribers are notified, so that the event handlers find the entity.
+     *
+     * This method is designed for internal use by the EntityBuilder.
+     *
+     * @param changedEntity the entity which the added component belongs to
+     * @param component the class of the added component
+     */
+    void indexComponentAdded(EntityRef changedEntity, Class<? extends Component> component);
+
     /**
      *
      * Tell the EntityManager which pool the given entity is in, so that its components can be found.
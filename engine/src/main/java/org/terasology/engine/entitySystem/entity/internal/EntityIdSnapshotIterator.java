@@ -0,0 +1,50 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity.internal;
+
+import gnu.trove.iterator.TLongIterator;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongPredicate;
+
+/**
+ * Iterates over a copy of entity ids, skipping the ids which no longer match when they are reached.
+ */
+class EntityIdSnapshotIterator implements TLongIterator {
+    private final long[] ids;
+    private final int length;
+    private final LongPredicate stillMatches;
+    private int index = -1;
+    private int nextIndex = -1;
+
+    EntityIdSnapshotIterator(long[] ids, int length, LongPredicate stillMatches) {
+        this.ids = ids;
+        this.length = length;
+        this.stillMatches = stillMatches;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextIndex <= index) {
+            nextIndex = index + 1;
+            while (nextIndex < length && !stillMatches.test(ids[nextIndex])) {
+                nextIndex++;
+            }
+        }
+        return nextIndex < length;
+    }
+
+    @Override
+    public long next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        index = nextIndex;
+        return ids[index];
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,186 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the ids of the entities which have all components of a set, for each set of components that has been queried
+ * for and each pool that has been queried.
+ * <p>
+ * A view is created on the first query for its components, starting from the component which is rarest in the pool,
+ * and is kept up to date from then on through the component notifications of the entity manager. The pools themselves
+ * report entities which are moved in or out of them, as that happens without notifications. Queries for a single
+ * component are not indexed, the component tables already answer them directly.
+ * <p>
+ * Like the component tables, this is not safe for concurrent modification. Queries may run concurrently though, as
+ * they do from systems which are updated in parallel, since they create views.
+ */
+class EntityQueryIndex implements EntityChangeSubscriber {
+
+    private final Map<Set<Class<? extends Component>>, QueryView> views = new HashMap<>();
+    private final Map<Class<? extends Component>, List<QueryView>> viewsByComponent = new HashMap<>();
+
+    /**
+     * @return an iterator over the ids of the entities in the pool which have all of the components, following the
+     *         contract of {@link ComponentTable#entityIdIterator(Class[])}
+     */
+    synchronized TLongIterator entityIdIterator(EngineEntityPool pool, Class<? extends Component>[] componentClasses) {
+        QueryView view = getView(componentClasses);
+        long[] ids = view.getIds(pool).toArray();
+        ComponentTable store = pool.getComponentStore();
+        return new EntityIdSnapshotIterator(ids, ids.length, id -> view.matches(store, id));
+    }
+
+    /**
+     * @return the number of entities in the pool which have all of the components
+     */
+    synchronized int numEntitiesWith(EngineEntityPool pool, Class<? extends Component>[] componentClasses) {
+        return getView(componentClasses).getIds(pool).size();
+    }
+
+    private QueryView getView(Class<? extends Component>[] componentClasses) {
+        Set<Class<? extends Component>> key = ImmutableSet.copyOf(componentClasses);
+        QueryView view = views.get(key);
+        if (view == null) {
+            view = new QueryView(componentClasses.clone());
+            views.put(key, view);
+            for (Class<? extends Component> componentClass : key) {
+                viewsByComponent.computeIfAbsent(componentClass, k -> new ArrayList<>()).add(view);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Called by a pool after an entity and all of its components have been put into it.
+     */
+    void onEntityInserted(EngineEntityPool pool, long entityId) {
+        for (QueryView view : views.values()) {
+            TLongSet ids = view.idsByPool.get(pool);
+            if (ids != null && view.matches(pool.getComponentStore(), entityId)) {
+                ids.add(entityId);
+            }
+        }
+    }
+
+    /**
+     * Called by a pool when an entity is taken out of it together with all of its components.
+     */
+    void onEntityRemoved(EngineEntityPool pool, long entityId) {
+        for (QueryView view : views.values()) {
+            TLongSet ids = view.idsByPool.get(pool);
+            if (ids != null) {
+                ids.remove(entityId);
+            }
+        }
+    }
+
+    /**
+     * Called by a pool when all of its entities have been dropped.
+     */
+    void onPoolCleared(EngineEntityPool pool) {
+        for (QueryView view : views.values()) {
+            view.idsByPool.remove(pool);
+        }
+    }
+
+    void clear() {
+        views.clear();
+        viewsByComponent.clear();
+    }
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        for (QueryView view : viewsByComponent.getOrDefault(component, List.of())) {
+            view.update(entity.getId());
+        }
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        // the component is still stored at this point
+        for (QueryView view : viewsByComponent.getOrDefault(component, List.of())) {
+            view.remove(entity.getId());
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        for (Component component : components) {
+            onEntityComponentAdded(entity, component.getClass());
+        }
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        for (Component component : components) {
+            onEntityComponentRemoved(entity, component.getClass());
+        }
+    }
+
+    private static final class QueryView {
+        private final Class<? extends Component>[] componentClasses;
+        // there are only a few pools, the global one, those of the worlds and those of the sectors
+        private final Map<EngineEntityPool, TLongSet> idsByPool = new IdentityHashMap<>();
+
+        QueryView(Class<? extends Component>[] componentClasses) {
+            this.componentClasses = componentClasses;
+        }
+
+        TLongSet getIds(EngineEntityPool pool) {
+            TLongSet ids = idsByPool.get(pool);
+            if (ids == null) {
+                ids = new TLongHashSet();
+                TLongIterator iterator = pool.getComponentStore().entityIdIterator(componentClasses);
+                while (iterator.hasNext()) {
+                    ids.add(iterator.next());
+                }
+                idsByPool.put(pool, ids);
+            }
+            return ids;
+        }
+
+        boolean matches(ComponentTable store, long entityId) {
+            for (Class<? extends Component> componentClass : componentClasses) {
+                if (store.get(entityId, componentClass) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void update(long entityId) {
+            for (Map.Entry<EngineEntityPool, TLongSet> entry : idsByPool.entrySet()) {
+                if (matches(entry.getKey().getComponentStore(), entityId)) {
+                    entry.getValue().add(entityId);
+                } else {
+                    entry.getValue().remove(entityId);
+                }
+            }
+        }
+
+        void remove(long entityId) {
+            for (TLongSet ids : idsByPool.values()) {
+                ids.remove(entityId);
+            }
+        }
+    }
+}
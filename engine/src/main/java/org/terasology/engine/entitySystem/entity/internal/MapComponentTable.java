@@ -0,0 +1,180 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A component table keeping one map from entity id to component per component class.
+ */
+public class MapComponentTable implements ComponentTable {
+    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        if (entityMap != null) {
+            return componentClass.cast(entityMap.get(entityId));
+        }
+        return null;
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        TLongObjectMap<Component> entityMap = store.get(component.getClass());
+        if (entityMap == null) {
+            entityMap = new TLongObjectHashMap<>();
+            store.put(component.getClass(), entityMap);
+        }
+        return entityMap.put(entityId, component);
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        if (entityMap != null) {
+            return entityMap.remove(entityId);
+        }
+        return null;
+    }
+
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        List<Component> componentList = Lists.newArrayList();
+        for (TLongObjectMap<Component> entityMap : store.values()) {
+            Component component = entityMap.remove(entityId);
+            if (component != null) {
+                componentList.add(component);
+            }
+        }
+        return componentList;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        for (TLongObjectMap<Component> entityMap : store.values()) {
+            entityMap.remove(entityId);
+        }
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        TLongObjectMap<Component> map = store.get(componentClass);
+        return (map == null) ? 0 : map.size();
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        List<Component> components = Lists.newArrayList();
+        for (TLongObjectMap<Component> componentMap : store.values()) {
+            Component comp = componentMap.get(entityId);
+            if (comp != null) {
+                components.add(comp);
+            }
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
+        if (entityMap != null) {
+            return entityMap.iterator();
+        }
+        return null;
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        TLongSet idSet = new TLongHashSet();
+        for (TLongObjectMap<Component> componentMap : store.values()) {
+            idSet.addAll(componentMap.keys());
+        }
+        return idSet.iterator();
+    }
+
+    @Override
+    public TLongIterator entityIdIterator(Class<? extends Component>[] componentClasses) {
+        TLongObjectMap<Component> smallest = smallestMap(componentClasses);
+        if (smallest == null) {
+            return new EntityIdSnapshotIterator(new long[0], 0, id -> false);
+        }
+        long[] ids = smallest.keys();
+        return new EntityIdSnapshotIterator(ids, ids.length, id -> hasAll(id, componentClasses));
+    }
+
+    @Override
+    public int numEntities() {
+        TLongSet idSet = new TLongHashSet();
+        for (TLongObjectMap<Component> componentMap : store.values()) {
+            idSet.addAll(componentMap.keys());
+        }
+        return idSet.size();
+    }
+
+    @Override
+    public int numEntitiesWith(Class<? extends Component>[] componentClasses) {
+        TLongObjectMap<Component> smallest = smallestMap(componentClasses);
+        if (smallest == null) {
+            return 0;
+        }
+        int count = 0;
+        TLongIterator iterator = smallest.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (hasAll(iterator.next(), componentClasses)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the map of the component class with the fewest entries, or null if one of the classes has no map.
+     */
+    private TLongObjectMap<Component> smallestMap(Class<? extends Component>[] componentClasses) {
+        TLongObjectMap<Component> smallest = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            TLongObjectMap<Component> entityMap = store.get(componentClass);
+            if (entityMap == null) {
+                return null;
+            }
+            if (smallest == null || entityMap.size() < smallest.size()) {
+                smallest = entityMap;
+            }
+        }
+        return smallest;
+    }
+
+    private boolean hasAll(long entityId, Class<? extends Component>[] componentClasses) {
+        for (Class<? extends Component> componentClass : componentClasses) {
+            TLongObjectMap<Component> entityMap = store.get(componentClass);
+            if (entityMap == null || !entityMap.containsKey(entityId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -41,6 +41,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.terasology.engine.entitySystem.entity.internal.EntityScope.SECTOR;
 
@@ -52,14 +53,16 @@ public class PojoEntityManager implements EngineEntityManager {
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
 
-    private EngineEntityPool globalPool = new PojoEntityPool(this);
-    private PojoSectorManager sectorManager = new PojoSectorManager(this);
+    private final Supplier<ComponentTable> componentTableFactory;
+    private EngineEntityPool globalPool;
+    private PojoSectorManager sectorManager;
     private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
     private List<EngineEntityPool> worldPools = Lists.newArrayList();
     private Map<EngineEntityPool, Long> poolCounts = new HashMap<EngineEntityPool, Long>();
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
+    private final EntityQueryIndex queryIndex = new EntityQueryIndex();
     private EventSystem eventSystem;
     private PrefabManager prefabManager;
     private ComponentLibrary componentLibrary;
@@ -70,6 +73,36 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeHandlerLibrary typeSerializerLibrary;
 
+    public PojoEntityManager() {
+        this(MapComponentTable::new);
+    }
+
+    /**
+     * @param componentTableFactory creates the component storage for each pool of this entity manager, e.g.
+     *                              {@link ArchetypeComponentTable} for worlds dominated by system iteration
+     */
+    public PojoEntityManager(Supplier<ComponentTable> componentTableFactory) {
+        this.componentTableFactory = componentTableFactory;
+        // subscribed first, so that other subscribers already see the changed entity in queries
+        subscribers.add(queryIndex);
+        this.globalPool = new PojoEntityPool(this);
+        this.sectorManager = new PojoSectorManager(this);
+    }
+
+    /**
+     * @return a new, empty component table of the kind used by this entity manager's pools
+     */
+    ComponentTable createComponentTable() {
+        return componentTableFactory.get();
+    }
+
+    /**
+     * @return the index answering the queries of this entity manager's pools for more than one component
+     */
+    EntityQueryIndex getQueryIndex() {
+        return queryIndex;
+    }
+
     @Override
     public RefStrategy getEntityRefStrategy() {
         return refStrategy;
@@ -114,6 +147,7 @@ private boolean isWorldPoolGlobalPool() {
     public void clear() {
         globalPool.clear();
         sectorManager.clear();
+        queryIndex.clear();
         nextEntityId = 1;
         loadedIds.clear();
     }
@@ -581,6 +615,7 @@ public void saveComponent(long entityId, Component component) {
 
         if (!oldComponent.isPresent()) {
             logger.error("Saving a component ({}) that doesn't belong to this entity {}", component.getClass(), entityId);
+            indexComponentAdded(getEntity(entityId), component.getClass());
         }
         if (eventSystem != null) {
             EntityRef entityRef = getEntity(entityId);
@@ -695,6 +730,11 @@ public void notifyComponentAdded(EntityRef changedEntity, Class<? extends Compon
         }
     }
 
+    @Override
+    public void indexComponentAdded(EntityRef changedEntity, Class<? extends Component> component) {
+        queryIndex.onEntityComponentAdded(changedEntity, component);
+    }
+
     protected void notifyComponentRemoved(EntityRef changedEntity, Class<? extends Component> component) {
         for (EntityChangeSubscriber subscriber : subscribers) {
             subscriber.onEntityComponentRemoved(changedEntity, component);
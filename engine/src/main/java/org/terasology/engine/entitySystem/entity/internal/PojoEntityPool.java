@@ -2,7 +2,6 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.entitySystem.entity.internal;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import org.joml.Quaternionfc;
 import org.joml.Vector3fc;
@@ -31,10 +30,15 @@ public class PojoEntityPool implements EngineEntityPool {
     private PojoEntityManager entityManager;
 
     private Map<Long, BaseEntityRef> entityStore = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable componentStore = new ComponentTable();
+    private ComponentTable componentStore;
 
     public PojoEntityPool(PojoEntityManager entityManager) {
+        this(entityManager, entityManager.createComponentTable());
+    }
+
+    public PojoEntityPool(PojoEntityManager entityManager, ComponentTable componentStore) {
         this.entityManager = entityManager;
+        this.componentStore = componentStore;
     }
 
     @Override
@@ -45,6 +49,7 @@ public void clear() {
         }
         componentStore.clear();
         entityStore.clear();
+        entityManager.getQueryIndex().onPoolCleared(this);
     }
 
 
@@ -285,18 +290,15 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
-                .filter(id -> {
-                    for (Class<? extends Component> component : componentClasses) {
-                        if (componentStore.get(id, component) == null) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .map(id -> getEntity(id))
-                .iterator();
+        if (componentClasses.length == 0) {
+            return () -> entityStore.keySet().stream()
+                    .map(id -> getEntity(id))
+                    .iterator();
+        }
+        if (componentClasses.length == 1) {
+            return () -> new EntityIterator(componentStore.entityIdIterator(componentClasses), this);
+        }
+        return () -> new EntityIterator(entityManager.getQueryIndex().entityIdIterator(this, componentClasses), this);
     }
 
     @Override
@@ -307,7 +309,7 @@ public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses)
             case 1:
                 return componentStore.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                return entityManager.getQueryIndex().numEntitiesWith(this, componentClasses);
         }
     }
 
@@ -329,6 +331,7 @@ public boolean hasComponent(long entityId, Class<? extends Component> componentC
     @Override
     public Optional<BaseEntityRef> remove(long id) {
         componentStore.remove(id);
+        entityManager.getQueryIndex().onEntityRemoved(this, id);
         entityManager.unassignPool(id);
         return Optional.of(entityStore.remove(id));
     }
@@ -338,6 +341,7 @@ public void insertRef(BaseEntityRef ref, Iterable<Component> components) {
         entityStore.put(ref.getId(), ref);
         components.forEach(comp -> componentStore.put(ref.getId(), comp));
         entityManager.assignToPool(ref.getId(), this);
+        entityManager.getQueryIndex().onEntityInserted(this, ref.getId());
     }
 
     @Override
@@ -2,7 +2,6 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.entitySystem.event.internal;
 
-import com.esotericsoftware.reflectasm.MethodAccess;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicates;
 import com.google.common.collect.BiMap;
@@ -29,6 +28,9 @@
 import org.terasology.gestalt.assets.ResourceUrn;
 import org.terasology.gestalt.entitysystem.component.Component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -51,6 +53,8 @@ public class EventSystemImpl implements EventSystem {
     private Map<Class<? extends Event>, SetMultimap<Class<? extends Component>, EventHandlerInfo>> componentSpecificHandlers = Maps.newHashMap();
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
+    /* compiled from the handler maps on first send, discarded whenever handlers change */
+    private Map<Class<? extends Event>, DispatchPlan> dispatchPlans = Maps.newHashMap();
 
     // Event metadata
     private BiMap<ResourceUrn, Class<? extends Event>> eventIdMap = HashBiMap.create();
@@ -85,6 +89,7 @@ public void registerEvent(ResourceUrn uri, Class<? extends Event> eventType) {
                 childEvents.put(parent, eventType);
             }
         }
+        dispatchPlans.clear();
     }
 
     @Override
@@ -124,9 +129,15 @@ public void registerEventHandler(ComponentSystem handler) {
                     componentParams.add((Class<? extends Component>) types[i]);
                 }
 
-                ByteCodeEventHandlerInfo handlerInfo = new ByteCodeEventHandlerInfo(handler, method,
-                        receiveEventAnnotation.priority(),
-                        receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                MethodHandleEventHandlerInfo handlerInfo;
+                try {
+                    handlerInfo = new MethodHandleEventHandlerInfo(handler, method,
+                            receiveEventAnnotation.priority(),
+                            receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                } catch (IllegalAccessException e) {
+                    logger.error("Cannot access event handler method: {}", method.getName(), e);
+                    return;
+                }
                 addEventHandler((Class<? extends Event>) types[0], handlerInfo, requiredComponents);
             }
         }
@@ -152,10 +163,12 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        dispatchPlans.clear();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<?
             extends Component>> components) {
+        dispatchPlans.clear();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -218,6 +231,7 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        dispatchPlans.clear();
     }
 
     @Override
@@ -225,37 +239,7 @@ public void send(EntityRef entity, Event event) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event));
         } else {
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            selectedHandlers.sort(priorityComparator);
-
-            if (event instanceof ConsumableEvent) {
-                sendConsumableEvent(entity, event, selectedHandlers);
-            } else {
-                sendStandardEvent(entity, event, selectedHandlers);
-            }
-        }
-    }
-
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        for (EventHandlerInfo handler : selectedHandlers) {
-            // Check isValid at each stage in case components were removed.
-            if (handler.isValidFor(entity)) {
-                handler.invoke(entity, event);
-            }
-        }
-    }
-
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        ConsumableEvent consumableEvent = (ConsumableEvent) event;
-        for (EventHandlerInfo handler : selectedHandlers) {
-            // Check isValid at each stage in case components were removed.
-            if (handler.isValidFor(entity)) {
-                handler.invoke(entity, event);
-                if (consumableEvent.isConsumed()) {
-                    return;
-                }
-            }
+            getDispatchPlan(event.getClass()).send(entity, event);
         }
     }
 
@@ -264,38 +248,42 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers =
-                    componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                eventHandlers.sort(priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getDispatchPlan(event.getClass()).handlersFor(component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
-            return result;
+    private DispatchPlan getDispatchPlan(Class<? extends Event> eventType) {
+        DispatchPlan plan = dispatchPlans.get(eventType);
+        if (plan == null) {
+            plan = compileDispatchPlan(eventType);
+            dispatchPlans.put(eventType, plan);
         }
+        return plan;
+    }
 
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
-                    if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
-                    }
-                }
+    private DispatchPlan compileDispatchPlan(Class<? extends Event> eventType) {
+        Set<EventHandlerInfo> handlers = Sets.newLinkedHashSet(generalHandlers.get(eventType));
+        Map<Class<? extends Component>, EventHandlerInfo[]> handlersByComponent = Maps.newHashMap();
+        SetMultimap<Class<? extends Component>, EventHandlerInfo> componentHandlers =
+                componentSpecificHandlers.get(eventType);
+        if (componentHandlers != null) {
+            for (Class<? extends Component> compClass : componentHandlers.keySet()) {
+                Set<EventHandlerInfo> handlersForComponent = componentHandlers.get(compClass);
+                handlers.addAll(handlersForComponent);
+                handlersByComponent.put(compClass, sortByPriority(handlersForComponent));
             }
         }
-        return result;
+        return new DispatchPlan(sortByPriority(handlers), handlersByComponent);
+    }
+
+    private EventHandlerInfo[] sortByPriority(Collection<EventHandlerInfo> handlers) {
+        EventHandlerInfo[] sorted = handlers.toArray(new EventHandlerInfo[0]);
+        Arrays.sort(sorted, priorityComparator);
+        return sorted;
     }
 
     @Override
@@ -306,6 +294,11 @@ public void setToCurrentThread() {
     private interface EventHandlerInfo {
         boolean isValidFor(EntityRef entity);
 
+        /**
+         * @return the components an entity needs for this handler to receive its events
+         */
+        Collection<Class<? extends Component>> getFilterComponents();
+
         void invoke(EntityRef entity, Event event);
 
         int getPriority();
@@ -321,32 +314,165 @@ public int compare(EventHandlerInfo o1, EventHandlerInfo o2) {
         }
     }
 
-    private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
+    /**
+     * The handlers of one event type, sorted by priority, together with the components their filters check.
+     * <br><br>
+     * Which handlers receive an event is decided before the first one is invoked, by checking every filter component
+     * once and comparing the result against a bit mask per handler. Each selected handler is checked again right
+     * before it is invoked, in case an earlier handler removed components.
+     */
+    private static final class DispatchPlan {
+        private static final EventHandlerInfo[] NO_HANDLERS = new EventHandlerInfo[0];
+
+        private final EventHandlerInfo[] handlers;
+        private final Map<Class<? extends Component>, EventHandlerInfo[]> handlersByComponent;
+        /* null if there are more filter components than fit into a mask */
+        private final Class<? extends Component>[] filterComponents;
+        private final long[] requiredComponentMasks;
+
+        DispatchPlan(EventHandlerInfo[] handlers,
+                     Map<Class<? extends Component>, EventHandlerInfo[]> handlersByComponent) {
+            this.handlers = handlers;
+            this.handlersByComponent = handlersByComponent;
+
+            List<Class<? extends Component>> components = Lists.newArrayList();
+            long[] masks = new long[handlers.length];
+            for (int i = 0; i < handlers.length; i++) {
+                for (Class<? extends Component> component : handlers[i].getFilterComponents()) {
+                    int index = components.indexOf(component);
+                    if (index < 0) {
+                        index = components.size();
+                        components.add(component);
+                    }
+                    if (index < Long.SIZE) {
+                        masks[i] |= 1L << index;
+                    }
+                }
+            }
+            if (components.size() <= Long.SIZE) {
+                this.filterComponents = components.toArray(new Class[0]);
+                this.requiredComponentMasks = masks;
+            } else {
+                this.filterComponents = null;
+                this.requiredComponentMasks = null;
+            }
+        }
+
+        EventHandlerInfo[] handlersFor(Class<? extends Component> componentClass) {
+            return handlersByComponent.getOrDefault(componentClass, NO_HANDLERS);
+        }
+
+        void send(EntityRef entity, Event event) {
+            if (handlers.length == 0) {
+                return;
+            }
+            if (filterComponents == null) {
+                sendUnmasked(entity, event);
+                return;
+            }
+
+            long presentComponents = 0;
+            for (int i = 0; i < filterComponents.length; i++) {
+                if (entity.hasComponent(filterComponents[i])) {
+                    presentComponents |= 1L << i;
+                }
+            }
+            for (int i = 0; i < handlers.length; i++) {
+                if ((requiredComponentMasks[i] & ~presentComponents) == 0 && invoke(handlers[i], entity, event)) {
+                    return;
+                }
+            }
+        }
+
+        private void sendUnmasked(EntityRef entity, Event event) {
+            boolean[] selected = new boolean[handlers.length];
+            for (int i = 0; i < handlers.length; i++) {
+                selected[i] = handlers[i].isValidFor(entity);
+            }
+            for (int i = 0; i < handlers.length; i++) {
+                if (selected[i] && invoke(handlers[i], entity, event)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return whether the event has been consumed
+         */
+        private static boolean invoke(EventHandlerInfo handler, EntityRef entity, Event event) {
+            // Check isValid at each stage in case components were removed.
+            if (handler.isValidFor(entity)) {
+                handler.invoke(entity, event);
+                return event instanceof ConsumableEvent && ((ConsumableEvent) event).isConsumed();
+            }
+            return false;
+        }
+    }
+
+    private static class MethodHandleEventHandlerInfo implements EventHandlerInfo {
+        private static final MethodHandle GET_COMPONENT;
+
+        static {
+            try {
+                GET_COMPONENT = MethodHandles.publicLookup().findVirtual(EntityRef.class, "getComponent",
+                        MethodType.methodType(Component.class, Class.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
         private ComponentSystem handler;
         private String activity;
-        private MethodAccess methodAccess;
-        private int methodIndex;
+        /* (Event, EntityRef)void, with the handler bound and the component parameters fetched from the entity */
+        private MethodHandle invoker;
         private ImmutableList<Class<? extends Component>> filterComponents;
-        private ImmutableList<Class<? extends Component>> componentParams;
         private int priority;
 
-        ByteCodeEventHandlerInfo(ComponentSystem handler,
-                                 Method method,
-                                 int priority,
-                                 String activity,
-                                 Collection<Class<? extends Component>> filterComponents,
-                                 Collection<Class<? extends Component>> componentParams) {
-
-
+        MethodHandleEventHandlerInfo(ComponentSystem handler,
+                                     Method method,
+                                     int priority,
+                                     String activity,
+                                     Collection<Class<? extends Component>> filterComponents,
+                                     List<Class<? extends Component>> componentParams) throws IllegalAccessException {
             this.handler = handler;
             this.activity = activity;
-            this.methodAccess = MethodAccess.get(handler.getClass());
-            methodIndex = methodAccess.getIndex(method.getName(), method.getParameterTypes());
+            this.invoker = createInvoker(handler, method, componentParams);
             this.filterComponents = ImmutableList.copyOf(filterComponents);
-            this.componentParams = ImmutableList.copyOf(componentParams);
             this.priority = priority;
         }
 
+        /**
+         * Adapts the handler method to a handle taking only the event and the entity, so invoking it neither
+         * allocates a parameter array nor goes through reflection.
+         */
+        private static MethodHandle createInvoker(ComponentSystem handler, Method method,
+                                                  List<Class<? extends Component>> componentParams)
+                throws IllegalAccessException {
+            MethodHandle target = MethodHandles.lookup().unreflect(method).bindTo(handler);
+            int componentCount = componentParams.size();
+            if (componentCount > 0) {
+                MethodHandle[] getters = new MethodHandle[componentCount];
+                for (int i = 0; i < componentCount; i++) {
+                    getters[i] = MethodHandles.insertArguments(GET_COMPONENT, 1, componentParams.get(i))
+                            .asType(MethodType.methodType(target.type().parameterType(i + 2), EntityRef.class));
+                }
+                // every component parameter is now computed from its own copy of the entity
+                target = MethodHandles.filterArguments(target, 2, getters);
+
+                Class<?>[] parameterTypes = new Class<?>[2 + componentCount];
+                int[] reorder = new int[2 + componentCount];
+                parameterTypes[0] = Event.class;
+                for (int i = 1; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = EntityRef.class;
+                    reorder[i] = 1;
+                }
+                target = target.asType(MethodType.methodType(void.class, parameterTypes));
+                target = MethodHandles.permuteArguments(target,
+                        MethodType.methodType(void.class, Event.class, EntityRef.class), reorder);
+            }
+            return target.asType(MethodType.methodType(void.class, Event.class, EntityRef.class));
+        }
+
         @Override
         public boolean isValidFor(EntityRef entity) {
             for (Class<? extends Component> component : filterComponents) {
@@ -357,6 +483,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             // 2021-05-28 We used to catch all kinds of exceptions here that occurred during event invokation. As most
@@ -364,19 +495,15 @@ public void invoke(EntityRef entity, Event event) {
             //
             // There might be specific events that can be safely handled here. In that case, we should add the try-catch
             // back in for the most specific exception type as possible.
-            Object[] params = new Object[2 + componentParams.size()];
-            params[0] = event;
-            params[1] = entity;
-            for (int i = 0; i < componentParams.size(); ++i) {
-                params[i + 2] = entity.getComponent(componentParams.get(i));
-            }
-
-
             if (!activity.isEmpty()) {
                 PerformanceMonitor.startActivity(activity);
             }
             try {
-                methodAccess.invoke(handler, methodIndex, params);
+                invoker.invokeExact(event, entity);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Event handler " + handler.getClass().getName() + " failed", t);
             } finally {
                 if (!activity.isEmpty()) {
                     PerformanceMonitor.endActivity();
@@ -416,6 +543,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(components);
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             receiver.onEvent((T) event, entity);
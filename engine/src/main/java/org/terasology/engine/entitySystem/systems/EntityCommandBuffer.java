@@ -0,0 +1,38 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.entitySystem.systems;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+/**
+ * Changes entities from a system which is updated in parallel, see {@link ParallelUpdate}.
+ * <br><br>
+ * The changes requested by a system during its parallel update are applied on the main thread at the following sync
+ * point, in the order they were requested in. The changes of different systems are applied in the order the systems
+ * were registered in. Called from the main thread, e.g. from an event handler, the changes are applied right away.
+ */
+public interface EntityCommandBuffer {
+
+    void create(Component... components);
+
+    void create(Prefab prefab);
+
+    void destroy(EntityRef entity);
+
+    void addComponent(EntityRef entity, Component component);
+
+    void saveComponent(EntityRef entity, Component component);
+
+    void removeComponent(EntityRef entity, Class<? extends Component> componentClass);
+
+    void send(EntityRef entity, Event event);
+
+    /**
+     * Runs any other change on the main thread.
+     */
+    void run(Runnable change);
+}
@@ -0,0 +1,46 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.entitySystem.systems;
+
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the {@link UpdateSubscriberSystem#update(float) update} of a system run in parallel with those of other systems
+ * which neither write a component it reads nor read or write a component it writes, e.g.
+ * <br>
+ * <code>@ParallelUpdate(reads = LocationComponent.class, writes = GrowthComponent.class)</code>
+ * <br><br>
+ * During a parallel update the system runs on a worker thread, so it has to restrict itself to:
+ * <ul>
+ *     <li>reading the declared components, and changing the fields of those it writes,</li>
+ *     <li>queries of the entity manager such as {@code getEntitiesWith},</li>
+ *     <li>the state of the system itself.</li>
+ * </ul>
+ * Everything else, in particular creating and destroying entities, adding, saving and removing components and sending
+ * events, has to go through the {@link EntityCommandBuffer}. Its changes are applied on the main thread at the sync
+ * point after the parallel systems are done, before the next system which is not annotated is updated. Events sent
+ * directly are also held back until then, but in an undefined order.
+ * <br><br>
+ * Systems without this annotation are updated on the main thread in the order they were registered in, as are all
+ * systems when parallel updates are disabled in the system config.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ParallelUpdate {
+
+    /**
+     * @return the components the system reads but does not change
+     */
+    Class<? extends Component>[] reads() default {};
+
+    /**
+     * @return the components the system changes
+     */
+    Class<? extends Component>[] writes() default {};
+}
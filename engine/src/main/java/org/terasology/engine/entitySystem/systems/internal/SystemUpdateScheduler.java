@@ -0,0 +1,279 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.systems.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.event.internal.EventSystem;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.EntityCommandBuffer;
+import org.terasology.engine.entitySystem.systems.ParallelUpdate;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.monitoring.Activity;
+import org.terasology.engine.monitoring.PerformanceMonitor;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates the {@link UpdateSubscriberSystem}s once per frame.
+ * <br><br>
+ * Systems are updated in the order they were registered in. Each run of consecutive systems annotated with
+ * {@link ParallelUpdate} is updated on a fork-join pool instead of the main thread: the systems are put on levels such
+ * that each system is on a higher level than all of the earlier systems it conflicts with, and the systems on a level
+ * run in parallel. After the last level, at the sync point, the main thread applies the changes the systems requested
+ * through the {@link EntityCommandBuffer} and dispatches the events they sent.
+ * <br><br>
+ * The execution time of each system is reported to the {@link PerformanceMonitor} under the name of its class, for
+ * parallel systems the times overlap within the "Parallel Update Systems" activity.
+ */
+public class SystemUpdateScheduler {
+
+    private final EntityManager entityManager;
+    private final ForkJoinPool pool;
+    private final boolean parallel;
+    private final DeferringCommandBuffer commandBuffer = new DeferringCommandBuffer();
+
+    private final List<UpdateSubscriberSystem> plannedSystems = Lists.newArrayList();
+    private final List<Stage> stages = Lists.newArrayList();
+
+    /**
+     * @param entityManager the entity manager the deferred changes are applied to
+     * @param pool the pool parallel systems are updated on
+     * @param parallel whether annotated systems are updated in parallel, otherwise all are updated on the main thread
+     */
+    public SystemUpdateScheduler(EntityManager entityManager, ForkJoinPool pool, boolean parallel) {
+        this.entityManager = entityManager;
+        this.pool = pool;
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return the command buffer to be used by systems updated in parallel
+     */
+    public EntityCommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+
+    /**
+     * Updates all systems, must be called from the main thread.
+     */
+    public void update(Iterable<UpdateSubscriberSystem> systems, float delta) {
+        if (!Iterables.elementsEqual(plannedSystems, systems)) {
+            plan(systems);
+        }
+        for (Stage stage : stages) {
+            stage.update(delta);
+        }
+    }
+
+    private void plan(Iterable<UpdateSubscriberSystem> systems) {
+        plannedSystems.clear();
+        stages.clear();
+        ParallelStage batch = null;
+        for (UpdateSubscriberSystem system : systems) {
+            plannedSystems.add(system);
+            ParallelUpdate access = parallel ? system.getClass().getAnnotation(ParallelUpdate.class) : null;
+            if (access == null) {
+                batch = null;
+                stages.add(new MainThreadStage(system));
+            } else {
+                if (batch == null) {
+                    batch = new ParallelStage();
+                    stages.add(batch);
+                }
+                batch.add(new ScheduledSystem(system, access));
+            }
+        }
+    }
+
+    private interface Stage {
+        void update(float delta);
+    }
+
+    private static final class MainThreadStage implements Stage {
+        private final UpdateSubscriberSystem system;
+
+        MainThreadStage(UpdateSubscriberSystem system) {
+            this.system = system;
+        }
+
+        @Override
+        public void update(float delta) {
+            PerformanceMonitor.startActivity(system.getClass().getSimpleName());
+            system.update(delta);
+            PerformanceMonitor.endActivity();
+        }
+    }
+
+    private final class ParallelStage implements Stage {
+        private final List<ScheduledSystem> systems = Lists.newArrayList();
+        private final List<List<ScheduledSystem>> levels = Lists.newArrayList();
+
+        void add(ScheduledSystem system) {
+            for (ScheduledSystem earlier : systems) {
+                if (earlier.conflictsWith(system)) {
+                    system.level = Math.max(system.level, earlier.level + 1);
+                }
+            }
+            if (system.level == levels.size()) {
+                levels.add(Lists.newArrayList());
+            }
+            levels.get(system.level).add(system);
+            systems.add(system);
+        }
+
+        @Override
+        public void update(float delta) {
+            Throwable failure = null;
+            try (Activity ignored = PerformanceMonitor.startActivity("Parallel Update Systems")) {
+                for (List<ScheduledSystem> level : levels) {
+                    List<Callable<Void>> tasks = Lists.newArrayListWithCapacity(level.size());
+                    for (ScheduledSystem system : level) {
+                        tasks.add(() -> {
+                            system.update(delta);
+                            return null;
+                        });
+                    }
+                    failure = firstFailure(pool.invokeAll(tasks));
+                    if (failure != null) {
+                        break;
+                    }
+                }
+            }
+
+            // sync point
+            for (ScheduledSystem system : systems) {
+                PerformanceMonitor.recordActivity(system.name, TimeUnit.NANOSECONDS.toMillis(system.executionTime));
+                system.applyChanges();
+            }
+            EventSystem eventSystem = entityManager.getEventSystem();
+            if (eventSystem != null) {
+                eventSystem.process();
+            }
+
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new IllegalStateException("Parallel system update failed", failure);
+            }
+        }
+
+        private Throwable firstFailure(List<Future<Void>> results) {
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    return e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class ScheduledSystem {
+        private final UpdateSubscriberSystem system;
+        private final String name;
+        private final Set<Class<? extends Component>> reads;
+        private final Set<Class<? extends Component>> writes;
+        private final List<Runnable> changes = Lists.newArrayList();
+        private int level;
+        private long executionTime;
+
+        ScheduledSystem(UpdateSubscriberSystem system, ParallelUpdate access) {
+            this.system = system;
+            this.name = system.getClass().getSimpleName();
+            this.reads = ImmutableSet.copyOf(access.reads());
+            this.writes = ImmutableSet.copyOf(access.writes());
+        }
+
+        boolean conflictsWith(ScheduledSystem other) {
+            return !Collections.disjoint(writes, other.writes) || !Collections.disjoint(writes, other.reads)
+                    || !Collections.disjoint(reads, other.writes);
+        }
+
+        void update(float delta) {
+            commandBuffer.deferredChanges.set(changes);
+            long start = System.nanoTime();
+            try {
+                system.update(delta);
+            } finally {
+                executionTime = System.nanoTime() - start;
+                commandBuffer.deferredChanges.remove();
+            }
+        }
+
+        void applyChanges() {
+            for (Runnable change : changes) {
+                change.run();
+            }
+            changes.clear();
+        }
+    }
+
+    private final class DeferringCommandBuffer implements EntityCommandBuffer {
+        /* set on the worker thread while it updates a system */
+        private final ThreadLocal<List<Runnable>> deferredChanges = new ThreadLocal<>();
+
+        @Override
+        public void create(Component... components) {
+            run(() -> entityManager.create(components));
+        }
+
+        @Override
+        public void create(Prefab prefab) {
+            run(() -> entityManager.create(prefab));
+        }
+
+        @Override
+        public void destroy(EntityRef entity) {
+            run(entity::destroy);
+        }
+
+        @Override
+        public void addComponent(EntityRef entity, Component component) {
+            run(() -> entity.addComponent(component));
+        }
+
+        @Override
+        public void saveComponent(EntityRef entity, Component component) {
+            run(() -> entity.saveComponent(component));
+        }
+
+        @Override
+        public void removeComponent(EntityRef entity, Class<? extends Component> componentClass) {
+            run(() -> entity.removeComponent(componentClass));
+        }
+
+        @Override
+        public void send(EntityRef entity, Event event) {
+            run(() -> entity.send(event));
+        }
+
+        @Override
+        public void run(Runnable change) {
+            List<Runnable> changes = deferredChanges.get();
+            if (changes == null) {
+                change.run();
+            } else {
+                changes.add(change);
+            }
+        }
+    }
+}
@@ -76,6 +76,34 @@ public static void endActivity() {
         instance.endActivity();
     }
 
+    /**
+     * Adds the execution time of an activity which has been measured elsewhere, e.g. of an activity which ran on
+     * another thread. The time is added to the current cycle like that of an activity started and ended on the main
+     * thread; it is not deducted from the activity running at the time of the call, and no allocated memory is
+     * recorded for it.
+     * <br><br>
+     * Like all other methods, this is ignored when not called by the main thread.
+     *
+     * @param activityName the name of the activity
+     * @param executionTimeInMs how long the activity ran
+     */
+    public static void recordActivity(String activityName, long executionTimeInMs) {
+        instance.recordActivity(activityName, executionTimeInMs);
+    }
+
+    /**
+     * Sets how much memory outside of the Java heap, e.g. in direct buffers, is currently used for a purpose. Unlike the
+     * other metrics this is not averaged over cycles: the last value set is reported until it is set again.
+     * <br><br>
+     * Like all other methods, this is ignored when not called by the main thread.
+     *
+     * @param name what the memory is used for
+     * @param bytes the amount of memory used
+     */
+    public static void recordOffHeapMemory(String name, long bytes) {
+        instance.recordOffHeapMemory(name, bytes);
+    }
+
     /**
      * Drops old information and updates the metrics. Should be called once per frame.
      */
@@ -127,6 +155,15 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns a mapping from a purpose to the amount of memory outside of the Java heap last recorded for it, in bytes.
+     *
+     * @return a mapping from purpose to used off-heap memory.
+     */
+    public static TObjectDoubleMap<String> getOffHeapMemory() {
+        return instance.getOffHeapMemory();
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
@@ -6,6 +6,7 @@
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
 import org.joml.Vector3i;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.rendering.primitives.ChunkMesh;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.ChunkProvider;
@@ -79,6 +80,25 @@ public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh mesh) {
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
     }
 
+    public static void fireChunkCollisionBuilt(Vector3i chunkPos, ChunkCollisionData collision) {
+        Preconditions.checkNotNull(chunkPos, "The parameter 'chunkPos' must not be null");
+        post(new ChunkMonitorEvent.CollisionBuilt(chunkPos, collision));
+    }
+
+    /**
+     * Sums up the estimated memory consumption of the block, light and extra data of all loaded chunks.
+     *
+     * @return the total in bytes
+     * @see ChunkMonitorEntry#getEstimatedMemoryConsumptionInBytes()
+     */
+    public static synchronized long getEstimatedMemoryConsumptionInBytes() {
+        long total = 0;
+        for (ChunkMonitorEntry entry : CHUNKS.values()) {
+            total += entry.getEstimatedMemoryConsumptionInBytes();
+        }
+        return total;
+    }
+
     public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
@@ -45,6 +45,17 @@ public Chunk getLatestChunk() {
         return null;
     }
 
+    /**
+     * @return the estimated memory consumption of the latest chunk at this position, or 0 if it is no longer loaded
+     */
+    public int getEstimatedMemoryConsumptionInBytes() {
+        Chunk chunk = getLatestChunk();
+        if (chunk == null || chunk.isDisposed()) {
+            return 0;
+        }
+        return chunk.getEstimatedMemoryConsumptionInBytes();
+    }
+
     public void addChunk(Chunk value) {
         Preconditions.checkNotNull(value, "The parameter 'value' must not be null");
         Preconditions.checkArgument(pos.equals(value.getPosition(new Vector3i())),
@@ -4,6 +4,7 @@
 
 import com.google.common.base.Preconditions;
 import org.joml.Vector3i;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.rendering.primitives.ChunkMesh;
 import org.terasology.engine.world.chunks.ChunkProvider;
 
@@ -90,4 +91,16 @@ public Tessellated(Vector3i position, ChunkMesh mesh) {
             this.meshInfo = new ChunkMeshInfo(mesh);
         }
     }
+
+    public static class CollisionBuilt extends BasicChunkEvent {
+
+        public final int timeToBuild;
+        public final int blockTypes;
+
+        public CollisionBuilt(Vector3i position, ChunkCollisionData collision) {
+            super(position);
+            this.timeToBuild = collision.getTimeToBuild();
+            this.blockTypes = collision.getBlockTypes().size();
+        }
+    }
 }
@@ -23,6 +23,14 @@ public Activity startActivity(String activity) {
     public void endActivity() {
     }
 
+    @Override
+    public void recordActivity(String activity, long executionTimeInMs) {
+    }
+
+    @Override
+    public void recordOffHeapMemory(String name, long bytes) {
+    }
+
     @Override
     public TObjectDoubleMap<String> getRunningMean() {
         return metrics;
@@ -38,4 +46,9 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public TObjectDoubleMap<String> getOffHeapMemory() {
+        return metrics;
+    }
+
 }
@@ -44,6 +44,7 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private final TObjectLongMap<String> runningExecutionTotals;
     private final TObjectLongMap<String> runningAllocationTotals;
     private final TObjectDoubleMap<String> spikeData;
+    private final TObjectDoubleMap<String> offHeapMemory;
 
     private final TObjectDoubleProcedure<String> decayLargestExecutionTime;
     private final TObjectLongProcedure<String> updateExecutionTimeTotalAndSpikeData;
@@ -66,6 +67,7 @@ public PerformanceMonitorImpl() {
         runningExecutionTotals = new TObjectLongHashMap<>();
         runningAllocationTotals = new TObjectLongHashMap<>();
         spikeData = new TObjectDoubleHashMap<>();
+        offHeapMemory = new TObjectDoubleHashMap<>();
 
         decayLargestExecutionTime  = new DecayerOfActivityLargestExecutionTime();
         updateExecutionTimeTotalAndSpikeData = new UpdaterOfActivityExecutionTimeTotalAndSpikeData();
@@ -152,6 +154,22 @@ public void endActivity() {
         }
     }
 
+    @Override
+    public void recordActivity(String activityName, long executionTimeInMs) {
+        if (Thread.currentThread() != mainThread) {
+            return;
+        }
+        currentExecutionData.adjustOrPutValue(activityName, executionTimeInMs, executionTimeInMs);
+    }
+
+    @Override
+    public void recordOffHeapMemory(String name, long bytes) {
+        if (Thread.currentThread() != mainThread) {
+            return;
+        }
+        offHeapMemory.put(name, bytes);
+    }
+
     @Override
     public TObjectDoubleMap<String> getRunningMean() {
         TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
@@ -179,6 +197,11 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return activityToMeanMap;
     }
 
+    @Override
+    public TObjectDoubleMap<String> getOffHeapMemory() {
+        return offHeapMemory;
+    }
+
     private class ActivityInfo {
         public String name;
         public long startTime;
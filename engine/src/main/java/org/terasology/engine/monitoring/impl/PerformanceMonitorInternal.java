@@ -16,9 +16,15 @@ public interface PerformanceMonitorInternal {
 
     void endActivity();
 
+    void recordActivity(String activity, long executionTimeInMs);
+
+    void recordOffHeapMemory(String name, long bytes);
+
     TObjectDoubleMap<String> getRunningMean();
 
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    TObjectDoubleMap<String> getOffHeapMemory();
 }
@@ -0,0 +1,198 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.protobuf.EntityData;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the chunks that are ready to be sent to a client.
+ * <p>
+ * Chunks are ordered by their distance from the client's character, with chunks outside of its view treated as being
+ * further away, and are reordered whenever the character moves to another chunk or turns. The highest priority chunks
+ * are encoded on worker threads ahead of being sent, and sent chunks are paid for out of a per-tick byte budget, so
+ * that many small chunks can be sent in one tick while a large chunk may use up the budget of several.
+ */
+class ChunkStreamer {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStreamer.class);
+
+    /* The number of chunks being encoded ahead of being sent */
+    private static final int MAX_ENCODING = 8;
+    /* Chunks further than this angle from the view direction are out of view (cosine of 60 degrees) */
+    private static final float VIEW_COS = 0.5f;
+    /* Out of view chunks are ordered as if they were twice as far away */
+    private static final float OUT_OF_VIEW_FACTOR = 4;
+    /* The view direction must change by this much before chunks are reordered (cosine of about 25 degrees) */
+    private static final float REORDER_COS = 0.9f;
+
+    private final Executor executor;
+    private final Map<Vector3i, PendingChunk> pending = Maps.newHashMap();
+    private PriorityQueue<PendingChunk> queue = new PriorityQueue<>();
+    private final Deque<EncodingChunk> encoding = new ArrayDeque<>();
+
+    private final Vector3i center = new Vector3i();
+    private final Vector3f viewDirection = new Vector3f();
+    private long byteAllowance;
+
+    ChunkStreamer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    ChunkStreamer(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a chunk to be sent, replacing any earlier version of the chunk which has not been sent yet.
+     */
+    void add(Vector3ic pos, Chunk chunk) {
+        remove(pos);
+        PendingChunk entry = new PendingChunk(new Vector3i(pos), chunk);
+        entry.priority = priority(entry.pos);
+        pending.put(entry.pos, entry);
+        queue.add(entry);
+    }
+
+    /**
+     * Stops a chunk which is no longer relevant from being sent.
+     */
+    void remove(Vector3ic pos) {
+        if (pending.remove(pos) == null) {
+            Iterator<EncodingChunk> iterator = encoding.iterator();
+            while (iterator.hasNext()) {
+                EncodingChunk entry = iterator.next();
+                if (entry.pos.equals(pos)) {
+                    entry.result.cancel(false);
+                    iterator.remove();
+                    return;
+                }
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty() && encoding.isEmpty();
+    }
+
+    /**
+     * Updates where the client is viewing the world from, reordering the queued chunks if it has changed noticeably.
+     *
+     * @param centerChunk The chunk containing the client's character
+     * @param direction The direction the character is facing, or zero if unknown
+     */
+    void setViewpoint(Vector3ic centerChunk, Vector3fc direction) {
+        Vector3f newDirection = new Vector3f(direction);
+        if (newDirection.lengthSquared() > 0) {
+            newDirection.normalize();
+        }
+        boolean turned = newDirection.dot(viewDirection) < REORDER_COS
+                && (newDirection.lengthSquared() > 0 || viewDirection.lengthSquared() > 0);
+        if (!center.equals(centerChunk) || turned) {
+            center.set(centerChunk);
+            viewDirection.set(newDirection);
+            for (PendingChunk entry : pending.values()) {
+                entry.priority = priority(entry.pos);
+            }
+            queue = new PriorityQueue<>(pending.values());
+        }
+    }
+
+    /**
+     * Sends the chunks which have finished encoding, in priority order, for as long as the budget allows, then starts
+     * encoding the next chunks.
+     *
+     * @param byteBudget The number of bytes which may be sent each tick
+     * @param sender Receives the position and encoded form of each chunk to send
+     */
+    void update(int byteBudget, BiConsumer<Vector3i, EntityData.ChunkStore> sender) {
+        if (isEmpty()) {
+            byteAllowance = byteBudget;
+            return;
+        }
+        byteAllowance = Math.min(byteAllowance + byteBudget, byteBudget);
+        Iterator<EncodingChunk> iterator = encoding.iterator();
+        while (iterator.hasNext() && byteAllowance > 0) {
+            EncodingChunk entry = iterator.next();
+            if (entry.result.isDone()) {
+                iterator.remove();
+                EntityData.ChunkStore store = entry.result.exceptionally(e -> {
+                    logger.error("Failed to encode chunk {}", entry.pos, e);
+                    return null;
+                }).join();
+                if (store != null) {
+                    byteAllowance -= store.getSerializedSize();
+                    sender.accept(entry.pos, store);
+                }
+            }
+        }
+        while (encoding.size() < MAX_ENCODING && !queue.isEmpty()) {
+            PendingChunk entry = queue.poll();
+            if (pending.get(entry.pos) == entry) {
+                pending.remove(entry.pos);
+                Supplier<EntityData.ChunkStore.Builder> encoder = entry.chunk.encodeLater();
+                CompletableFuture<EntityData.ChunkStore> result = CompletableFuture.supplyAsync(encoder, executor)
+                        .thenApply(EntityData.ChunkStore.Builder::build);
+                encoding.add(new EncodingChunk(entry.pos, result));
+            }
+        }
+    }
+
+    private float priority(Vector3i pos) {
+        float dx = pos.x - center.x;
+        float dy = pos.y - center.y;
+        float dz = pos.z - center.z;
+        float distanceSquared = dx * dx + dy * dy + dz * dz;
+        if (distanceSquared <= 3 || viewDirection.lengthSquared() == 0) {
+            // The chunk around the character and its neighbours are needed whichever way it is facing
+            return distanceSquared;
+        }
+        float facing = (dx * viewDirection.x + dy * viewDirection.y + dz * viewDirection.z)
+                / (float) Math.sqrt(distanceSquared);
+        return facing >= VIEW_COS ? distanceSquared : distanceSquared * OUT_OF_VIEW_FACTOR;
+    }
+
+    private static final class PendingChunk implements Comparable<PendingChunk> {
+        private final Vector3i pos;
+        private final Chunk chunk;
+        private float priority;
+
+        PendingChunk(Vector3i pos, Chunk chunk) {
+            this.pos = pos;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int compareTo(PendingChunk other) {
+            return Float.compare(priority, other.priority);
+        }
+    }
+
+    private static final class EncodingChunk {
+        private final Vector3i pos;
+        private final CompletableFuture<EntityData.ChunkStore> result;
+
+        EncodingChunk(Vector3i pos, CompletableFuture<EntityData.ChunkStore> result) {
+            this.pos = pos;
+            this.result = result;
+        }
+    }
+}
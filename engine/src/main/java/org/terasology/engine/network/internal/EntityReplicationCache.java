@@ -0,0 +1,117 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.network.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caches the serialized form of replicated entities for the duration of a network tick, so that an entity sent to many
+ * clients is only serialized once for each distinct view of it.
+ * <p>
+ * Clients see an entity differently depending on whether they own it, and an update additionally depends on which
+ * components have been added, changed and removed since the client last received it. Entries are keyed on all of
+ * these, and are dropped as soon as the entity changes.
+ */
+class EntityReplicationCache {
+    private final TIntObjectMap<Map<EntryKey, Optional<EntityData.PackedEntity>>> entries = new TIntObjectHashMap<>();
+
+    /**
+     * @param netId The network id of the entity
+     * @param owner Whether the receiving client owns the entity
+     * @param serializer Serializes the entity, if no client has been sent it this tick
+     * @return The full serialized entity
+     */
+    EntityData.PackedEntity getInitial(int netId, boolean owner, Supplier<EntityData.PackedEntity> serializer) {
+        EntryKey key = new EntryKey(owner, true, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of());
+        return get(netId, key, serializer);
+    }
+
+    /**
+     * @param netId The network id of the entity
+     * @param owner Whether the receiving client owns the entity
+     * @param added The components added since the client last received the entity
+     * @param changed The components changed since the client last received the entity
+     * @param removed The components removed since the client last received the entity
+     * @param serializer Serializes the update, if no client has been sent the same update this tick
+     * @return The serialized update, or null if there is nothing to send
+     */
+    EntityData.PackedEntity getDelta(int netId, boolean owner, Set<Class<? extends Component>> added,
+                                     Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed,
+                                     Supplier<EntityData.PackedEntity> serializer) {
+        EntryKey key = new EntryKey(owner, false,
+                ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed), ImmutableSet.copyOf(removed));
+        return get(netId, key, serializer);
+    }
+
+    private EntityData.PackedEntity get(int netId, EntryKey key, Supplier<EntityData.PackedEntity> serializer) {
+        Map<EntryKey, Optional<EntityData.PackedEntity>> entityEntries = entries.get(netId);
+        if (entityEntries == null) {
+            entityEntries = Maps.newHashMap();
+            entries.put(netId, entityEntries);
+        }
+        Optional<EntityData.PackedEntity> entry = entityEntries.get(key);
+        if (entry == null) {
+            entry = Optional.ofNullable(serializer.get());
+            entityEntries.put(key, entry);
+        }
+        return entry.orElse(null);
+    }
+
+    /**
+     * Drops the cached data for an entity, which must be done whenever it changes.
+     */
+    void invalidate(int netId) {
+        entries.remove(netId);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static final class EntryKey {
+        private final boolean owner;
+        private final boolean initial;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+
+        EntryKey(boolean owner, boolean initial, Set<Class<? extends Component>> added,
+                 Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+            this.owner = owner;
+            this.initial = initial;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o instanceof EntryKey) {
+                EntryKey other = (EntryKey) o;
+                return owner == other.owner && initial == other.initial
+                        && added.equals(other.added) && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(owner, initial, added, changed, removed);
+        }
+    }
+}
@@ -6,7 +6,6 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -31,7 +30,6 @@
 import org.terasology.engine.logic.characters.PredictionSystem;
 import org.terasology.engine.logic.common.DisplayNameComponent;
 import org.terasology.engine.logic.location.LocationComponent;
-import org.terasology.engine.network.Client;
 import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.network.ColorComponent;
 import org.terasology.engine.network.NetMetricSource;
@@ -48,6 +46,7 @@
 import org.terasology.engine.world.block.family.BlockFamily;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.BlockChange;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.nui.Color;
 import org.terasology.persistence.typeHandling.DeserializationException;
@@ -56,9 +55,9 @@
 import org.terasology.protobuf.NetData;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -94,9 +93,6 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
 
     private PublicIdentityCertificate identity;
 
@@ -106,7 +102,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private ChunkStreamer chunkStreamer = new ChunkStreamer();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
 
@@ -234,35 +230,26 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
     }
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    Vector3f target = loc.getWorldPosition(new Vector3f());
-                    if (target.isFinite()) {
-                        center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
-                        Chunks.toChunkPos(center, center); // update center to chunkPos
-                    }
-                }
-                Vector3i pos = null;
-                long distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    long chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
+        if (!chunkStreamer.isEmpty()) {
+            Vector3i center = new Vector3i();
+            Vector3f direction = new Vector3f();
+            LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+            if (loc != null) {
+                Vector3f target = loc.getWorldPosition(new Vector3f());
+                if (target.isFinite()) {
+                    center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
+                    Chunks.toChunkPos(center, center); // update center to chunkPos
+                    loc.getWorldDirection(direction);
                 }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
             }
-        } else {
-            chunkSendCounter = 1.0f;
+            chunkStreamer.setViewpoint(center, direction);
         }
+        // upstream bandwidth is in kilobits per second
+        int byteBudget = (int) (networkSystem.getBandwidthPerClient() * 1000 / 8 * NET_TICK_RATE);
+        chunkStreamer.update(byteBudget, (pos, chunkInfo) -> {
+            relevantChunks.add(pos);
+            message.addChunkInfo(chunkInfo);
+        });
     }
 
     private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
@@ -291,6 +278,35 @@ public void setNetRemoved(int netId) {
         netRelevant.remove(netId);
     }
 
+    /**
+     * @return Whether the entity is replicated to this client, or queued to be created on it.
+     */
+    public boolean isTracking(int netId) {
+        return netRelevant.contains(netId) || netInitial.contains(netId);
+    }
+
+    /**
+     * @return Whether the chunk has been sent to this client, so the client can observe entities within it.
+     */
+    public boolean isRelevantChunk(Vector3i chunkPos) {
+        return relevantChunks.contains(chunkPos);
+    }
+
+    /**
+     * Starts replicating an entity that has entered this client's area of interest, or removes one that has left it.
+     *
+     * @param netId The network id of the entity
+     * @param interested Whether the client can currently observe the entity
+     */
+    public void updateInterest(int netId, boolean interested) {
+        boolean tracking = isTracking(netId);
+        if (interested && !tracking) {
+            setNetInitial(netId);
+        } else if (!interested && tracking) {
+            setNetRemoved(netId);
+        }
+    }
+
     public void setComponentAdded(int networkId, Class<? extends Component> component) {
         if (netRelevant.contains(networkId) && !netInitial.contains(networkId)) {
             if (removedComponents.remove(networkId, component)) {
@@ -342,7 +358,7 @@ public void send(Event event, EntityRef target) {
             } else {
                 NetworkComponent networkComponent = target.getComponent(NetworkComponent.class);
                 if (networkComponent != null) {
-                    if (netRelevant.contains(networkComponent.getNetworkId()) || netInitial.contains(networkComponent.getNetworkId())) {
+                    if (isTracking(networkComponent.getNetworkId())) {
                         queuedOutgoingEvents.add(NetData.EventMessage.newBuilder()
                             .setTargetId(networkComponent.getNetworkId())
                             .setEvent(eventSerializer.serialize(event)).build());
@@ -375,13 +391,13 @@ void send(NetData.NetMessage data) {
     public void onChunkRelevant(Vector3ic pos, Chunk chunk) {
         Vector3i result = new Vector3i(pos);
         invalidatedChunks.remove(result);
-        readyChunks.put(result, chunk);
+        chunkStreamer.add(result, chunk);
     }
 
     @Override
     public void onChunkIrrelevant(Vector3ic pos) {
         Vector3i result = new Vector3i(pos);
-        readyChunks.remove(result);
+        chunkStreamer.remove(result);
         invalidatedChunks.add(result);
     }
 
@@ -397,6 +413,20 @@ public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
         }
     }
 
+    @Override
+    public void onBlocksChanged(Vector3ic chunkPos, Collection<BlockChange> changes) {
+        if (relevantChunks.contains(chunkPos)) {
+            List<NetData.BlockChangeMessage> messages = Lists.newArrayListWithExpectedSize(changes.size());
+            for (BlockChange change : changes) {
+                messages.add(NetData.BlockChangeMessage.newBuilder()
+                    .setPos(NetMessageUtil.convert(change.getPosition()))
+                    .setNewBlock(change.getTo().getId())
+                    .build());
+            }
+            queuedOutgoingBlockChanges.addAll(messages);
+        }
+    }
+
     @Override
     public void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData) {
         Vector3i chunkPos = Chunks.toChunkPos(pos, new Vector3i());
@@ -456,9 +486,12 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId),
-                    dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            Set<Class<? extends Component>> added = addedComponents.get(netId);
+            Set<Class<? extends Component>> changed = dirtyComponents.get(netId);
+            Set<Class<? extends Component>> removed = removedComponents.get(netId);
+            EntityData.PackedEntity entityData = networkSystem.getReplicationCache().getDelta(netId, isOwner,
+                    added, changed, removed, () -> entitySerializer.serialize(entity, added, changed, removed,
+                            new ServerComponentFieldCheck(isOwner, false)));
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -489,9 +522,9 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
                 continue;
             }
             // Note: Send owner->server fields on initial create
-            Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true,
-                    new ServerComponentFieldCheck(owner == this, true)).build();
+            boolean isOwner = networkSystem.getOwner(entity) == this;
+            EntityData.PackedEntity entityData = networkSystem.getReplicationCache().getInitial(netId, isOwner, () ->
+                    entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(isOwner, true)).build());
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
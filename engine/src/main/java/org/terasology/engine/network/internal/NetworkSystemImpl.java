@@ -11,6 +11,7 @@
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.protobuf.ByteString;
+import gnu.trove.iterator.TIntLongIterator;
 import gnu.trove.map.TIntLongMap;
 import gnu.trove.map.hash.TIntLongHashMap;
 import io.netty.bootstrap.Bootstrap;
@@ -26,6 +27,8 @@
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.config.Config;
@@ -45,6 +48,7 @@
 import org.terasology.engine.entitySystem.metadata.ComponentMetadata;
 import org.terasology.engine.entitySystem.metadata.EventLibrary;
 import org.terasology.engine.entitySystem.metadata.EventMetadata;
+import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.monitoring.PerformanceMonitor;
 import org.terasology.engine.network.Client;
 import org.terasology.engine.network.JoinStatus;
@@ -66,8 +70,10 @@
 import org.terasology.engine.registry.CoreRegistry;
 import org.terasology.engine.world.BlockEntityRegistry;
 import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.remoteChunkProvider.RemoteChunkProvider;
 import org.terasology.engine.world.generator.WorldGenerator;
 import org.terasology.gestalt.entitysystem.component.Component;
@@ -95,6 +101,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private static final Logger logger = LoggerFactory.getLogger(NetworkSystemImpl.class);
     private static final int OWNER_DEPTH_LIMIT = 50;
     private static final int NET_TICK_RATE = 50;
+    private static final int INTEREST_UPDATE_RATE = 500;
     private static final int NULL_NET_ID = 0;
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
@@ -111,8 +118,10 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private BlockManager blockManager;
     private OwnershipHelper ownershipHelper;
     private TIntLongMap netIdToEntityId = new TIntLongHashMap();
+    private final EntityReplicationCache replicationCache = new EntityReplicationCache();
     private Time time;
     private long nextNetworkTick;
+    private long nextInterestUpdate;
     private boolean kicked;
     // Server only
     private ChannelGroup allChannels = new DefaultChannelGroup("tera-channels", GlobalEventExecutor.INSTANCE);
@@ -271,6 +280,7 @@ public void shutdown() {
         server = null;
         nextNetId = 1;
         netIdToEntityId.clear();
+        replicationCache.clear();
         if (mode != NetworkMode.CLIENT) {
             if (this.entityManager != null) {
                 for (EntityRef entity : entityManager.getEntitiesWith(NetworkComponent.class)) {
@@ -318,10 +328,17 @@ public void update() {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
                 }
+                if (netTick && mode.isServer() && currentTimer > nextInterestUpdate) {
+                    nextInterestUpdate = currentTimer + INTEREST_UPDATE_RATE;
+                    PerformanceMonitor.startActivity("Update client interest");
+                    updateInterest();
+                    PerformanceMonitor.endActivity();
+                }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
                     client.update(netTick);
                 }
+                replicationCache.clear();
                 PerformanceMonitor.endActivity();
                 if (server != null) {
                     server.update(netTick);
@@ -385,6 +402,13 @@ NetClient getNetOwner(EntityRef entity) {
         return null;
     }
 
+    /**
+     * @return The cache shared by all clients for entities serialized during the current network tick
+     */
+    EntityReplicationCache getReplicationCache() {
+        return replicationCache;
+    }
+
     public int getBandwidthPerClient() {
         if (netClientList.size() > 0) {
             return config.getUpstreamBandwidth() / netClientList.size();
@@ -439,9 +463,18 @@ public void registerNetworkEntity(EntityRef entity) {
                         clientPlayer.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
+                case RELEVANT:
+                    Vector3i chunkPos = new Vector3i();
+                    boolean located = getInterestChunk(entity, chunkPos);
+                    Client owner = getOwner(entity);
+                    for (NetClient client : netClientList) {
+                        if (isInterested(client, owner, located, chunkPos)) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
+                    }
+                    break;
                 default:
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
                         client.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
@@ -455,6 +488,64 @@ public void registerNetworkEntity(EntityRef entity) {
 
     }
 
+    /**
+     * Re-evaluates which clients can observe each entity replicated by relevance, creating the entity on clients it
+     * has come into range of and removing it from clients it has left.
+     */
+    private void updateInterest() {
+        if (netClientList.isEmpty()) {
+            return;
+        }
+        Vector3i chunkPos = new Vector3i();
+        TIntLongIterator iterator = netIdToEntityId.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            EntityRef entity = entityManager.getEntity(iterator.value());
+            NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
+            if (netComp == null || netComp.replicateMode != NetworkComponent.ReplicateMode.RELEVANT) {
+                continue;
+            }
+            boolean located = getInterestChunk(entity, chunkPos);
+            Client owner = getOwner(entity);
+            for (NetClient client : netClientList) {
+                client.updateInterest(iterator.key(), isInterested(client, owner, located, chunkPos));
+            }
+        }
+    }
+
+    /**
+     * Entities without a position, such as those owned by a client entity, are observable by every client. Otherwise a
+     * client observes an entity if it owns it or has received the chunk containing it.
+     */
+    private static boolean isInterested(NetClient client, Client owner, boolean located, Vector3i chunkPos) {
+        return !located || client.equals(owner) || client.isRelevantChunk(chunkPos);
+    }
+
+    /**
+     * Finds the chunk used to decide which clients can observe an entity. Owned entities follow their root owner.
+     *
+     * @param entity The entity to locate
+     * @param chunkPos Set to the position of the chunk containing the entity
+     * @return Whether the entity has a position at all
+     */
+    private boolean getInterestChunk(EntityRef entity, Vector3i chunkPos) {
+        EntityRef subject = getOwnerEntity(entity);
+        BlockComponent blockComponent = subject.getComponent(BlockComponent.class);
+        if (blockComponent != null) {
+            Chunks.toChunkPos(blockComponent.getPosition(), chunkPos);
+            return true;
+        }
+        LocationComponent location = subject.getComponent(LocationComponent.class);
+        if (location != null) {
+            Vector3f worldPos = location.getWorldPosition(new Vector3f());
+            if (worldPos.isFinite()) {
+                Chunks.toChunkPos(worldPos, chunkPos);
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void updateOwnership(EntityRef entity) {
         NetworkComponent netComponent = entity.getComponent(NetworkComponent.class);
         if (netComponent == null || netComponent.getNetworkId() == NULL_NET_ID) {
@@ -526,6 +617,7 @@ public void unregisterNetworkEntity(EntityRef entity) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
                 if (mode.isServer()) {
+                    replicationCache.invalidate(netComponent.getNetworkId());
                     for (NetClient client : netClientList) {
                         client.setNetRemoved(netComponent.getNetworkId());
                     }
@@ -578,6 +670,7 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                replicationCache.invalidate(netComp.getNetworkId());
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.debug("Component {} added to {}", component, entity);
@@ -595,6 +688,7 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                replicationCache.invalidate(netComp.getNetworkId());
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.debug("Component {} removed from {}", component, entity);
@@ -626,6 +720,7 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
             switch (mode) {
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
+                    replicationCache.invalidate(netComp.getNetworkId());
                     if (metadata.isReplicated()) {
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
@@ -849,8 +944,14 @@ private void processNewClient(NetClient client) {
                             client.setNetInitial(netComp.getNetworkId());
                         }
                         break;
+                    case RELEVANT:
+                        Vector3i chunkPos = new Vector3i();
+                        boolean located = getInterestChunk(netEntity, chunkPos);
+                        if (isInterested(client, getOwner(netEntity), located, chunkPos)) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
+                        break;
                     default:
-                        // TODO: Relevance Check
                         client.setNetInitial(netComp.getNetworkId());
                         break;
                 }
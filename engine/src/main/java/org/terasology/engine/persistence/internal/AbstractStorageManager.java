@@ -55,19 +55,34 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageFormat chunkStorageFormat;
+    private RegionChunkStorage regionChunkStorage;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES);
+    }
+
+    public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageFormat chunkStorageFormat) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.extraDataManager = extraDataManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+
+        if (chunkStorageFormat != ChunkStorageFormat.REGIONS
+                && RegionChunkStorage.containsRegions(storagePathProvider)) {
+            // Once a world has been moved into region files, it can't be read in any other way
+            logger.info("Loading chunks from region files, as the world has been saved in them before");
+            chunkStorageFormat = ChunkStorageFormat.REGIONS;
+        }
+        setChunkStorageFormat(chunkStorageFormat);
     }
 
     @Override
@@ -129,18 +144,41 @@ public void update() {
     }
 
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStorageFormat == ChunkStorageFormat.ZIPS;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        setChunkStorageFormat(storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES);
+    }
+
+    public ChunkStorageFormat getChunkStorageFormat() {
+        return chunkStorageFormat;
+    }
+
+    /**
+     * For tests only
+     */
+    void setChunkStorageFormat(ChunkStorageFormat chunkStorageFormat) {
+        this.chunkStorageFormat = chunkStorageFormat;
+        if (chunkStorageFormat == ChunkStorageFormat.REGIONS && regionChunkStorage == null) {
+            regionChunkStorage = new RegionChunkStorage(storagePathProvider);
+        }
+    }
+
+    /**
+     * @return The region files of the world, or null if chunks are not stored in region files
+     */
+    protected RegionChunkStorage getRegionChunkStorage() {
+        return chunkStorageFormat == ChunkStorageFormat.REGIONS ? regionChunkStorage : null;
     }
 
     protected byte[] loadCompressedChunk(Vector3ic chunkPos) {
-        if (isStoreChunksInZips()) {
+        if (chunkStorageFormat == ChunkStorageFormat.REGIONS) {
+            return regionChunkStorage.load(chunkPos);
+        } else if (isStoreChunksInZips()) {
             return loadChunkZip(chunkPos);
         } else {
             Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
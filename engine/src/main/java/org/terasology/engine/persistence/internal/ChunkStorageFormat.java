@@ -0,0 +1,21 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+/**
+ * The ways in which the chunks of a world can be laid out in its save directory.
+ */
+public enum ChunkStorageFormat {
+    /**
+     * Every chunk is stored in a file of its own.
+     */
+    FILES,
+    /**
+     * Chunks are grouped into zip files, which get rewritten as a whole whenever one of their chunks is saved.
+     */
+    ZIPS,
+    /**
+     * Chunks are grouped into region files, in which saved chunks are written in place. See {@link RegionFile}.
+     */
+    REGIONS
+}
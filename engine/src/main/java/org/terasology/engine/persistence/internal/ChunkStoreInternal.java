@@ -2,6 +2,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.persistence.internal;
 
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
 import org.joml.Vector3i;
 import org.terasology.engine.persistence.ChunkStore;
@@ -9,6 +11,7 @@
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
 import org.terasology.engine.world.chunks.internal.ChunkSerializer;
 
 final class ChunkStoreInternal implements ChunkStore {
@@ -24,7 +27,10 @@ final class ChunkStoreInternal implements ChunkStore {
         this.chunkPosition = new Vector3i(chunkData.getX(), chunkData.getY(), chunkData.getZ());
         this.entityManager = entityManager;
 
-        this.chunk = ChunkSerializer.decode(chunkData, blockManager, extraDataManager);
+        ChunkImpl decodedChunk = ChunkSerializer.decode(chunkData, blockManager, extraDataManager);
+        // The chunk only needs to be saved again once it changes
+        decodedChunk.markSaved();
+        this.chunk = decodedChunk;
         this.entityStore = chunkData.getStore();
     }
 
@@ -43,4 +49,15 @@ public Chunk getChunk() {
     public void restoreEntities() {
         new EntityRestorer(entityManager).restore(entityStore);
     }
+
+    /**
+     * @return The ids of the entities which are saved with the chunk
+     */
+    TLongSet getStoredEntityIds() {
+        TLongSet entityIds = new TLongHashSet();
+        for (EntityData.Entity entity : entityStore.getEntityList()) {
+            entityIds.add(entity.getId());
+        }
+        return entityIds;
+    }
 }
@@ -3,6 +3,8 @@
 
 package org.terasology.engine.persistence.internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.gestalt.module.ModuleEnvironment;
@@ -20,6 +22,7 @@
  * A {@link org.terasology.engine.persistence.StorageManager} that performs reading only.
  */
 public final class ReadOnlyStorageManager extends AbstractStorageManager {
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyStorageManager.class);
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
@@ -31,9 +34,21 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
         super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
     }
 
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageFormat chunkStorageFormat) {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageFormat);
+    }
+
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        if (getRegionChunkStorage() != null) {
+            try {
+                getRegionChunkStorage().close();
+            } catch (IOException e) {
+                logger.error("Failed to close region files", e);
+            }
+        }
     }
 
     @Override
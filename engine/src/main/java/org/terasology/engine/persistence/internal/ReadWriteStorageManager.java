@@ -4,6 +4,7 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
@@ -30,6 +31,7 @@
 import org.terasology.engine.network.Client;
 import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.persistence.ChunkStore;
 import org.terasology.engine.recording.RecordAndReplayCurrentStatus;
 import org.terasology.engine.recording.RecordAndReplaySerializer;
 import org.terasology.engine.recording.RecordAndReplayStatus;
@@ -99,6 +101,17 @@ public final class ReadWriteStorageManager extends AbstractStorageManager
     private ConcurrentMap<Vector3ic, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndSavingPlayerMap = Maps.newConcurrentMap();
+    /**
+     * The entities which got saved with each chunk and player, used by save transactions to skip unchanged ones.
+     * Only accessed by the save thread, or while no save is running.
+     */
+    private final StoredEntityIndex<Vector3i> savedChunkEntities = new StoredEntityIndex<>();
+    private final StoredEntityIndex<String> savedPlayerEntities = new StoredEntityIndex<>();
+    /**
+     * The entities stored with each chunk read from disk since the last save, which the next save transaction adds
+     * to {@link #savedChunkEntities}.
+     */
+    private ConcurrentMap<Vector3i, TLongSet> chunksReadFromStore = Maps.newConcurrentMap();
 
 
     private EngineEntityManager privateEntityManager;
@@ -124,7 +137,18 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
                                    BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
                                    RecordAndReplaySerializer recordAndReplaySerializer, RecordAndReplayUtils recordAndReplayUtils,
                             RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES,
+                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                   ChunkStorageFormat chunkStorageFormat,
+                                   RecordAndReplaySerializer recordAndReplaySerializer,
+                                   RecordAndReplayUtils recordAndReplayUtils,
+                                   RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageFormat);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
@@ -158,6 +182,17 @@ public void finishSavingAndShutdown() {
         }
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        closeRegionChunkStorage();
+    }
+
+    private void closeRegionChunkStorage() {
+        if (getRegionChunkStorage() != null) {
+            try {
+                getRegionChunkStorage().close();
+            } catch (IOException e) {
+                logger.error("Failed to close region files", e);
+            }
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -222,11 +257,20 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             unsavedEntryIterator.remove();
         }
 
+        Iterator<Map.Entry<Vector3i, TLongSet>> readEntryIterator = chunksReadFromStore.entrySet().iterator();
+        while (readEntryIterator.hasNext()) {
+            Map.Entry<Vector3i, TLongSet> entry = readEntryIterator.next();
+            saveTransactionBuilder.addChunkReadFromStore(entry.getKey(), entry.getValue());
+            readEntryIterator.remove();
+        }
+
         chunkProvider.getAllChunks().stream().filter(Chunk::isReady).forEach(chunk -> {
             // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
-            unloadedAndSavingChunkMap.remove(chunk.getPosition(new Vector3i()));
+            CompressedChunkBuilder disposedChunk = unloadedAndSavingChunkMap.remove(chunk.getPosition(new Vector3i()));
             ChunkImpl chunkImpl = (ChunkImpl) chunk;  // this storage manager can only work with ChunkImpls
-            saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            // A chunk which got reloaded from its unsaved disposed version differs from the saved one as well
+            boolean modified = chunkImpl.markSaved() || disposedChunk != null;
+            saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl, modified);
         });
 
         for (Map.Entry<Vector3ic, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
@@ -258,8 +302,9 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock,
-                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                entitySetDeltaRecorder, getChunkStorageFormat(), getRegionChunkStorage(), savedChunkEntities,
+                savedPlayerEntities, getStoragePathProvider(), worldDirectoryWriteLock, recordAndReplaySerializer,
+                recordAndReplayUtils, recordAndReplayCurrentStatus);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -346,6 +391,15 @@ protected byte[] loadCompressedChunk(Vector3ic chunkPos) {
         }
     }
 
+    @Override
+    public ChunkStore loadChunkStore(Vector3ic chunkPos) {
+        ChunkStore store = super.loadChunkStore(chunkPos);
+        if (store != null) {
+            chunksReadFromStore.put(new Vector3i(chunkPos), ((ChunkStoreInternal) store).getStoredEntityIds());
+        }
+        return store;
+    }
+
     @Override
     public void onEntityDestroyed(EntityRef entity) {
         entitySetDeltaRecorder.onEntityDestroyed(entity);
@@ -493,6 +547,11 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
         }
+        RegionChunkStorage regionChunkStorage = getRegionChunkStorage();
+        if (regionChunkStorage != null) {
+            regionChunkStorage.applyJournals();
+            regionChunkStorage.importChunks();
+        }
     }
 
 
@@ -501,8 +560,12 @@ public void deleteWorld() {
         waitForCompletionOfPreviousSave();
         unloadedAndUnsavedChunkMap.clear();
         unloadedAndSavingChunkMap.clear();
+        chunksReadFromStore.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        savedChunkEntities.invalidate();
+        savedPlayerEntities.invalidate();
+        closeRegionChunkStorage();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
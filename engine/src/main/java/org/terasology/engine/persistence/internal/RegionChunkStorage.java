@@ -0,0 +1,298 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TIntLongIterator;
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores the chunks of a world in {@link RegionFile}s, so that saving a chunk only writes that chunk.
+ * <br><br>
+ * Chunks are saved in three steps which fit into a {@link SaveTransaction}: their data is written to free sectors of
+ * the region files ({@link #stage(Vector3ic, byte[])}), the new entries of each region are written to a journal file
+ * in the directory of the save transaction ({@link #writeJournals()}), and once the transaction has been merged into
+ * the save game the journals are committed to the region files and deleted ({@link #applyJournals()}). If the game
+ * stops after the merge but before the journals are applied, they get applied when the save game is checked on the
+ * next start, and if it stops before the merge the staged data is simply never referenced.
+ */
+public class RegionChunkStorage implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RegionChunkStorage.class);
+
+    private static final int MAX_OPEN_REGIONS = 64;
+    private static final int JOURNAL_MAGIC = 0x54524a31;
+    private static final String CHUNK_EXTENSION = ".chunk";
+    private static final String CHUNK_ZIP_EXTENSION = ".chunks.zip";
+
+    private final StoragePathProvider storagePathProvider;
+    private final Map<Vector3i, RegionFile> openRegions = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Regions with staged data that has not been committed yet. These are kept open, as the sectors of the staged
+     * data are only reserved for as long as the region file stays open.
+     */
+    private final Set<Vector3i> pinnedRegions = Sets.newHashSet();
+    private final Map<Vector3i, TIntLongMap> stagedEntries = Maps.newHashMap();
+
+    public RegionChunkStorage(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    /**
+     * @return Whether the world directory contains region files
+     */
+    public static boolean containsRegions(StoragePathProvider storagePathProvider) {
+        return !listWorldFiles(storagePathProvider, StoragePathProvider.CHUNK_REGION_EXTENSION).isEmpty();
+    }
+
+    /**
+     * @return The saved data of the chunk, or null if it has not been saved
+     */
+    public byte[] load(Vector3ic chunkPos) {
+        Vector3i regionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+        try {
+            RegionFile region = getRegion(regionPos, false, false);
+            return region != null ? region.read(getIndex(chunkPos)) : null;
+        } catch (IOException e) {
+            logger.error("Failed to load chunk {} from its region file", chunkPos, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the data of a chunk to its region file. The data gets saved by the next call to {@link #writeJournals()}.
+     */
+    public void stage(Vector3ic chunkPos, byte[] data) throws IOException {
+        Vector3i regionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+        long entry = getRegion(regionPos, true, true).write(data);
+        synchronized (this) {
+            stagedEntries.computeIfAbsent(regionPos, k -> new TIntLongHashMap()).put(getIndex(chunkPos), entry);
+        }
+    }
+
+    /**
+     * Writes the entries of the staged chunks to journal files in the world directory of the save transaction.
+     */
+    public void writeJournals() throws IOException {
+        Map<Vector3i, TIntLongMap> entries;
+        synchronized (this) {
+            entries = Maps.newHashMap(stagedEntries);
+            stagedEntries.clear();
+        }
+        for (Map.Entry<Vector3i, TIntLongMap> regionEntries : entries.entrySet()) {
+            Vector3i regionPos = regionEntries.getKey();
+            // The journal must not end up on disk before the data it refers to
+            getRegion(regionPos, true, true).flush();
+            Path journalPath = storagePathProvider.getChunkRegionJournalTempPath(regionPos);
+            try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journalPath)))) {
+                out.writeInt(JOURNAL_MAGIC);
+                out.writeInt(regionPos.x);
+                out.writeInt(regionPos.y);
+                out.writeInt(regionPos.z);
+                out.writeInt(regionEntries.getValue().size());
+                TIntLongIterator iterator = regionEntries.getValue().iterator();
+                while (iterator.hasNext()) {
+                    iterator.advance();
+                    out.writeInt(iterator.key());
+                    out.writeLong(iterator.value());
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits the journals found in the world directory to their region files, and deletes them. This can be
+     * repeated safely if it gets interrupted.
+     * <br><br>
+     * The write lock for the save directory should be acquired before this method gets called.
+     */
+    public void applyJournals() throws IOException {
+        String journalExtension = StoragePathProvider.CHUNK_REGION_EXTENSION
+                + StoragePathProvider.CHUNK_REGION_JOURNAL_EXTENSION;
+        for (Path journalPath : listWorldFiles(storagePathProvider, journalExtension)) {
+            Vector3i regionPos;
+            TIntLongMap entries = new TIntLongHashMap();
+            try (DataInputStream in =
+                         new DataInputStream(new BufferedInputStream(Files.newInputStream(journalPath)))) {
+                if (in.readInt() != JOURNAL_MAGIC) {
+                    throw new IOException("Invalid region journal " + journalPath);
+                }
+                regionPos = new Vector3i(in.readInt(), in.readInt(), in.readInt());
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    entries.put(in.readInt(), in.readLong());
+                }
+            }
+            getRegion(regionPos, true, false).commit(entries);
+            synchronized (this) {
+                if (!stagedEntries.containsKey(regionPos)) {
+                    pinnedRegions.remove(regionPos);
+                }
+            }
+            Files.delete(journalPath);
+        }
+    }
+
+    /**
+     * Moves the chunks stored in chunk zips or separate chunk files of the world into region files, and deletes the
+     * old files once the chunks have been committed. If this gets interrupted it starts over on the next call.
+     *
+     * @return The number of chunks which have been moved
+     */
+    public int importChunks() throws IOException {
+        List<Path> zipPaths = listWorldFiles(storagePathProvider, CHUNK_ZIP_EXTENSION);
+        List<Path> chunkPaths = listWorldFiles(storagePathProvider, CHUNK_EXTENSION);
+        int count = 0;
+        for (Path zipPath : zipPaths) {
+            try (FileSystem zip = FileSystems.newFileSystem(zipPath, (ClassLoader) null)) {
+                for (Path root : zip.getRootDirectories()) {
+                    try (Stream<Path> files = Files.list(root)) {
+                        for (Path file : files.collect(Collectors.toList())) {
+                            count += importChunk(file) ? 1 : 0;
+                        }
+                    }
+                }
+            }
+            commitStaged();
+        }
+        // Separate chunk files are imported last, so that they win over chunks in zips
+        for (Path chunkPath : chunkPaths) {
+            count += importChunk(chunkPath) ? 1 : 0;
+            if (stagedEntries.size() >= MAX_OPEN_REGIONS / 2) {
+                commitStaged();
+            }
+        }
+        commitStaged();
+
+        for (Path path : zipPaths) {
+            Files.delete(path);
+        }
+        for (Path path : chunkPaths) {
+            Files.delete(path);
+        }
+        if (count > 0) {
+            logger.info("Moved {} saved chunks into region files", count);
+        }
+        return count;
+    }
+
+    /**
+     * Commits the staged chunks directly, which keeps the number of regions being kept open low while importing.
+     */
+    private void commitStaged() throws IOException {
+        Map<Vector3i, TIntLongMap> entries;
+        synchronized (this) {
+            entries = Maps.newHashMap(stagedEntries);
+            stagedEntries.clear();
+        }
+        for (Map.Entry<Vector3i, TIntLongMap> regionEntries : entries.entrySet()) {
+            getRegion(regionEntries.getKey(), true, false).commit(regionEntries.getValue());
+            synchronized (this) {
+                pinnedRegions.remove(regionEntries.getKey());
+            }
+        }
+    }
+
+    private boolean importChunk(Path chunkPath) throws IOException {
+        String[] parts = chunkPath.getFileName().toString().split("\\.");
+        if (parts.length != 4 || !CHUNK_EXTENSION.equals("." + parts[3])) {
+            return false;
+        }
+        try {
+            Vector3i chunkPos = new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]));
+            stage(chunkPos, Files.readAllBytes(chunkPath));
+            return true;
+        } catch (NumberFormatException e) {
+            logger.warn("Skipping chunk file with unexpected name {}", chunkPath);
+            return false;
+        }
+    }
+
+    /**
+     * Closes all region files. Chunks which have been staged but not committed are lost.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (RegionFile region : openRegions.values()) {
+            region.close();
+        }
+        openRegions.clear();
+        pinnedRegions.clear();
+        stagedEntries.clear();
+    }
+
+    private synchronized RegionFile getRegion(Vector3i regionPos, boolean create, boolean pin) throws IOException {
+        RegionFile region = openRegions.get(regionPos);
+        if (region == null) {
+            Path regionPath = storagePathProvider.getChunkRegionPath(regionPos);
+            if (!create && !Files.isRegularFile(regionPath)) {
+                return null;
+            }
+            Files.createDirectories(regionPath.getParent());
+            region = RegionFile.open(regionPath);
+            openRegions.put(new Vector3i(regionPos), region);
+            closeUnusedRegions();
+        }
+        if (pin) {
+            pinnedRegions.add(new Vector3i(regionPos));
+        }
+        return region;
+    }
+
+    private void closeUnusedRegions() throws IOException {
+        Iterator<Map.Entry<Vector3i, RegionFile>> iterator = openRegions.entrySet().iterator();
+        while (openRegions.size() > MAX_OPEN_REGIONS && iterator.hasNext()) {
+            Map.Entry<Vector3i, RegionFile> entry = iterator.next();
+            if (!pinnedRegions.contains(entry.getKey())) {
+                // Reads which are still using the region can carry on through its memory mapping
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int getIndex(Vector3ic chunkPos) {
+        return RegionFile.getIndex(Math.floorMod(chunkPos.x(), RegionFile.SIZE),
+                Math.floorMod(chunkPos.y(), RegionFile.SIZE), Math.floorMod(chunkPos.z(), RegionFile.SIZE));
+    }
+
+    private static List<Path> listWorldFiles(StoragePathProvider storagePathProvider, String extension) {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return Lists.newArrayList();
+        }
+        try (Stream<Path> files = Files.list(worldPath)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(extension) && Files.isRegularFile(file))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("Failed to list the files of {}", worldPath, e);
+            return Lists.newArrayList();
+        }
+    }
+}
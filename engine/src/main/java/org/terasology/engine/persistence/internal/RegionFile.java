@@ -0,0 +1,316 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import gnu.trove.iterator.TIntLongIterator;
+import gnu.trove.map.TIntLongMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * A file holding the saved data of a cube of {@link #SIZE}^3 chunks, which can be read through a memory mapping and
+ * updated in place.
+ * <br><br>
+ * The file starts with two header slots, followed by data sectors of {@link #SECTOR_SIZE} bytes. A header slot stores a
+ * generation number, a checksum and, for every chunk, the first sector and byte length of its data. The valid slot with
+ * the highest generation is the current header.
+ * <br><br>
+ * Chunk data is never written over data which the current header refers to. Instead it is written to free sectors
+ * ({@link #write(byte[])}), and becomes visible once a new header is written to the other slot
+ * ({@link #commit(TIntLongMap)}). The data is flushed to disk before the header, so that if writing the header gets
+ * interrupted the checksum of the torn slot does not match and the previous header, along with the data it refers to,
+ * remains the current one.
+ */
+final class RegionFile implements Closeable {
+    static final int SIZE = 16;
+    static final int SECTOR_SIZE = 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFile.class);
+
+    private static final int CHUNK_COUNT = SIZE * SIZE * SIZE;
+    private static final int MAGIC = 0x54524731;
+    /* A header slot holds a magic number, a checksum of the rest of the slot, the generation and the entries */
+    private static final int CHECKSUM_OFFSET = 4;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int ENTRIES_OFFSET = 16;
+    private static final int HEADER_BYTES = ENTRIES_OFFSET + CHUNK_COUNT * 8;
+    private static final int HEADER_SECTORS = (HEADER_BYTES + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    private static final int FIRST_DATA_SECTOR = 2 * HEADER_SECTORS;
+    /* Sector offsets are stored as ints and the file is mapped as a single buffer */
+    private static final int MAX_SECTORS = Integer.MAX_VALUE / SECTOR_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] sectors = new int[CHUNK_COUNT];
+    private final int[] lengths = new int[CHUNK_COUNT];
+    /* Sectors used by the current header or by written but not yet committed data */
+    private final BitSet reservedSectors = new BitSet();
+    private long generation;
+    private int currentSlot;
+    private MappedByteBuffer mappedFile;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    private RegionFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a region file, creating it if it does not exist yet.
+     */
+    static RegionFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            RegionFile regionFile = new RegionFile(path, channel);
+            regionFile.readHeader();
+            return regionFile;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param x The x position of the chunk within the region, from 0 to {@link #SIZE} - 1
+     * @param y The y position of the chunk within the region
+     * @param z The z position of the chunk within the region
+     * @return The index of the chunk within the region file
+     */
+    static int getIndex(int x, int y, int z) {
+        return (x * SIZE + y) * SIZE + z;
+    }
+
+    /**
+     * @return The committed data of a chunk, or null if the chunk has not been stored
+     */
+    byte[] read(int index) {
+        readLock.lock();
+        try {
+            int sector = sectors[index];
+            if (sector == 0) {
+                return null;
+            }
+            ByteBuffer buffer = mappedFile.duplicate();
+            buffer.position(sector * SECTOR_SIZE);
+            byte[] data = new byte[lengths[index]];
+            buffer.get(data);
+            return data;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Writes chunk data to unused sectors of the file. The data does not become visible until the returned entry is
+     * committed; until then it uses up its sectors, even if the entry never gets committed.
+     *
+     * @return The entry to commit for the chunk
+     */
+    synchronized long write(byte[] data) throws IOException {
+        int sector = allocate(sectorCount(data.length));
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = (long) sector * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return toEntry(sector, data.length);
+    }
+
+    /**
+     * Makes the given entries visible by writing a new header. Committing entries which are already current has no
+     * effect, so entries can safely be committed again after a crash.
+     *
+     * @param entries The entries returned by {@link #write(byte[])}, by chunk index
+     */
+    synchronized void commit(TIntLongMap entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        int[] newSectors = sectors.clone();
+        int[] newLengths = lengths.clone();
+        TIntLongIterator iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            newSectors[iterator.key()] = entrySector(iterator.value());
+            newLengths[iterator.key()] = entryLength(iterator.value());
+        }
+        int newSlot = 1 - currentSlot;
+        // The data has to be on disk before any header refers to it
+        channel.force(true);
+        writeHeader(newSlot, generation + 1, newSectors, newLengths);
+        channel.force(false);
+
+        writeLock.lock();
+        try {
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                if (sectors[i] != newSectors[i] && sectors[i] != 0) {
+                    reservedSectors.clear(sectors[i], sectors[i] + sectorCount(lengths[i]));
+                }
+            }
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                if (newSectors[i] != 0) {
+                    reservedSectors.set(newSectors[i], newSectors[i] + sectorCount(newLengths[i]));
+                }
+            }
+            System.arraycopy(newSectors, 0, sectors, 0, CHUNK_COUNT);
+            System.arraycopy(newLengths, 0, lengths, 0, CHUNK_COUNT);
+            generation++;
+            currentSlot = newSlot;
+            if (mappedFile == null || channel.size() > mappedFile.capacity()) {
+                mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Makes sure that all written data is on disk.
+     */
+    void flush() throws IOException {
+        channel.force(true);
+    }
+
+    /**
+     * @return The position of a header slot within the file
+     */
+    static long getHeaderPosition(int slot) {
+        return (long) slot * HEADER_SECTORS * SECTOR_SIZE;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Closes the file. The committed data stays readable through the memory mapping.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+        reservedSectors.set(0, FIRST_DATA_SECTOR);
+        ByteBuffer[] slots = {readSlot(0), readSlot(1)};
+        int slot = -1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && (slot == -1
+                    || slots[i].getLong(GENERATION_OFFSET) > slots[slot].getLong(GENERATION_OFFSET))) {
+                slot = i;
+            }
+        }
+        if (slot == -1) {
+            if (channel.size() > 0) {
+                logger.warn("Region file {} has no valid header, its chunks will be regenerated", path);
+            }
+            currentSlot = 1;
+            return;
+        }
+        currentSlot = slot;
+        ByteBuffer header = slots[slot];
+        generation = header.getLong(GENERATION_OFFSET);
+        header.position(ENTRIES_OFFSET);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            sectors[i] = header.getInt();
+            lengths[i] = header.getInt();
+            if (sectors[i] != 0) {
+                reservedSectors.set(sectors[i], sectors[i] + sectorCount(lengths[i]));
+            }
+        }
+        mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    /**
+     * @return The contents of the header slot, or null if it has not been written completely
+     */
+    private ByteBuffer readSlot(int slot) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = getHeaderPosition(slot);
+        while (header.hasRemaining()) {
+            int read = channel.read(header, position + header.position());
+            if (read < 0) {
+                return null;
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(CHECKSUM_OFFSET) != checksum(header)) {
+            return null;
+        }
+        return header;
+    }
+
+    private void writeHeader(int slot, long newGeneration, int[] newSectors, int[] newLengths) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(0);
+        header.putLong(newGeneration);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            header.putInt(newSectors[i]);
+            header.putInt(newLengths[i]);
+        }
+        header.putInt(CHECKSUM_OFFSET, checksum(header));
+        header.flip();
+        long position = getHeaderPosition(slot);
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static int checksum(ByteBuffer header) {
+        CRC32 crc = new CRC32();
+        ByteBuffer content = header.duplicate();
+        content.position(GENERATION_OFFSET).limit(HEADER_BYTES);
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Finds the first run of free sectors which is long enough, and reserves it.
+     */
+    private int allocate(int count) throws IOException {
+        int start = reservedSectors.nextClearBit(FIRST_DATA_SECTOR);
+        int nextReserved = reservedSectors.nextSetBit(start);
+        while (nextReserved >= 0 && nextReserved - start < count) {
+            start = reservedSectors.nextClearBit(nextReserved);
+            nextReserved = reservedSectors.nextSetBit(start);
+        }
+        if (start + count > MAX_SECTORS) {
+            throw new IOException("Region file " + path + " is full");
+        }
+        reservedSectors.set(start, start + count);
+        return start;
+    }
+
+    private static int sectorCount(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    static long toEntry(int sector, int length) {
+        return ((long) sector << 32) | (length & 0xFFFFFFFFL);
+    }
+
+    static int entrySector(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int entryLength(long entry) {
+        return (int) entry;
+    }
+}
@@ -2,9 +2,13 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.persistence.internal;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.slf4j.Logger;
@@ -45,6 +49,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -68,20 +76,29 @@ public class SaveTransaction extends AbstractTask {
     private final Map<String, PlayerStoreBuilder> loadedPlayers;
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
     private final Map<Vector3i, ChunkImpl> loadedChunks;
+    private final Set<Vector3i> modifiedChunks;
+    private final Map<Vector3i, TLongSet> chunksReadFromStore;
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
     private EntityData.GlobalStore globalStore;
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
+    private Map<Vector3i, CompressedChunkBuilder> changedLoadedChunks;
+    private Map<String, PlayerStoreBuilder> changedLoadedPlayers;
+    private int unchangedStores;
 
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
+    private final RegionChunkStorage regionChunkStorage;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final StoredEntityIndex<Vector3i> chunkIndex;
+    private final StoredEntityIndex<String> playerIndex;
+    private final Executor encodingExecutor = ForkJoinPool.commonPool();
 
     //Record and Replay
     private RecordAndReplaySerializer recordAndReplaySerializer;
@@ -89,24 +106,39 @@ public class SaveTransaction extends AbstractTask {
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
 
-    public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           Map<String, EntityData.PlayerStore> unloadedPlayers,
-                           Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
-                           Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
-                           RecordAndReplaySerializer recordAndReplaySerializer,
-                           RecordAndReplayUtils recordAndReplayUtils,
-                           RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
+    /**
+     * @param modifiedChunks The loaded chunks whose blocks changed since they were last saved
+     * @param chunksReadFromStore The ids of the entities stored with each chunk read from disk since the previous
+     *                            transaction, so that the chunks need not be saved again while they are unchanged
+     * @param chunkIndex The entities saved in each chunk by earlier transactions, which gets updated by this one
+     * @param playerIndex The entities saved for each player by earlier transactions, which gets updated by this one
+     */
+    SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
+                    Map<String, EntityData.PlayerStore> unloadedPlayers,
+                    Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
+                    Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
+                    Set<Vector3i> modifiedChunks, Map<Vector3i, TLongSet> chunksReadFromStore,
+                    GameManifest gameManifest,
+                    ChunkStorageFormat chunkStorageFormat, RegionChunkStorage regionChunkStorage,
+                    StoredEntityIndex<Vector3i> chunkIndex, StoredEntityIndex<String> playerIndex,
+                    StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
+                    RecordAndReplaySerializer recordAndReplaySerializer,
+                    RecordAndReplayUtils recordAndReplayUtils,
+                    RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
         this.loadedPlayers = loadedPlayers;
         this.unloadedChunks = unloadedChunks;
         this.loadedChunks = loadedChunks;
+        this.modifiedChunks = modifiedChunks;
+        this.chunksReadFromStore = chunksReadFromStore;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
+        this.regionChunkStorage = regionChunkStorage;
+        this.chunkIndex = chunkIndex;
+        this.playerIndex = playerIndex;
         this.storagePathProvider = storagePathProvider;
         this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
@@ -133,6 +165,7 @@ public void run() {
             }
             saveTransactionHelper.cleanupSaveTransactionDirectory();
             applyDeltaToPrivateEntityManager();
+            chunksReadFromStore.forEach(chunkIndex::update);
             prepareChunksPlayersAndGlobalStore();
             createPreviewImagesFolder();
             createSaveTransactionDirectory();
@@ -142,11 +175,15 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            updateStoredEntityIndices();
             result = SaveTransactionResult.createSuccessResult();
-            logger.info("Save game finished");
+            logger.info("Save game finished, {} unchanged chunks and players were skipped", unchangedStores);
             saveRecordingData();
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
+            // It is no longer known which stores are up to date, so the next save writes all of them
+            chunkIndex.invalidate();
+            playerIndex.invalidate();
             result = SaveTransactionResult.createFailureResult(t);
         }
     }
@@ -194,55 +231,151 @@ private void prepareChunksPlayersAndGlobalStore() {
                 unsavedEntities.add(entity);
             }
         }
-        preparePlayerStores(unsavedEntities);
-        prepareCompressedChunkBuilders(unsavedEntities);
+        TLongSet changedEntities = getChangedEntities();
+        preparePlayerStores(unsavedEntities, changedEntities);
+        prepareCompressedChunkBuilders(unsavedEntities, changedEntities);
         this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
     }
 
 
+    /**
+     * @return The ids of the entities which changed since the previous save
+     */
+    private TLongSet getChangedEntities() {
+        TLongSet changedEntities = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntities.addAll(deltaToSave.getDestroyedEntities());
+        changedEntities.addAll(deltaToSave.getDeactivatedEntities());
+        return changedEntities;
+    }
+
+    /**
+     * Removes the entities which are still saved in an unchanged store from the unsaved entities, so that they don't
+     * get saved a second time in the global store.
+     */
+    private void removeSavedEntities(Set<EntityRef> unsavedEntities, TLongSet savedEntities) {
+        savedEntities.forEach(entityId -> {
+            unsavedEntities.remove(privateEntityManager.getEntity(entityId));
+            return true;
+        });
+    }
+
     /**
      * @param unsavedEntities currently loaded persistent entities without owner that have not been saved yet.
      *                        This method removes entities it saves.
+     * @param changedEntities the entities which changed since the previous save.
      */
-    private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
+    private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities, TLongSet changedEntities) {
         Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = createChunkPosToUnsavedOwnerLessEntitiesMap();
+        Set<Vector3i> changedChunks = getChangedChunks(chunkPosToEntitiesMap, changedEntities);
 
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
+        changedLoadedChunks = Maps.newHashMap();
         for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : loadedChunks.entrySet()) {
             Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
             if (entitiesToStore == null) {
                 entitiesToStore = Collections.emptySet();
             }
-            ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
+            if (!changedChunks.contains(chunkEntry.getKey())) {
+                // The saved chunk is still up to date
+                removeSavedEntities(unsavedEntities, chunkIndex.getEntities(chunkEntry.getKey()));
+                unchangedStores++;
+                continue;
+            }
+            ChunkImpl chunk = chunkEntry.getValue();
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
                     entitiesToStore, false);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+            changedLoadedChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
     }
 
+    /**
+     * A loaded chunk needs to be saved if it has not been saved since it got loaded, if its blocks have been modified,
+     * if it contained a changed entity when it was last saved, or if it contains a changed entity now.
+     */
+    private Set<Vector3i> getChangedChunks(Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap,
+                                           TLongSet changedEntities) {
+        Set<Vector3i> changedChunks = Sets.newHashSet(modifiedChunks);
+        for (Vector3i chunkPos : loadedChunks.keySet()) {
+            // Without knowing which entities were last saved with a chunk, it can't be told whether they changed
+            if (!chunkIndex.isComplete() || !chunkIndex.contains(chunkPos)) {
+                changedChunks.add(chunkPos);
+            }
+        }
+        chunkIndex.collectStores(changedEntities, changedChunks);
+        for (Map.Entry<Vector3i, Collection<EntityRef>> entry : chunkPosToEntitiesMap.entrySet()) {
+            for (EntityRef entity : entry.getValue()) {
+                if (changedEntities.contains(entity.getId())) {
+                    changedChunks.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return changedChunks;
+    }
+
     /**
      * @param unsavedEntities currently loaded persistent entities without owner that have not been saved yet.
      *                        This method removes entities it saves.
+     * @param changedEntities the entities which changed since the previous save.
      */
-    private void preparePlayerStores(Set<EntityRef> unsavedEntities) {
+    private void preparePlayerStores(Set<EntityRef> unsavedEntities, TLongSet changedEntities) {
         allPlayers = Maps.newHashMap();
         allPlayers.putAll(unloadedPlayers);
+        changedLoadedPlayers = Maps.newHashMap();
+        Set<String> changedPlayers = Sets.newHashSet();
+        playerIndex.collectStores(changedEntities, changedPlayers);
         for (Map.Entry<String, PlayerStoreBuilder> playerEntry : loadedPlayers.entrySet()) {
             PlayerStoreBuilder playerStoreBuilder = playerEntry.getValue();
-            EntityData.PlayerStore playerStore = playerStoreBuilder.build(privateEntityManager);
-            unsavedEntities.removeAll(playerStoreBuilder.getStoredEntities());
             Long characterEntityId = playerStoreBuilder.getCharacterEntityId();
             if (characterEntityId != null) {
                 EntityRef character = privateEntityManager.getEntity(characterEntityId);
                 unsavedEntities.remove(character);
             }
+            if (!isPlayerChanged(playerEntry.getKey(), characterEntityId, changedEntities, changedPlayers)) {
+                // The saved player is still up to date
+                removeSavedEntities(unsavedEntities, playerIndex.getEntities(playerEntry.getKey()));
+                unchangedStores++;
+                continue;
+            }
+            EntityData.PlayerStore playerStore = playerStoreBuilder.build(privateEntityManager);
+            unsavedEntities.removeAll(playerStoreBuilder.getStoredEntities());
             allPlayers.put(playerEntry.getKey(), playerStore);
+            changedLoadedPlayers.put(playerEntry.getKey(), playerStoreBuilder);
         }
     }
 
+    /**
+     * @param changedPlayers the players which last saved any of the changed entities
+     */
+    private boolean isPlayerChanged(String playerId, Long characterEntityId, TLongSet changedEntities,
+                                    Set<String> changedPlayers) {
+        if (!playerIndex.isComplete() || !playerIndex.contains(playerId)) {
+            return true;
+        }
+        if (characterEntityId != null && changedEntities.contains(characterEntityId)) {
+            return true;
+        }
+        return changedPlayers.contains(playerId);
+    }
+
+    /**
+     * Records which entities got saved in which chunk or player store, once the save has been merged.
+     */
+    private void updateStoredEntityIndices() {
+        unloadedChunks.keySet().forEach(chunkIndex::remove);
+        changedLoadedChunks.forEach((chunkPos, builder) -> chunkIndex.update(chunkPos, builder.getStoredEntities()));
+        // All loaded chunks have been saved if the index was incomplete
+        chunkIndex.setComplete();
+
+        unloadedPlayers.keySet().forEach(playerIndex::remove);
+        changedLoadedPlayers.forEach((playerId, builder) -> playerIndex.update(playerId, builder.getStoredEntities()));
+        playerIndex.setComplete();
+    }
+
     private Map<Vector3i, Collection<EntityRef>> createChunkPosToUnsavedOwnerLessEntitiesMap() {
         Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = Maps.newHashMap();
         for (EntityRef entity : privateEntityManager.getEntitiesWith(LocationComponent.class)) {
@@ -386,10 +519,34 @@ private void writeGlobalStore() throws IOException {
         }
     }
 
+    /**
+     * Encodes and compresses the chunks on all cores, as this takes up most of the time of a save. The builders keep
+     * their results, so writing the chunks afterwards does not have to wait for them.
+     */
+    private void encodeChunks() {
+        List<CompletableFuture<Void>> encodings = Lists.newArrayListWithCapacity(allChunks.size());
+        for (CompressedChunkBuilder compressedChunkBuilder : allChunks.values()) {
+            encodings.add(CompletableFuture.runAsync(compressedChunkBuilder::buildEncodedChunk, encodingExecutor));
+        }
+        try {
+            CompletableFuture.allOf(encodings.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        encodeChunks();
+        if (chunkStorageFormat == ChunkStorageFormat.REGIONS) {
+            // Only the chunks being saved are written, the other chunks of their regions stay where they are
+            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
+                regionChunkStorage.stage(entry.getKey(), entry.getValue().buildEncodedChunk());
+            }
+            regionChunkStorage.writeJournals();
+        } else if (chunkStorageFormat == ChunkStorageFormat.ZIPS) {
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -465,6 +622,9 @@ private void mergeChanges() throws IOException {
         worldDirectoryWriteLock.lock();
         try {
             saveTransactionHelper.mergeChanges();
+            if (regionChunkStorage != null) {
+                regionChunkStorage.applyJournals();
+            }
         } finally {
             worldDirectoryWriteLock.unlock();
         }
@@ -3,6 +3,8 @@
 package org.terasology.engine.persistence.internal;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.set.TLongSet;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
@@ -14,6 +16,7 @@
 import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -28,8 +31,13 @@ class SaveTransactionBuilder {
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
+    private Set<Vector3i> modifiedChunks = Sets.newHashSet();
+    private Map<Vector3i, TLongSet> chunksReadFromStore = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
+    private final RegionChunkStorage regionChunkStorage;
+    private final StoredEntityIndex<Vector3i> chunkIndex;
+    private final StoredEntityIndex<String> playerIndex;
     private final StoragePathProvider storagePathProvider;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
@@ -37,13 +45,18 @@ class SaveTransactionBuilder {
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
+                           ChunkStorageFormat chunkStorageFormat, RegionChunkStorage regionChunkStorage,
+                           StoredEntityIndex<Vector3i> chunkIndex, StoredEntityIndex<String> playerIndex,
+                           StoragePathProvider storagePathProvider,
                            Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
+        this.regionChunkStorage = regionChunkStorage;
+        this.chunkIndex = chunkIndex;
+        this.playerIndex = playerIndex;
         this.storagePathProvider = storagePathProvider;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
@@ -68,14 +81,29 @@ void addUnloadedChunk(final Vector3ic chunkPosition, final CompressedChunkBuilde
     }
 
 
-    void addLoadedChunk(final Vector3ic chunkPosition, final ChunkImpl chunk) {
+    /**
+     * @param modified Whether the blocks of the chunk changed since it was last saved
+     */
+    void addLoadedChunk(final Vector3ic chunkPosition, final ChunkImpl chunk, boolean modified) {
         loadedChunks.put(new Vector3i(chunkPosition), chunk);
+        if (modified) {
+            modifiedChunks.add(new Vector3i(chunkPosition));
+        }
+    }
+
+    /**
+     * @param storedEntityIds The ids of the entities saved with a chunk that has been read from disk since the
+     *                        previous save
+     */
+    void addChunkReadFromStore(final Vector3ic chunkPosition, TLongSet storedEntityIds) {
+        chunksReadFromStore.put(new Vector3i(chunkPosition), storedEntityIds);
     }
 
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                unloadedChunks, loadedChunks, modifiedChunks, chunksReadFromStore, gameManifest, chunkStorageFormat, regionChunkStorage,
+                chunkIndex, playerIndex, storagePathProvider, worldDirectoryWriteLock, recordAndReplaySerializer,
+                recordAndReplayUtils, recordAndReplayCurrentStatus);
 
     }
 
@@ -18,6 +18,8 @@ public class StoragePathProvider {
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
     private static final int CHUNK_ZIP_DIM = 32;
+    static final String CHUNK_REGION_EXTENSION = ".region";
+    static final String CHUNK_REGION_JOURNAL_EXTENSION = ".journal";
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -115,6 +117,25 @@ public Vector3i getChunkZipPosition(Vector3ic chunkPos) {
         return result;
     }
 
+    public Vector3i getChunkRegionPosition(Vector3ic chunkPos) {
+        return new Vector3i(
+                Math.floorDiv(chunkPos.x(), RegionFile.SIZE),
+                Math.floorDiv(chunkPos.y(), RegionFile.SIZE),
+                Math.floorDiv(chunkPos.z(), RegionFile.SIZE));
+    }
+
+    public Path getChunkRegionPath(Vector3ic regionPos) {
+        return worldPath.resolve(getChunkRegionFilename(regionPos));
+    }
+
+    public Path getChunkRegionJournalTempPath(Vector3ic regionPos) {
+        return getWorldTempPath().resolve(getChunkRegionFilename(regionPos) + CHUNK_REGION_JOURNAL_EXTENSION);
+    }
+
+    private String getChunkRegionFilename(Vector3ic pos) {
+        return String.format("%d.%d.%d%s", pos.x(), pos.y(), pos.z(), CHUNK_REGION_EXTENSION);
+    }
+
     public Path getChunkPath(Vector3ic chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
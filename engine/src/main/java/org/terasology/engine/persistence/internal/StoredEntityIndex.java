@@ -0,0 +1,119 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which store, like a chunk or a player, each entity has last been saved in. This lets a
+ * {@link SaveTransaction} skip the stores which contain no entity that changed since they were last saved.
+ * <br><br>
+ * The index is only used by the thread running the save transactions.
+ *
+ * @param <K> The key of a store
+ */
+class StoredEntityIndex<K> {
+    private final TLongObjectMap<K> storeByEntity = new TLongObjectHashMap<>();
+    private final Map<K, TLongSet> entitiesByStore = Maps.newHashMap();
+    private boolean complete = true;
+
+    /**
+     * @return Whether the index knows about every store that has been saved. If a save failed, this is false until
+     * every store has been saved again.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return Whether the store has been saved before
+     */
+    boolean contains(K store) {
+        return entitiesByStore.containsKey(store);
+    }
+
+    /**
+     * @return The ids of the entities which were saved in the store, or an empty set if it has not been saved before
+     */
+    TLongSet getEntities(K store) {
+        TLongSet entities = entitiesByStore.get(store);
+        return entities != null ? entities : new TLongHashSet();
+    }
+
+    /**
+     * Adds the stores which last saved any of the given entities to the result.
+     */
+    void collectStores(TLongSet entityIds, Set<K> result) {
+        entityIds.forEach(entityId -> {
+            K store = storeByEntity.get(entityId);
+            if (store != null) {
+                result.add(store);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Records the entities which have just been saved in a store.
+     */
+    void update(K store, Collection<EntityRef> storedEntities) {
+        TLongSet entityIds = new TLongHashSet();
+        for (EntityRef entity : storedEntities) {
+            entityIds.add(entity.getId());
+        }
+        update(store, entityIds);
+    }
+
+    /**
+     * Records the ids of the entities which are saved in a store, for example those of a chunk read from disk.
+     */
+    void update(K store, TLongSet storedEntityIds) {
+        remove(store);
+        TLongSet entities = new TLongHashSet(storedEntityIds);
+        entities.forEach(entityId -> {
+            K previousStore = storeByEntity.put(entityId, store);
+            if (previousStore != null && !previousStore.equals(store)) {
+                entitiesByStore.get(previousStore).remove(entityId);
+            }
+            return true;
+        });
+        entitiesByStore.put(store, entities);
+    }
+
+    /**
+     * Forgets a store, for example because it has been unloaded.
+     */
+    void remove(K store) {
+        TLongSet entities = entitiesByStore.remove(store);
+        if (entities != null) {
+            entities.forEach(entityId -> {
+                if (store.equals(storeByEntity.get(entityId))) {
+                    storeByEntity.remove(entityId);
+                }
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Forgets all stores, after which every store has to be saved again before the index is complete.
+     */
+    void invalidate() {
+        storeByEntity.clear();
+        entitiesByStore.clear();
+        complete = false;
+    }
+
+    void setComplete() {
+        complete = true;
+    }
+}
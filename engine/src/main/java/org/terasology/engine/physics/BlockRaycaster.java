@@ -0,0 +1,286 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.physics;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.joml.geom.AABBf;
+
+import java.util.Arrays;
+
+/**
+ * Traces rays against the blocks of the loaded chunks without going through the physics engine.
+ * <p>
+ * The ray walks the voxel grid cell by cell (Amanatides &amp; Woo) and tests every block matching the collision filter
+ * against the bounding box of its collision shape. Only the {@link StandardCollisionGroup#WORLD} group (solid,
+ * targetable blocks) and the {@link StandardCollisionGroup#LIQUID} group (liquid blocks) are considered, which mirrors
+ * the voxel worlds registered with the physics engine. Rays starting inside a block do not hit that block.
+ * <p>
+ * Tracing does not allocate. An instance reuses internal state between calls and must only be used from one thread.
+ */
+public class BlockRaycaster {
+    private static final short WORLD = StandardCollisionGroup.WORLD.getFlag();
+    private static final short LIQUID = StandardCollisionGroup.LIQUID.getFlag();
+
+    private final ChunkProvider chunkProvider;
+    private final Vector3i chunkPos = new Vector3i();
+
+    /* Collision bounds relative to the block center, six floats per block id, cached on first use */
+    private Block[] boundsBlocks = new Block[0];
+    private float[] bounds = new float[0];
+
+    /* Scratch state of the slab test */
+    private float slabEnter;
+    private float slabExit;
+    private int slabAxis;
+
+    public BlockRaycaster(ChunkProvider chunkProvider) {
+        this.chunkProvider = chunkProvider;
+    }
+
+    /**
+     * Traces a single ray against the blocks of the world.
+     *
+     * @param from the origin of the ray
+     * @param direction the direction of the ray, does not need to be normalized
+     * @param distance the maximum distance to trace
+     * @param filter the combined flags of the collision groups to hit
+     * @param result receives the closest hit, cleared if nothing was hit
+     * @return whether a block was hit
+     */
+    public boolean raycast(Vector3fc from, Vector3fc direction, float distance, short filter, Hit result) {
+        return raycast(from.x(), from.y(), from.z(), direction.x(), direction.y(), direction.z(), distance, filter,
+                result);
+    }
+
+    /**
+     * Traces many rays in one go, e.g. for line of sight checks of all agents in a tick.
+     *
+     * @param origins the ray origins, three consecutive floats per ray
+     * @param directions the ray directions, three consecutive floats per ray
+     * @param distances the maximum distance of each ray
+     * @param count the number of rays to trace
+     * @param filter the combined flags of the collision groups to hit
+     * @param results receives the hit of each ray, must hold at least {@code count} instances
+     * @return the number of rays that hit a block
+     */
+    public int raycast(float[] origins, float[] directions, float[] distances, int count, short filter,
+                       Hit[] results) {
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = i * 3;
+            if (raycast(origins[offset], origins[offset + 1], origins[offset + 2],
+                    directions[offset], directions[offset + 1], directions[offset + 2], distances[i], filter,
+                    results[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private boolean raycast(float fromX, float fromY, float fromZ, float dirX, float dirY, float dirZ,
+                            float distance, short filter, Hit result) {
+        result.clear();
+        float length = (float) Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+        if (length == 0 || (filter & (WORLD | LIQUID)) == 0) {
+            return false;
+        }
+        dirX /= length;
+        dirY /= length;
+        dirZ /= length;
+
+        // blocks are centered on their integer position, so shift by half a block to land on cell borders
+        float gridX = fromX + 0.5f;
+        float gridY = fromY + 0.5f;
+        float gridZ = fromZ + 0.5f;
+        int x = (int) Math.floor(gridX);
+        int y = (int) Math.floor(gridY);
+        int z = (int) Math.floor(gridZ);
+
+        int stepX = dirX > 0 ? 1 : -1;
+        int stepY = dirY > 0 ? 1 : -1;
+        int stepZ = dirZ > 0 ? 1 : -1;
+        float deltaX = dirX == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirX);
+        float deltaY = dirY == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirY);
+        float deltaZ = dirZ == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirZ);
+        float maxX = dirX == 0 ? Float.POSITIVE_INFINITY : (dirX > 0 ? x + 1 - gridX : gridX - x) * deltaX;
+        float maxY = dirY == 0 ? Float.POSITIVE_INFINITY : (dirY > 0 ? y + 1 - gridY : gridY - y) * deltaY;
+        float maxZ = dirZ == 0 ? Float.POSITIVE_INFINITY : (dirZ > 0 ? z + 1 - gridZ : gridZ - z) * deltaZ;
+
+        Chunk chunk = null;
+        int chunkX = 0;
+        int chunkY = 0;
+        int chunkZ = 0;
+        boolean chunkLoaded = false;
+        float cellEntry = 0;
+        while (cellEntry <= distance) {
+            int cx = Chunks.toChunkPosX(x);
+            int cy = Chunks.toChunkPosY(y);
+            int cz = Chunks.toChunkPosZ(z);
+            if (!chunkLoaded || cx != chunkX || cy != chunkY || cz != chunkZ) {
+                chunk = chunkProvider.getChunk(chunkPos.set(cx, cy, cz));
+                chunkX = cx;
+                chunkY = cy;
+                chunkZ = cz;
+                chunkLoaded = true;
+            }
+            if (chunk != null) {
+                Block block = chunk.getBlock(Chunks.toRelativeX(x), Chunks.toRelativeY(y), Chunks.toRelativeZ(z));
+                if (matches(block, filter)
+                        && intersect(block, x, y, z, fromX, fromY, fromZ, dirX, dirY, dirZ, distance, result)) {
+                    return true;
+                }
+            }
+
+            if (maxX < maxY && maxX < maxZ) {
+                cellEntry = maxX;
+                maxX += deltaX;
+                x += stepX;
+            } else if (maxY < maxZ) {
+                cellEntry = maxY;
+                maxY += deltaY;
+                y += stepY;
+            } else {
+                cellEntry = maxZ;
+                maxZ += deltaZ;
+                z += stepZ;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Block block, short filter) {
+        if (block.getCollisionShape() == null) {
+            return false;
+        }
+        return ((filter & WORLD) != 0 && block.isTargetable()) || ((filter & LIQUID) != 0 && block.isLiquid());
+    }
+
+    /**
+     * Slab test of the ray against the collision bounds of the block at the given position.
+     */
+    private boolean intersect(Block block, int x, int y, int z, float fromX, float fromY, float fromZ,
+                              float dirX, float dirY, float dirZ, float distance, Hit result) {
+        int index = boundsIndex(block);
+        slabEnter = Float.NEGATIVE_INFINITY;
+        slabExit = Float.POSITIVE_INFINITY;
+        slabAxis = -1;
+        if (!slab(0, fromX - x, dirX, bounds[index], bounds[index + 3])
+                || !slab(1, fromY - y, dirY, bounds[index + 1], bounds[index + 4])
+                || !slab(2, fromZ - z, dirZ, bounds[index + 2], bounds[index + 5])) {
+            return false;
+        }
+        float enter = slabEnter;
+        if (slabAxis < 0 || enter < 0 || enter > slabExit || enter > distance) {
+            return false;
+        }
+
+        result.hit = true;
+        result.block = block;
+        result.distance = enter;
+        result.blockPosition.set(x, y, z);
+        result.hitPoint.set(fromX + dirX * enter, fromY + dirY * enter, fromZ + dirZ * enter);
+        float dir = slabAxis == 0 ? dirX : (slabAxis == 1 ? dirY : dirZ);
+        result.hitNormal.zero().setComponent(slabAxis, dir > 0 ? -1 : 1);
+        return true;
+    }
+
+    /**
+     * Narrows {@link #slabEnter} and {@link #slabExit} by the interval the ray spends between min and max on one axis.
+     *
+     * @return false if the ray runs parallel to and outside of the slab
+     */
+    private boolean slab(int axis, float origin, float dir, float min, float max) {
+        if (dir == 0) {
+            return origin >= min && origin <= max;
+        }
+        float near = (min - origin) / dir;
+        float far = (max - origin) / dir;
+        if (near > far) {
+            float swap = near;
+            near = far;
+            far = swap;
+        }
+        if (near > slabEnter) {
+            slabEnter = near;
+            slabAxis = axis;
+        }
+        slabExit = Math.min(slabExit, far);
+        return true;
+    }
+
+    private int boundsIndex(Block block) {
+        int id = block.getId() & 0xFFFF;
+        if (id >= boundsBlocks.length) {
+            int size = Math.max(id + 1, boundsBlocks.length * 2);
+            boundsBlocks = Arrays.copyOf(boundsBlocks, size);
+            bounds = Arrays.copyOf(bounds, size * 6);
+        }
+        int index = id * 6;
+        if (boundsBlocks[id] != block) {
+            AABBf box = block.getBounds(new Vector3i());
+            bounds[index] = box.minX;
+            bounds[index + 1] = box.minY;
+            bounds[index + 2] = box.minZ;
+            bounds[index + 3] = box.maxX;
+            bounds[index + 4] = box.maxY;
+            bounds[index + 5] = box.maxZ;
+            boundsBlocks[id] = block;
+        }
+        return index;
+    }
+
+    /**
+     * A reusable result of {@link BlockRaycaster}. The contained vectors are overwritten by the next trace.
+     */
+    public static final class Hit {
+        private boolean hit;
+        private Block block;
+        private float distance;
+        private final Vector3i blockPosition = new Vector3i();
+        private final Vector3f hitPoint = new Vector3f();
+        private final Vector3f hitNormal = new Vector3f();
+
+        public boolean isHit() {
+            return hit;
+        }
+
+        /**
+         * @return the block that was hit, or null if nothing was hit
+         */
+        public Block getBlock() {
+            return block;
+        }
+
+        /**
+         * @return the distance from the origin of the ray to the hit point
+         */
+        public float getDistance() {
+            return distance;
+        }
+
+        public Vector3ic getBlockPosition() {
+            return blockPosition;
+        }
+
+        public Vector3fc getHitPoint() {
+            return hitPoint;
+        }
+
+        public Vector3fc getHitNormal() {
+            return hitNormal;
+        }
+
+        private void clear() {
+            hit = false;
+            block = null;
+            distance = Float.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.physics;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.terasology.engine.monitoring.chunk.ChunkMonitor;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The collision representation of a chunk, as handed to the physics engine when the chunk is loaded.
+ * <p>
+ * It holds the block ids of the chunk in a direct buffer, z-major and y-minor as the voxel world expects them, and the
+ * distinct block types occurring in it. It is built on the chunk processing threads and kept up to date with changes to
+ * single blocks until the physics engine takes it over, so nothing has to be gathered on the main thread. Like the
+ * chunk itself it is only ever used by one thread at a time.
+ */
+public final class ChunkCollisionData {
+    private final ShortBuffer voxels;
+    private final List<Block> blockTypes;
+    private final BitSet blockIds;
+    private final int timeToBuild;
+
+    private ChunkCollisionData(ShortBuffer voxels, List<Block> blockTypes, BitSet blockIds, int timeToBuild) {
+        this.voxels = voxels;
+        this.blockTypes = blockTypes;
+        this.blockIds = blockIds;
+        this.timeToBuild = timeToBuild;
+    }
+
+    /**
+     * Builds the collision data of the chunk and attaches it to the chunk as pending collision.
+     *
+     * @param chunk the chunk to prepare, not yet available to the main thread
+     */
+    public static void prepare(Chunk chunk) {
+        ChunkCollisionData data = build(chunk);
+        chunk.setPendingCollision(data);
+        ChunkMonitor.fireChunkCollisionBuilt(chunk.getPosition(new Vector3i()), data);
+    }
+
+    /**
+     * Reads the whole chunk into new collision data.
+     */
+    public static ChunkCollisionData build(Chunk chunk) {
+        long startTime = System.currentTimeMillis();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2 * Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z);
+        buffer.order(ByteOrder.nativeOrder());
+        ShortBuffer voxels = buffer.asShortBuffer();
+        List<Block> blockTypes = Lists.newArrayList();
+        BitSet blockIds = new BitSet();
+
+        short lastId = -1;
+        // the pipeline builds the data while the main thread may already dispose the chunk
+        chunk.acquireData();
+        try {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                for (int x = 0; x < Chunks.SIZE_X; x++) {
+                    for (int y = 0; y < Chunks.SIZE_Y; y++) {
+                        Block block = chunk.getBlock(x, y, z);
+                        short id = block.getId();
+                        voxels.put(id);
+                        if (id != lastId && !blockIds.get(id & 0xFFFF)) {
+                            blockIds.set(id & 0xFFFF);
+                            blockTypes.add(block);
+                        }
+                        lastId = id;
+                    }
+                }
+            }
+        } finally {
+            chunk.releaseData();
+        }
+        voxels.rewind();
+
+        return new ChunkCollisionData(voxels, blockTypes, blockIds, (int) (System.currentTimeMillis() - startTime));
+    }
+
+    /**
+     * Updates the single voxel a block change touched.
+     *
+     * @param x the x position of the block relative to the chunk
+     * @param y the y position of the block relative to the chunk
+     * @param z the z position of the block relative to the chunk
+     * @param block the new block
+     */
+    public void setBlock(int x, int y, int z, Block block) {
+        short id = block.getId();
+        voxels.put((z * Chunks.SIZE_X + x) * Chunks.SIZE_Y + y, id);
+        if (!blockIds.get(id & 0xFFFF)) {
+            blockIds.set(id & 0xFFFF);
+            blockTypes.add(block);
+        }
+    }
+
+    /**
+     * @return a view of the voxel buffer, positioned at its start
+     */
+    public ShortBuffer getVoxels() {
+        return voxels.duplicate();
+    }
+
+    /**
+     * @return every block type that occurs in the chunk, and possibly ones that were replaced since
+     */
+    public List<Block> getBlockTypes() {
+        return Collections.unmodifiableList(blockTypes);
+    }
+
+    /**
+     * @return the time spent building the data, in milliseconds
+     */
+    public int getTimeToBuild() {
+        return timeToBuild;
+    }
+}
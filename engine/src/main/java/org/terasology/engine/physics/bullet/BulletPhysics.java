@@ -5,6 +5,7 @@
 import com.badlogic.gdx.physics.bullet.collision.AllHitsRayResultCallback;
 import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
 import com.badlogic.gdx.physics.bullet.collision.Collision;
+import com.badlogic.gdx.physics.bullet.collision.VoxelCollisionAlgorithmWrapper;
 import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
 import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
 import com.badlogic.gdx.physics.bullet.collision.btBroadphasePair;
@@ -36,6 +37,7 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
@@ -49,9 +51,11 @@
 import org.terasology.engine.logic.characters.CharacterMovementComponent;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.monitoring.PerformanceMonitor;
+import org.terasology.engine.physics.BlockRaycaster;
 import org.terasology.engine.physics.CollisionGroup;
 import org.terasology.engine.physics.HitResult;
 import org.terasology.engine.physics.StandardCollisionGroup;
+import org.terasology.engine.physics.bullet.world.VoxelWorld;
 import org.terasology.engine.physics.components.RigidBodyComponent;
 import org.terasology.engine.physics.components.TriggerComponent;
 import org.terasology.engine.physics.components.shapes.BoxShapeComponent;
@@ -67,6 +71,9 @@
 import org.terasology.engine.registry.CoreRegistry;
 import org.terasology.engine.rendering.assets.mesh.resource.VertexAttributeBinding;
 import org.terasology.engine.world.BlockEntityRegistry;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.localChunkProvider.RelevanceSystem;
 import org.terasology.joml.geom.AABBf;
 
 import java.nio.FloatBuffer;
@@ -77,10 +84,22 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Physics engine implementation using TeraBullet (a customised version of JBullet).
+ * <br><br>
+ * Optionally, dynamic rigid bodies far from all characters are simulated in worlds of their own, one per region of
+ * {@link #REGION_SIZE} blocks, which are stepped in parallel to the main world. Only bodies at least
+ * {@link #REGION_MARGIN} blocks inside their region are moved there, bodies closer to its border stay in the main
+ * world, so bodies in different worlds can hardly touch each other. Bodies in region worlds are not seen by ray
+ * traces, area scans, sweeps and triggers, which all happen near characters. Their motion states are synchronized on
+ * the main thread after each step, as the stepping threads must not call back into Java.
  */
 @RegisterSystem
 public class BulletPhysics implements PhysicsEngine {
@@ -88,6 +107,29 @@ public class BulletPhysics implements PhysicsEngine {
 
     public static final float SIMD_EPSILON = 1.1920929E-7F;
 
+    private static final short BLOCK_GROUPS =
+            (short) (StandardCollisionGroup.WORLD.getFlag() | StandardCollisionGroup.LIQUID.getFlag());
+
+    /**
+     * Seconds between two checks for rigid bodies whose chunk has been unloaded, or loaded again.
+     */
+    private static final float DORMANCY_CHECK_INTERVAL = 0.5f;
+
+    /**
+     * The edge length of the regions of the parallel mode, in blocks.
+     */
+    private static final int REGION_SIZE = 64;
+
+    /**
+     * How far inside of its region a rigid body has to be to be simulated in the world of the region, in blocks.
+     */
+    private static final float REGION_MARGIN = 4f;
+
+    /**
+     * Seconds between two checks for rigid bodies which should move to another world in the parallel mode.
+     */
+    private static final float REGION_CHECK_INTERVAL = 0.5f;
+
     private static final Logger logger = LoggerFactory.getLogger(BulletPhysics.class);
 
     private final Deque<RigidBodyRequest> insertionQueue = Lists.newLinkedList();
@@ -97,10 +139,18 @@ public class BulletPhysics implements PhysicsEngine {
     private final btBroadphaseInterface broadphase;
     private final btDiscreteDynamicsWorld discreteDynamicsWorld;
     private final BlockEntityRegistry blockEntityRegistry;
+    private final BlockRaycaster.Hit blockHit = new BlockRaycaster.Hit();
+    private BlockRaycaster blockRaycaster;
+    private ChunkProvider chunkProvider;
+    private RelevanceSystem relevanceSystem;
+    private final Set<BulletRigidBody> dormantBodies = Sets.newHashSet();
+    private final Vector3f dormancyLocation = new Vector3f();
+    private final Vector3i dormancyChunkPos = new Vector3i();
+    private float dormancyCheckTime;
     private Map<EntityRef, BulletRigidBody> entityRigidBodies = Maps.newHashMap();
     private Map<EntityRef, BulletCharacterMoverCollider> entityColliders = Maps.newHashMap();
     private Map<EntityRef, btPairCachingGhostObject> entityTriggers = Maps.newHashMap();
-    private List<PhysicsSystem.CollisionPair> collisions = new ArrayList<>();
+    private final Queue<PhysicsSystem.CollisionPair> collisions = new ConcurrentLinkedQueue<>();
     private btPersistentManifoldArray manifolds = new btPersistentManifoldArray();
 
     private final btCollisionConfiguration defaultCollisionConfiguration;
@@ -108,6 +158,12 @@ public class BulletPhysics implements PhysicsEngine {
 
     private final btGhostPairCallback ghostPairCallback;
 
+    private final ExecutorService regionExecutor;
+    private final Map<Vector3i, RegionWorld> regions = Maps.newHashMap();
+    private final List<StaticShape> staticShapes = Lists.newArrayList();
+    private final Set<Vector3i> regionsNearCharacters = Sets.newHashSet();
+    private float regionCheckTime;
+
     /**
      * Creates a Collider for the given entity based on the LocationComponent and CharacterMovementComponent. All
      * collision flags are set right for a character movement component.
@@ -118,7 +174,15 @@ public class BulletPhysics implements PhysicsEngine {
     private ArrayList<btConvexShape> shapes = Lists.newArrayList();
 
     public BulletPhysics() {
+        this(null);
+    }
 
+    /**
+     * @param regionExecutor runs the steps of the region worlds of the parallel mode, or null to simulate all rigid
+     *         bodies in the main world
+     */
+    public BulletPhysics(ExecutorService regionExecutor) {
+        this.regionExecutor = regionExecutor;
         ghostPairCallback = new btGhostPairCallback();
 
         broadphase = new btDbvtBroadphase();
@@ -138,17 +202,46 @@ public BulletPhysics() {
     public btDiscreteDynamicsWorld getWorld() {
         return discreteDynamicsWorld;
     }
+
+    /**
+     * Adds a static shape, e.g. that of the voxel world, to the region worlds of the parallel mode. The caller adds
+     * its body to the main world itself. The shape is shared by all worlds and read by their steps at the same time,
+     * so it must only be changed from the main thread outside of {@link #update(float)}, see {@link RegionWorld}.
+     *
+     * @param shape the shape, at the origin
+     * @param groups the collision groups of the shape
+     * @param mask the collision groups the shape collides with
+     */
+    public void addRegionStaticShape(btCollisionShape shape, short groups, short mask) {
+        StaticShape staticShape = new StaticShape(shape, groups, mask);
+        staticShapes.add(staticShape);
+        for (RegionWorld region : regions.values()) {
+            region.addStatic(staticShape);
+        }
+    }
+
+    /**
+     * @return the number of region worlds the parallel mode currently simulates rigid bodies in
+     */
+    int getRegionWorldCount() {
+        return regions.size();
+    }
     //*****************Physics Interface methods******************\\
 
     @Override
     public List<PhysicsSystem.CollisionPair> getCollisionPairs() {
-        List<PhysicsSystem.CollisionPair> temp = collisions;
-        collisions = new ArrayList<>();
-        return temp;
+        List<PhysicsSystem.CollisionPair> pairs = new ArrayList<>();
+        PhysicsSystem.CollisionPair pair;
+        while ((pair = collisions.poll()) != null) {
+            pairs.add(pair);
+        }
+        return pairs;
     }
 
     @Override
     public void dispose() {
+        this.regions.values().forEach(RegionWorld::dispose);
+        this.regions.clear();
         this.discreteDynamicsWorld.dispose();
         this.dispatcher.dispose();
         this.defaultCollisionConfiguration.dispose();
@@ -204,13 +297,84 @@ public List<EntityRef> scanArea(AABBf area, Iterable<CollisionGroup> collisionFi
 
     @Override
     public HitResult rayTrace(Vector3f from, Vector3f direction, float distance, CollisionGroup... collisionGroups) {
+        short filter = combineGroups(collisionGroups);
+        BlockRaycaster raycaster = getBlockRaycaster(filter);
+        if (raycaster == null) {
+            return rayTraceBodies(from, direction, distance, filter);
+        }
+        raycaster.raycast(from, direction, distance, (short) (filter & BLOCK_GROUPS), blockHit);
+        return closestOf(rayTraceBodies(from, direction, blockHitDistance(distance), (short) (filter & ~BLOCK_GROUPS)));
+    }
+
+    @Override
+    public HitResult rayTrace(Vector3f from, Vector3f direction, float distance, Set<EntityRef> excludedEntities,
+                              CollisionGroup... collisionGroups) {
+        if (excludedEntities == null || excludedEntities.size() == 0) {
+            return rayTrace(from, direction, distance, collisionGroups);
+        }
+        short filter = combineGroups(collisionGroups);
+        BlockRaycaster raycaster = getBlockRaycaster(filter);
+        if (raycaster == null) {
+            return rayTraceBodies(from, direction, distance, excludedEntities, filter);
+        }
+        // blocks are never part of the excluded entities' bodies
+        raycaster.raycast(from, direction, distance, (short) (filter & BLOCK_GROUPS), blockHit);
+        return closestOf(rayTraceBodies(from, direction, blockHitDistance(distance), excludedEntities,
+                (short) (filter & ~BLOCK_GROUPS)));
+    }
+
+    /**
+     * Returns the raycaster to trace the block groups in the filter with, or null if Bullet's voxel worlds have to be
+     * used because there is nothing to trace or no chunks are available yet.
+     */
+    private BlockRaycaster getBlockRaycaster(short filter) {
+        if ((filter & BLOCK_GROUPS) == 0) {
+            return null;
+        }
+        if (blockRaycaster == null) {
+            ChunkProvider provider = getChunkProvider();
+            if (provider != null) {
+                blockRaycaster = new BlockRaycaster(provider);
+            }
+        }
+        return blockRaycaster;
+    }
+
+    private ChunkProvider getChunkProvider() {
+        if (chunkProvider == null) {
+            chunkProvider = CoreRegistry.get(ChunkProvider.class);
+        }
+        return chunkProvider;
+    }
+
+    private float blockHitDistance(float distance) {
+        return blockHit.isHit() ? blockHit.getDistance() : distance;
+    }
+
+    /**
+     * @param bodyResult the result of tracing the rigid bodies up to the distance of the block hit
+     * @return the body hit if there is one, as it cannot be farther away than the block hit, or else the block hit
+     */
+    private HitResult closestOf(HitResult bodyResult) {
+        if (bodyResult.isHit() || !blockHit.isHit()) {
+            return bodyResult;
+        }
+        Vector3i blockPosition = new Vector3i(blockHit.getBlockPosition());
+        return new HitResult(blockEntityRegistry.getEntityAt(blockPosition),
+                new Vector3f(blockHit.getHitPoint()),
+                new Vector3f(blockHit.getHitNormal()),
+                blockPosition);
+    }
+
+    private HitResult rayTraceBodies(Vector3f from, Vector3f direction, float distance, short filter) {
+        if (filter == 0 || distance <= 0) {
+            return new HitResult();
+        }
         Vector3f to = new Vector3f(direction);
         to.normalize();
         to.mul(distance);
         to.add(from);
 
-        short filter = combineGroups(collisionGroups);
-
         ClosestRayResultCallback callback = new ClosestRayResultCallback(from, to);
         callback.setCollisionFilterGroup(StandardCollisionGroup.ALL.getFlag());
         callback.setCollisionFilterMask(filter);
@@ -251,19 +415,16 @@ public HitResult rayTrace(Vector3f from, Vector3f direction, float distance, Col
         return new HitResult();
     }
 
-    @Override
-    public HitResult rayTrace(Vector3f from, Vector3f direction, float distance, Set<EntityRef> excludedEntities,
-                              CollisionGroup... collisionGroups) {
-        if (excludedEntities == null || excludedEntities.size() == 0) {
-            return rayTrace(from, direction, distance, collisionGroups);
+    private HitResult rayTraceBodies(Vector3f from, Vector3f direction, float distance,
+                                     Set<EntityRef> excludedEntities, short filter) {
+        if (filter == 0 || distance <= 0) {
+            return new HitResult();
         }
         Vector3f to = new Vector3f(direction);
         to.normalize();
         to.mul(distance);
         to.add(from);
 
-        short filter = combineGroups(collisionGroups);
-
         // lookup all the collision item ids for these entities
         Set<Integer> excludedCollisionIds = Sets.newHashSet();
         for (EntityRef excludedEntity : excludedEntities) {
@@ -318,9 +479,13 @@ public HitResult rayTrace(Vector3f from, Vector3f direction, float distance, Set
     @Override
     public void update(float delta) {
         processQueuedBodies();
+        updateDormantBodies(delta);
+        updateRegions(delta);
         applyPendingImpulsesAndForces();
+        List<Future<?>> regionSteps = new ArrayList<>(regions.size());
         try {
             PerformanceMonitor.startActivity("Step Simulation");
+            stepRegions(delta, regionSteps);
             if (discreteDynamicsWorld.stepSimulation(delta, 10) != 0) {
                 for (BulletCharacterMoverCollider collider : entityColliders.values()) {
                     collider.pending = false;
@@ -329,7 +494,11 @@ public void update(float delta) {
             PerformanceMonitor.endActivity();
         } catch (Exception e) {
             logger.error("Error running simulation step.", e);
+        } finally {
+            // the region worlds must not be changed, or the shapes they share written to, while they are stepped
+            awaitRegionSteps(regionSteps);
         }
+        updateRegionBodyLocations();
         collisions.addAll(getNewCollisionPairs());
     }
 
@@ -593,9 +762,10 @@ private RigidBody newRigidBody(EntityRef entity) {
             Vector3f inertia = new Vector3f();
             shape.calculateLocalInertia(rigidBody.mass, inertia);
 
+            EntityMotionState motionState = new EntityMotionState(entity);
             btRigidBody.btRigidBodyConstructionInfo info =
-                    new btRigidBody.btRigidBodyConstructionInfo(rigidBody.mass, new EntityMotionState(entity), shape, inertia);
-            BulletRigidBody collider = new BulletRigidBody(info);
+                    new btRigidBody.btRigidBodyConstructionInfo(rigidBody.mass, motionState, shape, inertia);
+            BulletRigidBody collider = new BulletRigidBody(info, motionState);
             collider.rb.userData = entity;
             collider.rb.setAngularFactor(rigidBody.angularFactor);
             collider.rb.setLinearFactor(rigidBody.linearFactor);
@@ -659,18 +829,202 @@ private CharacterCollider createCustomCollider(Vector3f pos, btConvexShape shape
     private synchronized void processQueuedBodies() {
         while (!insertionQueue.isEmpty()) {
             RigidBodyRequest request = insertionQueue.poll();
+            request.body.groups = request.groups;
+            request.body.filter = request.filter;
             discreteDynamicsWorld.addRigidBody(request.body.rb, request.groups, request.filter);
         }
         while (!removalQueue.isEmpty()) {
             BulletRigidBody body = removalQueue.poll();
+            dormantBodies.remove(body);
             if (body.isDisposed) {
                 continue;
             }
-            discreteDynamicsWorld.removeRigidBody(body.rb);
+            if (body.region != null) {
+                body.region.remove(body);
+                body.region = null;
+            } else {
+                discreteDynamicsWorld.removeRigidBody(body.rb);
+            }
             body.dispose();
         }
     }
 
+    /**
+     * Takes dynamic rigid bodies out of the simulation while the chunk they are in is not loaded or about to be
+     * unloaded, as it is no longer relevant to any player, and puts them back once it is loaded and relevant. Without
+     * the ground beneath them such bodies would fall forever and keep the solver busy with bodies nobody can observe.
+     * Dormant bodies keep their position and velocity, and do not wake up from impulses.
+     */
+    private void updateDormantBodies(float delta) {
+        dormancyCheckTime += delta;
+        if (dormancyCheckTime < DORMANCY_CHECK_INTERVAL) {
+            return;
+        }
+        dormancyCheckTime = 0;
+        ChunkProvider provider = getChunkProvider();
+        if (provider == null) {
+            return;
+        }
+
+        PerformanceMonitor.startActivity("Update Dormant Bodies");
+        Iterator<BulletRigidBody> iterator = dormantBodies.iterator();
+        while (iterator.hasNext()) {
+            BulletRigidBody body = iterator.next();
+            if (body.rb.getActivationState() != Collision.DISABLE_SIMULATION) {
+                // the activation state was changed from outside, e.g. by making the body kinematic
+                iterator.remove();
+            } else if (isChunkReady(provider, body)) {
+                body.rb.forceActivationState(Collision.ACTIVE_TAG);
+                body.rb.activate();
+                iterator.remove();
+            }
+        }
+        for (BulletRigidBody body : entityRigidBodies.values()) {
+            if (body.rb.isActive() && !body.rb.isStaticOrKinematicObject() && !isChunkReady(provider, body)) {
+                body.rb.forceActivationState(Collision.DISABLE_SIMULATION);
+                dormantBodies.add(body);
+            }
+        }
+        PerformanceMonitor.endActivity();
+    }
+
+    private boolean isChunkReady(ChunkProvider provider, BulletRigidBody body) {
+        Chunks.toChunkPos(body.getLocation(dormancyLocation), dormancyChunkPos);
+        if (!provider.isChunkReady(dormancyChunkPos)) {
+            return false;
+        }
+        if (relevanceSystem == null) {
+            // only present where chunks are loaded for relevance regions, i.e. on the server
+            relevanceSystem = CoreRegistry.get(RelevanceSystem.class);
+        }
+        return relevanceSystem == null || relevanceSystem.isChunkInRegions(dormancyChunkPos);
+    }
+
+    /**
+     * Moves dynamic rigid bodies far from all characters into the world of their region, and those which came close
+     * to a character or the border of their region back into the main world. Removes the worlds of regions without
+     * bodies.
+     */
+    private void updateRegions(float delta) {
+        if (regionExecutor == null) {
+            return;
+        }
+        regionCheckTime += delta;
+        if (regionCheckTime < REGION_CHECK_INTERVAL) {
+            return;
+        }
+        regionCheckTime = 0;
+
+        PerformanceMonitor.startActivity("Update Physics Regions");
+        regionsNearCharacters.clear();
+        Vector3i region = new Vector3i();
+        for (BulletCharacterMoverCollider collider : entityColliders.values()) {
+            regionOf(collider.getLocation(), region);
+            for (int x = -1; x <= 1; x++) {
+                for (int y = -1; y <= 1; y++) {
+                    for (int z = -1; z <= 1; z++) {
+                        regionsNearCharacters.add(new Vector3i(region).add(x, y, z));
+                    }
+                }
+            }
+        }
+        Vector3f location = new Vector3f();
+        for (BulletRigidBody body : entityRigidBodies.values()) {
+            RegionWorld target = null;
+            if (!body.rb.isStaticOrKinematicObject()) {
+                regionOf(body.getLocation(location), region);
+                if (!regionsNearCharacters.contains(region) && isInsideRegion(location, region)) {
+                    target = regions.computeIfAbsent(new Vector3i(region), key -> new RegionWorld(staticShapes));
+                }
+            }
+            if (target != body.region) {
+                moveToWorld(body, target);
+            }
+        }
+        Iterator<RegionWorld> iterator = regions.values().iterator();
+        while (iterator.hasNext()) {
+            RegionWorld world = iterator.next();
+            if (world.bodies.isEmpty()) {
+                world.dispose();
+                iterator.remove();
+            }
+        }
+        PerformanceMonitor.endActivity();
+    }
+
+    private static Vector3i regionOf(Vector3f location, Vector3i out) {
+        return out.set(Math.floorDiv((int) Math.floor(location.x), REGION_SIZE),
+                Math.floorDiv((int) Math.floor(location.y), REGION_SIZE),
+                Math.floorDiv((int) Math.floor(location.z), REGION_SIZE));
+    }
+
+    private static boolean isInsideRegion(Vector3f location, Vector3i region) {
+        return isInside(location.x - region.x * REGION_SIZE)
+                && isInside(location.y - region.y * REGION_SIZE)
+                && isInside(location.z - region.z * REGION_SIZE);
+    }
+
+    private static boolean isInside(float offset) {
+        return offset >= REGION_MARGIN && offset <= REGION_SIZE - REGION_MARGIN;
+    }
+
+    /**
+     * @param target the region world to simulate the body in, or null for the main world
+     */
+    private void moveToWorld(BulletRigidBody body, RegionWorld target) {
+        if (body.region != null) {
+            body.region.remove(body);
+        } else {
+            discreteDynamicsWorld.removeRigidBody(body.rb);
+        }
+        body.region = target;
+        if (target != null) {
+            body.rb.setMotionState(null);
+            target.add(body);
+        } else {
+            // reads the transform back from the location, which has been kept up to date
+            body.rb.setMotionState(body.motionState);
+            discreteDynamicsWorld.addRigidBody(body.rb, body.groups, body.filter);
+        }
+    }
+
+    /**
+     * Starts stepping the region worlds on the region executor.
+     *
+     * @param steps receives the steps as they are started, so that they can be waited for even if starting one fails
+     */
+    private void stepRegions(float delta, List<Future<?>> steps) {
+        for (RegionWorld region : regions.values()) {
+            steps.add(regionExecutor.submit(() -> region.step(delta)));
+        }
+    }
+
+    /**
+     * Waits for the region worlds to be stepped.
+     */
+    private void awaitRegionSteps(List<Future<?>> steps) {
+        for (Future<?> step : steps) {
+            try {
+                Uninterruptibles.getUninterruptibly(step);
+            } catch (ExecutionException e) {
+                logger.error("Error running simulation step of a region.", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Updates the locations of the bodies in the region worlds which moved, as they have no motion state there.
+     */
+    private void updateRegionBodyLocations() {
+        for (RegionWorld region : regions.values()) {
+            for (BulletRigidBody body : region.bodies) {
+                if (body.rb.isActive()) {
+                    body.motionState.setWorldTransform(body.rb.getWorldTransform());
+                }
+            }
+        }
+    }
+
     /**
      * Applies all pending impulses to the corresponding rigidBodies and clears the pending impulses.
      */
@@ -879,14 +1233,21 @@ private static class BulletRigidBody implements RigidBody {
 
         public final btRigidBody rb;
         public final btRigidBody.btRigidBodyConstructionInfo info;
+        public final EntityMotionState motionState;
         public short collidesWith;
         public boolean isDisposed;
+        /* The groups and filter the body has been added to the world with */
+        private short groups;
+        private short filter;
+        /* The world of the region the body is simulated in, or null for the main world */
+        private RegionWorld region;
         //  private final Transform pooledTransform = new Transform();
         private final Vector3f pendingImpulse = new Vector3f();
         private final Vector3f pendingForce = new Vector3f();
 
-        BulletRigidBody(btRigidBody.btRigidBodyConstructionInfo info) {
+        BulletRigidBody(btRigidBody.btRigidBodyConstructionInfo info, EntityMotionState motionState) {
             this.info = info;
+            this.motionState = motionState;
             rb = new btRigidBody(info);
             isDisposed = false;
         }
@@ -1001,6 +1362,94 @@ public void dispose() {
         }
     }
 
+    private static final class StaticShape {
+        final btCollisionShape shape;
+        final short groups;
+        final short mask;
+
+        StaticShape(btCollisionShape shape, short groups, short mask) {
+            this.shape = shape;
+            this.groups = groups;
+            this.mask = mask;
+        }
+    }
+
+    /**
+     * The dynamics world of a region, with the bodies far from all characters in it. Only its step runs on another
+     * thread, everything else happens on the main thread while no step is running.
+     * <br><br>
+     * Each region world has its own broadphase, dispatcher and solver, so the collision algorithms, pair caches and
+     * contact manifolds a step creates and changes are never shared with another world. A step is a single native
+     * call: the region bodies have no motion state and no contact callbacks are registered, so no Java code, and none
+     * of the static temporaries of the binding's Java wrappers, is used on the worker threads.
+     * <br><br>
+     * The worlds do share the static shapes, most of all the voxel shapes of the block world, whose collision
+     * algorithm reads the native chunk data and block infos of its {@link VoxelCollisionAlgorithmWrapper}. These are
+     * only read while stepping. They are written by the {@link VoxelWorld} implementations, whose methods are called
+     * from event handlers on the main thread, and {@link #update(float)} waits for all region steps before it returns,
+     * even if the step of the main world fails. Concurrent steps therefore only ever read the shared shapes at the
+     * same time, like the main world does while stepping.
+     */
+    private static final class RegionWorld {
+        private final btCollisionConfiguration collisionConfiguration = new btDefaultCollisionConfiguration();
+        private final btCollisionDispatcher dispatcher = new btCollisionDispatcher(collisionConfiguration);
+        private final btBroadphaseInterface broadphase = new btDbvtBroadphase();
+        private final btSequentialImpulseConstraintSolver solver = new btSequentialImpulseConstraintSolver();
+        private final btDiscreteDynamicsWorld world =
+                new btDiscreteDynamicsWorld(dispatcher, broadphase, solver, collisionConfiguration);
+        private final List<btRigidBody.btRigidBodyConstructionInfo> staticInfos = Lists.newArrayList();
+        private final List<btRigidBody> staticBodies = Lists.newArrayList();
+        private final Set<BulletRigidBody> bodies = Sets.newHashSet();
+
+        RegionWorld(List<StaticShape> staticShapes) {
+            world.setGravity(new Vector3f(0f, -PhysicsEngine.GRAVITY, 0f));
+            for (StaticShape staticShape : staticShapes) {
+                addStatic(staticShape);
+            }
+        }
+
+        void addStatic(StaticShape staticShape) {
+            // without a motion state, so that stepping never calls back into Java
+            btRigidBody.btRigidBodyConstructionInfo info =
+                    new btRigidBody.btRigidBodyConstructionInfo(0, null, staticShape.shape, new Vector3f());
+            btRigidBody body = new btRigidBody(info);
+            body.setCollisionFlags(btCollisionObject.CollisionFlags.CF_STATIC_OBJECT | body.getCollisionFlags());
+            world.addRigidBody(body, staticShape.groups, staticShape.mask);
+            staticInfos.add(info);
+            staticBodies.add(body);
+        }
+
+        void add(BulletRigidBody body) {
+            world.addRigidBody(body.rb, body.groups, body.filter);
+            bodies.add(body);
+        }
+
+        void remove(BulletRigidBody body) {
+            world.removeRigidBody(body.rb);
+            bodies.remove(body);
+        }
+
+        void step(float delta) {
+            world.stepSimulation(delta, 10);
+        }
+
+        /**
+         * Disposes the world, which must not have any bodies left unless the physics engine is disposed as well.
+         */
+        void dispose() {
+            for (btRigidBody body : staticBodies) {
+                world.removeRigidBody(body);
+                body.dispose();
+            }
+            staticInfos.forEach(btRigidBody.btRigidBodyConstructionInfo::dispose);
+            world.dispose();
+            solver.dispose();
+            broadphase.dispose();
+            dispatcher.dispose();
+            collisionConfiguration.dispose();
+        }
+    }
+
     private final class BulletCharacterMoverCollider implements CharacterCollider {
         boolean pending = true;
 
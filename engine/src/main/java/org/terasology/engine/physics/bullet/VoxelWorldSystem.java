@@ -8,6 +8,8 @@
 import org.terasology.engine.entitySystem.event.ReceiveEvent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.monitoring.PerformanceMonitor;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.physics.bullet.world.VoxelBlockFluidWorld;
 import org.terasology.engine.physics.bullet.world.VoxelBlockWorld;
 import org.terasology.engine.physics.bullet.world.VoxelWorld;
@@ -19,12 +21,10 @@
 import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.ChunkProvider;
-import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
 import org.terasology.engine.world.chunks.event.OnChunkLoaded;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
 import java.util.List;
 
 /**
@@ -69,7 +69,8 @@ public void onChunkUnloaded(BeforeChunkUnload beforeChunkUnload, EntityRef world
     }
 
     /**
-     * new chunks that are loaded need to update pass the data to bullet
+     * new chunks that are loaded need to update pass the data to bullet. The collision data is usually prepared by the
+     * chunk pipeline already, only chunks that skipped it are read here.
      *
      * @param chunkAvailable the chunk
      * @param worldEntity world entity
@@ -78,19 +79,21 @@ public void onChunkUnloaded(BeforeChunkUnload beforeChunkUnload, EntityRef world
     public void onNewChunk(OnChunkLoaded chunkAvailable, EntityRef worldEntity) {
         Vector3ic chunkPos = chunkAvailable.getChunkPos();
         Chunk chunk = chunkProvider.getChunk(chunkPos);
-        ByteBuffer buffer =
-                ByteBuffer.allocateDirect(2 * (Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z));
-        buffer.order(ByteOrder.nativeOrder());
-        for (int z = 0; z < Chunks.SIZE_Z; z++) {
-            for (int x = 0; x < Chunks.SIZE_X; x++) {
-                for (int y = 0; y < Chunks.SIZE_Y; y++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    colliders.forEach(k -> k.registerBlock(block));
-                    buffer.putShort(block.getId());
-                }
+        PerformanceMonitor.startActivity("Load Chunk Collision");
+        try {
+            ChunkCollisionData collision = chunk.getPendingCollision();
+            if (collision == null) {
+                collision = ChunkCollisionData.build(chunk);
             }
+            // from here on block changes reach bullet through onBlockChange
+            chunk.setPendingCollision(null);
+            for (Block block : collision.getBlockTypes()) {
+                colliders.forEach(k -> k.registerBlock(block));
+            }
+            ShortBuffer voxels = collision.getVoxels();
+            colliders.forEach(k -> k.loadChunk(chunk, voxels.duplicate()));
+        } finally {
+            PerformanceMonitor.endActivity();
         }
-        buffer.rewind();
-        colliders.forEach(k -> k.loadChunk(chunk, buffer.duplicate().asShortBuffer()));
     }
 }
@@ -51,6 +51,7 @@ public VoxelBlockFluidWorld(BulletPhysics physics) {
         short mask = (short) StandardCollisionGroup.LIQUID.getFlag();
         // adds rigid body to world
         discreteDynamicsWorld.addRigidBody(rigidBody, physics.combineGroups(StandardCollisionGroup.LIQUID), mask);
+        physics.addRegionStaticShape(worldShape, physics.combineGroups(StandardCollisionGroup.LIQUID), mask);
     }
 
 
@@ -51,6 +51,7 @@ public VoxelBlockWorld(BulletPhysics physics) {
         short mask = (short) (~(StandardCollisionGroup.STATIC.getFlag() | StandardCollisionGroup.LIQUID.getFlag()));
         // adds rigid body to world
         discreteDynamicsWorld.addRigidBody(rigidBody, physics.combineGroups(StandardCollisionGroup.WORLD), mask);
+        physics.addRegionStaticShape(worldShape, physics.combineGroups(StandardCollisionGroup.WORLD), mask);
 
     }
 
@@ -2,12 +2,15 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.physics.engine;
 
+import org.terasology.engine.config.SystemConfig;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.physics.bullet.BulletPhysics;
 import org.terasology.engine.physics.bullet.shapes.BulletCollisionShapeFactory;
 import org.terasology.engine.physics.shapes.CollisionShape;
 import org.terasology.engine.physics.shapes.CollisionShapeFactory;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Centralizes the various components of the physics engine. To change the physics engine used, this class
  * should ideally be the only one modified.
@@ -28,6 +31,10 @@ private PhysicsEngineManager() { }
      * @return The created {@link PhysicsEngine} instance.
      */
     public static PhysicsEngine getNewPhysicsEngine(Context context) {
+        SystemConfig systemConfig = context.get(SystemConfig.class);
+        if (systemConfig != null && systemConfig.parallelPhysicsEnabled.get()) {
+            return new BulletPhysics(ForkJoinPool.commonPool());
+        }
         return new BulletPhysics();
     }
 }
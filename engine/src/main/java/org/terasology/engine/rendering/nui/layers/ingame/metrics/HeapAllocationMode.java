@@ -2,6 +2,9 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.rendering.nui.layers.ingame.metrics;
 
+import org.terasology.engine.monitoring.PerformanceMonitor;
+
+import java.lang.management.BufferPoolMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
@@ -32,6 +35,14 @@ public String getMetrics() {
                         mpBean.getName(), usage.getUsed() / MB_SIZE, usage.getMax() / MB_SIZE));
             }
         }
+        for (BufferPoolMXBean bufferPool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            builder.append(String.format("Off-Heap Buffers: %s - Count: %d, Memory Usage: %.2f MB \n",
+                    bufferPool.getName(), bufferPool.getCount(), bufferPool.getMemoryUsed() / MB_SIZE));
+        }
+        PerformanceMonitor.getOffHeapMemory().forEachEntry((name, bytes) -> {
+            builder.append(String.format("Off-Heap %s: %.2f MB \n", name, bytes / MB_SIZE));
+            return true;
+        });
         return builder.toString();
     }
 
@@ -0,0 +1,601 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3ic;
+import org.terasology.engine.math.Direction;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.shapes.BlockMeshPart;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.math.TeraMath;
+import org.terasology.nui.Color;
+import org.terasology.nui.Colorc;
+
+import java.util.Arrays;
+
+/**
+ * Tessellates chunks from a copy of their block data, see {@link ChunkTessellator.Mode#BULK} and
+ * {@link ChunkTessellator.Mode#GREEDY}.
+ * <br><br>
+ * The block ids, sunlight and light of the chunk and the adjacent layer of its neighbours are read into a padded buffer
+ * at once. Blocks of the plain {@link BlockMeshGeneratorSingleShape} whose parts stay within their cell are tessellated
+ * from that buffer, producing the same vertices as their mesh generator would; all other blocks, like liquids, are
+ * handed to their mesh generator. The properties of the blocks are looked up once per id and chunk, and all buffers
+ * are reused, so nothing is allocated per block.
+ * <br><br>
+ * Not thread safe, each thread tessellating chunks needs its own instance.
+ */
+final class BulkChunkMesher {
+
+    private static final int SIZE_X = Chunks.SIZE_X + 2;
+    private static final int SIZE_Y = Chunks.SIZE_Y + 2;
+    private static final int SIZE_Z = Chunks.SIZE_Z + 2;
+    private static final int STRIDE_Z = SIZE_X;
+    private static final int STRIDE_Y = SIZE_X * SIZE_Z;
+
+    private static final int UNLOADED = 1;
+    private static final int WAVING = 1 << 1;
+    private static final int NO_MESH_GENERATOR = 1 << 2;
+    private static final int TRANSLUCENT = 1 << 3;
+    private static final int SHADOW_CASTING = 1 << 4;
+    private static final int HAS_APPEARANCE = 1 << 5;
+    /* tessellated from the buffer rather than by the mesh generator of the block */
+    private static final int BULK = 1 << 6;
+    /* a full cube whose faces may be merged with those of its neighbours */
+    private static final int MERGEABLE = 1 << 7;
+
+    private static final Side[] SIDES = Side.allSides().toArray(new Side[0]);
+    private static final BlockPart[] SIDE_PARTS = new BlockPart[SIDES.length];
+    private static final int[] NEIGHBOUR_OFFSETS = new int[SIDES.length];
+    private static final int[] REVERSE_SIDE_FLAGS = new int[SIDES.length];
+    private static final int[] NORMAL_AXES = new int[SIDES.length];
+
+    /* the offsets of the positions the light of a vertex is sampled at */
+    private static final float[] LIGHT_SAMPLES_X = {0.1f, 0.1f, -0.1f, -0.1f, 0.1f, 0.1f, -0.1f, -0.1f};
+    private static final float[] LIGHT_SAMPLES_Y = {0.8f, 0.8f, 0.8f, 0.8f, -0.1f, -0.1f, -0.1f, -0.1f};
+    private static final float[] LIGHT_SAMPLES_Z = {0.1f, -0.1f, -0.1f, 0.1f, 0.1f, -0.1f, -0.1f, 0.1f};
+
+    /* the ambient occlusion by the number of occluding solid and translucent blocks */
+    private static final float[][] AMBIENT_OCCLUSION = new float[5][5];
+
+    static {
+        for (Side side : SIDES) {
+            Vector3ic direction = side.direction();
+            SIDE_PARTS[side.ordinal()] = BlockPart.fromSide(side);
+            NEIGHBOUR_OFFSETS[side.ordinal()] = direction.x() + direction.z() * STRIDE_Z + direction.y() * STRIDE_Y;
+            REVERSE_SIDE_FLAGS[side.ordinal()] = 1 << side.reverse().ordinal();
+            NORMAL_AXES[side.ordinal()] = direction.x() != 0 ? 0 : direction.y() != 0 ? 1 : 2;
+        }
+        for (int solid = 0; solid < 5; solid++) {
+            for (int translucent = 0; translucent < 5; translucent++) {
+                AMBIENT_OCCLUSION[solid][translucent] =
+                        (float) ((TeraMath.pow(0.40, solid) + TeraMath.pow(0.80, translucent)) / 2.0);
+            }
+        }
+    }
+
+    private final boolean merge;
+
+    private final short[] blockIds = new short[SIZE_X * SIZE_Y * SIZE_Z];
+    private final byte[] sunlight = new byte[blockIds.length];
+    private final byte[] light = new byte[blockIds.length];
+
+    /* the properties of the blocks by id, valid if resolved in the current generation */
+    private int generation;
+    private int[] resolvedIn = new int[0];
+    private Block[] blocks = new Block[0];
+    private int[] flags = new int[0];
+    private int[] fullSides = new int[0];
+    private ChunkMesh.RenderType[] renderTypes = new ChunkMesh.RenderType[0];
+    private ChunkVertexFlag[] vertexFlags = new ChunkVertexFlag[0];
+
+    /* the faces of a layer waiting to be merged, by position within the layer */
+    private final int[] maskIds = new int[Chunks.SIZE_Y * Math.max(Chunks.SIZE_X, Chunks.SIZE_Z)];
+    private final int[] maskColors = new int[maskIds.length];
+    private final float[] maskSunlight = new float[maskIds.length];
+    private final float[] maskLight = new float[maskIds.length];
+    private final float[] maskOcclusion = new float[maskIds.length];
+
+    private final Color color = new Color();
+    private final Vector3f position = new Vector3f();
+    private final int[] cell = new int[3];
+    private final int[] cellCounts = new int[3];
+    private float vertexSunlight;
+    private float vertexLight;
+    private float vertexOcclusion;
+
+    /**
+     * @param merge whether to merge the faces of full cubes, otherwise the mesh is the same as the one produced by the
+     *         mesh generators of the blocks
+     */
+    BulkChunkMesher(boolean merge) {
+        this.merge = merge;
+    }
+
+    /**
+     * Appends the blocks of the chunk at the origin of the view, up to the given height, to the mesh.
+     */
+    void generate(ChunkView view, ChunkMesh mesh, int height) {
+        view.readBlockData(-1, -1, -1, SIZE_X, SIZE_Y, SIZE_Z, blockIds, sunlight, light);
+        resolveBlocks(view);
+
+        for (int x = 0; x < Chunks.SIZE_X; x++) {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                for (int y = 0; y < height; y++) {
+                    int index = index(x, y, z);
+                    int id = blockIds[index] & 0xFFFF;
+                    int blockFlags = flags[id];
+                    if ((blockFlags & BULK) == 0) {
+                        blocks[id].getMeshGenerator().generateChunkMesh(view, mesh, x, y, z);
+                    } else if ((blockFlags & (HAS_APPEARANCE | MERGEABLE)) == HAS_APPEARANCE) {
+                        appendBlock(view, mesh, index, id, x, y, z);
+                    }
+                }
+            }
+        }
+
+        if (merge) {
+            cellCounts[0] = Chunks.SIZE_X;
+            cellCounts[1] = height;
+            cellCounts[2] = Chunks.SIZE_Z;
+            for (Side side : SIDES) {
+                appendMergedFaces(view, mesh, side);
+            }
+        }
+    }
+
+    private static int index(int x, int y, int z) {
+        return (x + 1) + (z + 1) * STRIDE_Z + (y + 1) * STRIDE_Y;
+    }
+
+    /**
+     * The index of the block the given position falls into, the way {@link ChunkView#getBlock(float, float, float)}
+     * rounds it.
+     */
+    private static int index(float x, float y, float z) {
+        return index(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    private void resolveBlocks(ChunkView view) {
+        generation++;
+        int index = 0;
+        for (int y = -1; y < SIZE_Y - 1; y++) {
+            for (int z = -1; z < SIZE_Z - 1; z++) {
+                for (int x = -1; x < SIZE_X - 1; x++) {
+                    int id = blockIds[index++] & 0xFFFF;
+                    if (id >= resolvedIn.length || resolvedIn[id] != generation) {
+                        resolveBlock(id, view.getBlock(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    private void resolveBlock(int id, Block block) {
+        if (id >= resolvedIn.length) {
+            int length = Math.max(id + 1, 2 * resolvedIn.length);
+            resolvedIn = Arrays.copyOf(resolvedIn, length);
+            blocks = Arrays.copyOf(blocks, length);
+            flags = Arrays.copyOf(flags, length);
+            fullSides = Arrays.copyOf(fullSides, length);
+            renderTypes = Arrays.copyOf(renderTypes, length);
+            vertexFlags = Arrays.copyOf(vertexFlags, length);
+        }
+        resolvedIn[id] = generation;
+        blocks[id] = block;
+
+        int blockFlags = 0;
+        if (BlockManager.UNLOADED_ID.equals(block.getURI())) {
+            blockFlags |= UNLOADED;
+        }
+        if (block.isWaving()) {
+            blockFlags |= WAVING;
+        }
+        if (block.getMeshGenerator() == null) {
+            blockFlags |= NO_MESH_GENERATOR;
+        }
+        if (block.isTranslucent()) {
+            blockFlags |= TRANSLUCENT;
+        }
+        if (block.isShadowCasting()) {
+            blockFlags |= SHADOW_CASTING;
+        }
+        int full = 0;
+        for (Side side : SIDES) {
+            if (block.isFullSide(side)) {
+                full |= 1 << side.ordinal();
+            }
+        }
+        fullSides[id] = full;
+
+        BlockMeshGenerator generator = block.getMeshGenerator();
+        if (generator != null && generator.getClass() == BlockMeshGeneratorSingleShape.class
+                && ((BlockMeshGeneratorSingleShape) generator).getBlock() == block && !block.isLiquid()
+                && !block.isWater()) {
+            BlockAppearance appearance = block.getPrimaryAppearance();
+            if (appearance.hasAppearance()) {
+                blockFlags |= HAS_APPEARANCE;
+            }
+            if (isWithinCell(appearance)) {
+                blockFlags |= BULK;
+                if (merge && (blockFlags & WAVING) == 0 && !block.isDoubleSided() && isCube(appearance)) {
+                    blockFlags |= MERGEABLE;
+                }
+            }
+        }
+        flags[id] = blockFlags;
+
+        // as chosen by BlockMeshGeneratorSingleShape, for blocks other than water
+        ChunkMesh.RenderType renderType = block.isTranslucent() ? ChunkMesh.RenderType.TRANSLUCENT
+                : ChunkMesh.RenderType.OPAQUE;
+        if (block.isIce()) {
+            renderType = ChunkMesh.RenderType.WATER_AND_ICE;
+        }
+        if (block.isDoubleSided()) {
+            renderType = ChunkMesh.RenderType.BILLBOARD;
+        }
+        renderTypes[id] = renderType;
+        ChunkVertexFlag vertexFlag = ChunkVertexFlag.NORMAL;
+        if (block.isWaving() && block.isDoubleSided()) {
+            vertexFlag = ChunkVertexFlag.WAVING;
+        } else if (block.isWaving()) {
+            vertexFlag = ChunkVertexFlag.WAVING_BLOCK;
+        }
+        vertexFlags[id] = vertexFlag;
+    }
+
+    /**
+     * Whether all vertices lie within the cell of the block, so that its lighting is sampled within the buffer.
+     */
+    private static boolean isWithinCell(BlockAppearance appearance) {
+        for (BlockPart part : BlockPart.allParts()) {
+            BlockMeshPart meshPart = appearance.getPart(part);
+            if (meshPart != null) {
+                for (int i = 0; i < meshPart.size(); i++) {
+                    Vector3f vertex = meshPart.getVertex(i);
+                    if (Math.abs(vertex.x) > 0.5f || Math.abs(vertex.y) > 0.5f || Math.abs(vertex.z) > 0.5f) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the appearance consists of the six faces of the cell, each a single quad.
+     */
+    private static boolean isCube(BlockAppearance appearance) {
+        if (appearance.getPart(BlockPart.CENTER) != null) {
+            return false;
+        }
+        for (Side side : SIDES) {
+            BlockMeshPart part = appearance.getPart(SIDE_PARTS[side.ordinal()]);
+            if (part == null || part.size() != 4 || part.indicesSize() != 6) {
+                return false;
+            }
+            Vector3ic direction = side.direction();
+            int normalAxis = NORMAL_AXES[side.ordinal()];
+            for (int i = 0; i < 4; i++) {
+                Vector3f vertex = part.getVertex(i);
+                Vector3f normal = part.getNormal(i);
+                if (normal.x != direction.x() || normal.y != direction.y() || normal.z != direction.z()) {
+                    return false;
+                }
+                for (int axis = 0; axis < 3; axis++) {
+                    float expected = axis == normalAxis ? 0.5f * direction.get(axis)
+                            : 0.5f * Math.signum(vertex.get(axis));
+                    if (vertex.get(axis) != expected || expected == 0) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the side of a block other than a liquid is visible next to the given block, following
+     * {@link BlockMeshGeneratorSingleShape}.
+     */
+    private boolean isSideVisible(int blockFlags, int neighbourId, Side side) {
+        int neighbourFlags = flags[neighbourId];
+        if ((neighbourFlags & UNLOADED) != 0) {
+            return false;
+        }
+        return ((blockFlags ^ neighbourFlags) & WAVING) != 0 || (neighbourFlags & NO_MESH_GENERATOR) != 0
+                || (fullSides[neighbourId] & REVERSE_SIDE_FLAGS[side.ordinal()]) == 0
+                || ((blockFlags & TRANSLUCENT) == 0 && (neighbourFlags & TRANSLUCENT) != 0);
+    }
+
+    private void appendBlock(ChunkView view, ChunkMesh mesh, int index, int id, int x, int y, int z) {
+        Block block = blocks[id];
+        BlockAppearance appearance = block.getPrimaryAppearance();
+        int blockFlags = flags[id];
+        boolean isRendered = false;
+        for (Side side : SIDES) {
+            int neighbourId = blockIds[index + NEIGHBOUR_OFFSETS[side.ordinal()]] & 0xFFFF;
+            if (isSideVisible(blockFlags, neighbourId, side)) {
+                isRendered = true;
+                BlockPart part = SIDE_PARTS[side.ordinal()];
+                BlockMeshPart meshPart = appearance.getPart(part);
+                if (meshPart != null) {
+                    calcColor(view, block, part, x, y, z);
+                    appendPart(mesh, meshPart, x, y, z, renderTypes[id], getVertexFlag(id, side));
+                }
+            }
+        }
+        BlockMeshPart center = appearance.getPart(BlockPart.CENTER);
+        if (isRendered && center != null) {
+            calcColor(view, block, BlockPart.CENTER, x, y, z);
+            appendPart(mesh, center, x, y, z, renderTypes[id], vertexFlags[id]);
+        }
+    }
+
+    private ChunkVertexFlag getVertexFlag(int id, Side side) {
+        if (blocks[id].isGrass() && side != Side.TOP && side != Side.BOTTOM) {
+            return ChunkVertexFlag.COLOR_MASK;
+        }
+        return vertexFlags[id];
+    }
+
+    private void calcColor(ChunkView view, Block block, BlockPart part, int x, int y, int z) {
+        Colorc colorOffset = block.getColorOffset(part);
+        Colorc colorSource = block.getColorSource(part).calcColor(view, x, y, z);
+        color.setRed(colorSource.rf() * colorOffset.rf())
+                .setGreen(colorSource.gf() * colorOffset.gf())
+                .setBlue(colorSource.bf() * colorOffset.bf())
+                .setAlpha(colorSource.af() * colorOffset.af());
+    }
+
+    /**
+     * Appends the part the same way as {@link BlockMeshPart#appendTo}, in the current color.
+     */
+    private void appendPart(ChunkMesh mesh, BlockMeshPart part, int x, int y, int z,
+                            ChunkMesh.RenderType renderType, ChunkVertexFlag vertexFlag) {
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(renderType);
+        int size = part.size();
+        for (int i = 0; i < size; i++) {
+            elements.uv0.put(part.getTexCoord(i));
+        }
+
+        int nextIndex = elements.vertexCount;
+        elements.buffer.reserveElements(nextIndex + size);
+        for (int i = 0; i < size; i++) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            elements.color.put(color);
+            elements.position.put(position.set(vertex).add(x, y, z));
+            elements.normals.put(normal);
+            elements.flags.put((byte) vertexFlag.getValue());
+            elements.frames.put((byte) (part.getTexFrames() - 1));
+            calcLighting(vertex.x + x, vertex.y + y, vertex.z + z, normal);
+            elements.sunlight.put(vertexSunlight);
+            elements.blockLight.put(vertexLight);
+            elements.ambientOcclusion.put(vertexOcclusion);
+        }
+        elements.vertexCount += size;
+
+        for (int i = 0; i < part.indicesSize(); i++) {
+            elements.indices.put(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    /**
+     * Samples the lighting of a vertex at the same positions as {@link BlockMeshPart#appendTo}.
+     */
+    private void calcLighting(float x, float y, float z, Vector3fc normal) {
+        int occluders;
+        switch (Direction.inDirection(normal)) {
+            case LEFT:
+            case RIGHT:
+                float sampleX = x + 0.8f * normal.x();
+                occluders = occluder(index(sampleX, y + 0.1f, z + 0.1f)) + occluder(index(sampleX, y + 0.1f, z - 0.1f))
+                        + occluder(index(sampleX, y - 0.1f, z - 0.1f)) + occluder(index(sampleX, y - 0.1f, z + 0.1f));
+                break;
+            case FORWARD:
+            case BACKWARD:
+                float sampleZ = z + 0.8f * normal.z();
+                occluders = occluder(index(x + 0.1f, y + 0.1f, sampleZ)) + occluder(index(x + 0.1f, y - 0.1f, sampleZ))
+                        + occluder(index(x - 0.1f, y - 0.1f, sampleZ)) + occluder(index(x - 0.1f, y + 0.1f, sampleZ));
+                break;
+            default:
+                float sampleY = y + 0.8f * normal.y();
+                occluders = occluder(index(x + 0.1f, sampleY, z + 0.1f)) + occluder(index(x + 0.1f, sampleY, z - 0.1f))
+                        + occluder(index(x - 0.1f, sampleY, z - 0.1f)) + occluder(index(x - 0.1f, sampleY, z + 0.1f));
+        }
+        vertexOcclusion = AMBIENT_OCCLUSION[occluders & 0xF][occluders >> 4];
+
+        int sunlightSum = 0;
+        int sunlightCount = 0;
+        int lightSum = 0;
+        int lightCount = 0;
+        for (int i = 0; i < LIGHT_SAMPLES_X.length; i++) {
+            int index = index(x + LIGHT_SAMPLES_X[i], y + LIGHT_SAMPLES_Y[i], z + LIGHT_SAMPLES_Z[i]);
+            if (sunlight[index] > 0) {
+                sunlightSum += sunlight[index];
+                sunlightCount++;
+            }
+            if (light[index] > 0) {
+                lightSum += light[index];
+                lightCount++;
+            }
+        }
+        vertexSunlight = sunlightCount == 0 ? 0 : (float) sunlightSum / sunlightCount / 15f;
+        vertexLight = lightCount == 0 ? 0 : (float) lightSum / lightCount / 15f;
+    }
+
+    /**
+     * @return the number of solid occluders in the lower four bits, of translucent ones in the bits above
+     */
+    private int occluder(int index) {
+        int blockFlags = flags[blockIds[index] & 0xFFFF];
+        if ((blockFlags & SHADOW_CASTING) == 0) {
+            return 0;
+        }
+        return (blockFlags & TRANSLUCENT) == 0 ? 1 : 1 << 4;
+    }
+
+    /**
+     * Collects the visible faces of the mergeable blocks on the given side layer by layer, and appends them merged
+     * into rectangles greedily: each rectangle is extended along the rows as far as possible, then by whole rows.
+     */
+    private void appendMergedFaces(ChunkView view, ChunkMesh mesh, Side side) {
+        int normalAxis = NORMAL_AXES[side.ordinal()];
+        int rowAxis = normalAxis == 0 ? 1 : 0;
+        int columnAxis = normalAxis == 2 ? 1 : 2;
+        int rowLength = cellCounts[rowAxis];
+        int rows = cellCounts[columnAxis];
+        int neighbourOffset = NEIGHBOUR_OFFSETS[side.ordinal()];
+        BlockPart part = SIDE_PARTS[side.ordinal()];
+
+        for (int layer = 0; layer < cellCounts[normalAxis]; layer++) {
+            cell[normalAxis] = layer;
+            boolean hasFaces = false;
+            for (int row = 0; row < rows; row++) {
+                cell[columnAxis] = row;
+                for (int column = 0; column < rowLength; column++) {
+                    cell[rowAxis] = column;
+                    int mask = column + row * rowLength;
+                    maskIds[mask] = -1;
+                    int index = index(cell[0], cell[1], cell[2]);
+                    int id = blockIds[index] & 0xFFFF;
+                    int blockFlags = flags[id];
+                    if ((blockFlags & MERGEABLE) == 0
+                            || !isSideVisible(blockFlags, blockIds[index + neighbourOffset] & 0xFFFF, side)) {
+                        continue;
+                    }
+                    Block block = blocks[id];
+                    BlockMeshPart meshPart = block.getPrimaryAppearance().getPart(part);
+                    calcColor(view, block, part, cell[0], cell[1], cell[2]);
+                    if (isUniformlyLit(meshPart, cell[0], cell[1], cell[2])) {
+                        maskIds[mask] = id;
+                        maskColors[mask] = color.rgba();
+                        maskSunlight[mask] = vertexSunlight;
+                        maskLight[mask] = vertexLight;
+                        maskOcclusion[mask] = vertexOcclusion;
+                        hasFaces = true;
+                    } else {
+                        appendPart(mesh, meshPart, cell[0], cell[1], cell[2], renderTypes[id], getVertexFlag(id, side));
+                    }
+                }
+            }
+            if (hasFaces) {
+                mergeLayer(mesh, side, rowAxis, columnAxis, rowLength, rows);
+            }
+        }
+    }
+
+    private boolean isUniformlyLit(BlockMeshPart part, int x, int y, int z) {
+        float firstSunlight = 0;
+        float firstLight = 0;
+        float firstOcclusion = 0;
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            calcLighting(vertex.x + x, vertex.y + y, vertex.z + z, part.getNormal(i));
+            if (i == 0) {
+                firstSunlight = vertexSunlight;
+                firstLight = vertexLight;
+                firstOcclusion = vertexOcclusion;
+            } else if (vertexSunlight != firstSunlight || vertexLight != firstLight
+                    || vertexOcclusion != firstOcclusion) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void mergeLayer(ChunkMesh mesh, Side side, int rowAxis, int columnAxis, int rowLength, int rows) {
+        for (int row = 0; row < rows; row++) {
+            int column = 0;
+            while (column < rowLength) {
+                int mask = column + row * rowLength;
+                if (maskIds[mask] < 0) {
+                    column++;
+                    continue;
+                }
+                int width = 1;
+                while (column + width < rowLength && isSameFace(mask, mask + width)) {
+                    width++;
+                }
+                int height = 1;
+                while (row + height < rows && isSameRow(mask, mask + height * rowLength, width)) {
+                    height++;
+                }
+
+                cell[rowAxis] = column;
+                cell[columnAxis] = row;
+                appendMergedFace(mesh, side, mask, rowAxis, columnAxis, width, height);
+                for (int i = 0; i < height; i++) {
+                    Arrays.fill(maskIds, mask + i * rowLength, mask + i * rowLength + width, -1);
+                }
+                column += width;
+            }
+        }
+    }
+
+    private boolean isSameRow(int mask, int otherMask, int width) {
+        for (int i = 0; i < width; i++) {
+            if (!isSameFace(mask, otherMask + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSameFace(int mask, int otherMask) {
+        return maskIds[mask] == maskIds[otherMask] && maskColors[mask] == maskColors[otherMask]
+                && maskSunlight[mask] == maskSunlight[otherMask] && maskLight[mask] == maskLight[otherMask]
+                && maskOcclusion[mask] == maskOcclusion[otherMask];
+    }
+
+    /**
+     * Appends the face of the block in the current cell stretched over the given number of cells.
+     */
+    private void appendMergedFace(ChunkMesh mesh, Side side, int mask, int rowAxis, int columnAxis,
+                                  int width, int height) {
+        int id = maskIds[mask];
+        BlockMeshPart part = blocks[id].getPrimaryAppearance().getPart(SIDE_PARTS[side.ordinal()]);
+        ChunkVertexFlag vertexFlag = getVertexFlag(id, side);
+        int rgba = maskColors[mask];
+        color.set(rgba >>> 24, (rgba >> 16) & 0xFF, (rgba >> 8) & 0xFF, rgba & 0xFF);
+
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(renderTypes[id]);
+        for (int i = 0; i < part.size(); i++) {
+            elements.uv0.put(part.getTexCoord(i));
+        }
+
+        int nextIndex = elements.vertexCount;
+        elements.buffer.reserveElements(nextIndex + part.size());
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            position.set(vertex).add(cell[0], cell[1], cell[2]);
+            if (vertex.get(rowAxis) > 0) {
+                position.setComponent(rowAxis, position.get(rowAxis) + width - 1);
+            }
+            if (vertex.get(columnAxis) > 0) {
+                position.setComponent(columnAxis, position.get(columnAxis) + height - 1);
+            }
+            elements.color.put(color);
+            elements.position.put(position);
+            elements.normals.put(part.getNormal(i));
+            elements.flags.put((byte) vertexFlag.getValue());
+            elements.frames.put((byte) (part.getTexFrames() - 1));
+            elements.sunlight.put(maskSunlight[mask]);
+            elements.blockLight.put(maskLight[mask]);
+            elements.ambientOcclusion.put(maskOcclusion[mask]);
+        }
+        elements.vertexCount += part.size();
+
+        for (int i = 0; i < part.indicesSize(); i++) {
+            elements.indices.put(part.getIndex(i) + nextIndex);
+        }
+    }
+}
@@ -19,8 +19,20 @@ public final class ChunkTessellator {
 
     private static int statVertexArrayUpdateCount;
 
+    private final Mode mode;
+    private final ThreadLocal<BulkChunkMesher> bulkMesher;
+
     public ChunkTessellator() {
+        this(Mode.BULK);
+    }
 
+    /**
+     * Creates a tessellator using the given mode. Not public, as {@link Mode#GREEDY} is only meant for the tests and
+     * benchmarks so far, and the game always uses {@link Mode#BULK}.
+     */
+    ChunkTessellator(Mode mode) {
+        this.mode = mode;
+        this.bulkMesher = ThreadLocal.withInitial(() -> new BulkChunkMesher(mode == Mode.GREEDY));
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView) {
@@ -39,13 +51,17 @@ public ChunkMesh generateMesh(ChunkView chunkView, float scale, int border) {
 
         // The mesh extends into the borders in the horizontal directions, but not vertically upwards, in order to cover
         // gaps between LOD chunks of different scales, but also avoid multiple overlapping ocean surfaces.
-        for (int x = 0; x < Chunks.SIZE_X; x++) {
-            for (int z = 0; z < Chunks.SIZE_Z; z++) {
-                for (int y = 0; y < Chunks.SIZE_Y - border * 2; y++) {
-                    Block block = chunkView.getBlock(x, y, z);
-                    block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+        if (mode == Mode.PER_BLOCK) {
+            for (int x = 0; x < Chunks.SIZE_X; x++) {
+                for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                    for (int y = 0; y < Chunks.SIZE_Y - border * 2; y++) {
+                        Block block = chunkView.getBlock(x, y, z);
+                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+                    }
                 }
             }
+        } else {
+            bulkMesher.get().generate(chunkView, mesh, Chunks.SIZE_Y - border * 2);
         }
 
         if (border != 0) {
@@ -71,4 +87,27 @@ public ChunkMesh generateMesh(ChunkView chunkView, float scale, int border) {
     public static int getVertexArrayUpdateCount() {
         return statVertexArrayUpdateCount;
     }
+
+    /**
+     * The ways chunks can be tessellated in.
+     */
+    enum Mode {
+        /**
+         * Every block is tessellated by its own mesh generator, reading its surroundings from the chunk view.
+         */
+        PER_BLOCK,
+        /**
+         * The block data is read from the chunk view at once, and the blocks of the plain single shape generator are
+         * tessellated from that copy. Produces the same mesh as {@link #PER_BLOCK}, without looking up every block and
+         * its neighbours through the view.
+         */
+        BULK,
+        /**
+         * Like {@link #BULK}, but the coplanar faces of adjacent full cubes which look the same and are lit the same
+         * are merged into larger quads, which saves most of the vertices of the terrain. Each merged quad shows the
+         * texture of its block stretched across it though, so this mode must not be used for the game until the chunk
+         * shader repeats the atlas tile by itself.
+         */
+        GREEDY
+    }
 }
@@ -0,0 +1,337 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import com.google.common.collect.Sets;
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.joml.geom.AABBfc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the mesh generation of the full detail chunks and of the LOD chunks on one set of worker threads, one per
+ * available core except for the one of the main thread.
+ * <br><br>
+ * Each job is submitted under a key, usually the chunk or the position it builds the mesh for. A job submitted under
+ * the key of a job which is still pending replaces that job, so only the newest version of a chunk is built, and the
+ * jobs of chunks which left the view distance can be cancelled before they run. A job does not run while another job
+ * under the same key is still running.
+ * <br><br>
+ * The workers take the pending jobs of chunks in the view frustum of the camera first, and the nearest first among
+ * those. While full detail jobs are pending, LOD jobs are only run on half of the workers. The pending jobs are kept in
+ * a priority queue each for full detail and LOD jobs, which are rebuilt whenever the priorities are updated. Replaced
+ * and cancelled jobs are only dropped from the queues once they reach the head or the queues are rebuilt.
+ * <br><br>
+ * Jobs are submitted and prioritized from the main thread.
+ */
+public class ChunkMeshScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkMeshScheduler.class);
+
+    private static final int LATENCY_SAMPLES = 64;
+    /* Visible jobs first, then the nearest ones, then the ones submitted first */
+    private static final Comparator<Job> PRIORITY = Comparator.comparing((Job job) -> !job.visible)
+            .thenComparingDouble(job -> job.distance)
+            .thenComparingLong(job -> job.sequence);
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final int maxLodWorkers;
+
+    /* guarded by this */
+    private final Map<Object, Job> pending = new LinkedHashMap<>();
+    private PriorityQueue<Job> queue = new PriorityQueue<>(PRIORITY);
+    private PriorityQueue<Job> lodQueue = new PriorityQueue<>(PRIORITY);
+    /* jobs taken off the queues while another job under their key is running */
+    private final List<Job> heldBack = new ArrayList<>();
+    private final Set<Object> running = Sets.newHashSet();
+    private long nextSequence;
+    private int pendingLodJobs;
+    private int runningLodJobs;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int completedJobs;
+    private Camera camera;
+    private boolean shutdown;
+
+    public ChunkMeshScheduler() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param threads the number of worker threads
+     */
+    public ChunkMeshScheduler(int threads) {
+        maxLodWorkers = Math.max(1, threads / 2);
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::work, "Chunk-Mesher-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+    }
+
+    /**
+     * Queues a job, replacing the pending job under the same key. The replacing job keeps the queue time of the job it
+     * replaces for the latency metrics.
+     *
+     * @param key identifies the chunk the job builds the mesh for
+     * @param bounds the bounds of the chunk in world coordinates, used to prioritize the job
+     * @param lod whether the job builds the mesh of a LOD chunk
+     * @param work the job itself, run on a worker thread
+     */
+    public synchronized void submit(Object key, AABBfc bounds, boolean lod, Runnable work) {
+        if (shutdown) {
+            return;
+        }
+        long queueTime = System.nanoTime();
+        Job previous = pending.remove(key);
+        if (previous != null) {
+            queueTime = previous.queueTime;
+            if (previous.lod) {
+                pendingLodJobs--;
+            }
+        }
+        Job job = new Job(key, bounds, lod, work, queueTime, nextSequence++);
+        if (camera != null) {
+            job.updatePriority(camera);
+        }
+        pending.put(key, job);
+        if (lod) {
+            pendingLodJobs++;
+        }
+        if (queue.size() + lodQueue.size() > 2 * pending.size() + workers.size()) {
+            // many jobs have been replaced since the queues were last rebuilt
+            rebuildQueues();
+        } else {
+            queueOf(job).add(job);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Removes the pending job under the key, a job which is already running is not interrupted.
+     *
+     * @return true if a pending job was removed
+     */
+    public synchronized boolean cancel(Object key) {
+        Job job = pending.remove(key);
+        if (job != null && job.lod) {
+            pendingLodJobs--;
+        }
+        return job != null;
+    }
+
+    public synchronized boolean isPending(Object key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Recomputes the priorities of the pending jobs from the current position and view frustum of the camera, meant to
+     * be called once per frame.
+     */
+    public synchronized void updatePriorities(Camera newCamera) {
+        camera = newCamera;
+        for (Job job : pending.values()) {
+            job.updatePriority(camera);
+        }
+        rebuildQueues();
+    }
+
+    /**
+     * Refills the queues with the pending jobs only, sorting them by their current priority.
+     */
+    private void rebuildQueues() {
+        queue = new PriorityQueue<>(Math.max(1, pending.size() - pendingLodJobs), PRIORITY);
+        lodQueue = new PriorityQueue<>(Math.max(1, pendingLodJobs), PRIORITY);
+        for (Job job : pending.values()) {
+            queueOf(job).add(job);
+        }
+    }
+
+    /**
+     * @return the number of jobs waiting for a worker, including LOD jobs
+     */
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+    public synchronized int getLodQueueDepth() {
+        return pendingLodJobs;
+    }
+
+    public synchronized int getRunningJobs() {
+        return running.size();
+    }
+
+    /**
+     * @return the average time in milliseconds from the submission of one of the latest jobs to its completion
+     */
+    public synchronized float getAverageLatency() {
+        int samples = Math.min(completedJobs, LATENCY_SAMPLES);
+        if (samples == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < samples; i++) {
+            sum += latencies[i];
+        }
+        return sum / (float) samples / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the longest time in milliseconds from the submission of one of the latest jobs to its completion
+     */
+    public synchronized float getMaxLatency() {
+        long max = 0;
+        for (int i = 0; i < Math.min(completedJobs, LATENCY_SAMPLES); i++) {
+            max = Math.max(max, latencies[i]);
+        }
+        return max / (float) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public synchronized String getMetrics() {
+        return String.format("Mesh Queue: %d (LOD %d), Running: %d\nMesh Latency: %.1f ms avg, %.1f ms max\n",
+                pending.size(), pendingLodJobs, running.size(), getAverageLatency(), getMaxLatency());
+    }
+
+    /**
+     * Drops the pending jobs and stops the workers.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            pending.clear();
+            queue.clear();
+            lodQueue.clear();
+            pendingLodJobs = 0;
+            notifyAll();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Job job = take();
+                if (job == null) {
+                    return;
+                }
+                try {
+                    job.work.run();
+                } catch (RuntimeException e) {
+                    logger.error("Error while building a chunk mesh", e);
+                } finally {
+                    finish(job);
+                }
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private synchronized Job take() throws InterruptedException {
+        while (!shutdown) {
+            Job job = selectJob();
+            if (job != null) {
+                pending.remove(job.key);
+                running.add(job.key);
+                if (job.lod) {
+                    pendingLodJobs--;
+                    runningLodJobs++;
+                }
+                return job;
+            }
+            wait();
+        }
+        return null;
+    }
+
+    private Job selectJob() {
+        boolean lodAllowed = runningLodJobs < maxLodWorkers || pendingLodJobs == pending.size();
+        Job best = peek(queue);
+        if (lodAllowed) {
+            Job lod = peek(lodQueue);
+            if (lod != null && (best == null || PRIORITY.compare(lod, best) < 0)) {
+                best = lod;
+            }
+        }
+        if (best != null) {
+            queueOf(best).poll();
+        }
+        for (Job job : heldBack) {
+            queueOf(job).add(job);
+        }
+        heldBack.clear();
+        return best;
+    }
+
+    /**
+     * @return the pending job with the highest priority which may run now, after dropping the replaced and cancelled
+     *         jobs before it and holding back the ones whose key is running
+     */
+    private Job peek(PriorityQueue<Job> jobs) {
+        Job job = jobs.peek();
+        while (job != null && (pending.get(job.key) != job || running.contains(job.key))) {
+            jobs.poll();
+            if (pending.get(job.key) == job) {
+                heldBack.add(job);
+            }
+            job = jobs.peek();
+        }
+        return job;
+    }
+
+    private PriorityQueue<Job> queueOf(Job job) {
+        return job.lod ? lodQueue : queue;
+    }
+
+    private synchronized void finish(Job job) {
+        running.remove(job.key);
+        if (job.lod) {
+            runningLodJobs--;
+        }
+        latencies[completedJobs % LATENCY_SAMPLES] = System.nanoTime() - job.queueTime;
+        completedJobs++;
+        // a job under the same key or a LOD job may have been held back
+        notifyAll();
+    }
+
+    private static final class Job {
+        private final Object key;
+        private final AABBfc bounds;
+        private final boolean lod;
+        private final Runnable work;
+        private final long queueTime;
+        private final long sequence;
+        /* only changed while the job is not queued, or right before the queues are rebuilt */
+        private boolean visible;
+        private float distance;
+
+        Job(Object key, AABBfc bounds, boolean lod, Runnable work, long queueTime, long sequence) {
+            this.key = key;
+            this.bounds = bounds;
+            this.lod = lod;
+            this.work = work;
+            this.queueTime = queueTime;
+            this.sequence = sequence;
+        }
+
+        void updatePriority(Camera camera) {
+            visible = camera.hasInSight(bounds);
+            Vector3f position = camera.getPosition();
+            float dx = (bounds.minX() + bounds.maxX()) / 2 - position.x;
+            float dy = (bounds.minY() + bounds.maxY()) / 2 - position.y;
+            float dz = (bounds.minZ() + bounds.maxZ()) / 2 - position.z;
+            distance = dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
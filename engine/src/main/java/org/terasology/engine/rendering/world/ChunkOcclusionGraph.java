@@ -0,0 +1,123 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.ChunkFaceConnectivity;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * Finds the chunks around the camera which could be seen from the camera chunk, through the faces connected within
+ * each chunk, see {@link ChunkFaceConnectivity}.
+ * <br><br>
+ * A breadth-first search starts at the camera chunk and enters a neighbouring chunk if the face it entered the
+ * current chunk through is connected to the face towards the neighbour. The search never goes in the direction
+ * opposite to one it went in before, as a line of sight can't do that either. Chunks outside of the region are not
+ * searched, and all chunks count as reachable while the camera is outside of it.
+ */
+final class ChunkOcclusionGraph {
+    private static final byte NO_SIDE = -1;
+    private static final Side[] SIDES = Side.values();
+
+    private final BlockRegion region = new BlockRegion(BlockRegion.INVALID);
+    private boolean enabled;
+    private int reachableCount;
+
+    private boolean[] reachable = new boolean[0];
+    private byte[] entrySides = new byte[0];
+    private byte[] directions = new byte[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Searches the chunks of the region anew.
+     *
+     * @param newRegion the chunks to search, in chunk coordinates
+     * @param cameraChunk the position of the chunk the camera is in
+     * @param connectivity the face connectivity of the chunk at a position, only valid during the call
+     */
+    void update(BlockRegionc newRegion, Vector3ic cameraChunk, ToLongFunction<Vector3ic> connectivity) {
+        region.set(newRegion);
+        enabled = region.isValid() && region.contains(cameraChunk);
+        reachableCount = 0;
+        if (!enabled) {
+            return;
+        }
+        int volume = region.volume();
+        if (reachable.length < volume) {
+            reachable = new boolean[volume];
+            entrySides = new byte[volume];
+            directions = new byte[volume];
+            queue = new int[volume];
+        } else {
+            Arrays.fill(reachable, 0, volume, false);
+        }
+
+        int start = index(cameraChunk.x(), cameraChunk.y(), cameraChunk.z());
+        reachable[start] = true;
+        entrySides[start] = NO_SIDE;
+        directions[start] = 0;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        Vector3i pos = new Vector3i();
+        while (head < tail) {
+            int current = queue[head++];
+            int x = region.minX() + current % region.getSizeX();
+            int y = region.minY() + (current / region.getSizeX()) % region.getSizeY();
+            int z = region.minZ() + current / (region.getSizeX() * region.getSizeY());
+            Side entrySide = entrySides[current] == NO_SIDE ? null : SIDES[entrySides[current]];
+            long faces = entrySide == null ? ChunkFaceConnectivity.ALL : connectivity.applyAsLong(pos.set(x, y, z));
+            for (Side side : SIDES) {
+                if ((directions[current] & side.reverse().getFlag()) != 0) {
+                    continue;
+                }
+                Vector3ic direction = side.direction();
+                int nx = x + direction.x();
+                int ny = y + direction.y();
+                int nz = z + direction.z();
+                if (!region.contains(nx, ny, nz)) {
+                    continue;
+                }
+                int neighbour = index(nx, ny, nz);
+                if (reachable[neighbour]
+                        || entrySide != null && !ChunkFaceConnectivity.isConnected(faces, entrySide, side)) {
+                    continue;
+                }
+                reachable[neighbour] = true;
+                entrySides[neighbour] = (byte) side.reverse().ordinal();
+                directions[neighbour] = (byte) (directions[current] | side.getFlag());
+                queue[tail++] = neighbour;
+            }
+        }
+        reachableCount = tail;
+    }
+
+    /**
+     * @return whether the chunk at the position could be seen from the camera chunk, true for chunks outside of the
+     *         searched region
+     */
+    boolean isReachable(Vector3ic chunkPos) {
+        if (!enabled || !region.contains(chunkPos)) {
+            return true;
+        }
+        return reachable[index(chunkPos.x(), chunkPos.y(), chunkPos.z())];
+    }
+
+    /**
+     * @return the number of chunks found in the last search, or 0 if the camera was outside of the region
+     */
+    int getReachableCount() {
+        return reachableCount;
+    }
+
+    private int index(int x, int y, int z) {
+        int sizeX = region.getSizeX();
+        return (x - region.minX()) + sizeX * ((y - region.minY()) + region.getSizeY() * (z - region.minZ()));
+    }
+}
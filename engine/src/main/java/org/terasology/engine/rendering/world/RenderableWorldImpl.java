@@ -24,6 +24,7 @@
 import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkFaceConnectivity;
 import org.terasology.engine.world.chunks.ChunkProvider;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.LodChunkProvider;
@@ -58,7 +59,9 @@ class RenderableWorldImpl implements RenderableWorld {
     private final LodChunkProvider lodChunkProvider;
 
     private final ChunkTessellator chunkTessellator;
+    private final ChunkMeshScheduler chunkMeshScheduler;
     private final ChunkMeshUpdateManager chunkMeshUpdateManager;
+    private final ChunkOcclusionGraph occlusionGraph = new ChunkOcclusionGraph();
     private final List<Chunk> chunksInProximityOfCamera = Lists.newArrayListWithCapacity(MAX_LOADABLE_CHUNKS);
     private BlockRegion renderableRegion = new BlockRegion(BlockRegion.INVALID);
     private ViewDistance currentViewDistance;
@@ -74,6 +77,7 @@ class RenderableWorldImpl implements RenderableWorld {
     private int statDirtyChunks;
     private int statVisibleChunks;
     private int statIgnoredPhases;
+    private int statOccludedChunks;
 
 
     RenderableWorldImpl(Context context, Camera playerCamera) {
@@ -81,14 +85,15 @@ class RenderableWorldImpl implements RenderableWorld {
         worldProvider = context.get(WorldProvider.class);
         chunkProvider = context.get(ChunkProvider.class);
         chunkTessellator = context.get(ChunkTessellator.class);
-        chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
+        chunkMeshScheduler = new ChunkMeshScheduler();
+        chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkMeshScheduler, chunkTessellator, worldProvider);
 
         this.playerCamera = playerCamera;
         WorldGenerator worldGenerator = context.get(WorldGenerator.class);
         if (worldGenerator instanceof ScalableWorldGenerator) {
             lodChunkProvider = new LodChunkProvider(context, (ScalableWorldGenerator) worldGenerator,
-                    chunkTessellator, renderingConfig.getViewDistance(), (int) renderingConfig.getChunkLods(),
-                    calcCameraCoordinatesInChunkUnits());
+                    chunkTessellator, chunkMeshScheduler, renderingConfig.getViewDistance(),
+                    (int) renderingConfig.getChunkLods(), calcCameraCoordinatesInChunkUnits());
         } else {
             lodChunkProvider = null;
         }
@@ -131,6 +136,7 @@ public void onChunkUnloaded(Vector3ic chunkCoordinates) {
             while (iterator.hasNext()) {
                 chunk = iterator.next();
                 if (chunk.getPosition().equals(chunkCoordinates)) {
+                    chunkMeshUpdateManager.cancelChunkUpdate(chunk);
                     chunk.disposeMesh();
                     iterator.remove();
                     break;
@@ -166,6 +172,7 @@ public boolean pregenerateChunks() {
                 chunk.setDirty(false);
 
                 newMesh = chunkTessellator.generateMesh(localView);
+                chunk.setFaceConnectivity(ChunkFaceConnectivity.compute(chunk));
                 newMesh.updateMesh();
                 newMesh.discardData();
 
@@ -218,6 +225,7 @@ public boolean updateChunksInProximity(BlockRegion newRenderableRegion) {
                     while (nearbyChunks.hasNext()) {
                         chunk = nearbyChunks.next();
                         if (chunk.getPosition().equals(chunkPositionToRemove)) {
+                            chunkMeshUpdateManager.cancelChunkUpdate(chunk);
                             chunk.disposeMesh();
                             nearbyChunks.remove();
                             break;
@@ -284,7 +292,7 @@ private Vector3i calcCameraCoordinatesInChunkUnits() {
     public void generateVBOs() {
         PerformanceMonitor.startActivity("Building Mesh VBOs");
         ChunkMesh pendingMesh;
-        chunkMeshUpdateManager.setCameraPosition(playerCamera.getPosition());
+        chunkMeshScheduler.updatePriorities(playerCamera);
         for (Chunk chunk : chunkMeshUpdateManager.availableChunksForUpdate()) {
 
             if (chunk.hasPendingMesh() && chunksInProximityOfCamera.contains(chunk)) {
@@ -316,12 +324,17 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         statDirtyChunks = 0;
         statVisibleChunks = 0;
         statIgnoredPhases = 0;
+        statOccludedChunks = 0;
 
         int processedChunks = 0;
         int chunkCounter = 0;
 
         renderQueues.clear();
 
+        if (isFirstRenderingStageForCurrentFrame) {
+            occlusionGraph.update(renderableRegion, calcCameraCoordinatesInChunkUnits(), this::faceConnectivityAt);
+        }
+
         ChunkMesh mesh;
         boolean isDynamicShadows = renderingConfig.isDynamicShadows();
         int billboardLimit = (int) renderingConfig.getBillboardLimit();
@@ -347,7 +360,10 @@ && isChunkVisibleFromMainLight(chunk)) {
                     }
                 }
 
-                if (isChunkVisible(chunk)) {
+                boolean isVisible = isChunkVisible(chunk);
+                if (isVisible && isChunkOccluded(chunk)) {
+                    statOccludedChunks++;
+                } else if (isVisible) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(chunk);
                     } else {
@@ -403,7 +419,7 @@ private int triangleCount(ChunkMesh mesh, ChunkMesh.RenderPhase renderPhase) {
 
     @Override
     public void dispose() {
-        chunkMeshUpdateManager.shutdown();
+        chunkMeshScheduler.shutdown();
         if (lodChunkProvider != null) {
             lodChunkProvider.shutdown();
         }
@@ -429,6 +445,19 @@ private boolean isChunkVisible(Camera camera, RenderableChunk chunk) {
         return camera.hasInSight(chunk.getAABB());
     }
 
+    /**
+     * @return whether the chunk is one of the chunks around the camera which can't be seen from the camera chunk, as
+     *         found by the occlusion graph
+     */
+    private boolean isChunkOccluded(RenderableChunk chunk) {
+        return chunk instanceof Chunk && !occlusionGraph.isReachable(((Chunk) chunk).getPosition());
+    }
+
+    private long faceConnectivityAt(Vector3ic chunkCoordinates) {
+        Chunk chunk = chunkProvider.getChunk(chunkCoordinates);
+        return chunk != null ? chunk.getFaceConnectivity() : ChunkFaceConnectivity.ALL;
+    }
+
     private boolean isChunkVisibleReflection(RenderableChunk chunk) {
         AABBfc bounds = chunk.getAABB();
         return playerCamera.getViewFrustumReflected().testAab(bounds.minX(), bounds.minY(), bounds.minZ(),
@@ -467,6 +496,12 @@ public String getMetrics() {
         stringToReturn += "Visible Chunks: ";
         stringToReturn += statVisibleChunks;
         stringToReturn += "\n";
+        stringToReturn += "Occluded Chunks: ";
+        stringToReturn += statOccludedChunks;
+        stringToReturn += " (";
+        stringToReturn += occlusionGraph.getReachableCount();
+        stringToReturn += " reachable)\n";
+        stringToReturn += chunkMeshScheduler.getMetrics();
         return stringToReturn;
     }
 
@@ -3,6 +3,8 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -105,6 +107,66 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Computes the same values as {@link #noise(float, float)} for many positions at once. Each octave is computed
+     * for all positions with a single bulk call to the underlying noise.
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] result, int count) {
+        float[] workingX = Arrays.copyOf(x, count);
+        float[] workingY = Arrays.copyOf(y, count);
+        float[] octave = new float[count];
+        Arrays.fill(result, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, octave, count);
+            float weight = spectralWeights[i];
+            for (int n = 0; n < count; n++) {
+                result[n] += octave[n] * weight;
+            }
+
+            float lacunarity = (float) getLacunarity();
+            float offsetX = 10 * other.noise(i + 0.5f, 0.5f);
+            float offsetY = 10 * other.noise(-i - 0.5f, -0.5f);
+            for (int n = 0; n < count; n++) {
+                workingX[n] = workingX[n] * lacunarity + offsetX;
+                workingY[n] = workingY[n] * lacunarity + offsetY;
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            result[n] *= scale;
+        }
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float, float)} for many positions at once. Each octave is
+     * computed for all positions with a single bulk call to the underlying noise.
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] z, float[] result, int count) {
+        float[] workingX = Arrays.copyOf(x, count);
+        float[] workingY = Arrays.copyOf(y, count);
+        float[] workingZ = Arrays.copyOf(z, count);
+        float[] octave = new float[count];
+        Arrays.fill(result, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, workingZ, octave, count);
+            float weight = spectralWeights[i];
+            for (int n = 0; n < count; n++) {
+                result[n] += octave[n] * weight;
+            }
+
+            float lacunarity = (float) getLacunarity();
+            for (int n = 0; n < count; n++) {
+                workingX[n] *= lacunarity;
+                workingY[n] *= lacunarity;
+                workingZ[n] *= lacunarity;
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            result[n] *= scale;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
@@ -3,6 +3,8 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -55,4 +57,38 @@ public float noise(float x, float y, float z) {
         return result;
     }
 
+    /**
+     * Computes the same values as {@link #noise(float, float, float)} for many positions at once. If the underlying
+     * noise is a {@link Noise}, each octave is computed for all positions with a single bulk call.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param z The positions on the z-axis
+     * @param result Receives the noise values
+     * @param count The number of positions, from the start of the arrays
+     */
+    public void noise(float[] x, float[] y, float[] z, float[] result, int count) {
+        float[] workingX = Arrays.copyOf(x, count);
+        float[] workingY = Arrays.copyOf(y, count);
+        float[] workingZ = Arrays.copyOf(z, count);
+        float[] octave = new float[count];
+        Arrays.fill(result, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            if (other instanceof Noise) {
+                ((Noise) other).noise(workingX, workingY, workingZ, octave, count);
+            } else {
+                for (int n = 0; n < count; n++) {
+                    octave[n] = other.noise(workingX[n], workingY[n], workingZ[n]);
+                }
+            }
+            float weight = (float) getSpectralWeight(i);
+            float lacunarity = (float) getLacunarity();
+            for (int n = 0; n < count; n++) {
+                result[n] += octave[n] * weight;
+                workingX[n] *= lacunarity;
+                workingY[n] *= lacunarity;
+                workingZ[n] *= lacunarity;
+            }
+        }
+    }
 }
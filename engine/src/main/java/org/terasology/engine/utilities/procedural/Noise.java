@@ -3,6 +3,13 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import org.joml.Vector2fc;
+import org.joml.Vector3fc;
+import org.terasology.engine.world.block.BlockAreac;
+import org.terasology.engine.world.block.BlockRegionc;
+
+import java.util.Arrays;
+
 /**
  * Provides or generates noise
  *
@@ -46,4 +53,90 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values at many positions at once. Implementations can override this to process the positions
+     * in tight loops over the arrays, which is considerably faster than computing the positions one by one.
+     * The results are the same as those of {@link #noise(float, float)}.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param result Receives the noise values
+     * @param count The number of positions, from the start of the arrays
+     */
+    default void noise(float[] x, float[] y, float[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] = noise(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Computes the noise values at many positions at once. Implementations can override this to process the positions
+     * in tight loops over the arrays, which is considerably faster than computing the positions one by one.
+     * The results are the same as those of {@link #noise(float, float, float)}.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param z The positions on the z-axis
+     * @param result Receives the noise values
+     * @param count The number of positions, from the start of the arrays
+     */
+    default void noise(float[] x, float[] y, float[] z, float[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] = noise(x[i], y[i], z[i]);
+        }
+    }
+
+    /**
+     * Computes the noise values for every position of an area, which is the same as calling
+     * {@code noise(x * scale.x(), y * scale.y())} for each of them.
+     *
+     * @param area The area to compute the noise for
+     * @param scale The scale of the positions
+     * @param result Receives the noise values, indexed by {@code x + sizeX * y} relative to the area
+     */
+    default void noise(BlockAreac area, Vector2fc scale, float[] result) {
+        int count = area.area();
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        int i = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                xs[i] = x * scale.x();
+                ys[i] = y * scale.y();
+                i++;
+            }
+        }
+        noise(xs, ys, result, count);
+    }
+
+    /**
+     * Computes the noise values for every position of a region, which is the same as calling
+     * {@code noise(x * scale.x(), y * scale.y(), z * scale.z())} for each of them. The region is processed one
+     * layer at a time.
+     *
+     * @param region The region to compute the noise for
+     * @param scale The scale of the positions
+     * @param result Receives the noise values, indexed by {@code x + sizeX * (y + sizeY * z)} relative to the region
+     */
+    default void noise(BlockRegionc region, Vector3fc scale, float[] result) {
+        int layerSize = region.getSizeX() * region.getSizeY();
+        float[] xs = new float[layerSize];
+        float[] ys = new float[layerSize];
+        float[] zs = new float[layerSize];
+        float[] layer = new float[layerSize];
+        int i = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                xs[i] = x * scale.x();
+                ys[i] = y * scale.y();
+                i++;
+            }
+        }
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            Arrays.fill(zs, z * scale.z());
+            noise(xs, ys, zs, layer, layerSize);
+            System.arraycopy(layer, 0, result, (z - region.minZ()) * layerSize, layerSize);
+        }
+    }
 }
@@ -26,6 +26,8 @@ public class PerlinNoise extends AbstractNoise implements Noise2D, Noise3D {
 
     private final int[] noisePermutations;
     private final int permCount;
+    /* permCount - 1 if permCount is a power of two, which turns the modulo into a mask; -1 otherwise */
+    private final int permMask;
 
     /**
      * Init. a new generator with a given seed value.
@@ -46,6 +48,7 @@ public PerlinNoise(long seed, int permCount) {
         FastRandom rand = new FastRandom(seed);
 
         this.permCount = permCount;
+        this.permMask = Integer.bitCount(permCount) == 1 ? permCount - 1 : -1;
         noisePermutations = new int[permCount * 2];
         int[] noiseTable = new int[permCount];
 
@@ -85,7 +88,34 @@ public PerlinNoise(long seed, int permCount) {
      */
     @Override
     public float noise(float posX, float posY, float posZ) {
+        return rotatedNoise(posX, posY, posZ);
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float)} for many positions at once.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result, int count) {
+        for (int n = 0; n < count; n++) {
+            result[n] = rotatedNoise(xs[n], ys[n], 0);
+        }
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float, float)} for many positions at once.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result, int count) {
+        for (int n = 0; n < count; n++) {
+            result[n] = rotatedNoise(xs[n], ys[n], zs[n]);
+        }
+    }
 
+    /**
+     * The implementation of {@link #noise(float, float, float)}, which unlike the public method can't be overridden.
+     * This lets the JIT inline it into the loops of the bulk methods.
+     */
+    private float rotatedNoise(float posX, float posY, float posZ) {
         // Domain rotation removes Perlin's characteristic square artifacts from the XZ planes, by pointing Y up the grid's main diagonal.
         // Ordinarily, X can be said to move in the unit vector direction <1, 0, 0>, Y in <0, 1, 0>, and Z in <0, 0, 1>. With this rotation,
         // moving along the input for Y now moves in the unit direction <0.577, 0.577, 0.577> in the noise's internal coordinate space.
@@ -99,9 +129,9 @@ public float noise(float posX, float posY, float posZ) {
         float rPosY = xz * -0.577350269189626f + yy;
         float rPosZ = posZ + (s2 + yy);
 
-        int xInt = Math.floorMod(TeraMath.floorToInt(rPosX), permCount);
-        int yInt = Math.floorMod(TeraMath.floorToInt(rPosY), permCount);
-        int zInt = Math.floorMod(TeraMath.floorToInt(rPosZ), permCount);
+        int xInt = permIndex(TeraMath.floorToInt(rPosX));
+        int yInt = permIndex(TeraMath.floorToInt(rPosY));
+        int zInt = permIndex(TeraMath.floorToInt(rPosZ));
 
         float x = rPosX - TeraMath.fastFloor(rPosX);
         float y = rPosY - TeraMath.fastFloor(rPosY);
@@ -110,32 +140,25 @@ public float noise(float posX, float posY, float posZ) {
         float u = TeraMath.fadePerlin(x);
         float v = TeraMath.fadePerlin(y);
         float w = TeraMath.fadePerlin(z);
-        int a = noisePermutations[xInt] + yInt;
-        int aa = noisePermutations[a] + zInt;
-        int ab = noisePermutations[(a + 1)] + zInt;
-        int b = noisePermutations[(xInt + 1)] + yInt;
-        int ba = noisePermutations[b] + zInt;
-        int bb = noisePermutations[(b + 1)] + zInt;
-
-        float gradAA = grad(noisePermutations[aa], x, y, z);
-        float gradBA = grad(noisePermutations[ba], x - 1, y, z);
-
-        float gradAB = grad(noisePermutations[ab], x, y - 1, z);
-        float gradBB = grad(noisePermutations[bb], x - 1, y - 1, z);
-
-        float val1 = TeraMath.lerp(TeraMath.lerp(gradAA, gradBA, u), TeraMath.lerp(gradAB, gradBB, u), v);
-
-        float gradAA1 = grad(noisePermutations[(aa + 1)], x, y, z - 1);
-        float gradBA1 = grad(noisePermutations[(ba + 1)], x - 1, y, z - 1);
-
-        float gradAB1 = grad(noisePermutations[(ab + 1)], x, y - 1, z - 1);
-        float gradBB1 = grad(noisePermutations[(bb + 1)], x - 1, y - 1, z - 1);
-
-        float val2 = TeraMath.lerp(TeraMath.lerp(gradAA1, gradBA1, u), TeraMath.lerp(gradAB1, gradBB1, u), v);
-
+        int[] p = noisePermutations;
+        int a = p[xInt] + yInt;
+        int aa = p[a] + zInt;
+        int ab = p[a + 1] + zInt;
+        int b = p[xInt + 1] + yInt;
+        int ba = p[b] + zInt;
+        int bb = p[b + 1] + zInt;
+
+        float val1 = TeraMath.lerp(TeraMath.lerp(grad(p[aa], x, y, z), grad(p[ba], x - 1, y, z), u),
+                TeraMath.lerp(grad(p[ab], x, y - 1, z), grad(p[bb], x - 1, y - 1, z), u), v);
+        float val2 = TeraMath.lerp(TeraMath.lerp(grad(p[aa + 1], x, y, z - 1), grad(p[ba + 1], x - 1, y, z - 1), u),
+                TeraMath.lerp(grad(p[ab + 1], x, y - 1, z - 1), grad(p[bb + 1], x - 1, y - 1, z - 1), u), v);
         return TeraMath.lerp(val1, val2, w);
     }
 
+    private int permIndex(int value) {
+        return permMask >= 0 ? value & permMask : Math.floorMod(value, permCount);
+    }
+
     private static float grad(int hash, float x, float y, float z) {
         int h = hash & 15;
         float u = h < 8 ? x : y;
@@ -47,6 +47,19 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
             new Grad(1, 1, 1, 0), new Grad(1, 1, -1, 0), new Grad(1, -1, 1, 0), new Grad(1, -1, -1, 0),
             new Grad(-1, 1, 1, 0), new Grad(-1, 1, -1, 0), new Grad(-1, -1, 1, 0), new Grad(-1, -1, -1, 0)};
 
+    // The gradients of grad3 as separate arrays, for the bulk methods
+    private static final float[] GRAD3_X = new float[grad3.length];
+    private static final float[] GRAD3_Y = new float[grad3.length];
+    private static final float[] GRAD3_Z = new float[grad3.length];
+
+    static {
+        for (int i = 0; i < grad3.length; i++) {
+            GRAD3_X[i] = grad3[i].x;
+            GRAD3_Y[i] = grad3[i].y;
+            GRAD3_Z[i] = grad3[i].z;
+        }
+    }
+
     // Skewing and unskewing factors for 2, 3, and 4 dimensions
     private static final float F2 = 0.5f * (float) (Math.sqrt(3.0f) - 1.0f);
     private static final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
@@ -58,6 +71,9 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
     private final short[] perm;
     private final short[] permMod12;
     private final int permCount;
+    /* permCount - 1 if permCount is a power of two, which turns the modulo into a mask; -1 otherwise */
+    private final int permMask;
+
     /**
      * Initialize permutations with a given seed and grid dimension.
      *
@@ -79,6 +95,7 @@ public SimplexNoise(long seed, int gridDim) {
         FastRandom rand = new FastRandom(seed);
 
         permCount = gridDim;
+        permMask = Integer.bitCount(permCount) == 1 ? permCount - 1 : -1;
 
         perm = new short[permCount * 2];
         permMod12 = new short[permCount * 2];
@@ -338,6 +355,138 @@ public float noise(float xin, float yin, float zin) {
     }
 
 
+    /**
+     * 2D simplex noise for many positions at once. Computes the same values as {@link #noise(float, float)}, but
+     * reads the permutation tables and gradients from flat arrays in a single loop.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result, int count) {
+        short[] p = perm;
+        short[] pMod12 = permMod12;
+        for (int n = 0; n < count; n++) {
+            float xin = xs[n];
+            float yin = ys[n];
+            float s = (xin + yin) * F2;
+            int i = TeraMath.floorToInt(xin + s);
+            int j = TeraMath.floorToInt(yin + s);
+            float t = (i + j) * G2;
+            float x0 = xin - (i - t);
+            float y0 = yin - (j - t);
+
+            int i1 = x0 > y0 ? 1 : 0;
+            int j1 = 1 - i1;
+            float x1 = x0 - i1 + G2;
+            float y1 = y0 - j1 + G2;
+            float x2 = x0 - 1.0f + 2.0f * G2;
+            float y2 = y0 - 1.0f + 2.0f * G2;
+
+            int ii = permIndex(i);
+            int jj = permIndex(j);
+            int gi0 = pMod12[ii + p[jj]];
+            int gi1 = pMod12[ii + i1 + p[jj + j1]];
+            int gi2 = pMod12[ii + 1 + p[jj + 1]];
+
+            float n0 = 0.0f;
+            float t0 = 0.5f - x0 * x0 - y0 * y0;
+            if (t0 >= 0) {
+                t0 *= t0;
+                n0 = t0 * t0 * (GRAD3_X[gi0] * x0 + GRAD3_Y[gi0] * y0);
+            }
+            float n1 = 0.0f;
+            float t1 = 0.5f - x1 * x1 - y1 * y1;
+            if (t1 >= 0) {
+                t1 *= t1;
+                n1 = t1 * t1 * (GRAD3_X[gi1] * x1 + GRAD3_Y[gi1] * y1);
+            }
+            float n2 = 0.0f;
+            float t2 = 0.5f - x2 * x2 - y2 * y2;
+            if (t2 >= 0) {
+                t2 *= t2;
+                n2 = t2 * t2 * (GRAD3_X[gi2] * x2 + GRAD3_Y[gi2] * y2);
+            }
+            result[n] = 70.0f * (n0 + n1 + n2);
+        }
+    }
+
+    /**
+     * 3D simplex noise for many positions at once. Computes the same values as {@link #noise(float, float, float)},
+     * but reads the permutation tables and gradients from flat arrays in a single loop.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result, int count) {
+        short[] p = perm;
+        short[] pMod12 = permMod12;
+        for (int n = 0; n < count; n++) {
+            float xin = xs[n];
+            float yin = ys[n];
+            float zin = zs[n];
+            float s = (xin + yin + zin) * F3;
+            int i = TeraMath.floorToInt(xin + s);
+            int j = TeraMath.floorToInt(yin + s);
+            int k = TeraMath.floorToInt(zin + s);
+            float t = (i + j + k) * G3;
+            float x0 = xin - (i - t);
+            float y0 = yin - (j - t);
+            float z0 = zin - (k - t);
+
+            // The second corner steps along the largest offset, the third along the two largest
+            int i1 = x0 >= y0 && x0 >= z0 ? 1 : 0;
+            int j1 = x0 < y0 && y0 >= z0 ? 1 : 0;
+            int k1 = 1 - i1 - j1;
+            int i2 = x0 >= y0 || x0 >= z0 ? 1 : 0;
+            int j2 = x0 < y0 || y0 >= z0 ? 1 : 0;
+            int k2 = 2 - i2 - j2;
+
+            float x1 = x0 - i1 + G3;
+            float y1 = y0 - j1 + G3;
+            float z1 = z0 - k1 + G3;
+            float x2 = x0 - i2 + 2.0f * G3;
+            float y2 = y0 - j2 + 2.0f * G3;
+            float z2 = z0 - k2 + 2.0f * G3;
+            float x3 = x0 - 1.0f + 3.0f * G3;
+            float y3 = y0 - 1.0f + 3.0f * G3;
+            float z3 = z0 - 1.0f + 3.0f * G3;
+
+            int ii = permIndex(i);
+            int jj = permIndex(j);
+            int kk = permIndex(k);
+            int gi0 = pMod12[ii + p[jj + p[kk]]];
+            int gi1 = pMod12[ii + i1 + p[jj + j1 + p[kk + k1]]];
+            int gi2 = pMod12[ii + i2 + p[jj + j2 + p[kk + k2]]];
+            int gi3 = pMod12[ii + 1 + p[jj + 1 + p[kk + 1]]];
+
+            float n0 = 0.0f;
+            float t0 = 0.6f - x0 * x0 - y0 * y0 - z0 * z0;
+            if (t0 >= 0) {
+                t0 *= t0;
+                n0 = t0 * t0 * (GRAD3_X[gi0] * x0 + GRAD3_Y[gi0] * y0 + GRAD3_Z[gi0] * z0);
+            }
+            float n1 = 0.0f;
+            float t1 = 0.6f - x1 * x1 - y1 * y1 - z1 * z1;
+            if (t1 >= 0) {
+                t1 *= t1;
+                n1 = t1 * t1 * (GRAD3_X[gi1] * x1 + GRAD3_Y[gi1] * y1 + GRAD3_Z[gi1] * z1);
+            }
+            float n2 = 0.0f;
+            float t2 = 0.6f - x2 * x2 - y2 * y2 - z2 * z2;
+            if (t2 >= 0) {
+                t2 *= t2;
+                n2 = t2 * t2 * (GRAD3_X[gi2] * x2 + GRAD3_Y[gi2] * y2 + GRAD3_Z[gi2] * z2);
+            }
+            float n3 = 0.0f;
+            float t3 = 0.6f - x3 * x3 - y3 * y3 - z3 * z3;
+            if (t3 >= 0) {
+                t3 *= t3;
+                n3 = t3 * t3 * (GRAD3_X[gi3] * x3 + GRAD3_Y[gi3] * y3 + GRAD3_Z[gi3] * z3);
+            }
+            result[n] = 32.0f * (n0 + n1 + n2 + n3);
+        }
+    }
+
+    private int permIndex(int value) {
+        return permMask >= 0 ? value & permMask : Math.floorMod(value, permCount);
+    }
+
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
      *
@@ -100,15 +100,20 @@ private float[] mapExpand(float[] keyData, BlockAreac fullRegion) {
     private float[] getKeyValues(BlockAreac fullRegion, float scale) {
         int xDim = fullRegion.getSizeX() / sampleRate + 1;
         int yDim = fullRegion.getSizeY() / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim];
+        int count = xDim * yDim;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
         for (int y = 0; y < yDim; y++) {
             for (int x = 0; x < xDim; x++) {
                 int actualX = x * sampleRate + fullRegion.minX();
                 int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * scale * actualX, zoom.y * scale * actualY);
+                xs[x + y * xDim] = zoom.x * scale * actualX;
+                ys[x + y * xDim] = zoom.y * scale * actualY;
             }
         }
 
+        float[] fullData = new float[count];
+        source.noise(xs, ys, fullData, count);
         return fullData;
     }
 
@@ -213,19 +218,25 @@ private float[] getKeyValues(BlockRegion fullRegion, float scale) {
         int xDim = fullRegion.getSizeX() / sampleRate + 1;
         int yDim = fullRegion.getSizeY() / sampleRate + 1;
         int zDim = fullRegion.getSizeZ() / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim * zDim];
+        int count = xDim * yDim * zDim;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
         for (int z = 0; z < zDim; z++) {
             for (int y = 0; y < yDim; y++) {
                 for (int x = 0; x < xDim; x++) {
                     int actualX = x * sampleRate + fullRegion.minX();
                     int actualY = y * sampleRate + fullRegion.minY();
                     int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * scale * actualX,
-                            zoom.y * scale * actualY,
-                            zoom.z * scale * actualZ);
+                    int index = x + xDim * (y + yDim * z);
+                    xs[index] = zoom.x * scale * actualX;
+                    ys[index] = zoom.y * scale * actualY;
+                    zs[index] = zoom.z * scale * actualZ;
                 }
             }
         }
+        float[] fullData = new float[count];
+        source.noise(xs, ys, zs, fullData, count);
         return fullData;
     }
 
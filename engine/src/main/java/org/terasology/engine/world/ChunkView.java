@@ -82,6 +82,31 @@ public interface ChunkView {
      */
     byte getLight(int x, int y, int z);
 
+    /**
+     * Copies the block ids, sunlight and light of a region into arrays, which is much faster than reading them one by
+     * one. Positions outside of the view read the same as through {@link #getBlock(int, int, int)} and the light
+     * getters. The values of the position (minX + x, minY + y, minZ + z) are stored at the index
+     * {@code x + sizeX * (z + sizeZ * y)}.
+     *
+     * @param blockIds the array receiving the block ids, at least sizeX * sizeY * sizeZ long
+     * @param sunlight the array receiving the sunlight values, of the same length
+     * @param light the array receiving the light values, of the same length
+     */
+    default void readBlockData(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                               short[] blockIds, byte[] sunlight, byte[] light) {
+        int index = 0;
+        for (int y = minY; y < minY + sizeY; y++) {
+            for (int z = minZ; z < minZ + sizeZ; z++) {
+                for (int x = minX; x < minX + sizeX; x++) {
+                    blockIds[index] = getBlock(x, y, z).getId();
+                    sunlight[index] = getSunlight(x, y, z);
+                    light[index] = getLight(x, y, z);
+                    index++;
+                }
+            }
+        }
+    }
+
     /**
      * Sets the block at the given position, if it is within the view.
      *
@@ -5,10 +5,26 @@
 
 import org.joml.Vector3ic;
 import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.propagation.BlockChange;
+
+import java.util.Collection;
 
 public interface WorldChangeListener {
 
     void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock);
 
+    /**
+     * Called once per chunk when many blocks are changed at once, instead of calling
+     * {@link #onBlockChanged(Vector3ic, Block, Block)} for each of them. The changes are only valid during the call.
+     *
+     * @param chunkPos The position of the chunk containing the changed blocks
+     * @param changes The changes of the blocks of the chunk
+     */
+    default void onBlocksChanged(Vector3ic chunkPos, Collection<BlockChange> changes) {
+        for (BlockChange change : changes) {
+            onBlockChanged(change.getPosition(), change.getTo(), change.getFrom());
+        }
+    }
+
     void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData);
 }
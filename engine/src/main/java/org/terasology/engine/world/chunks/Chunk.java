@@ -5,12 +5,15 @@
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.rendering.primitives.ChunkMesh;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockRegionc;
 import org.terasology.gestalt.module.sandbox.API;
 import org.terasology.protobuf.EntityData;
 
+import java.util.function.Supplier;
+
 /**
  * Chunks are a box-shaped logical grouping of Terasology's blocks, for performance reasons.
  * <p>
@@ -55,6 +58,18 @@ public interface Chunk extends RenderableChunk {
      */
     Block getBlock(int x, int y, int z);
 
+    /**
+     * Returns the id of the block at given position relative to the chunk.
+     *
+     * @param x X offset from the corner of the chunk
+     * @param y Y offset from the corner of the chunk
+     * @param z Z offset from the corner of the chunk
+     * @return Id of the block at given position
+     */
+    default short getBlockId(int x, int y, int z) {
+        return getBlock(x, y, z).getId();
+    }
+
     /**
      * Sets type of block at given position relative to the chunk.
      *
@@ -352,6 +367,14 @@ default Vector3f getRenderPosition() {
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 
+    /**
+     * Captures the current contents of the chunk, so that they can be encoded on another thread while the chunk keeps
+     * changing. Unlike the snapshot used for saving, any number of these can be taken at the same time.
+     *
+     * @return a supplier producing what {@link #encode()} would have returned at the time of this call
+     */
+    Supplier<EntityData.ChunkStore.Builder> encodeLater();
+
     boolean isDirty();
 
     void setDirty(boolean dirty);
@@ -361,4 +384,44 @@ default Vector3f getRenderPosition() {
     boolean hasPendingMesh();
 
     ChunkMesh getPendingMesh();
+
+    /**
+     * Sets which faces of the chunk are connected through its non-opaque blocks, computed along with its mesh.
+     *
+     * @param connectivity the connectivity as computed by {@link ChunkFaceConnectivity#compute(Chunk)}
+     */
+    void setFaceConnectivity(long connectivity);
+
+    /**
+     * @return the connectivity set with {@link #setFaceConnectivity}, or {@link ChunkFaceConnectivity#ALL} before
+     *         it has been computed
+     */
+    long getFaceConnectivity();
+
+    /**
+     * Attaches collision data built off the main thread, to be handed to the physics engine when the chunk is loaded.
+     * While attached, it follows changes to the blocks of the chunk.
+     *
+     * @param collision the collision data, or null once the physics engine has taken it over
+     */
+    void setPendingCollision(ChunkCollisionData collision);
+
+    /**
+     * @return the collision data set with {@link #setPendingCollision}, or null if there is none
+     */
+    ChunkCollisionData getPendingCollision();
+
+    /**
+     * Keeps the memory holding the data of the chunk valid until {@link #releaseData()} is called, even if the chunk is
+     * disposed meanwhile. Threads reading a chunk they do not own, like the chunk processing and tessellating threads,
+     * have to surround their reads with these calls.
+     */
+    default void acquireData() {
+    }
+
+    /**
+     * Ends a read started with {@link #acquireData()}.
+     */
+    default void releaseData() {
+    }
 }
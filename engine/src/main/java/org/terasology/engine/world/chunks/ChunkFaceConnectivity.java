@@ -0,0 +1,156 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks;
+
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * Computes which faces of a chunk are connected to each other through its non-opaque blocks, i.e. whether something
+ * entering the chunk through one face could be seen through another. Used to skip chunks enclosed by opaque blocks.
+ * <br><br>
+ * The connectivity is kept in a long, with one bit for each ordered pair of sides. A block is opaque if it is not
+ * translucent and all of its sides are full.
+ */
+public final class ChunkFaceConnectivity {
+    /**
+     * All faces connected to each other, used for chunks whose connectivity is not known.
+     */
+    public static final long ALL = -1L;
+    public static final long NONE = 0L;
+
+    private static final int VOLUME = Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z;
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN = 1;
+    private static final byte OPAQUE = 2;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private ChunkFaceConnectivity() {
+    }
+
+    public static boolean isConnected(long connectivity, Side from, Side to) {
+        return (connectivity & bit(from.ordinal(), to.ordinal())) != 0;
+    }
+
+    public static long connect(long connectivity, Side from, Side to) {
+        return connectivity | bit(from.ordinal(), to.ordinal()) | bit(to.ordinal(), from.ordinal());
+    }
+
+    /**
+     * Flood fills the non-opaque blocks of the chunk and connects the faces touched by each connected region.
+     */
+    public static long compute(Chunk chunk) {
+        Scratch scratch = SCRATCH.get();
+        byte[] opacity = scratch.opacityById;
+        boolean[] visited = scratch.visited;
+        int[] queue = scratch.queue;
+        Arrays.fill(opacity, UNKNOWN);
+        Arrays.fill(visited, false);
+
+        // called off the main thread, which may dispose the chunk meanwhile
+        chunk.acquireData();
+        try {
+            for (int i = 0; i < VOLUME; i++) {
+                int x = i % Chunks.SIZE_X;
+                int z = (i / Chunks.SIZE_X) % Chunks.SIZE_Z;
+                int y = i / (Chunks.SIZE_X * Chunks.SIZE_Z);
+                int id = chunk.getBlockId(x, y, z) & 0xFFFF;
+                if (opacity[id] == UNKNOWN) {
+                    opacity[id] = isOpaque(chunk.getBlock(x, y, z)) ? OPAQUE : OPEN;
+                }
+                visited[i] = opacity[id] == OPAQUE;
+            }
+        } finally {
+            chunk.releaseData();
+        }
+
+        long connectivity = NONE;
+        for (int start = 0; start < VOLUME; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            int faces = 0;
+            while (head < tail) {
+                int i = queue[head++];
+                int x = i % Chunks.SIZE_X;
+                int z = (i / Chunks.SIZE_X) % Chunks.SIZE_Z;
+                int y = i / (Chunks.SIZE_X * Chunks.SIZE_Z);
+                faces |= touchedFaces(x, y, z);
+                tail = visit(visited, queue, tail, x > 0, i - 1);
+                tail = visit(visited, queue, tail, x < Chunks.SIZE_X - 1, i + 1);
+                tail = visit(visited, queue, tail, z > 0, i - Chunks.SIZE_X);
+                tail = visit(visited, queue, tail, z < Chunks.SIZE_Z - 1, i + Chunks.SIZE_X);
+                tail = visit(visited, queue, tail, y > 0, i - Chunks.SIZE_X * Chunks.SIZE_Z);
+                tail = visit(visited, queue, tail, y < Chunks.SIZE_Y - 1, i + Chunks.SIZE_X * Chunks.SIZE_Z);
+            }
+            for (Side from : Side.values()) {
+                if ((faces & from.getFlag()) != 0) {
+                    for (Side to : Side.values()) {
+                        if ((faces & to.getFlag()) != 0) {
+                            connectivity = connect(connectivity, from, to);
+                        }
+                    }
+                }
+            }
+        }
+        return connectivity;
+    }
+
+    private static boolean isOpaque(Block block) {
+        if (block.isTranslucent()) {
+            return false;
+        }
+        for (Side side : Side.values()) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int touchedFaces(int x, int y, int z) {
+        int faces = 0;
+        if (x == 0) {
+            faces |= Side.LEFT.getFlag();
+        } else if (x == Chunks.SIZE_X - 1) {
+            faces |= Side.RIGHT.getFlag();
+        }
+        if (y == 0) {
+            faces |= Side.BOTTOM.getFlag();
+        } else if (y == Chunks.SIZE_Y - 1) {
+            faces |= Side.TOP.getFlag();
+        }
+        if (z == 0) {
+            faces |= Side.FRONT.getFlag();
+        } else if (z == Chunks.SIZE_Z - 1) {
+            faces |= Side.BACK.getFlag();
+        }
+        return faces;
+    }
+
+    private static int visit(boolean[] visited, int[] queue, int tail, boolean inside, int index) {
+        if (inside && !visited[index]) {
+            visited[index] = true;
+            queue[tail] = index;
+            return tail + 1;
+        }
+        return tail;
+    }
+
+    private static long bit(int from, int to) {
+        return 1L << (from * 6 + to);
+    }
+
+    private static final class Scratch {
+        private final byte[] opacityById = new byte[1 << 16];
+        private final boolean[] visited = new boolean[VOLUME];
+        private final int[] queue = new int[VOLUME];
+    }
+}
@@ -4,6 +4,7 @@
 package org.terasology.engine.world.chunks;
 
 import com.google.common.collect.Queues;
+import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.slf4j.Logger;
@@ -11,6 +12,7 @@
 import org.terasology.engine.context.Context;
 import org.terasology.engine.rendering.primitives.ChunkMesh;
 import org.terasology.engine.rendering.primitives.ChunkTessellator;
+import org.terasology.engine.rendering.world.ChunkMeshScheduler;
 import org.terasology.engine.rendering.world.viewDistance.ViewDistance;
 import org.terasology.engine.world.ChunkView;
 import org.terasology.engine.world.block.Block;
@@ -21,17 +23,15 @@
 import org.terasology.engine.world.generator.ScalableWorldGenerator;
 import org.terasology.engine.world.internal.ChunkViewCoreImpl;
 import org.terasology.engine.world.propagation.light.InternalLightProcessor;
+import org.terasology.joml.geom.AABBf;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
 
 public class LodChunkProvider {
     private static final Logger logger = LoggerFactory.getLogger(LodChunkProvider.class);
@@ -55,54 +55,41 @@ public class LodChunkProvider {
     // sizes also may exist, but don't always.
     private Map<Vector3ic, Integer> requiredChunks;
     private ArrayList<Map<Vector3i, LodChunk>> chunks = new ArrayList<>();
-    private ClosenessComparator nearby;
 
-    // Communication with the generation threads.
-    private PriorityBlockingQueue<Vector3ic> neededChunks;
+    // Communication with the mesh generation workers.
+    private final ChunkMeshScheduler scheduler;
+    private final Block unloaded;
     private BlockingQueue<LodChunk> readyChunks = Queues.newLinkedBlockingQueue();
-    private List<Thread> generationThreads = new ArrayList<>();
 
     public LodChunkProvider(Context context, ScalableWorldGenerator generator, ChunkTessellator tessellator,
-                            ViewDistance viewDistance, int chunkLods, Vector3i center) {
+                            ChunkMeshScheduler scheduler, ViewDistance viewDistance, int chunkLods, Vector3i center) {
         chunkProvider = context.get(ChunkProvider.class);
         blockManager = context.get(BlockManager.class);
         extraDataManager = context.get(ExtraBlockDataManager.class);
         this.generator = generator;
         this.tessellator = tessellator;
+        this.scheduler = scheduler;
         viewDistanceSetting = viewDistance;
         this.chunkLods = chunkLods;
         this.center = center;
         requiredChunks = new ConcurrentHashMap<>();
-        nearby = new ClosenessComparator(center);
-        neededChunks = new PriorityBlockingQueue<>(11, nearby);
-        for (int i = 0; i < 4; i++) {
-            Thread thread = new Thread(this::createChunks, "LOD Chunk Generation " + i);
-            thread.start();
-            generationThreads.add(thread);
-        }
+        unloaded = blockManager.getBlock(BlockManager.UNLOADED_ID);
     }
 
-    private void createChunks() {
-        Block unloaded = blockManager.getBlock(BlockManager.UNLOADED_ID);
-        try {
-            while (true) {
-                Vector3ic pos = neededChunks.take();
-                Integer scale = requiredChunks.get(pos); // Actually the log scale
-                if (scale == null) {
-                    // This chunk is being removed in the main thread.
-                    continue;
-                }
-                Chunk chunk = new PreLodChunk(scaleDown(pos, scale), blockManager, extraDataManager);
-                generator.createChunk(chunk, (1 << scale) * (2f / (Chunks.SIZE_X - 2) + 1));
-                InternalLightProcessor.generateInternalLighting(chunk, 1 << scale);
-                //tintChunk(chunk);
-                ChunkView view = new ChunkViewCoreImpl(new Chunk[]{chunk},
-                        new BlockRegion(chunk.getPosition(new Vector3i())), new Vector3i(), unloaded);
-                ChunkMesh mesh = tessellator.generateMesh(view, 1 << scale, 1);
-                readyChunks.add(new LodChunk(pos, mesh, scale));
-            }
-        } catch (InterruptedException ignored) {
+    private void createChunk(Vector3ic pos) {
+        Integer scale = requiredChunks.get(pos); // Actually the log scale
+        if (scale == null) {
+            // This chunk is being removed in the main thread.
+            return;
         }
+        Chunk chunk = new PreLodChunk(scaleDown(pos, scale), blockManager, extraDataManager);
+        generator.createChunk(chunk, (1 << scale) * (2f / (Chunks.SIZE_X - 2) + 1));
+        InternalLightProcessor.generateInternalLighting(chunk, 1 << scale);
+        //tintChunk(chunk);
+        ChunkView view = new ChunkViewCoreImpl(new Chunk[]{chunk},
+                new BlockRegion(chunk.getPosition(new Vector3i())), new Vector3i(), unloaded);
+        ChunkMesh mesh = tessellator.generateMesh(view, 1 << scale, 1);
+        readyChunks.add(new LodChunk(pos, mesh, scale));
     }
 
     private void processReadyChunks() {
@@ -153,7 +140,6 @@ public void updateRenderableRegion(ViewDistance newViewDistance, int newChunkLod
         viewDistanceSetting = newViewDistance;
         center = new Vector3i(delay(center.x, newCenter.x), delay(center.y, newCenter.y), delay(center.z, newCenter.z));
         chunkLods = newChunkLods;
-        nearby.pos = center;
         Vector3i viewDistance = new Vector3i(newViewDistance.getChunkDistance()).div(2);
         Vector3i altViewDistance = viewDistance.add(1 - Math.abs(viewDistance.x % 2),
                 1 - Math.abs(viewDistance.y % 2), 1 - Math.abs(viewDistance.z % 2), new Vector3i());
@@ -206,7 +192,7 @@ public void updateRenderableRegion(ViewDistance newViewDistance, int newChunkLod
                     increased = true;
                 }
                 if (gone || scale >= newLodRegions.length) {
-                    neededChunks.remove(pos);
+                    scheduler.cancel(pos);
                     requiredChunks.remove(pos);
                 } else if (increased) {
                     LodChunk chunk = chunks.get(scale).get(new Vector3i(pos));
@@ -257,8 +243,11 @@ public void onRealChunkUnloaded(Vector3ic pos) {
     }
 
     private void addChunk(Vector3ic pos, int scale) {
-        requiredChunks.put(new Vector3i(pos), scale);
-        neededChunks.add(pos);
+        Vector3i key = new Vector3i(pos);
+        requiredChunks.put(key, scale);
+        Vector3f min = new Vector3f(key).mul(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        AABBf bounds = new AABBf(min, new Vector3f(Chunks.CHUNK_SIZE).mul(1 << scale).add(min));
+        scheduler.submit(key, bounds, true, () -> createChunk(key));
     }
 
     public void onRealChunkLoaded(Vector3ic pos) {
@@ -280,9 +269,6 @@ public void addAllChunks(Collection<RenderableChunk> collection) {
     }
 
     public void shutdown() {
-        for (Thread thread : generationThreads) {
-            thread.interrupt();
-        }
         for (Map<Vector3i, LodChunk> chunkMap : chunks) {
             for (LodChunk chunk : chunkMap.values()) {
                 chunk.disposeMesh();
@@ -316,17 +302,4 @@ private int delay(int previous, int target) {
             return target + 1;
         }
     }
-
-    private static class ClosenessComparator implements Comparator<Vector3ic> {
-        Vector3i pos;
-
-        ClosenessComparator(Vector3i pos) {
-            this.pos = pos;
-        }
-
-        @Override
-        public int compare(Vector3ic x0, Vector3ic x1) {
-            return Long.compare(x0.distanceSquared(pos), x1.distanceSquared(pos));
-        }
-    }
 }
@@ -47,9 +47,9 @@ public class ExtraBlockDataManager {
     private static final Logger logger = LoggerFactory.getLogger(ExtraBlockDataManager.class);
     private static final Map<Integer, TeraArray.Factory<? extends TeraArray>> TERA_ARRAY_FACTORIES = new HashMap<>();
     static {
-        TERA_ARRAY_FACTORIES.put(4,  new TeraSparseArray4Bit.Factory());
-        TERA_ARRAY_FACTORIES.put(8,  new TeraSparseArray8Bit.Factory());
-        TERA_ARRAY_FACTORIES.put(16, new TeraSparseArray16Bit.Factory());
+        TERA_ARRAY_FACTORIES.put(4,  new TeraPaletteArray.Factory(4));
+        TERA_ARRAY_FACTORIES.put(8,  new TeraPaletteArray.Factory(8));
+        TERA_ARRAY_FACTORIES.put(16, new TeraPaletteArray.Factory(16));
     }
 
     private Map<String, Integer> slots;
@@ -0,0 +1,99 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out direct byte buffers for {@link TeraOffHeapArray}s and takes them back when the arrays are released, so
+ * that chunks which are loaded and unloaded all the time keep reusing the same native memory.
+ * <p>
+ * A buffer is released once no one reads it anymore, see {@link TeraOffHeapArray#retain()}, and may be handed out again
+ * right away. Released buffers that would grow the pool beyond its capacity are dropped instead, their memory is then
+ * freed by the garbage collector like that of any other direct buffer.
+ * <p>
+ * This class is thread-safe.
+ */
+public class OffHeapMemoryPool {
+
+    private final long capacityInBytes;
+    private final Map<Integer, Queue<ByteBuffer>> released = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    /**
+     * @param capacityInBytes the maximum amount of memory kept in the pool for reuse
+     */
+    public OffHeapMemoryPool(long capacityInBytes) {
+        Preconditions.checkArgument(capacityInBytes >= 0, "The capacity must not be negative");
+        this.capacityInBytes = capacityInBytes;
+    }
+
+    /**
+     * @param sizeInBytes the capacity of the buffer
+     * @return a direct buffer in native byte order, with undefined content
+     */
+    public ByteBuffer acquire(int sizeInBytes) {
+        usedBytes.addAndGet(sizeInBytes);
+        Queue<ByteBuffer> queue = released.get(sizeInBytes);
+        ByteBuffer pooled = queue != null ? queue.poll() : null;
+        if (pooled != null) {
+            pooledBytes.addAndGet(-sizeInBytes);
+            pooled.clear();
+            return pooled;
+        }
+        return ByteBuffer.allocateDirect(sizeInBytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns a buffer obtained through {@link #acquire(int)}. It must not be used by anyone anymore.
+     */
+    public void release(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        usedBytes.addAndGet(-size);
+        if (pooledBytes.addAndGet(size) > capacityInBytes) {
+            pooledBytes.addAndGet(-size);
+            return;
+        }
+        released.computeIfAbsent(size, key -> new ConcurrentLinkedQueue<>()).add(buffer);
+    }
+
+    /**
+     * Drops all pooled buffers, e.g. when the world they were used for is closed.
+     */
+    public void clear() {
+        for (Queue<ByteBuffer> queue : released.values()) {
+            ByteBuffer dropped;
+            while ((dropped = queue.poll()) != null) {
+                pooledBytes.addAndGet(-dropped.capacity());
+            }
+        }
+    }
+
+    /**
+     * @return the amount of memory currently held by arrays
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * @return the amount of memory currently kept in the pool for reuse
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    public long getCapacityInBytes() {
+        return capacityInBytes;
+    }
+}
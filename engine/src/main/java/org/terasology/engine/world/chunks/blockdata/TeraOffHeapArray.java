@@ -0,0 +1,290 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.engine.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TeraOffHeapArray is a dense array which keeps its elements outside of the Java heap, in a direct buffer taken from an
+ * {@link OffHeapMemoryPool}. Large amounts of loaded chunks stored this way do not add to the work of the garbage
+ * collector.
+ * <p>
+ * Elements are 4, 8 or 16 bits in size and have the same range as those of the dense and sparse arrays of that size.
+ * As long as all elements are equal no buffer is taken from the pool. Once taken, the buffer is kept until the array is
+ * {@link #release() released} by all of its owners: the array is created with one owner, and every other thread that
+ * wants to keep reading it, e.g. to save a snapshot of it, has to {@link #retain() retain} it first. Arrays which are
+ * merely dropped leave their memory to the garbage collector.
+ */
+public final class TeraOffHeapArray extends TeraArray {
+
+    private OffHeapMemoryPool pool;
+    private int elementSizeInBits;
+    private int fill;
+    private ByteBuffer data;
+    private final AtomicInteger owners = new AtomicInteger(1);
+
+    public TeraOffHeapArray() {
+        super();
+    }
+
+    public TeraOffHeapArray(int sizeX, int sizeY, int sizeZ, int elementSizeInBits, OffHeapMemoryPool pool) {
+        this(sizeX, sizeY, sizeZ, elementSizeInBits, pool, 0);
+    }
+
+    public TeraOffHeapArray(int sizeX, int sizeY, int sizeZ, int elementSizeInBits, OffHeapMemoryPool pool, int fill) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkArgument(elementSizeInBits == 4 || elementSizeInBits == 8 || elementSizeInBits == 16,
+                "The element size has to be 4, 8 or 16 bits but is " + elementSizeInBits);
+        this.elementSizeInBits = elementSizeInBits;
+        this.pool = Preconditions.checkNotNull(pool);
+        this.fill = normalize(fill);
+    }
+
+    /**
+     * Copies any array of 4, 8 or 16 bit elements into off-heap memory.
+     */
+    public static TeraOffHeapArray copyOf(TeraArray source, OffHeapMemoryPool pool) {
+        TeraOffHeapArray result = new TeraOffHeapArray(source.getSizeX(), source.getSizeY(), source.getSizeZ(),
+                source.getElementSizeInBits(), pool, source.get(0, 0, 0));
+        if (source instanceof TeraPaletteArray) {
+            ((TeraPaletteArray) source).forEachRun(new TeraPaletteArray.RunVisitor() {
+                private int start;
+
+                @Override
+                public void visit(int value, int length) {
+                    result.setRun(start, length, value);
+                    start += length;
+                }
+            });
+        } else {
+            for (int y = 0; y < source.getSizeY(); y++) {
+                for (int z = 0; z < source.getSizeZ(); z++) {
+                    for (int x = 0; x < source.getSizeX(); x++) {
+                        result.set(x, y, z, source.get(x, y, z));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void initialize() {
+    }
+
+    private int normalize(int value) {
+        switch (elementSizeInBits) {
+            case 4:
+                return value & 0x0F;
+            case 8:
+                return (byte) value;
+            default:
+                return (short) value;
+        }
+    }
+
+    private int sizeInBytes() {
+        return getSizeXYZ() * elementSizeInBits / 8;
+    }
+
+    private int element(ByteBuffer buffer, int index) {
+        switch (elementSizeInBits) {
+            case 4:
+                int packed = buffer.get(index >>> 1);
+                return ((index & 1) == 0 ? packed : packed >>> 4) & 0x0F;
+            case 8:
+                return buffer.get(index);
+            default:
+                return buffer.getShort(index << 1);
+        }
+    }
+
+    private void setElement(ByteBuffer buffer, int index, int value) {
+        switch (elementSizeInBits) {
+            case 4:
+                int packed = buffer.get(index >>> 1);
+                packed = (index & 1) == 0 ? (packed & 0xF0) | value : (packed & 0x0F) | (value << 4);
+                buffer.put(index >>> 1, (byte) packed);
+                break;
+            case 8:
+                buffer.put(index, (byte) value);
+                break;
+            default:
+                buffer.putShort(index << 1, (short) value);
+        }
+    }
+
+    /**
+     * Takes a buffer from the pool and fills it with the value all elements had so far.
+     */
+    private ByteBuffer allocate() {
+        ByteBuffer buffer = pool.acquire(sizeInBytes());
+        long pattern;
+        switch (elementSizeInBits) {
+            case 4:
+                pattern = (fill & 0x0F) * 0x1111111111111111L;
+                break;
+            case 8:
+                pattern = (fill & 0xFF) * 0x0101010101010101L;
+                break;
+            default:
+                pattern = (fill & 0xFFFF) * 0x0001000100010001L;
+        }
+        int i = 0;
+        for (; i + 8 <= buffer.capacity(); i += 8) {
+            buffer.putLong(i, pattern);
+        }
+        for (; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) pattern);
+        }
+        data = buffer;
+        return buffer;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    /**
+     * @return a copy in off-heap memory taken from the same pool
+     */
+    @Override
+    public TeraArray copy() {
+        TeraOffHeapArray result = new TeraOffHeapArray(getSizeX(), getSizeY(), getSizeZ(), elementSizeInBits, pool,
+                fill);
+        ByteBuffer current = data;
+        if (current != null) {
+            ByteBuffer source = current.duplicate();
+            source.clear();
+            ByteBuffer target = pool.acquire(sizeInBytes());
+            target.put(source);
+            target.clear();
+            result.data = target;
+        }
+        return result;
+    }
+
+    /**
+     * @return a compact copy on the heap, which stays valid after this array has been released
+     */
+    public TeraArray copyToHeap() {
+        TeraPaletteArray result = new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), elementSizeInBits, fill);
+        ByteBuffer current = data;
+        if (current != null) {
+            int runValue = element(current, 0);
+            int runStart = 0;
+            for (int index = 1; index < getSizeXYZ(); index++) {
+                int value = element(current, index);
+                if (value != runValue) {
+                    result.setRun(runStart, index - runStart, runValue);
+                    runValue = value;
+                    runStart = index;
+                }
+            }
+            result.setRun(runStart, getSizeXYZ() - runStart, runValue);
+        }
+        return result;
+    }
+
+    /**
+     * Adds an owner, which keeps the buffer of this array from going back to the pool until it releases the array.
+     *
+     * @return false if the array has already been released by all of its owners, and must not be read anymore
+     */
+    public boolean retain() {
+        while (true) {
+            int current = owners.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (owners.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drops an owner. Once the last owner is gone the buffer of this array goes back to its pool, and the array must
+     * neither be read nor written anymore.
+     */
+    public void release() {
+        int remaining = owners.decrementAndGet();
+        Preconditions.checkState(remaining >= 0, "The array has been released more often than it has been retained");
+        if (remaining == 0 && data != null) {
+            pool.release(data);
+        }
+    }
+
+    /**
+     * Off-heap arrays are not deflated, they keep their buffer until they are released.
+     */
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return null;
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        ByteBuffer current = data;
+        return current == null ? 32 : 32 + current.capacity();
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return elementSizeInBits;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        ByteBuffer current = data;
+        if (current == null) {
+            return fill;
+        }
+        return element(current, pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int normalized = normalize(value);
+        ByteBuffer current = data;
+        if (current == null) {
+            if (normalized == fill) {
+                return fill;
+            }
+            current = allocate();
+        }
+        int index = pos(x, y, z);
+        int old = element(current, index);
+        setElement(current, index, normalized);
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        if (get(x, y, z) != expected) {
+            return false;
+        }
+        set(x, y, z, value);
+        return true;
+    }
+
+    private void setRun(int start, int length, int value) {
+        int normalized = normalize(value);
+        ByteBuffer current = data;
+        if (current == null) {
+            if (normalized == fill) {
+                return;
+            }
+            current = allocate();
+        }
+        for (int index = start; index < start + length; index++) {
+            setElement(current, index, normalized);
+        }
+    }
+}
@@ -0,0 +1,553 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.terasology.engine.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray stores its elements as indices into a local palette of the distinct values it contains.
+ * <p>
+ * The indices are bit-packed into longs, using 0, 1, 2, 4, 8 or 16 bits per element depending on the size of the
+ * palette. The width grows as soon as a new value does not fit into the palette anymore and shrinks again once most of
+ * the palette is no longer referenced, so unlike the sparse arrays no explicit deflation is required to stay compact.
+ * An array holding a single value, e.g. a chunk full of air, does not store any indices at all.
+ * <p>
+ * The elements have the same range as the dense and sparse arrays of the given element size. Like those, the array
+ * has to be written by one thread at a time. Readers may run concurrently with the writer: when the width changes,
+ * the indices and palette are replaced together, and the new storage is only published once it is completely filled.
+ */
+public class TeraPaletteArray extends TeraArray {
+
+    /* Palettes up to this size are searched linearly, larger ones through a hash map */
+    private static final int MAX_LINEAR_LOOKUP = 16;
+
+    private int elementSizeInBits;
+    /* Only ever replaced by a completely filled storage, so that concurrent readers never see a partial one */
+    private volatile Storage storage;
+    /* The number of elements referring to each palette slot */
+    private int[] counts;
+    /* The number of palette slots that have ever been used, the ones with a count of zero can be reused */
+    private int slots;
+    /* The number of palette slots with a count above zero */
+    private int used;
+    private TIntIntMap lookup;
+
+    public TeraPaletteArray() {
+        super();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, int elementSizeInBits) {
+        super(sizeX, sizeY, sizeZ, false);
+        this.elementSizeInBits = checkElementSize(elementSizeInBits);
+        initialize();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, int elementSizeInBits, int fill) {
+        this(sizeX, sizeY, sizeZ, elementSizeInBits);
+        storage.palette[0] = normalize(fill);
+    }
+
+    private TeraPaletteArray(TeraPaletteArray other) {
+        super(other.getSizeX(), other.getSizeY(), other.getSizeZ(), false);
+        Storage source = other.storage;
+        elementSizeInBits = other.elementSizeInBits;
+        storage = new Storage(source.bits, source.data == null ? null : source.data.clone(), source.palette.clone());
+        counts = other.counts.clone();
+        slots = other.slots;
+        used = other.used;
+        if (other.lookup != null) {
+            lookup = new TIntIntHashMap(other.lookup);
+        }
+    }
+
+    private static int checkElementSize(int elementSizeInBits) {
+        Preconditions.checkArgument(elementSizeInBits == 4 || elementSizeInBits == 8 || elementSizeInBits == 16,
+                "The element size has to be 4, 8 or 16 bits but is " + elementSizeInBits);
+        return elementSizeInBits;
+    }
+
+    /**
+     * @return the number of bits needed to address a palette of the given size
+     */
+    private static int bitsFor(int paletteSize) {
+        if (paletteSize <= 1) {
+            return 0;
+        } else if (paletteSize <= 2) {
+            return 1;
+        } else if (paletteSize <= 4) {
+            return 2;
+        } else if (paletteSize <= 16) {
+            return 4;
+        } else if (paletteSize <= 256) {
+            return 8;
+        }
+        return 16;
+    }
+
+    @Override
+    protected void initialize() {
+        storage = new Storage(0, null, new int[1]);
+        counts = new int[1];
+        counts[0] = getSizeXYZ();
+        slots = 1;
+        used = 1;
+        lookup = null;
+    }
+
+    private int normalize(int value) {
+        switch (elementSizeInBits) {
+            case 4:
+                return value & 0x0F;
+            case 8:
+                return (byte) value;
+            default:
+                return (short) value;
+        }
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        return new TeraPaletteArray(this);
+    }
+
+    /**
+     * Palette arrays deflate themselves while they are written to. Only if the palette has become larger than needed,
+     * a compacted copy is returned.
+     */
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        if (bitsFor(used) < storage.bits) {
+            TeraPaletteArray result = new TeraPaletteArray(this);
+            result.compact(bitsFor(used));
+            return result;
+        }
+        return null;
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        Storage current = storage;
+        if (current == null) {
+            return 4;
+        }
+        int size = 48 + 16 + current.palette.length * 4 + 16 + counts.length * 4;
+        if (current.data != null) {
+            size += 16 + current.data.length * 8;
+        }
+        if (lookup != null) {
+            size += 32 + lookup.capacity() * 9;
+        }
+        return size;
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return elementSizeInBits;
+    }
+
+    /**
+     * @return the number of bits currently used per element, which is 0 if the array holds a single value
+     */
+    public int getBitsPerElement() {
+        return storage.bits;
+    }
+
+    /**
+     * @return the number of distinct values in the array
+     */
+    public int getPaletteSize() {
+        return used;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        Storage current = storage;
+        return current.palette[current.slotAt(pos(x, y, z))];
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        return set(pos(x, y, z), normalize(value));
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int index = pos(x, y, z);
+        Storage current = storage;
+        if (current.palette[current.slotAt(index)] != expected) {
+            return false;
+        }
+        set(index, normalize(value));
+        return true;
+    }
+
+    /**
+     * Sets a run of consecutive elements in index order, i.e. with x changing fastest and y slowest.
+     *
+     * @param start the index of the first element, see {@link #pos(int, int, int)}
+     * @param length the number of elements to set
+     * @param value the value to set them to
+     */
+    public void setRun(int start, int length, int value) {
+        Preconditions.checkArgument(start >= 0 && length >= 0 && start + length <= getSizeXYZ(),
+                "Run exceeds the array");
+        if (length == 0) {
+            return;
+        }
+        int normalized = normalize(value);
+        int slot = slotFor(normalized);
+        Storage current = storage;
+        for (int index = start; index < start + length; index++) {
+            int oldSlot = current.slotAt(index);
+            if (oldSlot != slot) {
+                current.setSlot(index, slot);
+                counts[slot]++;
+                counts[oldSlot]--;
+                if (counts[oldSlot] == 0) {
+                    forget(oldSlot);
+                }
+            }
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * Visits all runs of equal values in index order, i.e. with x changing fastest and y slowest. The palette is only
+     * looked up once per run, which makes this the fastest way to read the whole array.
+     *
+     * @param visitor receives the value and length of each run
+     */
+    public void forEachRun(RunVisitor visitor) {
+        Storage current = storage;
+        int size = getSizeXYZ();
+        if (current.data == null) {
+            visitor.visit(current.palette[0], size);
+            return;
+        }
+        int runSlot = current.slotAt(0);
+        int runStart = 0;
+        for (int index = 1; index < size; index++) {
+            int slot = current.slotAt(index);
+            if (slot != runSlot) {
+                visitor.visit(current.palette[runSlot], index - runStart);
+                runSlot = slot;
+                runStart = index;
+            }
+        }
+        visitor.visit(current.palette[runSlot], size - runStart);
+    }
+
+    private int set(int index, int value) {
+        Storage current = storage;
+        int oldSlot = current.slotAt(index);
+        int old = current.palette[oldSlot];
+        if (old == value) {
+            return old;
+        }
+        int slot = slotFor(value);
+        // a new value may have grown the storage
+        current = storage;
+        current.setSlot(index, slot);
+        counts[slot]++;
+        counts[oldSlot]--;
+        if (counts[oldSlot] == 0) {
+            forget(oldSlot);
+            compactIfSparse();
+        }
+        return old;
+    }
+
+    /**
+     * Looks up the palette slot of the value, adding it to the palette if necessary.
+     */
+    private int slotFor(int value) {
+        int slot = find(value);
+        if (slot >= 0) {
+            return slot;
+        }
+        slot = freeSlot();
+        if (slot < 0) {
+            grow();
+            slot = slots++;
+        }
+        storage.palette[slot] = value;
+        used++;
+        if (lookup != null) {
+            lookup.put(value, slot);
+        } else if (used > MAX_LINEAR_LOOKUP) {
+            lookup = new TIntIntHashMap();
+            for (int i = 0; i < slots; i++) {
+                if (counts[i] > 0 || i == slot) {
+                    lookup.put(storage.palette[i], i);
+                }
+            }
+        }
+        return slot;
+    }
+
+    private int find(int value) {
+        if (lookup != null) {
+            return lookup.containsKey(value) ? lookup.get(value) : -1;
+        }
+        int[] palette = storage.palette;
+        for (int i = 0; i < slots; i++) {
+            if (palette[i] == value && counts[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot() {
+        if (slots < storage.palette.length) {
+            return slots++;
+        }
+        for (int i = 0; i < slots; i++) {
+            if (counts[i] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Repacks the indices with the next larger width, keeping the palette slots.
+     */
+    private void grow() {
+        Storage current = storage;
+        int bits = current.bits == 0 ? 1 : current.bits * 2;
+        Storage grown = new Storage(bits, new long[Storage.dataLength(bits, getSizeXYZ())],
+                Arrays.copyOf(current.palette, 1 << bits));
+        if (current.data != null) {
+            for (int index = 0; index < getSizeXYZ(); index++) {
+                grown.setSlot(index, current.slotAt(index));
+            }
+        }
+        counts = Arrays.copyOf(counts, 1 << bits);
+        storage = grown;
+    }
+
+    /**
+     * Forgets the value of a palette slot that is no longer referenced. The slot is reused by the next new value.
+     */
+    private void forget(int slot) {
+        used--;
+        int value = storage.palette[slot];
+        if (lookup != null && lookup.containsKey(value) && lookup.get(value) == slot) {
+            lookup.remove(value);
+        }
+    }
+
+    /**
+     * Recomputes the number of referenced values and the lookup of their slots from the counts.
+     */
+    private void recount() {
+        used = 0;
+        lookup = null;
+        for (int i = 0; i < slots; i++) {
+            if (counts[i] > 0) {
+                used++;
+            }
+        }
+        if (used > MAX_LINEAR_LOOKUP) {
+            lookup = new TIntIntHashMap();
+            for (int i = 0; i < slots; i++) {
+                if (counts[i] > 0) {
+                    lookup.put(storage.palette[i], i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compacts the palette once at most a quarter of it is in use, leaving room for as many new values as remain. A
+     * single remaining value is always compacted, as that drops the indices altogether.
+     */
+    private void compactIfSparse() {
+        if (storage.bits > 0 && (used == 1 || bitsFor(used * 2) < storage.bits)) {
+            compact(used == 1 ? 0 : bitsFor(used * 2));
+        }
+    }
+
+    /**
+     * Rebuilds the palette from the referenced values only and repacks the indices with the given width.
+     */
+    private void compact(int bits) {
+        Storage current = storage;
+        int[] palette = new int[1 << bits];
+        int[] newCounts = new int[1 << bits];
+        int[] remap = new int[slots];
+        int next = 0;
+        for (int i = 0; i < slots; i++) {
+            if (counts[i] > 0) {
+                palette[next] = current.palette[i];
+                newCounts[next] = counts[i];
+                remap[i] = next++;
+            }
+        }
+        Storage compacted;
+        if (bits == 0) {
+            compacted = new Storage(0, null, palette);
+        } else {
+            compacted = new Storage(bits, new long[Storage.dataLength(bits, getSizeXYZ())], palette);
+            for (int index = 0; index < getSizeXYZ(); index++) {
+                compacted.setSlot(index, remap[current.slotAt(index)]);
+            }
+        }
+        counts = newCounts;
+        slots = next;
+        storage = compacted;
+        recount();
+    }
+
+    /**
+     * Receives the runs of equal values of a {@link TeraPaletteArray}.
+     */
+    @FunctionalInterface
+    public interface RunVisitor {
+        void visit(int value, int length);
+    }
+
+    /**
+     * The packed indices together with the palette they refer to. Replaced as a whole when the width changes, so
+     * readers always see indices and palette that belong together.
+     */
+    private static final class Storage {
+        private final int bits;
+        private final int bitsShift;
+        private final int wordShift;
+        private final int indexMask;
+        private final int slotMask;
+        private final long[] data;
+        private final int[] palette;
+
+        Storage(int bits, long[] data, int[] palette) {
+            this.bits = bits;
+            this.bitsShift = Integer.numberOfTrailingZeros(Math.max(bits, 1));
+            this.wordShift = 6 - bitsShift;
+            this.indexMask = (1 << wordShift) - 1;
+            this.slotMask = (1 << bits) - 1;
+            this.data = data;
+            this.palette = palette;
+        }
+
+        static int dataLength(int bits, int size) {
+            return (size * bits + 63) / 64;
+        }
+
+        int slotAt(int index) {
+            if (data == null) {
+                return 0;
+            }
+            long word = data[index >>> wordShift];
+            return (int) (word >>> ((index & indexMask) << bitsShift)) & slotMask;
+        }
+
+        void setSlot(int index, int slot) {
+            int word = index >>> wordShift;
+            int shift = (index & indexMask) << bitsShift;
+            data[word] = (data[word] & ~((long) slotMask << shift)) | ((long) slot << shift);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray array) {
+            Storage storage = array.storage;
+            int size = 12 + array.slots * 4;
+            if (storage.data != null) {
+                size += storage.data.length * 8;
+            }
+            return size;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray array, ByteBuffer buffer) {
+            Storage storage = array.storage;
+            buffer.putInt(array.elementSizeInBits);
+            buffer.putInt(storage.bits);
+            buffer.putInt(array.slots);
+            for (int i = 0; i < array.slots; i++) {
+                buffer.putInt(storage.palette[i]);
+            }
+            if (storage.data != null) {
+                buffer.asLongBuffer().put(storage.data);
+                buffer.position(buffer.position() + storage.data.length * 8);
+            }
+        }
+
+        @Override
+        protected TeraPaletteArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            int elementSize = buffer.getInt();
+            int bits = buffer.getInt();
+            int slots = buffer.getInt();
+            int[] palette = new int[1 << bits];
+            for (int i = 0; i < slots; i++) {
+                palette[i] = buffer.getInt();
+            }
+            TeraPaletteArray array = new TeraPaletteArray(sizeX, sizeY, sizeZ, elementSize);
+            long[] data = null;
+            if (bits > 0) {
+                data = new long[Storage.dataLength(bits, array.getSizeXYZ())];
+                buffer.asLongBuffer().get(data);
+                buffer.position(buffer.position() + data.length * 8);
+            }
+            Storage storage = new Storage(bits, data, palette);
+            array.counts = new int[palette.length];
+            for (int index = 0; index < array.getSizeXYZ(); index++) {
+                array.counts[storage.slotAt(index)]++;
+            }
+            array.storage = storage;
+            array.slots = Math.max(slots, 1);
+            array.recount();
+            return array;
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray> {
+
+        private final int elementSizeInBits;
+
+        public Factory(int elementSizeInBits) {
+            this.elementSizeInBits = checkElementSize(elementSizeInBits);
+        }
+
+        @Override
+        public Class<TeraPaletteArray> getArrayClass() {
+            return TeraPaletteArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray create() {
+            return new TeraPaletteArray();
+        }
+
+        @Override
+        public TeraPaletteArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, elementSizeInBits);
+        }
+    }
+}
@@ -12,7 +12,11 @@
 /**
  * TeraSparseArray4Bit implements a sparse array with elements of 4 bit size.
  * Its elements are in the range 0 - 15 and it increases memory efficiency by storing two elements per byte.
- * It can further reduce memory consumption through sparse memory allocation.
+ * It can further reduce memory consumption through sparse memory allocation: as long as all elements are equal no
+ * rows are allocated at all, and afterwards only the rows that are written with differing values.
+ * <p>
+ * Like the rows, the fill values of the whole array and of deflated rows are bytes holding two packed elements. The
+ * high half applies to the first half of a row and the low half to the second, see {@link TeraArrayUtils#makeByte}.
  *
  */
 public final class TeraSparseArray4Bit extends TeraSparseArrayByte {
@@ -29,9 +33,11 @@ public TeraSparseArray4Bit(int sizeX, int sizeY, int sizeZ, byte[][] inflated, b
         super(sizeX, sizeY, sizeZ, inflated, deflated);
     }
 
+    /**
+     * @param fill two packed elements, e.g. {@code TeraArrayUtils.makeByte(value, value)} for a uniform array
+     */
     public TeraSparseArray4Bit(int sizeX, int sizeY, int sizeZ, byte fill) {
         super(sizeX, sizeY, sizeZ, fill);
-        Preconditions.checkArgument(fill >= 0 && fill <= 15, "Parameter 'fill' has to be in the range 0 - 15 (" + fill + ")");
     }
 
     @Override
@@ -254,6 +254,7 @@ public TeraArray deflateSparseArray8Bit(final byte[][] inflated,
 
         byte[] packed = new byte[sizeY];
         byte[][] newInflated = new byte[sizeY][];
+        boolean uniform = true;
         for (int y = 0; y < sizeY; y++) {
             byte[] planeXY = inflated[y];
             if (planeXY != null) {
@@ -271,12 +272,17 @@ public TeraArray deflateSparseArray8Bit(final byte[][] inflated,
                     byte[] xyvalues = new byte[rowSize];
                     System.arraycopy(inflated[y], 0, xyvalues, 0, rowSize);
                     newInflated[y] = xyvalues;
+                    uniform = false;
                 }
             } else {
                 if (deflated != null) {
                     packed[y] = deflated[y];
                 }
             }
+            uniform &= packed[y] == packed[0];
+        }
+        if (uniform) {
+            return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, packed[0]);
         }
         return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, newInflated, packed);
     }
@@ -289,7 +295,41 @@ public TeraArray deflateSparseArray4Bit(final byte[][] inflated,
                                             final int sizeX,
                                             final int sizeY,
                                             final int sizeZ) {
-        return null;
+        if (inflated == null) {
+            return null;
+        }
+
+        byte[] packed = new byte[sizeY];
+        byte[][] newInflated = new byte[sizeY][];
+        boolean uniform = true;
+        for (int y = 0; y < sizeY; y++) {
+            byte[] planeXY = inflated[y];
+            if (planeXY != null) {
+                byte first = planeXY[0];
+                boolean packing = true;
+                for (int i = 1; i < rowSize; i++) {
+                    if (first != planeXY[i]) {
+                        packing = false;
+                        break;
+                    }
+                }
+                if (packing) {
+                    packed[y] = first;
+                } else {
+                    byte[] xyvalues = new byte[rowSize];
+                    System.arraycopy(inflated[y], 0, xyvalues, 0, rowSize);
+                    newInflated[y] = xyvalues;
+                    uniform = false;
+                }
+            } else {
+                packed[y] = deflated[y];
+            }
+            uniform &= packed[y] == packed[0];
+        }
+        if (uniform) {
+            return new TeraSparseArray4Bit(sizeX, sizeY, sizeZ, packed[0]);
+        }
+        return new TeraSparseArray4Bit(sizeX, sizeY, sizeZ, newInflated, packed);
     }
 
 }
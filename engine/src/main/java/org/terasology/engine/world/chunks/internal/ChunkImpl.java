@@ -9,13 +9,16 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.blockdata.OffHeapMemoryPool;
 import org.terasology.engine.world.chunks.blockdata.TeraArray;
-import org.terasology.engine.world.chunks.blockdata.TeraDenseArray16Bit;
-import org.terasology.engine.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.engine.world.chunks.blockdata.TeraOffHeapArray;
+import org.terasology.engine.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.engine.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraSparseArray8Bit;
 import org.terasology.joml.geom.AABBf;
 import org.terasology.joml.geom.AABBfc;
 import org.terasology.engine.monitoring.chunk.ChunkMonitor;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.protobuf.EntityData;
 import org.terasology.engine.rendering.primitives.ChunkMesh;
 import org.terasology.engine.world.block.Block;
@@ -23,11 +26,16 @@
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.ChunkBlockIterator;
+import org.terasology.engine.world.chunks.ChunkFaceConnectivity;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.deflate.TeraDeflator;
 import org.terasology.engine.world.chunks.deflate.TeraStandardDeflator;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Chunks are the basic components of the world. Each chunk contains a fixed amount of blocks determined by its
@@ -48,25 +56,36 @@ public class ChunkImpl implements Chunk {
 
     private BlockManager blockManager;
 
-    private TeraArray sunlightData;
-    private TeraArray sunlightRegenData;
-    private TeraArray lightData;
+    /* Swapped while other threads read them, which is why extraData is only ever replaced as a whole */
+    private volatile TeraArray sunlightData;
+    private volatile TeraArray sunlightRegenData;
+    private volatile TeraArray lightData;
 
-    private TeraArray blockData;
+    private volatile TeraArray blockData;
     private volatile TeraArray blockDataSnapshot;
-    private TeraArray[] extraData;
+    private volatile TeraArray[] extraData;
     private volatile TeraArray[] extraDataSnapshots;
+    private OffHeapMemoryPool offHeapPool;
+    private OffHeapMemoryPool reactivationPool;
+    /* Off-heap arrays this chunk no longer uses but readers may still read, guarded by itself */
+    private final List<TeraArray> retiredData = new ArrayList<>();
+    private int dataReaders;
 
     private AABBf aabb = new AABBf();
 
     private boolean disposed;
     private boolean ready;
     private volatile boolean dirty;
+    private final AtomicBoolean unsavedChanges = new AtomicBoolean(true);
     private boolean animated;
 
     // Rendering
     private ChunkMesh activeMesh;
     private ChunkMesh pendingMesh;
+    private volatile long faceConnectivity = ChunkFaceConnectivity.ALL;
+
+    // Physics
+    private ChunkCollisionData pendingCollision;
 
     public ChunkImpl(int x, int y, int z, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
         this(new Vector3i(x, y, z), blockManager, extraDataManager);
@@ -74,7 +93,7 @@ public ChunkImpl(int x, int y, int z, BlockManager blockManager, ExtraBlockDataM
 
     public ChunkImpl(Vector3ic chunkPos, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
         this(chunkPos,
-            new TeraDenseArray16Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z),
+            new TeraPaletteArray(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z, 16),
             extraDataManager.makeDataArrays(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z),
             blockManager);
     }
@@ -83,9 +102,7 @@ public ChunkImpl(Vector3ic chunkPos, TeraArray blocks, TeraArray[] extra, BlockM
         this.chunkPos.set(Preconditions.checkNotNull(chunkPos));
         this.blockData = Preconditions.checkNotNull(blocks);
         this.extraData = Preconditions.checkNotNull(extra);
-        sunlightData = new TeraSparseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        sunlightRegenData = new TeraSparseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        lightData = new TeraSparseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
+        createLightData();
         dirty = true;
         this.blockManager = blockManager;
         region = new BlockRegion(
@@ -142,15 +159,26 @@ public final Block getBlock(int x, int y, int z) {
         return blockManager.getBlock(id);
     }
 
+    @Override
+    public final short getBlockId(int x, int y, int z) {
+        return (short) blockData.get(x, y, z);
+    }
+
     // This could be made to check for and clear extraData fields as appropriate,
     // but that could take an excessive amount of time,
     // so whatever sets a block to something extraData sensitive should also initialise the extra data.
     @Override
     public Block setBlock(int x, int y, int z, Block block) {
         if (blockData == blockDataSnapshot) {
-            blockData = blockData.copy();
+            TeraArray shared = blockData;
+            blockData = shared.copy();
+            retire(shared);
         }
         int oldValue = blockData.set(x, y, z, block.getId());
+        if (pendingCollision != null) {
+            pendingCollision.setBlock(x, y, z, block);
+        }
+        unsavedChanges.lazySet(true);
         return blockManager.getBlock((short) oldValue);
     }
 
@@ -235,9 +263,14 @@ public int getExtraData(int index, Vector3ic pos) {
     @Override
     public void setExtraData(int index, int x, int y, int z, int value) {
         if (extraDataSnapshots != null && extraData[index] == extraDataSnapshots[index]) {
-            extraData[index] = extraData[index].copy();
+            TeraArray shared = extraData[index];
+            TeraArray[] copies = extraData.clone();
+            copies[index] = shared.copy();
+            extraData = copies;
+            retire(shared);
         }
         extraData[index].set(x, y, z, value);
+        unsavedChanges.lazySet(true);
     }
 
     @Override
@@ -314,9 +347,7 @@ public void deflate() {
 
             blockData = def.deflate(blockData);
             lightData = def.deflate(lightData);
-            for (int i = 0; i < extraData.length; i++) {
-                extraData[i] = def.deflate(extraData[i]);
-            }
+            deflateExtraData(def);
 
             int blocksReduced = blockData.getEstimatedMemoryConsumptionInBytes();
             int lightReduced = lightData.getEstimatedMemoryConsumptionInBytes();
@@ -350,13 +381,19 @@ public void deflate() {
             final int oldSize = getEstimatedMemoryConsumptionInBytes();
             blockData = def.deflate(blockData);
             lightData = def.deflate(lightData);
-            for (int i = 0; i < extraData.length; i++) {
-                extraData[i] = def.deflate(extraData[i]);
-            }
+            deflateExtraData(def);
             ChunkMonitor.fireChunkDeflated(this, oldSize, getEstimatedMemoryConsumptionInBytes());
         }
     }
 
+    private void deflateExtraData(TeraDeflator def) {
+        TeraArray[] deflated = new TeraArray[extraData.length];
+        for (int i = 0; i < deflated.length; i++) {
+            deflated[i] = def.deflate(extraData[i]);
+        }
+        extraData = deflated;
+    }
+
     @Override
     public void deflateSunlight() {
         final TeraDeflator def = new TeraStandardDeflator();
@@ -457,27 +494,175 @@ public ChunkMesh getPendingMesh() {
         return pendingMesh;
     }
 
+    @Override
+    public void setFaceConnectivity(long connectivity) {
+        this.faceConnectivity = connectivity;
+    }
+
+    @Override
+    public long getFaceConnectivity() {
+        return faceConnectivity;
+    }
+
+    @Override
+    public void setPendingCollision(ChunkCollisionData collision) {
+        this.pendingCollision = collision;
+    }
+
+    @Override
+    public ChunkCollisionData getPendingCollision() {
+        return pendingCollision;
+    }
+
     @Override
     public void markReady() {
         ready = true;
     }
 
+    /**
+     * Moves the blocks, extra data and light of this chunk into off-heap memory taken from the given pool. The memory
+     * is handed back to the pool when the chunk is disposed, and taken again if it is reactivated. Meant to be called
+     * right after the chunk has been created or loaded, before other threads work with it.
+     */
+    public void moveOffHeap(OffHeapMemoryPool pool) {
+        if (offHeapPool == pool) {
+            return;
+        }
+        Preconditions.checkState(offHeapPool == null, "The data of chunk %s is already off-heap", chunkPos);
+        offHeapPool = Preconditions.checkNotNull(pool);
+        blockData = TeraOffHeapArray.copyOf(blockData, pool);
+        TeraArray[] offHeapExtra = new TeraArray[extraData.length];
+        for (int i = 0; i < offHeapExtra.length; i++) {
+            offHeapExtra[i] = TeraOffHeapArray.copyOf(extraData[i], pool);
+        }
+        extraData = offHeapExtra;
+        sunlightData = TeraOffHeapArray.copyOf(sunlightData, pool);
+        sunlightRegenData = TeraOffHeapArray.copyOf(sunlightRegenData, pool);
+        lightData = TeraOffHeapArray.copyOf(lightData, pool);
+    }
+
+    /**
+     * Replaces the off-heap data by compact copies on the heap. The copies keep the chunk readable for the threads that
+     * still save or unload it after it has been disposed, the off-heap data itself is released once no snapshot or
+     * reader uses it anymore.
+     */
+    private void releaseOffHeapData() {
+        TeraArray oldBlocks = blockData;
+        blockData = copyToHeap(oldBlocks);
+        retire(oldBlocks);
+        TeraArray[] oldExtra = extraData;
+        TeraArray[] heapExtra = new TeraArray[oldExtra.length];
+        for (int i = 0; i < oldExtra.length; i++) {
+            heapExtra[i] = copyToHeap(oldExtra[i]);
+        }
+        extraData = heapExtra;
+        for (TeraArray array : oldExtra) {
+            retire(array);
+        }
+        TeraArray oldSunlight = sunlightData;
+        TeraArray oldSunlightRegen = sunlightRegenData;
+        TeraArray oldLight = lightData;
+        createLightData();
+        retire(oldSunlight);
+        retire(oldSunlightRegen);
+        retire(oldLight);
+        reactivationPool = offHeapPool;
+        offHeapPool = null;
+    }
+
+    private static TeraArray copyToHeap(TeraArray array) {
+        if (array instanceof TeraOffHeapArray) {
+            return ((TeraOffHeapArray) array).copyToHeap();
+        }
+        return array.copy();
+    }
+
+    private static void retain(TeraArray array) {
+        if (array instanceof TeraOffHeapArray) {
+            Preconditions.checkState(((TeraOffHeapArray) array).retain(), "The array has already been released");
+        }
+    }
+
+    private static void release(TeraArray array) {
+        if (array instanceof TeraOffHeapArray) {
+            ((TeraOffHeapArray) array).release();
+        }
+    }
+
+    /**
+     * Drops the reference of this chunk to an off-heap array it no longer uses, once no reader needs it anymore.
+     */
+    private void retire(TeraArray array) {
+        if (!(array instanceof TeraOffHeapArray)) {
+            return;
+        }
+        synchronized (retiredData) {
+            if (dataReaders == 0) {
+                release(array);
+            } else {
+                retiredData.add(array);
+            }
+        }
+    }
+
+    /**
+     * Keeps the off-heap data this chunk uses right now from going back to the pool until {@link #releaseData()} is
+     * called, even if the chunk gets disposed or copies its data on write meanwhile. Meant for threads that read the
+     * chunk for a while, e.g. to tessellate it, as the memory could be handed to another chunk otherwise.
+     */
+    @Override
+    public void acquireData() {
+        synchronized (retiredData) {
+            dataReaders++;
+        }
+    }
+
+    /**
+     * Ends a read started with {@link #acquireData()}.
+     */
+    @Override
+    public void releaseData() {
+        synchronized (retiredData) {
+            Preconditions.checkState(dataReaders > 0, "The data of chunk %s has not been acquired", chunkPos);
+            dataReaders--;
+            if (dataReaders == 0) {
+                retiredData.forEach(ChunkImpl::release);
+                retiredData.clear();
+            }
+        }
+    }
+
     @Override
     public void prepareForReactivation() {
         if (disposed) {
             disposed = false;
-            sunlightData = new TeraDenseArray8Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
-            sunlightRegenData = new TeraDenseArray8Bit(Chunks.SIZE_X, Chunks.SIZE_Y,
-                Chunks.SIZE_Z);
-            lightData = new TeraDenseArray8Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+            createLightData();
+            if (reactivationPool != null) {
+                moveOffHeap(reactivationPool);
+            }
         }
     }
 
+    /**
+     * Creates the light arrays, uniformly dark and without any rows allocated. Rows are only allocated once they are
+     * written with differing values. Light and sunlight never exceed 15 and are packed two per byte, the sunlight
+     * regeneration needs a whole byte.
+     */
+    private void createLightData() {
+        sunlightData = new TeraSparseArray4Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        sunlightRegenData = new TeraSparseArray8Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        lightData = new TeraSparseArray4Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+    }
+
     @Override
     public void dispose() {
         disposed = true;
         ready = false;
         disposeMesh();
+        pendingCollision = null;
+        if (offHeapPool != null) {
+            releaseOffHeapData();
+        }
         /*
          * Explicitly do not clear data, so that background threads that work with the chunk can finish.
          */
@@ -532,14 +717,40 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData);
     }
 
+    @Override
+    public Supplier<EntityData.ChunkStore.Builder> encodeLater() {
+        Vector3i pos = new Vector3i(chunkPos);
+        TeraArray blocks = copyToHeap(blockData);
+        TeraArray[] extra = new TeraArray[extraData.length];
+        for (int i = 0; i < extraData.length; i++) {
+            extra[i] = copyToHeap(extraData[i]);
+        }
+        return () -> ChunkSerializer.encode(pos, blocks, extra);
+    }
+
+    /**
+     * Marks the blocks and extra data of the chunk as saved. Chunks start out with unsaved changes, unless they have
+     * been loaded from a save game.
+     *
+     * @return whether the blocks or extra data had changed since the chunk was last marked as saved
+     */
+    public boolean markSaved() {
+        return unsavedChanges.getAndSet(false);
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk. This snapshot
      * can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
      */
     public void createSnapshot() {
+        retain(blockData);
+        TeraArray[] extra = new TeraArray[extraData.length];
+        for (int i = 0; i < extraData.length; i++) {
+            retain(extraData[i]);
+            extra[i] = extraData[i];
+        }
         this.blockDataSnapshot = this.blockData;
-        this.extraDataSnapshots = new TeraArray[extraData.length];
-        System.arraycopy(extraData, 0, extraDataSnapshots, 0, extraData.length);
+        this.extraDataSnapshots = extra;
     }
 
     /**
@@ -550,9 +761,15 @@ public void createSnapshot() {
      * @return an encoded version of the snapshot taken with {@link #createSnapshot()}.
      */
     public EntityData.ChunkStore.Builder encodeAndReleaseSnapshot() {
-        EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshots);
+        TeraArray blocks = blockDataSnapshot;
+        TeraArray[] extra = extraDataSnapshots;
+        EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blocks, extra);
         this.blockDataSnapshot = null;
         this.extraDataSnapshots = null;
+        release(blocks);
+        for (TeraArray extraDatum : extra) {
+            release(extraDatum);
+        }
         return result;
     }
 }
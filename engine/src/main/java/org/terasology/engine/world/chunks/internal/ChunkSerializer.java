@@ -10,11 +10,10 @@
 import org.joml.Vector3ic;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.engine.world.chunks.blockdata.TeraArray;
-import org.terasology.engine.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.engine.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.protobuf.EntityData;
 import org.terasology.engine.world.block.BlockManager;
-import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
 
 public final class ChunkSerializer {
@@ -32,7 +31,7 @@ public static EntityData.ChunkStore.Builder encode(Vector3ic pos, TeraArray bloc
         return b;
     }
 
-    public static Chunk decode(EntityData.ChunkStore message, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
+    public static ChunkImpl decode(EntityData.ChunkStore message, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
         Preconditions.checkNotNull(message, "The parameter 'message' must not be null");
         if (!message.hasX() || !message.hasY() || !message.hasZ()) {
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing chunk position.");
@@ -51,6 +50,11 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
     }
 
     private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
+        if (array instanceof TeraPaletteArray) {
+            RunLengthEncoder16 encoder = new RunLengthEncoder16();
+            ((TeraPaletteArray) array).forEachRun(encoder);
+            return encoder.finish();
+        }
         EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
         short lastItem = (short) array.get(0, 0, 0);
         int counter = 0;
@@ -106,16 +110,14 @@ private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
         Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
-        short[] decodedData = new short[Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z];
+        TeraPaletteArray decodedData = new TeraPaletteArray(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z, 16);
         int index = 0;
         for (int pos = 0; pos < data.getValuesCount(); ++pos) {
             int length = data.getRunLengths(pos);
-            short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
-            }
+            decodedData.setRun(index, length, data.getValues(pos));
+            index += length;
         }
-        return new TeraDenseArray16Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z, decodedData);
+        return decodedData;
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
@@ -138,6 +140,16 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
      * Generic w.r.t. TeraArray subclasses, allowing the data to be used for any type of TeraArray.
      */
     private static void runLengthDecode(EntityData.RunLengthEncoding16 data, TeraArray array) {
+        if (array instanceof TeraPaletteArray) {
+            TeraPaletteArray paletteArray = (TeraPaletteArray) array;
+            int start = 0;
+            for (int index = 0; index < data.getRunLengthsCount() && start < array.getSizeXYZ(); index++) {
+                int length = Math.min(data.getRunLengths(index), array.getSizeXYZ() - start);
+                paletteArray.setRun(start, length, data.getValues(index));
+                start += length;
+            }
+            return;
+        }
         int index = 0;
         int count = 0;
         int value = 0;
@@ -159,4 +171,32 @@ private static void runLengthDecode(EntityData.RunLengthEncoding16 data, TeraArr
             }
         }
     }
+
+    /**
+     * Encodes the runs of a {@link TeraPaletteArray} the same way as {@link #runLengthEncode16(TeraArray)} encodes
+     * any other array, i.e. leaving out a final run of zeros.
+     */
+    private static final class RunLengthEncoder16 implements TeraPaletteArray.RunVisitor {
+        private final EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        private int pendingValue;
+        private int pendingLength;
+
+        @Override
+        public void visit(int value, int length) {
+            if (pendingLength > 0) {
+                builder.addRunLengths(pendingLength);
+                builder.addValues(pendingValue & 0xFFFF);
+            }
+            pendingValue = value;
+            pendingLength = length;
+        }
+
+        EntityData.RunLengthEncoding16 finish() {
+            if (pendingLength > 0 && pendingValue != 0) {
+                builder.addRunLengths(pendingLength);
+                builder.addValues(pendingValue & 0xFFFF);
+            }
+            return builder.build();
+        }
+    }
 }
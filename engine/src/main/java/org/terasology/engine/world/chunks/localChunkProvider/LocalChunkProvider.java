@@ -22,6 +22,7 @@
 import org.terasology.engine.monitoring.chunk.ChunkMonitor;
 import org.terasology.engine.persistence.ChunkStore;
 import org.terasology.engine.persistence.StorageManager;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.utilities.concurrency.TaskMaster;
 import org.terasology.engine.world.BlockEntityRegistry;
 import org.terasology.engine.world.block.BeforeDeactivateBlocks;
@@ -34,6 +35,7 @@
 import org.terasology.engine.world.chunks.ChunkBlockIterator;
 import org.terasology.engine.world.chunks.ChunkProvider;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.blockdata.OffHeapMemoryPool;
 import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
 import org.terasology.engine.world.chunks.event.OnChunkGenerated;
 import org.terasology.engine.world.chunks.event.OnChunkLoaded;
@@ -98,6 +100,7 @@ public class LocalChunkProvider implements ChunkProvider {
     private TaskMaster<ChunkUnloadRequest> unloadRequestTaskMaster;
     private EntityRef worldEntity = EntityRef.NULL;
     private BlockEntityRegistry registry;
+    private OffHeapMemoryPool offHeapPool;
 
     private RelevanceSystem relevanceSystem;
 
@@ -124,11 +127,18 @@ protected ListenableFuture<Chunk> createOrLoadChunk(Vector3ic chunkPos) {
                 Chunk chunk;
                 EntityBufferImpl buffer = new EntityBufferImpl();
                 if (chunkStore == null) {
-                    chunk = new ChunkImpl(pos, blockManager, extraDataManager);
+                    ChunkImpl generated = new ChunkImpl(pos, blockManager, extraDataManager);
+                    if (offHeapPool != null) {
+                        generated.moveOffHeap(offHeapPool);
+                    }
+                    chunk = generated;
                     generator.createChunk(chunk, buffer);
                     generateQueuedEntities.put(chunk.getPosition(new Vector3i()), buffer.getAll());
                 } else {
                     chunk = chunkStore.getChunk();
+                    if (offHeapPool != null && chunk instanceof ChunkImpl) {
+                        ((ChunkImpl) chunk).moveOffHeap(offHeapPool);
+                    }
                 }
                 return chunk;
             });
@@ -138,6 +148,16 @@ public void setBlockEntityRegistry(BlockEntityRegistry value) {
         this.registry = value;
     }
 
+    /**
+     * Makes chunks that are generated or loaded from now on keep their data off-heap, in memory taken from the given
+     * pool. Their memory goes back to the pool when they are unloaded.
+     *
+     * @param pool the pool to use, or null to keep chunk data on the heap
+     */
+    public void setOffHeapMemoryPool(OffHeapMemoryPool pool) {
+        this.offHeapPool = pool;
+    }
+
     @Override
     public ChunkViewCore getSubview(BlockRegionc region, Vector3ic offset) {
         Chunk[] chunks = new Chunk[region.volume()];
@@ -164,6 +184,7 @@ private void processReadyChunk(final Chunk chunk) {
         }
         chunkCache.put(new Vector3i(chunkPos), chunk);
         chunk.markReady();
+        loadingPipeline.notifyChunkAvailable(chunkPos);
         //TODO, it is not clear if the activate/addedBlocks event logic is correct.
         //See https://github.com/MovingBlocks/Terasology/issues/3244
         ChunkStore store = this.storageManager.loadChunkStore(chunkPos);
@@ -233,6 +254,10 @@ public void update() {
         while ((chunk = readyChunks.poll()) != null) {
             processReadyChunk(chunk);
         }
+        if (offHeapPool != null) {
+            PerformanceMonitor.recordOffHeapMemory("Chunk Data", offHeapPool.getUsedBytes());
+            PerformanceMonitor.recordOffHeapMemory("Chunk Data (Pooled)", offHeapPool.getPooledBytes());
+        }
     }
 
     private void deactivateBlocks() {
@@ -362,6 +387,9 @@ public void dispose() {
             chunk.dispose();
         }
         chunkCache.clear();
+        if (offHeapPool != null) {
+            offHeapPool.clear();
+        }
         /*
          * The chunk monitor needs to clear chunk references, so it's important
          * that no new chunk get created
@@ -402,6 +430,7 @@ public void purgeWorld() {
         loadingPipeline.addStage(
             ChunkTaskProvider.create("Chunk generate internal lightning",
                 (Consumer<Chunk>) InternalLightProcessor::generateInternalLighting))
+            .addStage(ChunkTaskProvider.create("Chunk collision", (Consumer<Chunk>) ChunkCollisionData::prepare))
             .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
             .addStage(ChunkTaskProvider.createMulti("Light merging",
                 chunks -> {
@@ -437,6 +466,7 @@ public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
         loadingPipeline.addStage(
                         ChunkTaskProvider.create("Chunk generate internal lightning",
                                 (Consumer<Chunk>) InternalLightProcessor::generateInternalLighting))
+                .addStage(ChunkTaskProvider.create("Chunk collision", (Consumer<Chunk>) ChunkCollisionData::prepare))
                 .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
                 .addStage(ChunkTaskProvider.createMulti("Light merging",
                         chunks -> {
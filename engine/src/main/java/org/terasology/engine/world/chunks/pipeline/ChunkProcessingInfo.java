@@ -21,6 +21,7 @@ public final class ChunkProcessingInfo {
 
     private Future<Chunk> currentFuture;
     private org.terasology.engine.world.chunks.pipeline.stages.ChunkTask chunkTask;
+    private Vector3ic blockedBy;
 
     public ChunkProcessingInfo(Vector3ic position, SettableFuture<Chunk> externalFuture) {
         this.position = position;
@@ -67,6 +68,17 @@ public void setChunkTask(ChunkTask chunkTask) {
         this.chunkTask = chunkTask;
     }
 
+    /**
+     * Position of the requirement this chunk's current task is waiting for, or null if it is not waiting.
+     */
+    Vector3ic getBlockedBy() {
+        return blockedBy;
+    }
+
+    void setBlockedBy(Vector3ic blockedBy) {
+        this.blockedBy = blockedBy;
+    }
+
     boolean hasNextStage(List<ChunkTaskProvider> stages) {
         if (chunkTaskProvider == null) {
             return true;
@@ -97,5 +109,6 @@ ChunkTask makeChunkTask() {
     void resetTaskState() {
         currentFuture = null;
         chunkTask = null;
+        blockedBy = null;
     }
 }
@@ -6,6 +6,7 @@
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import org.joml.Vector3ic;
@@ -13,7 +14,6 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.monitoring.ThreadActivity;
 import org.terasology.engine.monitoring.ThreadMonitor;
-import org.terasology.engine.utilities.ReflectionUtil;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.pipeline.stages.ChunkTask;
 import org.terasology.engine.world.chunks.pipeline.stages.ChunkTaskProvider;
@@ -21,16 +21,15 @@
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CancellationException;
-import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -38,96 +37,72 @@
  * Manages execution of chunk processing.
  * <p>
  * {@link Chunk}s will processing on stages {@link ChunkProcessingPipeline#addStage}
+ * <p>
+ * The worker pool is sized to the machine. There is no central reactor thread: a worker which finishes a stage moves
+ * its chunk to the next stage and wakes only the chunk tasks which were waiting for that chunk, so completing a stage
+ * costs time proportional to the number of dependents rather than to the number of chunks in processing.
  */
 public class ChunkProcessingPipeline {
 
-    private static final int NUM_TASK_THREADS = 4;
+    private static final int QUEUE_INITIAL_CAPACITY = 800;
     private static final Logger logger = LoggerFactory.getLogger(ChunkProcessingPipeline.class);
 
     private final List<ChunkTaskProvider> stages = Lists.newArrayList();
-    private final Thread reactor;
-    private final CompletionService<Chunk> chunkProcessor;
     private final ThreadPoolExecutor executor;
     private final Function<Vector3ic, Chunk> chunkProvider;
     private final Map<Vector3ic, ChunkProcessingInfo> chunkProcessingInfoMap = Maps.newConcurrentMap();
-    private int threadIndex;
+    /**
+     * Chunk tasks waiting for the chunk at the key position to become available. Guarded by {@code this}.
+     */
+    private final Map<Vector3ic, Set<ChunkProcessingInfo>> dependents = Maps.newHashMap();
+    private final AtomicInteger threadIndex = new AtomicInteger();
 
     /**
-     * Create ChunkProcessingPipeline.
+     * Create ChunkProcessingPipeline with one worker thread per available processor, minus one for the main thread.
      */
     public ChunkProcessingPipeline(Function<Vector3ic, Chunk> chunkProvider, Comparator<Future<Chunk>> comparable) {
+        this(chunkProvider, comparable, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Create ChunkProcessingPipeline.
+     *
+     * @param chunkProvider provides chunks which are already processed, e.g. from chunk cache.
+     * @param comparable priority of chunk tasks. Compared futures are {@link PositionFuture}s.
+     * @param numThreads count of worker threads.
+     */
+    public ChunkProcessingPipeline(Function<Vector3ic, Chunk> chunkProvider, Comparator<Future<Chunk>> comparable,
+                                   int numThreads) {
+        Preconditions.checkArgument(numThreads > 0, "ChunkProcessingPipeline must have at least one thread");
         this.chunkProvider = chunkProvider;
 
         executor = new ThreadPoolExecutor(
-                NUM_TASK_THREADS,
-                NUM_TASK_THREADS, 0L,
+                numThreads,
+                numThreads, 0L,
                 TimeUnit.MILLISECONDS,
-                new PriorityBlockingQueue(800, unwrappingComporator(comparable)),
+                new PriorityBlockingQueue<>(QUEUE_INITIAL_CAPACITY, positionComparator(comparable)),
                 this::threadFactory,
-                this::rejectQueueHandler) {
-            @Override
-            protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
-                RunnableFuture<T> newTaskFor = super.newTaskFor(callable);
-                return new PositionFuture<>(newTaskFor, ((PositionalCallable) callable).getPosition());
-            }
-        };
-        chunkProcessor = new ExecutorCompletionService<>(executor,
-                new PriorityBlockingQueue<>(800, comparable));
-        reactor = new Thread(this::chunkTaskHandler);
-        reactor.setDaemon(true);
-        reactor.setName("Chunk-Processing-Reactor");
-        reactor.start();
+                this::rejectQueueHandler);
     }
 
     /**
-     * BlackMagic method: {@link ExecutorCompletionService} wraps task with QueueingFuture (private access)
-     * there takes wrapped task for comparing in {@link ThreadPoolExecutor}
+     * Only {@link PositionFuture}s are submitted to the executor, so the queue can compare them directly.
      */
-    private Comparator unwrappingComporator(Comparator<Future<Chunk>> comparable) {
-        return (o1, o2) -> {
-                Object unwrapped1 = ReflectionUtil.readField(o1, "task");
-                Object unwrapped2 = ReflectionUtil.readField(o2, "task");
-                return comparable.compare((Future<Chunk>) unwrapped1, (Future<Chunk>) unwrapped2);
-        };
+    @SuppressWarnings("unchecked")
+    private static Comparator<Runnable> positionComparator(Comparator<Future<Chunk>> comparable) {
+        return (o1, o2) -> comparable.compare((PositionFuture<Chunk>) o1, (PositionFuture<Chunk>) o2);
     }
 
     /**
-     * Reactor thread. Handles all ChunkTask dependency logic and running.
+     * Called by worker thread when the current task of the chunk finished.
      */
-    private void chunkTaskHandler() {
-        try {
-            while (!executor.isTerminated()) {
-                PositionFuture<Chunk> future = (PositionFuture<Chunk>) chunkProcessor.take();
-                ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(future.getPosition());
-                if (chunkProcessingInfo == null) {
-                    continue; // chunk processing was cancelled.
-                }
-                onStageDone(future, chunkProcessingInfo);
-            }
-        } catch (InterruptedException e) {
-            if (!executor.isTerminated()) {
-                logger.error("Reactor thread was interrupted", e);
-            }
-            reactor.interrupt();
+    private void onStageDone(ChunkProcessingInfo chunkProcessingInfo, Future<Chunk> future) {
+        if (future.isCancelled()) {
+            return; // chunk processing was cancelled.
         }
-    }
-
-    private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunkProcessingInfo) throws InterruptedException {
+        Chunk chunk;
         try {
-            chunkProcessingInfo.resetTaskState();
-            chunkProcessingInfo.setChunk(future.get());
-
-            //Move by stage.
-            if (chunkProcessingInfo.hasNextStage(stages)) {
-                chunkProcessingInfo.nextStage(stages);
-                chunkProcessingInfo.makeChunkTask();
-            } else {
-                // haven't next stage
-                chunkProcessingInfo.endProcessing();
-                cleanup(chunkProcessingInfo);
-            }
-            processChunkTasks();
-
+            chunk = future.get();
         } catch (ExecutionException e) {
             String stageName =
                     chunkProcessingInfo.getChunkTaskProvider() == null
@@ -138,21 +113,64 @@ private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunk
                             chunkProcessingInfo.getPosition(), stageName),
                     e);
             chunkProcessingInfo.getExternalFuture().setException(e);
-        } catch (CancellationException ignored) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        boolean finished;
+        synchronized (this) {
+            Vector3ic position = chunkProcessingInfo.getPosition();
+            if (chunkProcessingInfoMap.get(position) != chunkProcessingInfo) {
+                return; // chunk processing was stopped while task was running.
+            }
+            chunkProcessingInfo.resetTaskState();
+            chunkProcessingInfo.setChunk(chunk);
+
+            //Move by stage.
+            finished = !chunkProcessingInfo.hasNextStage(stages);
+            if (!finished) {
+                chunkProcessingInfo.nextStage(stages);
+                chunkProcessingInfo.makeChunkTask();
+                processChunkInfo(chunkProcessingInfo);
+            }
+            // Dependents are woken before cleanup, so they still can take this chunk from its processing info.
+            wakeDependents(position);
+            if (finished) {
+                cleanup(chunkProcessingInfo);
+            }
+        }
+        if (finished) {
+            chunkProcessingInfo.endProcessing();
         }
     }
 
-    private void processChunkTasks() {
-        for (ChunkProcessingInfo info : chunkProcessingInfoMap.values()) {
-            processChunkInfo(info);
+    /**
+     * Retry chunk tasks which were waiting for the chunk at position.
+     */
+    private void wakeDependents(Vector3ic position) {
+        Set<ChunkProcessingInfo> waiting = dependents.remove(position);
+        if (waiting == null) {
+            return;
+        }
+        for (ChunkProcessingInfo info : waiting) {
+            info.setBlockedBy(null);
+            if (chunkProcessingInfoMap.get(info.getPosition()) == info) {
+                processChunkInfo(info);
+            }
         }
     }
 
+    /**
+     * Run current task of chunk if all requirements are available, otherwise park it until the first missing
+     * requirement changes. Caller must hold the lock.
+     */
     private void processChunkInfo(ChunkProcessingInfo info) {
         if (info.getChunkTask() == null) {
             return;
         }
-        if (info.getCurrentFuture() != null) {
+        if (info.getCurrentFuture() != null || info.getBlockedBy() != null) {
             return;
         }
         ChunkTask chunkTask = info.getChunkTask();
@@ -163,10 +181,16 @@ private void processChunkInfo(ChunkProcessingInfo info) {
             if (chunk != null) {
                 requiredChunks.add(chunk);
             } else {
+                info.setBlockedBy(pos);
+                dependents.computeIfAbsent(pos, k -> Sets.newHashSet()).add(info);
                 return;
             }
         }
-        info.setCurrentFuture(runTask(chunkTask, requiredChunks));
+        runTask(info, () -> {
+            try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(chunkTask.getName())) {
+                return chunkTask.apply(requiredChunks);
+            }
+        });
     }
 
     private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
@@ -184,23 +208,29 @@ private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
         return chunk;
     }
 
-    private Future<Chunk> runTask(ChunkTask task, List<Chunk> chunks) {
-        return chunkProcessor.submit(new PositionalCallable(() -> {
-            try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
-                return task.apply(chunks);
+    private void runTask(ChunkProcessingInfo info, Callable<Chunk> callable) {
+        FutureTask<Chunk> task = new FutureTask<Chunk>(callable) {
+            @Override
+            protected void done() {
+                onStageDone(info, this);
             }
-        }, task.getPosition()));
+        };
+        PositionFuture<Chunk> future = new PositionFuture<>(task, info.getPosition());
+        info.setCurrentFuture(future);
+        executor.execute(future);
     }
 
     private Thread threadFactory(Runnable runnable) {
         Thread thread = new Thread(runnable);
         thread.setDaemon(true);
-        thread.setName("Chunk-Processing-" + threadIndex++);
+        thread.setName("Chunk-Processing-" + threadIndex.getAndIncrement());
         return thread;
     }
 
     private void rejectQueueHandler(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
-        logger.error("Cannot run {}  because queue is full", runnable);
+        if (!threadPoolExecutor.isShutdown()) {
+            logger.error("Cannot run {}  because queue is full", runnable);
+        }
     }
 
     /**
@@ -222,7 +252,7 @@ public ChunkProcessingPipeline addStage(ChunkTaskProvider stage) {
      * @param generatorTask ChunkTask which provides new chunk to pipeline
      * @return Future of chunk processing.
      */
-    public ListenableFuture<Chunk> invokeGeneratorTask(Vector3ic position, Supplier<Chunk> generatorTask) {
+    public synchronized ListenableFuture<Chunk> invokeGeneratorTask(Vector3ic position, Supplier<Chunk> generatorTask) {
         Preconditions.checkState(!stages.isEmpty(), "ChunkProcessingPipeline must to have at least one stage");
         ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(position);
         if (chunkProcessingInfo != null) {
@@ -231,8 +261,7 @@ public ListenableFuture<Chunk> invokeGeneratorTask(Vector3ic position, Supplier<
             SettableFuture<Chunk> exitFuture = SettableFuture.create();
             chunkProcessingInfo = new ChunkProcessingInfo(position, exitFuture);
             chunkProcessingInfoMap.put(position, chunkProcessingInfo);
-            chunkProcessingInfo.setCurrentFuture(chunkProcessor.submit(new PositionalCallable(generatorTask::get,
-                    position)));
+            runTask(chunkProcessingInfo, generatorTask::get);
             return exitFuture;
         }
     }
@@ -247,18 +276,26 @@ public Future<Chunk> invokePipeline(Chunk chunk) {
         return invokeGeneratorTask(chunk.getPosition(), () -> chunk);
     }
 
+    /**
+     * Notify pipeline that the chunk at position became available from the chunk provider, so tasks which require it
+     * can run.
+     *
+     * @param pos position of the available chunk.
+     */
+    public synchronized void notifyChunkAvailable(Vector3ic pos) {
+        wakeDependents(pos);
+    }
+
     public void shutdown() {
         executor.shutdown();
-        chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
-        chunkProcessingInfoMap.clear();
-        executor.getQueue().clear();
-        reactor.interrupt();
+        restart();
     }
 
-    public void restart() {
+    public synchronized void restart() {
+        Lists.newArrayList(chunkProcessingInfoMap.keySet()).forEach(this::stopProcessingAt);
         chunkProcessingInfoMap.clear();
+        dependents.clear();
         executor.getQueue().clear();
-        chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
     }
 
     /**
@@ -266,7 +303,7 @@ public void restart() {
      *
      * @param pos position of chunk to stop processing.
      */
-    public void stopProcessingAt(Vector3ic pos) {
+    public synchronized void stopProcessingAt(Vector3ic pos) {
         ChunkProcessingInfo removed = chunkProcessingInfoMap.remove(pos);
         if (removed == null) {
             return;
@@ -274,6 +311,17 @@ public void stopProcessingAt(Vector3ic pos) {
 
         removed.getExternalFuture().cancel(true);
 
+        Vector3ic blockedBy = removed.getBlockedBy();
+        if (blockedBy != null) {
+            Set<ChunkProcessingInfo> waiting = dependents.get(blockedBy);
+            if (waiting != null) {
+                waiting.remove(removed);
+                if (waiting.isEmpty()) {
+                    dependents.remove(blockedBy);
+                }
+            }
+        }
+
         Future<Chunk> currentFuture = removed.getCurrentFuture();
         if (currentFuture != null) {
             currentFuture.cancel(true);
@@ -312,26 +360,4 @@ public boolean isPositionProcessing(Vector3ic pos) {
     public Iterable<Vector3ic> getProcessingPosition() {
         return chunkProcessingInfoMap.keySet();
     }
-
-    /**
-     * Dummy callable for passthru position for {@link java.util.concurrent.ThreadPoolExecutor}#newTaskFor
-     */
-    private static final class PositionalCallable implements Callable<Chunk> {
-        private final Callable<Chunk> callable;
-        private final Vector3ic position;
-
-        private PositionalCallable(Callable<Chunk> callable, Vector3ic position) {
-            this.callable = callable;
-            this.position = position;
-        }
-
-        public Vector3ic getPosition() {
-            return position;
-        }
-
-        @Override
-        public Chunk call() throws Exception {
-            return callable.call();
-        }
-    }
 }
@@ -14,6 +14,7 @@
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.monitoring.chunk.ChunkMonitor;
+import org.terasology.engine.physics.ChunkCollisionData;
 import org.terasology.engine.world.block.BlockRegionc;
 import org.terasology.engine.world.internal.ChunkViewCore;
 import org.terasology.engine.world.internal.ChunkViewCoreImpl;
@@ -67,6 +68,7 @@ public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
         loadingPipeline.addStage(
             ChunkTaskProvider.create("Chunk generate internal lightning",
                 (Consumer<Chunk>) InternalLightProcessor::generateInternalLighting))
+            .addStage(ChunkTaskProvider.create("Chunk collision", (Consumer<Chunk>) ChunkCollisionData::prepare))
             .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
             .addStage(ChunkTaskProvider.createMulti("Light merging",
                 chunks -> {
@@ -104,6 +106,7 @@ public void update() {
                 oldChunk.dispose();
             }
             chunk.markReady();
+            loadingPipeline.notifyChunkAvailable(chunk.getPosition());
             if (listener != null) {
                 listener.onChunkReady(chunk.getPosition(new Vector3i()));
             }
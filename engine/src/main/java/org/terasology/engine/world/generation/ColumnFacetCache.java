@@ -0,0 +1,188 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ClassToInstanceMap;
+import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.terasology.engine.world.block.BlockRegionc;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shares 2D facets between the regions of chunks which are stacked on top of each other. The facets of such chunks
+ * cover the same column of the world, so their providers would otherwise produce the same data once per chunk.
+ * <br><br>
+ * Facets are cached in groups: a group contains a 2D facet, every facet produced, updated or required by the providers
+ * in its chain, and so on. A group is only cached if all its facets are {@link WorldFacet2D}s, as the providers of such
+ * facets are expected not to depend on the height of the region. Once a group has been generated for a column, its
+ * facets are shared between threads and must not be changed anymore.
+ */
+class ColumnFacetCache {
+    /**
+     * Enough columns for the chunks around a few players with a large view distance.
+     */
+    static final int DEFAULT_MAXIMUM_COLUMNS = 1024;
+
+    private final Map<Class<? extends WorldFacet>, FacetGroup> groups = Maps.newHashMap();
+    private final Cache<ColumnKey, ClassToInstanceMap<WorldFacet>> columns;
+
+    ColumnFacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, int maximumColumns) {
+        this.columns = CacheBuilder.newBuilder().maximumSize(maximumColumns).recordStats().build();
+        determineGroups(facetProviderChains);
+    }
+
+    /**
+     * @return The group of facets which gets cached along with the facet, or null if the facet can't be cached
+     */
+    FacetGroup getGroup(Class<? extends WorldFacet> facet) {
+        return groups.get(facet);
+    }
+
+    /**
+     * @param group The group of facets to get
+     * @param region The region of the chunk which needs the facets
+     * @param generator Generates the facets of the group for the region, if they are not cached yet
+     * @return The facets of the group for the column of the region
+     */
+    ClassToInstanceMap<WorldFacet> get(FacetGroup group, BlockRegionc region,
+                                       Callable<ClassToInstanceMap<WorldFacet>> generator) {
+        ColumnKey key = new ColumnKey(group, region.minX(), region.minZ(), region.maxX(), region.maxZ());
+        try {
+            return columns.get(key, () -> ImmutableClassToInstanceMap.copyOf(generator.call()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return The number of hits and misses and the time spent generating facets for the columns so far
+     */
+    CacheStats getStats() {
+        return columns.stats();
+    }
+
+    void invalidateAll() {
+        columns.invalidateAll();
+    }
+
+    private void determineGroups(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        Map<Set<Class<? extends WorldFacet>>, FacetGroup> distinctGroups = Maps.newHashMap();
+        for (Class<? extends WorldFacet> facet : facetProviderChains.keySet()) {
+            // Collect the facets the providers of the facet work with, and then the facets their providers work with
+            Set<Class<? extends WorldFacet>> facets = new LinkedHashSet<>();
+            Set<FacetProvider> providers = new LinkedHashSet<>();
+            Deque<Class<? extends WorldFacet>> openFacets = new ArrayDeque<>();
+            facets.add(facet);
+            openFacets.add(facet);
+            while (!openFacets.isEmpty()) {
+                for (FacetProvider provider : facetProviderChains.get(openFacets.poll())) {
+                    if (providers.add(provider)) {
+                        for (Class<? extends WorldFacet> connected : getConnectedFacets(provider)) {
+                            if (facets.add(connected)) {
+                                openFacets.add(connected);
+                            }
+                        }
+                    }
+                }
+            }
+            if (facets.stream().allMatch(WorldFacet2D.class::isAssignableFrom)) {
+                FacetGroup group = distinctGroups.computeIfAbsent(facets, k -> new FacetGroup(facets, providers));
+                groups.put(facet, group);
+            }
+        }
+    }
+
+    private static Set<Class<? extends WorldFacet>> getConnectedFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> result = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            Collections.addAll(result, produces.value());
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                result.add(facet.value());
+            }
+        }
+        Requires requires = provider.getClass().getAnnotation(Requires.class);
+        if (requires != null) {
+            for (Facet facet : requires.value()) {
+                result.add(facet.value());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Facets which are generated together, and the providers which generate them.
+     */
+    static final class FacetGroup {
+        private final Set<Class<? extends WorldFacet>> facets;
+        private final Set<FacetProvider> providers;
+
+        private FacetGroup(Set<Class<? extends WorldFacet>> facets, Set<FacetProvider> providers) {
+            this.facets = ImmutableSet.copyOf(facets);
+            this.providers = ImmutableSet.copyOf(providers);
+        }
+
+        Set<Class<? extends WorldFacet>> getFacets() {
+            return facets;
+        }
+
+        Set<FacetProvider> getProviders() {
+            return providers;
+        }
+    }
+
+    private static final class ColumnKey {
+        private final FacetGroup group;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+
+        private ColumnKey(FacetGroup group, int minX, int minZ, int maxX, int maxZ) {
+            this.group = group;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ColumnKey)) {
+                return false;
+            }
+            ColumnKey other = (ColumnKey) obj;
+            return group == other.group && minX == other.minX && minZ == other.minZ && maxX == other.maxX
+                    && maxZ == other.maxZ;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(System.identityHashCode(group), minX, minZ, maxX, maxZ);
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final float scale;
+    private final ColumnFacetCache columnFacetCache;
 
     private final ClassToInstanceMap<WorldFacet> generatingFacets = MutableClassToInstanceMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
@@ -25,14 +26,38 @@ public class RegionImpl implements Region, GeneratingRegion {
     public RegionImpl(BlockRegion region,
                       ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<?
             extends WorldFacet>, Border3D> borders, float scale) {
+        this(region, facetProviderChains, borders, scale, null);
+    }
+
+    /**
+     * @param columnFacetCache The cache to share 2D facets with the regions above and below this one, or null
+     */
+    RegionImpl(BlockRegion region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+               Map<Class<? extends WorldFacet>, Border3D> borders, float scale, ColumnFacetCache columnFacetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
         this.scale = scale;
+        this.columnFacetCache = columnFacetCache;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
+        T facet = generatedFacets.getInstance(dataType);
+        if (facet == null && columnFacetCache != null) {
+            ColumnFacetCache.FacetGroup group = columnFacetCache.getGroup(dataType);
+            if (group != null) {
+                addColumnFacets(group, columnFacetCache.get(group, region, () -> generateColumnFacets(group)));
+                facet = generatedFacets.getInstance(dataType);
+            }
+        }
+        if (facet == null) {
+            facet = generateFacet(dataType);
+        }
+        return facet;
+    }
+
+    private <T extends WorldFacet> T generateFacet(Class<T> dataType) {
         T facet = generatedFacets.getInstance(dataType);
         if (facet == null) {
             for (FacetProvider provider : facetProviderChains.get(dataType)) {
@@ -51,6 +76,30 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         return facet;
     }
 
+    private ClassToInstanceMap<WorldFacet> generateColumnFacets(ColumnFacetCache.FacetGroup group) {
+        ClassToInstanceMap<WorldFacet> facets = MutableClassToInstanceMap.create();
+        for (Class<? extends WorldFacet> facetType : group.getFacets()) {
+            WorldFacet facet = generateFacet(facetType);
+            if (facet != null) {
+                facets.put(facetType, facet);
+            }
+        }
+        return facets;
+    }
+
+    /**
+     * Uses the facets of a column instead of running their providers for this region.
+     */
+    private void addColumnFacets(ColumnFacetCache.FacetGroup group, ClassToInstanceMap<WorldFacet> facets) {
+        for (Map.Entry<Class<? extends WorldFacet>, WorldFacet> entry : facets.entrySet()) {
+            if (!generatedFacets.containsKey(entry.getKey())) {
+                generatingFacets.put(entry.getKey(), entry.getValue());
+                generatedFacets.put(entry.getKey(), entry.getValue());
+            }
+        }
+        processedProviders.addAll(group.getProviders());
+    }
+
     @Override
     public BlockRegion getRegion() {
         return region;
@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.generation;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.engine.world.block.BlockRegion;
@@ -21,6 +22,7 @@ public class WorldImpl implements World {
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final ColumnFacetCache columnFacetCache;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      ListMultimap<Class<? extends WorldFacet>, FacetProvider> scalableFacetProviderChains,
@@ -36,6 +38,7 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetP
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.columnFacetCache = new ColumnFacetCache(facetProviderChains, ColumnFacetCache.DEFAULT_MAXIMUM_COLUMNS);
     }
 
     @Override
@@ -50,7 +53,9 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(Chunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(new BlockRegion(chunk.getRegion()), 1);
+        // Chunks above and below this one share its 2D facets
+        Region chunkRegion = new RegionImpl(new BlockRegion(chunk.getRegion()), facetProviderChains, borders, 1,
+                columnFacetCache);
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
@@ -72,8 +77,16 @@ public Set<Class<? extends WorldFacet>> getAllFacets() {
         return Sets.newHashSet(facetProviderChains.keySet());
     }
 
+    /**
+     * @return How often the 2D facets of chunks could be taken from chunks above or below them
+     */
+    public CacheStats getColumnFacetCacheStats() {
+        return columnFacetCache.getStats();
+    }
+
     @Override
     public void initialize() {
+        columnFacetCache.invalidateAll();
         // throw them all in a set to remove duplicates
         Collection<FacetProvider> facetProviders = new LinkedHashSet<>(facetProviderChains.values());
 
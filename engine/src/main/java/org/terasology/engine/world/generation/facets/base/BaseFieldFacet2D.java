@@ -3,7 +3,9 @@
 package org.terasology.engine.world.generation.facets.base;
 
 import com.google.common.base.Preconditions;
+import org.joml.Vector2fc;
 import org.joml.Vector2ic;
+import org.terasology.engine.utilities.procedural.Noise;
 import org.terasology.engine.world.block.BlockRegionc;
 import org.terasology.engine.world.generation.Border3D;
 
@@ -64,4 +66,12 @@ public void set(float[] newData) {
         Preconditions.checkArgument(newData.length == data.length, "New data must have same length as existing");
         System.arraycopy(newData, 0, data, 0, newData.length);
     }
+
+    /**
+     * Sets every value to the noise at its world position multiplied by the scale, computing the noise for the whole
+     * area at once. Providers can post-process the values through {@link #getInternal()}.
+     */
+    public void fill(Noise noise, Vector2fc scale) {
+        noise.noise(getWorldArea(), scale, data);
+    }
 }
@@ -0,0 +1,162 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.internal;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Maps block positions to the entities of the blocks. The entities are kept in one bucket per chunk, keyed by the
+ * packed position of the chunk, and within the bucket by the index of the block in the chunk. Neither lookups nor
+ * updates need a position object, and all entities of a chunk can be retrieved at once.
+ */
+class BlockEntityIndex {
+    private static final int CHUNK_X_BITS = Integer.SIZE - Chunks.POWER_X;
+    private static final int CHUNK_Z_BITS = Integer.SIZE - Chunks.POWER_Z;
+    private static final int CHUNK_Y_BITS = Long.SIZE - CHUNK_X_BITS - CHUNK_Z_BITS;
+
+    private final TLongObjectMap<Bucket> chunks = new TLongObjectHashMap<>();
+
+    /**
+     * Packs the position of a chunk into a long. The x and z axes get as many bits as the chunk positions of all int
+     * block positions need, and the y axis gets the remaining ones, so keys are unique as long as
+     * {@link #hasUniqueKey(int)} holds for the y position. Other chunks may share a key with one closer to y = 0.
+     */
+    static long chunkKey(int chunkX, int chunkY, int chunkZ) {
+        return (chunkX & mask(CHUNK_X_BITS)) << (CHUNK_Y_BITS + CHUNK_Z_BITS)
+                | (chunkY & mask(CHUNK_Y_BITS)) << CHUNK_Z_BITS
+                | (chunkZ & mask(CHUNK_Z_BITS));
+    }
+
+    static long chunkKeyOfBlock(int x, int y, int z) {
+        return chunkKey(Chunks.toChunkPosX(x), Chunks.toChunkPosY(y), Chunks.toChunkPosZ(z));
+    }
+
+    /**
+     * @return Whether no other chunk shares the key of chunks at the y position, see {@link #chunkKey(int, int, int)}
+     */
+    static boolean hasUniqueKey(int chunkY) {
+        return chunkY >= -(1 << (CHUNK_Y_BITS - 1)) && chunkY < 1 << (CHUNK_Y_BITS - 1);
+    }
+
+    private static long mask(int bits) {
+        return (1L << bits) - 1;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return Chunks.toRelativeX(x) + Chunks.SIZE_X * (Chunks.toRelativeY(y) + Chunks.SIZE_Y * Chunks.toRelativeZ(z));
+    }
+
+    /**
+     * @return The bucket of the chunk, or null if none of its blocks has an entity
+     */
+    private Bucket getBucket(long key, int chunkX, int chunkY, int chunkZ) {
+        Bucket bucket = chunks.get(key);
+        while (bucket != null && !bucket.isAt(chunkX, chunkY, chunkZ)) {
+            bucket = bucket.next;
+        }
+        return bucket;
+    }
+
+    private Bucket getBucketOfBlock(Vector3ic pos) {
+        int chunkX = Chunks.toChunkPosX(pos.x());
+        int chunkY = Chunks.toChunkPosY(pos.y());
+        int chunkZ = Chunks.toChunkPosZ(pos.z());
+        return getBucket(chunkKey(chunkX, chunkY, chunkZ), chunkX, chunkY, chunkZ);
+    }
+
+    /**
+     * @return The entity of the block, or null if there is none
+     */
+    EntityRef get(Vector3ic pos) {
+        Bucket bucket = getBucketOfBlock(pos);
+        return bucket != null ? bucket.get(blockIndex(pos.x(), pos.y(), pos.z())) : null;
+    }
+
+    /**
+     * @return The entity previously stored for the block, or null if there was none
+     */
+    EntityRef put(Vector3ic pos, EntityRef entity) {
+        Bucket bucket = getBucketOfBlock(pos);
+        if (bucket == null) {
+            int chunkX = Chunks.toChunkPosX(pos.x());
+            int chunkY = Chunks.toChunkPosY(pos.y());
+            int chunkZ = Chunks.toChunkPosZ(pos.z());
+            long key = chunkKey(chunkX, chunkY, chunkZ);
+            bucket = new Bucket(chunkX, chunkY, chunkZ, chunks.get(key));
+            chunks.put(key, bucket);
+        }
+        return bucket.put(blockIndex(pos.x(), pos.y(), pos.z()), entity);
+    }
+
+    /**
+     * Removes the entity of the block, if it is the given entity.
+     */
+    void remove(Vector3ic pos, EntityRef entity) {
+        Bucket bucket = getBucketOfBlock(pos);
+        if (bucket != null) {
+            int index = blockIndex(pos.x(), pos.y(), pos.z());
+            if (entity.equals(bucket.get(index))) {
+                bucket.remove(index);
+                if (bucket.isEmpty()) {
+                    removeBucket(chunkKeyOfBlock(pos.x(), pos.y(), pos.z()), bucket);
+                }
+            }
+        }
+    }
+
+    private void removeBucket(long key, Bucket bucket) {
+        Bucket first = chunks.get(key);
+        if (first == bucket) {
+            if (bucket.next != null) {
+                chunks.put(key, bucket.next);
+            } else {
+                chunks.remove(key);
+            }
+            return;
+        }
+        Bucket previous = first;
+        while (previous.next != bucket) {
+            previous = previous.next;
+        }
+        previous.next = bucket.next;
+    }
+
+    /**
+     * @return The entities of the blocks of a chunk, as a view which must not be kept
+     */
+    Collection<EntityRef> getEntitiesInChunk(Vector3ic chunkPos) {
+        Bucket bucket = getBucket(chunkKey(chunkPos.x(), chunkPos.y(), chunkPos.z()), chunkPos.x(), chunkPos.y(),
+                chunkPos.z());
+        return bucket != null ? bucket.valueCollection() : Collections.emptyList();
+    }
+
+    /**
+     * The entities of the blocks of one chunk, by the index of the block. Buckets of chunks sharing a key are chained.
+     */
+    private static final class Bucket extends TIntObjectHashMap<EntityRef> {
+        private final int chunkX;
+        private final int chunkY;
+        private final int chunkZ;
+        private Bucket next;
+
+        Bucket(int chunkX, int chunkY, int chunkZ, Bucket next) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.chunkZ = chunkZ;
+            this.next = next;
+        }
+
+        boolean isAt(int x, int y, int z) {
+            return chunkX == x && chunkY == y && chunkZ == z;
+        }
+    }
+}
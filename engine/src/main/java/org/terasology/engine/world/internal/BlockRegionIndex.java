@@ -0,0 +1,103 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps block positions to the entities of the {@link BlockRegion}s containing them. Each region is stored once per
+ * chunk it overlaps, rather than once per block, so a lookup checks the few regions overlapping the chunk of the block.
+ * Where regions overlap, the one added last wins. The chunks are keyed like in {@link BlockEntityIndex}, so a list may
+ * also hold regions of other chunks far above or below, which lookups skip by checking the regions.
+ */
+class BlockRegionIndex {
+    private final Map<EntityRef, BlockRegion> regions = Maps.newHashMap();
+    private final TLongObjectMap<List<EntityRef>> chunks = new TLongObjectHashMap<>();
+
+    /**
+     * @return The entity of the last added region containing the position, or null if there is none
+     */
+    EntityRef get(Vector3ic pos) {
+        List<EntityRef> candidates = chunks.get(BlockEntityIndex.chunkKeyOfBlock(pos.x(), pos.y(), pos.z()));
+        if (candidates != null) {
+            for (int i = candidates.size() - 1; i >= 0; i--) {
+                EntityRef entity = candidates.get(i);
+                if (regions.get(entity).contains(pos)) {
+                    return entity;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the region of an entity, replacing its previous region.
+     */
+    void put(EntityRef entity, BlockRegionc region) {
+        remove(entity);
+        BlockRegion copy = new BlockRegion(region);
+        regions.put(entity, copy);
+        for (Vector3ic chunkPos : Chunks.toChunkRegion(copy, new BlockRegion(BlockRegion.INVALID))) {
+            long key = BlockEntityIndex.chunkKey(chunkPos.x(), chunkPos.y(), chunkPos.z());
+            List<EntityRef> entities = chunks.get(key);
+            if (entities == null) {
+                entities = Lists.newArrayListWithCapacity(1);
+                chunks.put(key, entities);
+            }
+            entities.add(entity);
+        }
+    }
+
+    void remove(EntityRef entity) {
+        BlockRegion region = regions.remove(entity);
+        if (region == null) {
+            return;
+        }
+        for (Vector3ic chunkPos : Chunks.toChunkRegion(region, new BlockRegion(BlockRegion.INVALID))) {
+            long key = BlockEntityIndex.chunkKey(chunkPos.x(), chunkPos.y(), chunkPos.z());
+            List<EntityRef> entities = chunks.get(key);
+            if (entities != null) {
+                entities.remove(entity);
+                if (entities.isEmpty()) {
+                    chunks.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The entities of the regions overlapping the chunk, as a view which must not be kept
+     */
+    Collection<EntityRef> getEntitiesInChunk(Vector3ic chunkPos) {
+        List<EntityRef> entities = chunks.get(BlockEntityIndex.chunkKey(chunkPos.x(), chunkPos.y(), chunkPos.z()));
+        if (entities == null) {
+            return Collections.emptyList();
+        }
+        if (!BlockEntityIndex.hasUniqueKey(chunkPos.y())) {
+            // the regions of other chunks sharing the key are mixed in
+            BlockRegion chunkRegion = new BlockRegion(BlockRegion.INVALID);
+            List<EntityRef> overlapping = Lists.newArrayList();
+            for (EntityRef entity : entities) {
+                if (Chunks.toChunkRegion(regions.get(entity), chunkRegion).contains(chunkPos)) {
+                    overlapping.add(entity);
+                }
+            }
+            return overlapping;
+        }
+        return Collections.unmodifiableList(entities);
+    }
+}
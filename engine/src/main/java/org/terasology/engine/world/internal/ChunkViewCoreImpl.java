@@ -113,6 +113,47 @@ public byte getLight(int blockX, int blockY, int blockZ) {
         return 0;
     }
 
+    @Override
+    public void readBlockData(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                              short[] blockIds, byte[] sunlight, byte[] light) {
+        // the chunks may be disposed meanwhile, their off-heap memory has to stay valid until they have been read
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                chunk.acquireData();
+            }
+        }
+        try {
+            short defaultId = defaultBlock.getId();
+            int index = 0;
+            for (int y = minY; y < minY + sizeY; y++) {
+                for (int z = minZ; z < minZ + sizeZ; z++) {
+                    for (int x = minX; x < minX + sizeX; x++) {
+                        Chunk chunk = blockRegion.contains(x, y, z) ? chunks[relChunkIndex(x, y, z)] : null;
+                        if (chunk != null) {
+                            int relX = Chunks.toRelative(x, chunkFilterSize.x);
+                            int relY = Chunks.toRelative(y, chunkFilterSize.y);
+                            int relZ = Chunks.toRelative(z, chunkFilterSize.z);
+                            blockIds[index] = chunk.getBlockId(relX, relY, relZ);
+                            sunlight[index] = chunk.getSunlight(relX, relY, relZ);
+                            light[index] = chunk.getLight(relX, relY, relZ);
+                        } else {
+                            blockIds[index] = defaultId;
+                            sunlight[index] = 0;
+                            light[index] = 0;
+                        }
+                        index++;
+                    }
+                }
+            }
+        } finally {
+            for (Chunk chunk : chunks) {
+                if (chunk != null) {
+                    chunk.releaseData();
+                }
+            }
+        }
+    }
+
     @Override
     public void setBlock(Vector3ic pos, Block type) {
         setBlock(pos.x(), pos.y(), pos.z(), type);
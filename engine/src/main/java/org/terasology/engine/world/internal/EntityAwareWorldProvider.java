@@ -6,7 +6,6 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.joml.RoundingMode;
 import org.joml.Vector3f;
@@ -40,7 +39,6 @@
 import org.terasology.engine.world.OnChangedBlock;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockComponent;
-import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.block.regions.BlockRegionComponent;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.reflection.metadata.FieldMetadata;
@@ -60,12 +58,8 @@ public class EntityAwareWorldProvider extends AbstractWorldProviderDecorator
 
     private final EngineEntityManager entityManager;
 
-    // TODO: Perhaps a better datastructure for spatial lookups
-    // TODO: Or perhaps a build in indexing system for entities
-    private final Map<Vector3ic, EntityRef> blockEntityLookup = Maps.newHashMap();
-
-    private final Map<Vector3ic, EntityRef> blockRegionLookup = Maps.newHashMap();
-    private final Map<EntityRef, BlockRegion> blockRegions = Maps.newHashMap();
+    private final BlockEntityIndex blockEntityLookup = new BlockEntityIndex();
+    private final BlockRegionIndex blockRegionLookup = new BlockRegionIndex();
 
     private final Set<EntityRef> temporaryBlockEntities = Sets.newLinkedHashSet();
 
@@ -183,7 +177,7 @@ private void updateBlockEntity(EntityRef blockEntity, Vector3ic pos, Block oldTy
     public EntityRef setPermanentBlockEntity(Vector3ic blockPosition, EntityRef blockEntity) {
         if (GameThread.isCurrentThread()) {
             EntityRef oldEntity = getExistingBlockEntityAt(blockPosition);
-            blockEntityLookup.put(new Vector3i(blockPosition), blockEntity);
+            blockEntityLookup.put(blockPosition, blockEntity);
             temporaryBlockEntities.remove(blockEntity);
             return oldEntity;
         }
@@ -354,7 +348,7 @@ private EntityRef createBlockEntity(Vector3ic blockPosition, Block block) {
             blockEntity = builder.build();
         }
 
-        blockEntityLookup.put(new Vector3i(blockPosition), blockEntity);
+        blockEntityLookup.put(blockPosition, blockEntity);
         return blockEntity;
     }
 
@@ -398,7 +392,7 @@ public boolean hasPermanentBlockEntity(Vector3ic blockPos) {
     @ReceiveEvent(components = BlockComponent.class)
     public void onActivateBlock(OnActivatedComponent event, EntityRef entity) {
         BlockComponent block = entity.getComponent(BlockComponent.class);
-        EntityRef oldEntity = blockEntityLookup.put(block.getPosition(new Vector3i()), entity);
+        EntityRef oldEntity = blockEntityLookup.put(block.getPosition(), entity);
         // If this is a client, then an existing block entity may exist. Destroy it.
         if (oldEntity != null && !Objects.equal(oldEntity, entity)) {
             oldEntity.destroy();
@@ -408,40 +402,41 @@ public void onActivateBlock(OnActivatedComponent event, EntityRef entity) {
     @ReceiveEvent(components = BlockComponent.class)
     public void onDeactivateBlock(BeforeDeactivateComponent event, EntityRef entity) {
         BlockComponent block = entity.getComponent(BlockComponent.class);
-        if (blockEntityLookup.get(block.getPosition()) == entity) {
-            blockEntityLookup.remove(block.getPosition());
-        }
+        blockEntityLookup.remove(block.getPosition(), entity);
     }
 
     @ReceiveEvent(components = BlockRegionComponent.class)
     public void onBlockRegionActivated(OnActivatedComponent event, EntityRef entity) {
         BlockRegionComponent regionComp = entity.getComponent(BlockRegionComponent.class);
-        blockRegions.put(entity, regionComp.region);
-        for (Vector3ic pos : regionComp.region) {
-            blockRegionLookup.put(new Vector3i(pos), entity);
-        }
+        blockRegionLookup.put(entity, regionComp.region);
     }
 
     @ReceiveEvent(components = BlockRegionComponent.class)
     public void onBlockRegionChanged(OnChangedComponent event, EntityRef entity) {
-        BlockRegion oldRegion = blockRegions.get(entity);
-        for (Vector3ic pos : oldRegion) {
-            blockRegionLookup.remove(pos);
-        }
         BlockRegionComponent regionComp = entity.getComponent(BlockRegionComponent.class);
-        blockRegions.put(entity, regionComp.region);
-        for (Vector3ic pos : regionComp.region) {
-            blockRegionLookup.put(new Vector3i(pos), entity);
-        }
+        blockRegionLookup.put(entity, regionComp.region);
     }
 
     @ReceiveEvent(components = BlockRegionComponent.class)
     public void onBlockRegionDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
-        BlockRegion oldRegion = blockRegions.get(entity);
-        for (Vector3ic pos : oldRegion) {
-            blockRegionLookup.remove(pos);
-        }
-        blockRegions.remove(entity);
+        blockRegionLookup.remove(entity);
+    }
+
+    /**
+     * @param chunkPos The position of a chunk
+     * @return The entities of the blocks in the chunk, which must be used before the next change to block entities
+     */
+    public Collection<EntityRef> getBlockEntitiesInChunk(Vector3ic chunkPos) {
+        return blockEntityLookup.getEntitiesInChunk(chunkPos);
+    }
+
+    /**
+     * @param chunkPos The position of a chunk
+     * @return The entities of the block regions overlapping the chunk, which must be used before the next change to
+     * block region entities
+     */
+    public Collection<EntityRef> getBlockRegionEntitiesInChunk(Vector3ic chunkPos) {
+        return blockRegionLookup.getEntitiesInChunk(chunkPos);
     }
 
     @Override
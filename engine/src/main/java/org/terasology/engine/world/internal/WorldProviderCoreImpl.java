@@ -23,9 +23,9 @@
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.propagation.BatchPropagator;
 import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.ParallelBatchPropagator;
 import org.terasology.engine.world.propagation.PropagationRules;
 import org.terasology.engine.world.propagation.PropagatorWorldView;
-import org.terasology.engine.world.propagation.StandardBatchPropagator;
 import org.terasology.engine.world.propagation.SunlightRegenBatchPropagator;
 import org.terasology.engine.world.propagation.light.LightPropagationRules;
 import org.terasology.engine.world.propagation.light.LightWorldView;
@@ -36,10 +36,12 @@
 import org.terasology.engine.world.time.WorldTime;
 import org.terasology.engine.world.time.WorldTimeImpl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -77,11 +79,11 @@ public WorldProviderCoreImpl(String title, String customTitle, String seed, long
         this.worldTime = new WorldTimeImpl();
         worldTime.setMilliseconds(time);
 
-        propagators.add(new StandardBatchPropagator(new LightPropagationRules(), new LightWorldView(chunkProvider)));
+        propagators.add(new ParallelBatchPropagator(new LightPropagationRules(), new LightWorldView(chunkProvider)));
         PropagatorWorldView regenWorldView = new SunlightRegenWorldView(chunkProvider);
         PropagationRules sunlightRules = new SunlightPropagationRules(regenWorldView);
         PropagatorWorldView sunlightWorldView = new SunlightWorldView(chunkProvider);
-        BatchPropagator sunlightPropagator = new StandardBatchPropagator(sunlightRules, sunlightWorldView);
+        BatchPropagator sunlightPropagator = new ParallelBatchPropagator(sunlightRules, sunlightWorldView);
         propagators.add(new SunlightRegenBatchPropagator(new SunlightRegenPropagationRules(), regenWorldView,
                 sunlightPropagator, sunlightWorldView));
         propagators.add(sunlightPropagator);
@@ -173,10 +175,6 @@ public boolean isRegionRelevant(BlockRegionc region) {
 
     @Override
     public Block setBlock(Vector3ic worldPos, Block type) {
-        /*
-         * Hint: This method has a benchmark available in the BenchmarkScreen, The screen can be opened ingame via the
-         * command "showSCreen BenchmarkScreen".
-         */
         Vector3i chunkPos = Chunks.toChunkPos(worldPos, new Vector3i());
         Chunk chunk = chunkProvider.getChunk(chunkPos);
         if (chunk != null) {
@@ -198,49 +196,93 @@ public Block setBlock(Vector3ic worldPos, Block type) {
         return null;
     }
 
+    /**
+     * Sets the blocks chunk by chunk: every chunk is looked up and marked dirty once, along with the neighbouring chunks
+     * that border a changed block, and the listeners are notified of the changes of each chunk in one call.
+     * <br><br>
+     * See the SetBlocksBenchmark for measurements of this method.
+     */
     @Override
     public Map<Vector3ic, Block> setBlocks(Map<? extends Vector3ic, Block> blocks) {
-        /*
-         * Hint: This method has a benchmark available in the BenchmarkScreen, The screen can be opened ingame via the
-         * command "showSCreen BenchmarkScreen".
-         */
-        Set<BlockChange> changedBlocks = new HashSet<>();
         Map<Vector3ic, Block> result = new HashMap<>(blocks.size());
+        Map<Vector3i, List<Map.Entry<? extends Vector3ic, Block>>> blocksByChunk = new LinkedHashMap<>();
+        for (Map.Entry<? extends Vector3ic, Block> entry : blocks.entrySet()) {
+            Vector3i chunkPos = Chunks.toChunkPos(entry.getKey(), new Vector3i());
+            blocksByChunk.computeIfAbsent(chunkPos, k -> new ArrayList<>()).add(entry);
+        }
 
-        Vector3i chunkPos = new Vector3i();
+        Map<Vector3ic, List<BlockChange>> changesByChunk = new LinkedHashMap<>();
+        Set<Vector3ic> dirtyChunks = new HashSet<>();
         Vector3i relativePos = new Vector3i();
-        for (Map.Entry<? extends Vector3ic, Block> entry : blocks.entrySet()) {
-            Vector3ic worldPos = entry.getKey();
-            Chunks.toChunkPos(worldPos, chunkPos);
+        for (Vector3i chunkPos : blocksByChunk.keySet()) {
+            List<Map.Entry<? extends Vector3ic, Block>> chunkBlocks = blocksByChunk.get(chunkPos);
             Chunk chunk = chunkProvider.getChunk(chunkPos);
+            if (chunk == null) {
+                for (Map.Entry<? extends Vector3ic, Block> entry : chunkBlocks) {
+                    result.put(entry.getKey(), null);
+                }
+                continue;
+            }
 
-            if (chunk != null) {
+            List<BlockChange> chunkChanges = new ArrayList<>();
+            for (Map.Entry<? extends Vector3ic, Block> entry : chunkBlocks) {
+                Vector3ic worldPos = entry.getKey();
                 Block type = entry.getValue();
-               Chunks.toRelative(worldPos, relativePos);
+                Chunks.toRelative(worldPos, relativePos);
                 Block oldBlockType = chunk.setBlock(relativePos, type);
                 if (oldBlockType != type) {
+                    BlockChange change = new BlockChange(worldPos, oldBlockType, type);
                     BlockChange oldChange = blockChanges.get(worldPos);
                     if (oldChange == null) {
-                        blockChanges.put(new Vector3i(worldPos), new BlockChange(worldPos, oldBlockType, type));
+                        blockChanges.put(new Vector3i(worldPos), change);
                     } else {
                         oldChange.setTo(type);
                     }
-                    setDirtyChunksNear(worldPos);
-                    changedBlocks.add(new BlockChange(worldPos, oldBlockType, type));
+                    addNeighboursNear(chunkPos, relativePos, dirtyChunks);
+                    chunkChanges.add(change);
                 }
                 result.put(worldPos, oldBlockType);
-            } else {
-                result.put(worldPos, null);
+            }
+            if (!chunkChanges.isEmpty()) {
+                dirtyChunks.add(chunkPos);
+                changesByChunk.put(chunkPos, chunkChanges);
             }
         }
 
-        for (BlockChange change : changedBlocks) {
-            notifyBlockChanged(change.getPosition(), change.getTo(), change.getFrom());
+        for (Vector3ic pos : dirtyChunks) {
+            Chunk dirtiedChunk = chunkProvider.getChunk(pos);
+            if (dirtiedChunk != null) {
+                dirtiedChunk.setDirty(true);
+            }
         }
-
+        notifyBlocksChanged(changesByChunk);
         return result;
     }
 
+    /**
+     * Adds the chunks next to the given chunk which border the block at the relative position.
+     */
+    private static void addNeighboursNear(Vector3ic chunkPos, Vector3ic relativePos, Set<Vector3ic> chunks) {
+        int minX = relativePos.x() == 0 ? -1 : 0;
+        int maxX = relativePos.x() == Chunks.SIZE_X - 1 ? 1 : 0;
+        int minY = relativePos.y() == 0 ? -1 : 0;
+        int maxY = relativePos.y() == Chunks.SIZE_Y - 1 ? 1 : 0;
+        int minZ = relativePos.z() == 0 ? -1 : 0;
+        int maxZ = relativePos.z() == Chunks.SIZE_Z - 1 ? 1 : 0;
+        if (minX == maxX && minY == maxY && minZ == maxZ) {
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (x != 0 || y != 0 || z != 0) {
+                        chunks.add(new Vector3i(chunkPos).add(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
     private void setDirtyChunksNear(Vector3ic worldPos) {
         BlockRegion tmpRegion = new BlockRegion(worldPos).expand(1, 1, 1);
         for (Vector3ic pos : Chunks.toChunkRegion(tmpRegion, tmpRegion)) {
@@ -261,6 +303,19 @@ private void notifyBlockChanged(Vector3ic pos, Block type, Block oldType) {
         }
     }
 
+    private void notifyBlocksChanged(Map<Vector3ic, List<BlockChange>> changesByChunk) {
+        if (changesByChunk.isEmpty()) {
+            return;
+        }
+        synchronized (listeners) {
+            for (WorldChangeListener listener : listeners) {
+                for (Map.Entry<Vector3ic, List<BlockChange>> entry : changesByChunk.entrySet()) {
+                    listener.onBlocksChanged(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     private void notifyExtraDataChanged(int index, Vector3ic pos, int newData, int oldData) {
         // TODO: Change to match block , if those changes are made.
         synchronized (listeners) {
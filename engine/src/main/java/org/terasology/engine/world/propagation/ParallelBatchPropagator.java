@@ -0,0 +1,290 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Batch propagator that splits a batch of changes by chunk and processes independent groups of chunks in parallel.
+ * <p>
+ * Every change can only read and write values within a bounded distance of itself, twice the maximum value of the
+ * rules: a reduction clears at most that far, and the light refilling the cleared area comes from at most that far
+ * again. Changes are bucketed by the chunk they are in, and buckets whose reach covers a common chunk are merged
+ * before anything is processed. The resulting groups never touch the same chunk, so each one is processed by its own
+ * {@link PrimitiveBatchPropagator} without synchronisation, and values spilling over chunk borders stay inside the
+ * group that caused them.
+ * <p>
+ * Grouping only depends on the batch, and within a group changes keep their batch order, so the result is identical
+ * to processing the whole batch with {@link StandardBatchPropagator}.
+ * <p>
+ * The world view must allow concurrent access to distinct chunks.
+ */
+public class ParallelBatchPropagator implements BatchPropagator {
+
+    /**
+     * Batches smaller than this are not worth distributing.
+     */
+    private static final int MIN_PARALLEL_CHANGES = 64;
+
+    private final PropagationRules rules;
+    private final PropagatorWorldView world;
+    private final ForkJoinPool pool;
+    private final int reach;
+
+    /* delegates.get(0) is used for sequential processing */
+    private final List<PrimitiveBatchPropagator> delegates = Lists.newArrayList();
+    private final List<Seed> pendingSeeds = Lists.newArrayList();
+    /* set when a delegate holds queued values not tracked by pendingSeeds */
+    private boolean sequentialOnly;
+
+    public ParallelBatchPropagator(PropagationRules rules, PropagatorWorldView world) {
+        this(rules, world, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBatchPropagator(PropagationRules rules, PropagatorWorldView world, ForkJoinPool pool) {
+        this.rules = rules;
+        this.world = world;
+        this.pool = pool;
+        this.reach = 2 * rules.getMaxValue() + 1;
+        delegates.add(new PrimitiveBatchPropagator(rules, world));
+    }
+
+    @Override
+    public void process(BlockChange... changes) {
+        process(Arrays.asList(changes));
+    }
+
+    @Override
+    public void process(Iterable<BlockChange> blockChanges) {
+        List<BlockChange> changes = Lists.newArrayList(blockChanges);
+        if (sequentialOnly || changes.size() + pendingSeeds.size() < MIN_PARALLEL_CHANGES) {
+            processSequential(changes);
+            return;
+        }
+
+        List<Group> groups = partition(changes);
+        if (groups.size() == 1) {
+            processSequential(changes);
+            return;
+        }
+
+        while (delegates.size() < groups.size()) {
+            delegates.add(new PrimitiveBatchPropagator(rules, world));
+        }
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            PrimitiveBatchPropagator delegate = delegates.get(i);
+            tasks.add(pool.submit(() -> group.processWith(delegate)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        pendingSeeds.clear();
+    }
+
+    private void processSequential(List<BlockChange> changes) {
+        PrimitiveBatchPropagator delegate = delegates.get(0);
+        for (Seed seed : pendingSeeds) {
+            seed.queueInto(delegate);
+        }
+        pendingSeeds.clear();
+        delegate.process(changes);
+        sequentialOnly = false;
+    }
+
+    /**
+     * Buckets changes and pending seeds by chunk and merges buckets which may affect a common chunk.
+     */
+    private List<Group> partition(List<BlockChange> changes) {
+        Map<Vector3ic, Bucket> buckets = Maps.newLinkedHashMap();
+        Vector3i chunkPos = new Vector3i();
+        for (Seed seed : pendingSeeds) {
+            bucketFor(buckets, seed.position, chunkPos).seeds.add(seed);
+        }
+        for (BlockChange change : changes) {
+            bucketFor(buckets, change.getPosition(), chunkPos).changes.add(change);
+        }
+
+        List<Bucket> bucketList = Lists.newArrayList(buckets.values());
+        int[] parent = new int[bucketList.size()];
+        Map<Vector3ic, Integer> chunkOwners = Maps.newHashMap();
+        BlockRegion chunkRegion = new BlockRegion(0, 0, 0);
+        for (int i = 0; i < bucketList.size(); i++) {
+            parent[i] = i;
+            Bucket bucket = bucketList.get(i);
+            BlockRegion reachRegion = new BlockRegion(bucket.bounds).expand(reach, reach, reach);
+            for (Vector3ic affectedChunk : Chunks.toChunkRegion(reachRegion, chunkRegion)) {
+                Integer owner = chunkOwners.putIfAbsent(new Vector3i(affectedChunk), i);
+                if (owner != null) {
+                    union(parent, owner, i);
+                }
+            }
+        }
+
+        Map<Integer, List<Bucket>> components = Maps.newLinkedHashMap();
+        for (int i = 0; i < bucketList.size(); i++) {
+            components.computeIfAbsent(find(parent, i), k -> Lists.newArrayList()).add(bucketList.get(i));
+        }
+        if (components.size() == 1) {
+            return Lists.newArrayList(new Group(pendingSeeds, changes));
+        }
+
+        List<Group> groups = Lists.newArrayListWithCapacity(components.size());
+        for (List<Bucket> component : components.values()) {
+            groups.add(Group.of(component, pendingSeeds, changes));
+        }
+        return groups;
+    }
+
+    private static Bucket bucketFor(Map<Vector3ic, Bucket> buckets, Vector3ic pos, Vector3i chunkPos) {
+        Chunks.toChunkPos(pos, chunkPos);
+        Bucket bucket = buckets.get(chunkPos);
+        if (bucket == null) {
+            bucket = new Bucket(pos);
+            buckets.put(new Vector3i(chunkPos), bucket);
+        } else {
+            bucket.bounds.union(pos);
+        }
+        return bucket;
+    }
+
+    private static int find(int[] parent, int i) {
+        int root = i;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[i] != root) {
+            int next = parent[i];
+            parent[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // keep the earlier bucket as root, so the group order follows the batch
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * Values are queued in the delegate that will process the next batch, so the next batch runs sequentially.
+     */
+    @Override
+    public void propagateBetween(Chunk chunk, Chunk adjChunk, Side side, boolean propagateExternal) {
+        PrimitiveBatchPropagator delegate = delegates.get(0);
+        for (Seed seed : pendingSeeds) {
+            seed.queueInto(delegate);
+        }
+        pendingSeeds.clear();
+        delegate.propagateBetween(chunk, adjChunk, side, propagateExternal);
+        sequentialOnly = true;
+    }
+
+    @Override
+    public void propagateFrom(Vector3ic pos, Block block) {
+        propagateFrom(pos, rules.getFixedValue(block, pos));
+    }
+
+    @Override
+    public void propagateFrom(Vector3ic pos, byte value) {
+        pendingSeeds.add(new Seed(pos, value, false));
+    }
+
+    @Override
+    public void regenerate(Vector3ic pos, byte value) {
+        pendingSeeds.add(new Seed(pos, value, true));
+    }
+
+    /**
+     * A value queued through {@link #propagateFrom} or {@link #regenerate} before the batch is processed.
+     */
+    private static final class Seed {
+        private final Vector3ic position;
+        private final byte value;
+        private final boolean regenerate;
+
+        private Seed(Vector3ic position, byte value, boolean regenerate) {
+            this.position = new Vector3i(position);
+            this.value = value;
+            this.regenerate = regenerate;
+        }
+
+        void queueInto(BatchPropagator propagator) {
+            if (regenerate) {
+                propagator.regenerate(position, value);
+            } else {
+                propagator.propagateFrom(position, value);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final BlockRegion bounds;
+        private final List<Seed> seeds = Lists.newArrayList();
+        private final List<BlockChange> changes = Lists.newArrayList();
+
+        private Bucket(Vector3ic firstPosition) {
+            bounds = new BlockRegion(firstPosition);
+        }
+    }
+
+    /**
+     * Seeds and changes processed by one delegate, in batch order.
+     */
+    private static final class Group {
+        private final List<Seed> seeds;
+        private final List<BlockChange> changes;
+
+        private Group(List<Seed> seeds, List<BlockChange> changes) {
+            this.seeds = seeds;
+            this.changes = changes;
+        }
+
+        static Group of(List<Bucket> buckets, List<Seed> allSeeds, List<BlockChange> allChanges) {
+            Map<Object, Boolean> members = Maps.newIdentityHashMap();
+            for (Bucket bucket : buckets) {
+                bucket.seeds.forEach(seed -> members.put(seed, Boolean.TRUE));
+                bucket.changes.forEach(change -> members.put(change, Boolean.TRUE));
+            }
+            List<Seed> seeds = Lists.newArrayList();
+            for (Seed seed : allSeeds) {
+                if (members.containsKey(seed)) {
+                    seeds.add(seed);
+                }
+            }
+            List<BlockChange> changes = Lists.newArrayList();
+            for (BlockChange change : allChanges) {
+                if (members.containsKey(change)) {
+                    changes.add(change);
+                }
+            }
+            return new Group(seeds, changes);
+        }
+
+        void processWith(BatchPropagator propagator) {
+            for (Seed seed : seeds) {
+                seed.queueInto(propagator);
+            }
+            propagator.process(changes);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+
+import java.util.Arrays;
+
+/**
+ * Insertion ordered set of block positions, backed by primitive arrays.
+ * <p>
+ * Behaves like a {@link java.util.LinkedHashSet} of positions: adding a position that is already queued does nothing,
+ * and removed positions are skipped when iterating. Positions are stored as packed int triples, so neither adding nor
+ * iterating allocates once the backing arrays are large enough.
+ * <p>
+ * Iterate with {@link #entryCount()} and {@link #get(int, Vector3i)}:
+ * <pre>
+ * for (int i = 0; i &lt; queue.entryCount(); i++) {
+ *     if (queue.get(i, pos)) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+final class PositionQueue {
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /* x, y, z of every added position, in insertion order */
+    private int[] coords;
+    private boolean[] removed;
+    /* open addressed hash table of indices into coords, linear probing */
+    private int[] table;
+    private int mask;
+
+    private int entryCount;
+    private int size;
+
+    PositionQueue() {
+        coords = new int[INITIAL_CAPACITY * 3];
+        removed = new boolean[INITIAL_CAPACITY];
+        table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, EMPTY);
+        mask = table.length - 1;
+    }
+
+    /**
+     * @return true if the position was added, false if it was already queued
+     */
+    boolean add(Vector3ic pos) {
+        return add(pos.x(), pos.y(), pos.z());
+    }
+
+    boolean add(int x, int y, int z) {
+        int slot = findSlot(x, y, z);
+        if (table[slot] != EMPTY) {
+            return false;
+        }
+        if (entryCount == removed.length) {
+            growEntries();
+        }
+        int index = entryCount++;
+        coords[index * 3] = x;
+        coords[index * 3 + 1] = y;
+        coords[index * 3 + 2] = z;
+        removed[index] = false;
+        table[slot] = index;
+        size++;
+        if (entryCount * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the position was queued
+     */
+    boolean remove(Vector3ic pos) {
+        int slot = findSlot(pos.x(), pos.y(), pos.z());
+        int index = table[slot];
+        if (index == EMPTY) {
+            return false;
+        }
+        removed[index] = true;
+        deleteSlot(slot);
+        size--;
+        return true;
+    }
+
+    boolean contains(Vector3ic pos) {
+        return table[findSlot(pos.x(), pos.y(), pos.z())] != EMPTY;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of entries that were ever added since the last clear, including removed ones
+     */
+    int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Reads the entry at index.
+     *
+     * @param index the entry index, less than {@link #entryCount()}
+     * @param dest the vector to store the position in
+     * @return false if the entry has been removed, in which case dest is left untouched
+     */
+    boolean get(int index, Vector3i dest) {
+        if (removed[index]) {
+            return false;
+        }
+        dest.set(coords[index * 3], coords[index * 3 + 1], coords[index * 3 + 2]);
+        return true;
+    }
+
+    void clear() {
+        if (entryCount == 0) {
+            return;
+        }
+        Arrays.fill(table, EMPTY);
+        entryCount = 0;
+        size = 0;
+    }
+
+    private int findSlot(int x, int y, int z) {
+        int slot = hash(x, y, z) & mask;
+        while (true) {
+            int index = table[slot];
+            if (index == EMPTY) {
+                return slot;
+            }
+            int offset = index * 3;
+            if (coords[offset] == x && coords[offset + 1] == y && coords[offset + 2] == z) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the slot and shifts back following entries of the probe sequence, so no tombstones are needed.
+     */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int index = table[next];
+            int home = hash(coords[index * 3], coords[index * 3 + 1], coords[index * 3 + 2]) & mask;
+            // move the entry into the gap if its home slot is not cyclically within (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = index;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = EMPTY;
+    }
+
+    private void growEntries() {
+        int capacity = removed.length * 2;
+        coords = Arrays.copyOf(coords, capacity * 3);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        Arrays.fill(table, EMPTY);
+        mask = tableSize - 1;
+        for (int index = 0; index < entryCount; index++) {
+            if (!removed[index]) {
+                int offset = index * 3;
+                table[findSlot(coords[offset], coords[offset + 1], coords[offset + 2])] = index;
+            }
+        }
+    }
+
+    private static int hash(int x, int y, int z) {
+        int h = x * 0x9E3779B1 + y * 0x85EBCA77 + z * 0xC2B2AE3D;
+        return h ^ (h >>> 16);
+    }
+}
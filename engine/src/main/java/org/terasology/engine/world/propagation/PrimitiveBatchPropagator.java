@@ -0,0 +1,437 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Arrays;
+
+/**
+ * Batch propagator that works on a set of changed blocks. Works for a single given propagation ruleset.
+ * <p>
+ * Produces the same values as {@link StandardBatchPropagator}, processing positions in the same order, but keeps its
+ * queues in {@link PositionQueue}s and reuses its scratch vectors, so a batch does not allocate per visited block.
+ */
+public class PrimitiveBatchPropagator implements BatchPropagator {
+
+    private static final byte NO_VALUE = 0;
+    private static final Side[] SIDES = Side.values();
+
+    private final PropagationRules rules;
+    private final PropagatorWorldView world;
+    private final int scale;
+    private final byte maxValue;
+
+    /* Queues are stored in reverse order. Ie, strongest light is 0. */
+    private final PositionQueue[] reduceQueues;
+    private final PositionQueue[] increaseQueues;
+    /* Takes the place of a queue while that queue is being processed */
+    private PositionQueue spareQueue = new PositionQueue();
+
+    private final Vector3i[] chunkEdgeDeltas = new Vector3i[SIDES.length];
+
+    private final Vector3i current = new Vector3i();
+    private final Vector3i adjPos = new Vector3i();
+
+    public PrimitiveBatchPropagator(PropagationRules rules, PropagatorWorldView world) {
+        this(rules, world, 1);
+    }
+
+    public PrimitiveBatchPropagator(PropagationRules rules, PropagatorWorldView world, int scale) {
+        this.world = world;
+        this.rules = rules;
+        this.scale = scale;
+        this.maxValue = rules.getMaxValue();
+
+        for (Side side : SIDES) {
+            Vector3i delta = new Vector3i(side.direction());
+            if (delta.x < 0) {
+                delta.x += Chunks.SIZE_X;
+            } else if (delta.x > 0) {
+                delta.x -= Chunks.SIZE_X;
+            }
+            if (delta.y < 0) {
+                delta.y += Chunks.SIZE_Y;
+            } else if (delta.y > 0) {
+                delta.y -= Chunks.SIZE_Y;
+            }
+            if (delta.z < 0) {
+                delta.z += Chunks.SIZE_Z;
+            } else if (delta.z > 0) {
+                delta.z -= Chunks.SIZE_Z;
+            }
+            chunkEdgeDeltas[side.ordinal()] = delta;
+        }
+
+        increaseQueues = new PositionQueue[maxValue];
+        reduceQueues = new PositionQueue[maxValue];
+        for (int i = 0; i < maxValue; ++i) {
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
+        }
+    }
+
+    @Override
+    public void process(BlockChange... changes) {
+        process(Arrays.asList(changes));
+    }
+
+    @Override
+    public void process(Iterable<BlockChange> blockChanges) {
+        for (BlockChange blockChange : blockChanges) {
+            reviewChange(blockChange);
+        }
+
+        processReduction();
+        processIncrease();
+        cleanUp();
+    }
+
+    /**
+     * Handles a single block being changed to a different type.
+     *
+     * @param blockChange The change that was made
+     */
+    private void reviewChange(BlockChange blockChange) {
+        Vector3ic blockChangePosition = blockChange.getPosition();
+        byte newValue = rules.getFixedValue(blockChange.getTo(), blockChangePosition);
+        byte existingValue = world.getValueAt(blockChangePosition);
+
+        /* Handle if the block has an higher fixed value */
+        if (newValue > existingValue) {
+            increase(blockChangePosition, newValue);
+        }
+
+        /* Handle if the block has a lower fixed value */
+        byte oldValue = rules.getFixedValue(blockChange.getFrom(), blockChangePosition);
+        if (newValue < oldValue) {
+            reduce(blockChangePosition, oldValue);
+        }
+
+        /* Process propagation out to other blocks */
+        for (Side side : SIDES) {
+            PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(),
+                    side);
+
+            if (comparison.isRestricting() && existingValue > 0) {
+                /* If the propagation of the new value is going to be lower/reduced */
+                reduce(blockChangePosition, existingValue);
+                side.getAdjacentPos(blockChangePosition, adjPos);
+                byte adjValue = world.getValueAt(adjPos);
+                if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom(), scale)) {
+                    reduce(adjPos, adjValue);
+                }
+
+            } else if (comparison.isPermitting()) {
+                /* If the propagation of the new value is going to be more allowing */
+                if (existingValue > 0) {
+                    /* Spread this potentially higher value out */
+                    queueSpreadValue(blockChangePosition, existingValue);
+                }
+                /* Spread it out to the block on the side */
+                side.getAdjacentPos(blockChangePosition, adjPos);
+                byte adjValue = world.getValueAt(adjPos);
+                if (adjValue != PropagatorWorldView.UNAVAILABLE) {
+                    queueSpreadValue(adjPos, adjValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reset a position to only it's fixed values
+     *
+     * @param pos The position to reset
+     * @param oldValue The value present before reset
+     */
+    private void purge(Vector3ic pos, byte oldValue) {
+        increaseQueues[maxValue - oldValue].remove(pos);
+
+        /* Clear the value and re-propagate it if it's a positive value */
+        Block block = world.getBlockAt(pos);
+        byte fixedValue = rules.getFixedValue(block, pos);
+        if (fixedValue > 0) {
+            increase(pos, fixedValue);
+        } else {
+            world.setValueAt(pos, NO_VALUE);
+        }
+
+        for (Side side : SIDES) {
+            /* Handle this value being reset to the default by updating sides as needed */
+            byte expectedValue = rules.propagateValue(oldValue, side, block, scale);
+            if (rules.canSpreadOutOf(block, side)) {
+                side.getAdjacentPos(pos, adjPos);
+                byte adjValue = world.getValueAt(adjPos);
+                if (adjValue == expectedValue) {
+                    Block adjBlock = world.getBlockAt(adjPos);
+                    if (rules.canSpreadInto(adjBlock, side.reverse())) {
+                        reduce(adjPos, expectedValue);
+                    }
+                } else if (adjValue > 0) {
+                    queueSpreadValue(adjPos, adjValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Process all reducing propagation requests This is done from the largest value through the smallest.
+     */
+    private void processReduction() {
+        for (int depth = 0; depth < maxValue; depth++) {
+            byte oldValue = (byte) (maxValue - depth);
+
+            while (!reduceQueues[depth].isEmpty()) {
+                PositionQueue toProcess = swapOut(reduceQueues, depth);
+
+                /* This step will add any new reductions to to the `reduceQueues` set */
+                for (int i = 0; i < toProcess.entryCount(); i++) {
+                    if (toProcess.get(i, current)) {
+                        purge(current, oldValue);
+                    }
+                }
+                recycle(toProcess);
+            }
+        }
+    }
+
+    /**
+     * Process all increasing propagation requests This is done from the strongest through to the weakest.
+     */
+    private void processIncrease() {
+        for (int depth = 0; depth < maxValue - 1; depth++) {
+            byte value = (byte) (maxValue - depth);
+
+            while (!increaseQueues[depth].isEmpty()) {
+                PositionQueue toProcess = swapOut(increaseQueues, depth);
+
+                /* This step will add any new values to `increaseQueues` */
+                for (int i = 0; i < toProcess.entryCount(); i++) {
+                    if (toProcess.get(i, current)) {
+                        push(current, value);
+                    }
+                }
+                recycle(toProcess);
+            }
+        }
+    }
+
+    /**
+     * Replaces the queue at depth with an empty one, so the original can be iterated while new entries are queued.
+     */
+    private PositionQueue swapOut(PositionQueue[] queues, int depth) {
+        PositionQueue toProcess = queues[depth];
+        queues[depth] = spareQueue;
+        spareQueue = null;
+        return toProcess;
+    }
+
+    private void recycle(PositionQueue processed) {
+        processed.clear();
+        spareQueue = processed;
+    }
+
+    /**
+     * Propagates a value from a position out into all adjacent blocks.
+     * <p>
+     * If the value spreading into a block is larger than the current value there, set it and queue it for propagating
+     * again If the value is smaller than the current value, do nothing
+     *
+     * @param pos The initial position
+     * @param value The value to propagate
+     */
+    private void push(Vector3ic pos, byte value) {
+        Block block = world.getBlockAt(pos);
+        for (Side side : SIDES) {
+            byte propagatedValue = rules.propagateValue(value, side, block, scale);
+
+            if (rules.canSpreadOutOf(block, side)) {
+                side.getAdjacentPos(pos, adjPos);
+                byte adjValue = world.getValueAt(adjPos);
+
+                if (adjValue < propagatedValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
+                    Block adjBlock = world.getBlockAt(adjPos);
+
+                    if (rules.canSpreadInto(adjBlock, side.reverse())) {
+                        increase(adjPos, propagatedValue);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the value at a position to a new value. This should be larger than the prior value
+     * <p>
+     * Queues up this new higher value to be propagated out
+     *
+     * @param position The position to set at
+     * @param value The value to set the position to
+     */
+    private void increase(Vector3ic position, byte value) {
+        world.setValueAt(position, value);
+        queueSpreadValue(position, value);
+    }
+
+    /**
+     * Set the value at the position as having been lowered to a smaller value
+     *
+     * @param position The position to set at
+     * @param oldValue The original value at the position
+     */
+    private void reduce(Vector3ic position, byte oldValue) {
+        if (oldValue > 0) {
+            reduceQueues[maxValue - oldValue].add(position);
+        }
+    }
+
+    /**
+     * Queues up a propagation from a given position. Propagation is placed into a queue for the given level.
+     *
+     * @param position The position to propagate form
+     * @param value The value to propagate out
+     */
+    private void queueSpreadValue(Vector3ic position, byte value) {
+        if (value > 1) {
+            increaseQueues[maxValue - value].add(position);
+        }
+    }
+
+    /**
+     * Clears all the queues, keeping their storage for the next batch
+     */
+    private void cleanUp() {
+        for (PositionQueue queue : increaseQueues) {
+            queue.clear();
+        }
+    }
+
+    @Override
+    public void propagateBetween(Chunk chunk, Chunk adjChunk, Side side, boolean propagateExternal) {
+        BlockRegion edgeRegion = new BlockRegion(0, 0, 0)
+                .setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        edgeRegion.face(side, edgeRegion);
+
+        int[] depth = new int[edgeRegion.volume()];
+
+        propagateSide(chunk, adjChunk, side, edgeRegion, depth);
+        propagateDepth(adjChunk, side, propagateExternal, edgeRegion, depth);
+    }
+
+    private void propagateDepth(Chunk adjChunk, Side side, boolean propagateExternal, BlockRegion edgeRegion,
+                                int[] depths) {
+        Vector3i pos = new Vector3i();
+        Vector3i worldPos = new Vector3i();
+        Vector3ic edgeDelta = chunkEdgeDeltas[side.ordinal()];
+
+        int[] adjDepth = new int[depths.length];
+        int dimA = (side == Side.LEFT || side == Side.RIGHT) ? Chunks.SIZE_Y : Chunks.SIZE_X;
+        int dimB = (side == Side.FRONT || side == Side.BACK) ? Chunks.SIZE_Y : Chunks.SIZE_Z;
+        BatchPropagator.populateMinAdjacent2D(depths, adjDepth, dimA, dimB, !propagateExternal);
+
+        if (propagateExternal) {
+            for (int y = 0; y < dimB; ++y) {
+                adjDepth[y * dimA] = 0;
+                adjDepth[dimA - 1 + y * dimA] = 0;
+            }
+            for (int x = 0; x < dimA; ++x) {
+                adjDepth[x] = 0;
+                adjDepth[x + dimA * (dimB - 1)] = 0;
+            }
+        }
+
+        for (int x = edgeRegion.minX(); x <= edgeRegion.maxX(); x++) {
+            for (int y = edgeRegion.minY(); y <= edgeRegion.maxY(); y++) {
+                for (int z = edgeRegion.minZ(); z <= edgeRegion.maxZ(); z++) {
+                    int depthIndex = edgeIndex(side, x, y, z);
+                    int adjacentDepth = adjDepth[depthIndex];
+                    for (int i = adjacentDepth; i < depths[depthIndex]; ++i) {
+                        pos.set(side.direction());
+                        pos.mul(i + 1);
+                        pos.add(x, y, z);
+                        pos.add(edgeDelta);
+                        byte value = rules.getValue(adjChunk, pos);
+                        if (value > 1) {
+                            queueSpreadValue(adjChunk.chunkToWorldPosition(pos, worldPos), value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void propagateSide(Chunk chunk, Chunk adjChunk, Side side, BlockRegion edgeRegion, int[] depths) {
+        Vector3i pos = new Vector3i();
+        Vector3i adjChunkPos = new Vector3i();
+        Vector3ic edgeDelta = chunkEdgeDeltas[side.ordinal()];
+        for (int x = edgeRegion.minX(); x <= edgeRegion.maxX(); x++) {
+            for (int y = edgeRegion.minY(); y <= edgeRegion.maxY(); y++) {
+                for (int z = edgeRegion.minZ(); z <= edgeRegion.maxZ(); z++) {
+                    pos.set(x, y, z);
+                    byte expectedValue = (byte) (rules.getValue(chunk, pos) - 1);
+                    if (expectedValue < 1) {
+                        continue;
+                    }
+
+                    pos.add(edgeDelta, adjChunkPos);
+
+                    int depthIndex = edgeIndex(side, x, y, z);
+                    int depth = 0;
+                    Block lastBlock = chunk.getBlock(pos);
+                    byte adjValue = rules.getValue(adjChunk, adjChunkPos);
+                    while (expectedValue > adjValue && adjValue != PropagatorWorldView.UNAVAILABLE
+                            && rules.canSpreadOutOf(lastBlock, side)) {
+                        lastBlock = adjChunk.getBlock(adjChunkPos);
+                        if (rules.canSpreadInto(lastBlock, side.reverse())) {
+                            rules.setValue(adjChunk, adjChunkPos, expectedValue);
+                            adjChunkPos.add(side.direction());
+                            depth++;
+                            expectedValue--;
+                            adjValue = rules.getValue(adjChunk, adjChunkPos);
+                        } else {
+                            break;
+                        }
+                    }
+                    depths[depthIndex] = depth;
+                }
+            }
+        }
+    }
+
+    /**
+     * Index of a position within the 2D edge of a chunk facing the given side
+     */
+    private static int edgeIndex(Side side, int x, int y, int z) {
+        switch (side) {
+            case TOP:
+            case BOTTOM:
+                return x + Chunks.SIZE_X * z;
+            case LEFT:
+            case RIGHT:
+                return y + Chunks.SIZE_Y * z;
+            default:
+                return x + Chunks.SIZE_X * y;
+        }
+    }
+
+    @Override
+    public void propagateFrom(Vector3ic pos, Block block) {
+        queueSpreadValue(pos, rules.getFixedValue(block, pos));
+    }
+
+    @Override
+    public void propagateFrom(Vector3ic pos, byte value) {
+        queueSpreadValue(pos, value);
+    }
+
+    @Override
+    public void regenerate(Vector3ic pos, byte value) {
+        reduce(pos, value);
+    }
+}
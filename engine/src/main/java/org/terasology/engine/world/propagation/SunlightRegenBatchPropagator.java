@@ -2,7 +2,6 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.terasology.engine.math.Side;
@@ -11,7 +10,6 @@
 import org.terasology.engine.world.chunks.Chunks;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -24,8 +22,11 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3ic>[] reduceQueues;
-    private Set<Vector3ic>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    private final Vector3i current = new Vector3i();
+    private final Vector3i position = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld,
                                         BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
@@ -34,11 +35,11 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -97,9 +98,13 @@ private void queueSpreadRegen(Vector3ic position, byte value) {
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3ic> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
 
-            toProcess.forEach(this::purge);
+            for (int i = 0; i < toProcess.entryCount(); i++) {
+                if (toProcess.get(i, current)) {
+                    purge(current);
+                }
+            }
             toProcess.clear();
         }
     }
@@ -107,12 +112,12 @@ private void processRegenReduction() {
     private void purge(Vector3ic pos) {
         int expectedValue = regenWorld.getValueAt(pos);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            position.set(pos);
             for (byte i = 0; i <= Chunks.MAX_SUNLIGHT_REGEN; ++i) {
                 if (regenWorld.getValueAt(position) == expectedValue) {
                     regenWorld.setValueAt(position, i);
                     if (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(position, (byte) (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
@@ -127,10 +132,12 @@ private void purge(Vector3ic pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3ic> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
 
-            for (Vector3ic pos : toProcess) {
-                push(pos, depth);
+            for (int i = 0; i < toProcess.entryCount(); i++) {
+                if (toProcess.get(i, current)) {
+                    push(current, depth);
+                }
             }
             toProcess.clear();
         }
@@ -139,7 +146,7 @@ private void processRegenIncrease() {
     private void push(Vector3ic pos, byte value) {
         byte regenValue = value;
         Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        position.set(pos);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block, 1);
             position.y -= 1;
@@ -154,7 +161,7 @@ private void push(Vector3ic pos, byte value) {
                         byte prevValue = sunlightWorld.getValueAt(position);
                         if (prevValue < sunlightValue) {
                             sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightPropagator.propagateFrom(position, sunlightValue);
                         }
                     }
                 } else {
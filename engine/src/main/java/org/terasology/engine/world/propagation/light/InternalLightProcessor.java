@@ -9,9 +9,9 @@
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.propagation.BatchPropagator;
+import org.terasology.engine.world.propagation.PrimitiveBatchPropagator;
 import org.terasology.engine.world.propagation.PropagationRules;
 import org.terasology.engine.world.propagation.SingleChunkView;
-import org.terasology.engine.world.propagation.StandardBatchPropagator;
 
 /**
  * For doing an initial lighting sweep during chunk generation - bound to the chunk and assumed blank slate
@@ -41,7 +41,7 @@ public static void generateInternalLighting(Chunk chunk, int scale) {
      * @param chunk The chunk to populate through
      */
     private static void populateLight(Chunk chunk, int scale) {
-        BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk), scale);
+        BatchPropagator lightPropagator = new PrimitiveBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk), scale);
         Vector3i pos = new Vector3i();
         for (int x = 0; x < Chunks.SIZE_X; x++) {
             for (int z = 0; z < Chunks.SIZE_Z; z++) {
@@ -64,7 +64,7 @@ private static void populateLight(Chunk chunk, int scale) {
      */
     private static void populateSunlight(Chunk chunk, int scale) {
         PropagationRules sunlightRules = new SunlightPropagationRules(chunk);
-        BatchPropagator lightPropagator = new StandardBatchPropagator(sunlightRules, new SingleChunkView(sunlightRules, chunk), scale);
+        BatchPropagator lightPropagator = new PrimitiveBatchPropagator(sunlightRules, new SingleChunkView(sunlightRules, chunk), scale);
 
         Vector3i pos = new Vector3i();
         for (int x = 0; x < Chunks.SIZE_X; x++) {
@@ -10,9 +10,9 @@
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.propagation.BatchPropagator;
 import org.terasology.engine.world.propagation.LocalChunkView;
+import org.terasology.engine.world.propagation.PrimitiveBatchPropagator;
 import org.terasology.engine.world.propagation.PropagationRules;
 import org.terasology.engine.world.propagation.PropagatorWorldView;
-import org.terasology.engine.world.propagation.StandardBatchPropagator;
 import org.terasology.engine.world.propagation.SunlightRegenBatchPropagator;
 
 import java.util.Arrays;
@@ -78,38 +78,48 @@ public static Chunk merge(Chunk[] localChunks) {
                 .thenComparing(c -> c.getPosition().z()));
         Chunk chunk = localChunks[CENTER_INDEX];
 
-        List<BatchPropagator> propagators = Lists.newArrayList();
-        propagators.add(new StandardBatchPropagator(new LightPropagationRules(), new LocalChunkView(localChunks,
-                LIGHT_RULES)));
-        PropagatorWorldView regenWorldView = new LocalChunkView(localChunks, SUNLIGHT_REGEN_RULES);
-        PropagationRules sunlightRules = new SunlightPropagationRules(regenWorldView);
-        PropagatorWorldView sunlightWorldView = new LocalChunkView(localChunks, sunlightRules);
-        BatchPropagator sunlightPropagator = new StandardBatchPropagator(sunlightRules, sunlightWorldView);
-        propagators.add(new SunlightRegenBatchPropagator(SUNLIGHT_REGEN_RULES, regenWorldView, sunlightPropagator,
-                sunlightWorldView));
-        propagators.add(sunlightPropagator);
+        // light is written into the neighbours as well, which the main thread may dispose meanwhile
+        for (Chunk localChunk : localChunks) {
+            localChunk.acquireData();
+        }
+        try {
+            List<BatchPropagator> propagators = Lists.newArrayList();
+            propagators.add(new PrimitiveBatchPropagator(new LightPropagationRules(), new LocalChunkView(localChunks,
+                    LIGHT_RULES)));
+            PropagatorWorldView regenWorldView = new LocalChunkView(localChunks, SUNLIGHT_REGEN_RULES);
+            PropagationRules sunlightRules = new SunlightPropagationRules(regenWorldView);
+            PropagatorWorldView sunlightWorldView = new LocalChunkView(localChunks, sunlightRules);
+            BatchPropagator sunlightPropagator = new PrimitiveBatchPropagator(sunlightRules, sunlightWorldView);
+            propagators.add(new SunlightRegenBatchPropagator(SUNLIGHT_REGEN_RULES, regenWorldView, sunlightPropagator,
+                    sunlightWorldView));
+            propagators.add(sunlightPropagator);
 
-        for (BatchPropagator propagator : propagators) {
-            // Propagate Inwards
-            for (Side side : Side.allSides()) {
-                Chunk adjChunk = localChunks[indexOf(side)];
-                if (adjChunk != null) {
-                    propagator.propagateBetween(adjChunk, chunk, side.reverse(), false);
+            for (BatchPropagator propagator : propagators) {
+                // Propagate Inwards
+                for (Side side : Side.allSides()) {
+                    Chunk adjChunk = localChunks[indexOf(side)];
+                    if (adjChunk != null) {
+                        propagator.propagateBetween(adjChunk, chunk, side.reverse(), false);
+                    }
                 }
-            }
 
-            // Propagate Outwards
-            for (Side side : Side.allSides()) {
-                Chunk adjChunk = localChunks[indexOf(side)];
-                if (adjChunk != null) {
-                    propagator.propagateBetween(chunk, adjChunk, side, true);
+                // Propagate Outwards
+                for (Side side : Side.allSides()) {
+                    Chunk adjChunk = localChunks[indexOf(side)];
+                    if (adjChunk != null) {
+                        propagator.propagateBetween(chunk, adjChunk, side, true);
+                    }
                 }
             }
+            for (BatchPropagator propagator : propagators) {
+                propagator.process();
+            }
+            chunk.deflateSunlight();
+        } finally {
+            for (Chunk localChunk : localChunks) {
+                localChunk.releaseData();
+            }
         }
-        for (BatchPropagator propagator : propagators) {
-            propagator.process();
-        }
-        chunk.deflateSunlight();
         return chunk;
     }
 }